@@ -1,5 +1,7 @@
 package de.berufsschule.kasse;
 
+import de.berufsschule.kasse.controller.KassenHttpServer;
+import de.berufsschule.kasse.service.KassenService.KassenServiceException;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -11,12 +13,15 @@ import java.io.IOException;
  * Hauptklasse der FIAE24M Kassensystem-Anwendung.
  * 
  * Diese Klasse startet die JavaFX-Anwendung und lädt die 
- * Hauptoberfläche des Kassensystems.
+ * Hauptoberfläche des Kassensystems. Mit {@code --headless} startet statt der
+ * Oberfläche die lokale HTTP-Schnittstelle ({@link KassenHttpServer}).
  * 
  * @author FIAE24M
  * @version 1.0
  */
 public class App extends Application {
+    static final String ARGUMENT_HEADLESS = "--headless";
+    private static final String PROPERTY_NODELAY = "sun.net.httpserver.nodelay";
 
     /**
      * Startet die JavaFX-Anwendung.
@@ -44,6 +49,28 @@ public class App extends Application {
      * @param args Kommandozeilenargumente
      */
     public static void main(String[] args) {
+        if (args.length > 0 && ARGUMENT_HEADLESS.equals(args[0])) {
+            starteHeadless();
+            return;
+        }
         launch(args);
     }
+
+    private static void starteHeadless() {
+        // Reason: Ohne TCP_NODELAY wartet der Body nach den Headern auf das verzögerte ACK des Clients;
+        // auf wiederverwendeten Verbindungen kostet das rund 40 ms je Anfrage. Der HttpServer des JDK
+        // liest die Eigenschaft einmalig beim ersten Server, daher vor dem Erstellen setzen
+        if (System.getProperty(PROPERTY_NODELAY) == null) {
+            System.setProperty(PROPERTY_NODELAY, "true");
+        }
+        try {
+            KassenHttpServer server = KassenHttpServer.ausSystemProperties();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close, "kasse-http-stop"));
+            server.starte();
+            System.out.println("FIAE24M Kassensystem ohne Oberfläche: http://localhost:" + server.getPort() + "/");
+        } catch (IOException | KassenServiceException e) {
+            System.err.println("HTTP-Schnittstelle konnte nicht gestartet werden: " + e.getMessage());
+            System.exit(1);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package de.berufsschule.kasse.controller;
+
+/**
+ * Minimaler JSON-Schreiber für die Antworten der HTTP-Schnittstelle.
+ *
+ * Schreibt Objekte, Listen, Zeichenketten und ganze Zahlen direkt in einen
+ * StringBuilder; Kommas werden automatisch gesetzt. Beträge werden immer als
+ * ganze Cent ausgegeben, deshalb gibt es keine Gleitkommazahlen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+final class JsonSchreiber {
+    private final StringBuilder json = new StringBuilder(256);
+    private boolean ersterWert = true;
+
+    /**
+     * Beginnt ein Objekt, als Feld eines Objekts oder (mit {@code null}) als Listenelement bzw. Wurzel.
+     *
+     * @param name Feldname oder null
+     * @return dieser Schreiber
+     */
+    JsonSchreiber objekt(String name) {
+        name(name);
+        json.append('{');
+        ersterWert = true;
+        return this;
+    }
+
+    JsonSchreiber objektEnde() {
+        json.append('}');
+        ersterWert = false;
+        return this;
+    }
+
+    /**
+     * Beginnt eine Liste als Feld eines Objekts oder (mit {@code null}) als Wurzel.
+     *
+     * @param name Feldname oder null
+     * @return dieser Schreiber
+     */
+    JsonSchreiber liste(String name) {
+        name(name);
+        json.append('[');
+        ersterWert = true;
+        return this;
+    }
+
+    JsonSchreiber listeEnde() {
+        json.append(']');
+        ersterWert = false;
+        return this;
+    }
+
+    JsonSchreiber feld(String name, String wert) {
+        name(name);
+        if (wert == null) {
+            json.append("null");
+        } else {
+            zeichenkette(wert);
+        }
+        ersterWert = false;
+        return this;
+    }
+
+    JsonSchreiber feld(String name, long wert) {
+        name(name);
+        json.append(wert);
+        ersterWert = false;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+
+    private void name(String name) {
+        if (!ersterWert) {
+            json.append(',');
+        }
+        if (name != null) {
+            zeichenkette(name);
+            json.append(':');
+        }
+    }
+
+    private void zeichenkette(String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char zeichen = text.charAt(i);
+            switch (zeichen) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (zeichen < 0x20) {
+                        json.append(String.format("\\u%04x", (int) zeichen));
+                    } else {
+                        json.append(zeichen);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,379 @@
+package de.berufsschule.kasse.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+import de.berufsschule.kasse.model.Warenkorb;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.KassenService.KassenServiceException;
+import de.berufsschule.kasse.service.Kassensitzung;
+import de.berufsschule.kasse.service.ProduktCache;
+import de.berufsschule.kasse.service.ProduktListener;
+import de.berufsschule.kasse.service.ProduktSuchindex;
+import de.berufsschule.kasse.service.StatistikService;
+import de.berufsschule.kasse.service.StatistikService.StatistikServiceException;
+import de.berufsschule.kasse.util.Latenzstatistik;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lokale HTTP-Schnittstelle für Scanner und Selbstbedienungskassen ohne Oberfläche.
+ *
+ * Läuft auf dem {@code HttpServer} des JDK und antwortet mit JSON, Beträge in
+ * ganzen Cent. Parameter kommen als Query-String oder als Formular im Body.
+ * Jede Kasse öffnet eine eigene {@link Kassensitzung}; Anfragen verschiedener
+ * Kassen laufen parallel auf einem festen Thread-Pool. Sitzungen, die nicht mit
+ * DELETE geschlossen werden, schließt der Service nach der Haltedauer der
+ * Reservierungen ohne Anfrage. Eine Kasse, die beim Öffnen eine feste Kennung
+ * {@code kasse} angibt, erhält nach einem Neustart ihren offenen Warenkorb zurück.
+ * <pre>
+ * GET    /produkte?suche=milch&amp;max=20    Artikelsuche (Name, Wortanfang oder ID)
+ * GET    /produkte/{id}                  Produkt nach ID
+ * GET    /barcodes/{barcode}             Produkt nach EAN/GTIN
+ * POST   /sitzungen                      neue Kassensitzung, mit kasse für eine feste Kassenkennung
+ * GET    /sitzungen/{id}                 Warenkorb der Sitzung
+ * DELETE /sitzungen/{id}                 Sitzung schließen, Reservierungen freigeben
+ * POST   /sitzungen/{id}/positionen      produktId und menge oder barcode erfassen
+ * POST   /sitzungen/{id}/abschluss       Kassenvorgang buchen, liefert den Bon
+ * GET    /dashboard                      Tagesumsatz, Top 5, Niedrigbestand, Abschlusslatenz, Cache
+ * </pre>
+ * Nur {@code POST /sitzungen} antwortet mit 201, die übrigen POST-Anfragen
+ * mit 200. Der Server lauscht nur auf der Loopback-Adresse; Port und
+ * Thread-Anzahl sind über {@code -Dkasse.http.port} und
+ * {@code -Dkasse.http.threads} einstellbar. Ohne
+ * {@code -Dsun.net.httpserver.nodelay=true} kostet jede Anfrage auf einer
+ * wiederverwendeten Verbindung rund 40 ms; {@link de.berufsschule.kasse.App}
+ * setzt die Eigenschaft im Headless-Betrieb.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class KassenHttpServer implements AutoCloseable {
+    public static final String PROPERTY_PORT = "kasse.http.port";
+    public static final String PROPERTY_THREADS = "kasse.http.threads";
+    public static final int STANDARD_PORT = 8080;
+    // Reason: Java 17 hat keine virtuellen Threads; die Anfragen warten meist auf SQLite,
+    // ein fester Pool begrenzt die gleichzeitigen Datenbankzugriffe
+    private static final int STANDARD_THREADS = 32;
+    private static final int STANDARD_MAX_TREFFER = 50;
+
+    private final KassenService kassenService;
+    private final StatistikService statistikService;
+    private final ProduktSuchindex suchindex = new ProduktSuchindex();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Erstellt den Server und indiziert den Katalog; gestartet wird mit {@link #starte()}.
+     *
+     * @param kassenService der gemeinsame KassenService aller Kassen
+     * @param statistikService der StatistikService für das Dashboard
+     * @param port der Port, 0 wählt einen freien Port
+     * @param threads Anzahl Threads für parallele Anfragen
+     * @throws IOException wenn der Port nicht belegt werden kann
+     * @throws KassenServiceException wenn der Katalog nicht geladen werden kann
+     */
+    public KassenHttpServer(KassenService kassenService, StatistikService statistikService, int port, int threads)
+            throws IOException, KassenServiceException {
+        this.kassenService = kassenService;
+        this.statistikService = statistikService;
+        suchindex.setzeAlle(kassenService.getAlleProdukte());
+        kassenService.registriereProduktListener(new ProduktListener() {
+            @Override
+            public void produktHinzugefuegt(Produkt produkt) {
+                suchindex.aktualisiere(produkt);
+            }
+
+            @Override
+            public void produktGeaendert(Produkt produkt) {
+                suchindex.aktualisiere(produkt);
+            }
+        });
+
+        AtomicInteger nummer = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "kasse-http-" + nummer.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/", this::behandle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Erstellt den Server mit Port und Thread-Anzahl aus den System-Properties.
+     *
+     * @return der noch nicht gestartete Server
+     * @throws IOException wenn der Port nicht belegt werden kann
+     * @throws KassenServiceException wenn der Katalog nicht geladen werden kann
+     */
+    public static KassenHttpServer ausSystemProperties() throws IOException, KassenServiceException {
+        return new KassenHttpServer(new KassenService(), new StatistikService(),
+                                    Integer.getInteger(PROPERTY_PORT, STANDARD_PORT),
+                                    Integer.getInteger(PROPERTY_THREADS, STANDARD_THREADS));
+    }
+
+    /**
+     * Startet die Annahme von Anfragen.
+     */
+    public void starte() {
+        server.start();
+    }
+
+    /**
+     * Gibt den tatsächlich belegten Port zurück.
+     *
+     * @return der Port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Beendet den Server; laufende Anfragen dürfen noch eine Sekunde fertig werden.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void behandle(HttpExchange austausch) throws IOException {
+        int status = 200;
+        String methode = austausch.getRequestMethod();
+        String[] pfad = pfad(austausch);
+        String antwort;
+        try {
+            antwort = leite(methode, pfad, parameter(austausch));
+            if (antwort == null) {
+                status = 204;
+            } else if (methode.equals("POST") && pfad.length == 1 && pfad[0].equals("sitzungen")) {
+                // Reason: Nur das Öffnen einer Sitzung legt eine Ressource an, Erfassen und Abschluss nicht
+                status = 201;
+            }
+        } catch (HttpFehler e) {
+            status = e.status;
+            antwort = fehler(e.getMessage());
+        } catch (KassenServiceException e) {
+            status = e.getCause() instanceof SQLException ? 500 : 400;
+            antwort = fehler(e.getMessage());
+        } catch (StatistikServiceException e) {
+            status = 500;
+            antwort = fehler(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            antwort = fehler("Interner Fehler: " + e.getMessage());
+        }
+        sende(austausch, status, antwort);
+    }
+
+    private String leite(String methode, String[] pfad, Map<String, String> parameter)
+            throws HttpFehler, KassenServiceException, StatistikServiceException {
+        String route = methode + " " + pfad[0] + (pfad.length > 1 ? "/*" : "") + (pfad.length > 2 ? "/" + pfad[2] : "");
+        return switch (route) {
+            case "GET produkte" -> produkte(suchindex.suche(parameter.getOrDefault("suche", ""),
+                                                            ganzeZahl(parameter, "max", STANDARD_MAX_TREFFER)));
+            case "GET produkte/*" -> produkt(gefunden(kassenService.getProduktById(ganzeZahl(pfad[1]))));
+            case "GET barcodes/*" -> produkt(gefunden(kassenService.getProduktByBarcode(pfad[1])));
+            case "POST sitzungen" -> warenkorb(parameter.containsKey("kasse")
+                ? kassenService.oeffneSitzung(parameter.get("kasse"))
+                : kassenService.oeffneSitzung());
+            case "GET sitzungen/*" -> warenkorb(sitzung(pfad[1]));
+            case "DELETE sitzungen/*" -> {
+                if (!kassenService.schliesseSitzung(pfad[1])) {
+                    throw new HttpFehler(404, "Unbekannte Kassensitzung: " + pfad[1]);
+                }
+                yield null;
+            }
+            case "POST sitzungen/*/positionen" -> {
+                Kassensitzung sitzung = sitzung(pfad[1]);
+                if (parameter.containsKey("barcode")) {
+                    sitzung.scanneInWarenkorb(parameter.get("barcode"));
+                } else {
+                    sitzung.fuegeProduktZumWarenkorbHinzu(ganzeZahl(parameter, "produktId", null),
+                                                          ganzeZahl(parameter, "menge", 1));
+                }
+                yield warenkorb(sitzung);
+            }
+            case "POST sitzungen/*/abschluss" ->
+                new JsonSchreiber().objekt(null).feld("bon", sitzung(pfad[1]).schliesseKassenvorgangAb())
+                                   .objektEnde().toString();
+            case "GET dashboard" -> dashboard(statistikService.ladeDashboardDaten());
+            default -> throw new HttpFehler(404, "Unbekannte Anfrage: " + methode + " /" + String.join("/", pfad));
+        };
+    }
+
+    private Kassensitzung sitzung(String id) throws HttpFehler {
+        try {
+            return kassenService.getSitzung(id);
+        } catch (KassenServiceException e) {
+            throw new HttpFehler(404, e.getMessage());
+        }
+    }
+
+    private static Produkt gefunden(Produkt produkt) throws HttpFehler {
+        if (produkt == null) {
+            throw new HttpFehler(404, "Produkt nicht gefunden");
+        }
+        return produkt;
+    }
+
+    private static String produkte(List<Produkt> produkte) {
+        JsonSchreiber json = new JsonSchreiber().liste(null);
+        for (Produkt produkt : produkte) {
+            schreibeProdukt(json, produkt);
+        }
+        return json.listeEnde().toString();
+    }
+
+    private static String produkt(Produkt produkt) {
+        return schreibeProdukt(new JsonSchreiber(), produkt).toString();
+    }
+
+    private static JsonSchreiber schreibeProdukt(JsonSchreiber json, Produkt produkt) {
+        return json.objekt(null).feld("id", produkt.getId()).feld("name", produkt.getName())
+                   .feld("preisCent", produkt.getPreisCent()).feld("bestand", produkt.getBestand())
+                   .feld("barcode", produkt.getBarcode()).objektEnde();
+    }
+
+    private static String warenkorb(Kassensitzung sitzung) {
+        JsonSchreiber json = new JsonSchreiber().objekt(null).feld("sitzung", sitzung.getId());
+        // Reason: Andere Anfragen derselben Kasse könnten den Warenkorb gerade ändern
+        synchronized (sitzung) {
+            Warenkorb warenkorb = sitzung.getWarenkorb();
+            json.liste("positionen");
+            for (Verkauf position : warenkorb.getVerkaeufe()) {
+                json.objekt(null).feld("produktId", position.getProduktId()).feld("name", position.getProduktName())
+                    .feld("menge", position.getMenge()).feld("einzelpreisCent", position.getEinzelpreisCent())
+                    .feld("gesamtpreisCent", position.getGesamtpreisCent()).objektEnde();
+            }
+            json.listeEnde().feld("gesamtbetragCent", warenkorb.berechneGesamtbetragCent());
+        }
+        return json.objektEnde().toString();
+    }
+
+    private String dashboard(StatistikService.DashboardDaten daten) {
+        JsonSchreiber json = new JsonSchreiber().objekt(null).feld("tagesumsatzCent", daten.getTagesumsatzCent())
+            .feld("anzahlVerkaeufe", daten.getAnzahlVerkaeufe()).liste("topProdukte");
+        for (StatistikService.TopProdukt top : daten.getTopProdukte()) {
+            json.objekt(null).feld("id", top.getId()).feld("name", top.getName())
+                .feld("verkaufteMenge", top.getVerkaufteMenge()).objektEnde();
+        }
+        json.listeEnde().liste("niedrigbestand");
+        for (Produkt produkt : daten.getNiedrigbestandProdukte()) {
+            json.objekt(null).feld("id", produkt.getId()).feld("name", produkt.getName())
+                .feld("bestand", produkt.getBestand()).objektEnde();
+        }
+        json.listeEnde();
+        Latenzstatistik latenz = kassenService.getAbschlussLatenz();
+        json.objekt("abschlussLatenz").feld("anzahl", latenz.getAnzahl())
+            .feld("durchschnittMikros", mikros(latenz.getDurchschnittMillis()))
+            .feld("p50Mikros", mikros(latenz.getPerzentilMillis(50)))
+            .feld("p99Mikros", mikros(latenz.getPerzentilMillis(99)))
+            .feld("maximumMikros", mikros(latenz.getMaximumMillis())).objektEnde();
+        ProduktCache.Statistik cache = kassenService.getCacheStatistik();
+        json.objekt("produktCache").feld("eintraege", cache.getEintraege())
+            .feld("maxEintraege", cache.getMaxEintraege()).feld("treffer", cache.getTreffer())
+            .feld("fehlgriffe", cache.getFehlgriffe()).feld("verdraengungen", cache.getVerdraengungen()).objektEnde();
+        return json.objektEnde().toString();
+    }
+
+    private static long mikros(double millis) {
+        return Math.round(millis * 1_000);
+    }
+
+    private static String fehler(String nachricht) {
+        return new JsonSchreiber().objekt(null).feld("fehler", nachricht).objektEnde().toString();
+    }
+
+    private static String[] pfad(HttpExchange austausch) {
+        String pfad = austausch.getRequestURI().getPath();
+        String[] teile = pfad.replaceAll("^/+|/+$", "").split("/+");
+        for (int i = 0; i < teile.length; i++) {
+            teile[i] = URLDecoder.decode(teile[i], StandardCharsets.UTF_8);
+        }
+        return teile;
+    }
+
+    private static Map<String, String> parameter(HttpExchange austausch) throws IOException {
+        Map<String, String> parameter = new HashMap<>();
+        leseFormular(austausch.getRequestURI().getRawQuery(), parameter);
+        try (InputStream body = austausch.getRequestBody()) {
+            leseFormular(new String(body.readAllBytes(), StandardCharsets.UTF_8), parameter);
+        }
+        return parameter;
+    }
+
+    private static void leseFormular(String formular, Map<String, String> ziel) {
+        if (formular == null || formular.isBlank()) {
+            return;
+        }
+        for (String paar : formular.trim().split("&")) {
+            int gleich = paar.indexOf('=');
+            String name = gleich < 0 ? paar : paar.substring(0, gleich);
+            String wert = gleich < 0 ? "" : paar.substring(gleich + 1);
+            ziel.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(wert, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static int ganzeZahl(Map<String, String> parameter, String name, Integer standard) throws HttpFehler {
+        String wert = parameter.get(name);
+        if (wert == null) {
+            if (standard == null) {
+                throw new HttpFehler(400, "Parameter " + name + " fehlt");
+            }
+            return standard;
+        }
+        return ganzeZahl(wert);
+    }
+
+    private static int ganzeZahl(String wert) throws HttpFehler {
+        try {
+            return Integer.parseInt(wert.trim());
+        } catch (NumberFormatException e) {
+            throw new HttpFehler(400, "Keine ganze Zahl: " + wert);
+        }
+    }
+
+    private static void sende(HttpExchange austausch, int status, String antwort) throws IOException {
+        try (austausch) {
+            if (antwort == null) {
+                austausch.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] daten = antwort.getBytes(StandardCharsets.UTF_8);
+            austausch.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            austausch.sendResponseHeaders(status, daten.length);
+            try (OutputStream ausgabe = austausch.getResponseBody()) {
+                ausgabe.write(daten);
+            }
+        }
+    }
+
+    /**
+     * Fehler mit HTTP-Status, z. B. unbekannte Route oder fehlender Parameter.
+     */
+    private static final class HttpFehler extends Exception {
+        private final int status;
+
+        HttpFehler(int status, String nachricht) {
+            super(nachricht);
+            this.status = status;
+        }
+    }
+}
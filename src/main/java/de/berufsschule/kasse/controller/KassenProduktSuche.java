@@ -0,0 +1,139 @@
+package de.berufsschule.kasse.controller;
+
+import de.berufsschule.kasse.model.Barcode;
+import de.berufsschule.kasse.model.Geld;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.ProduktSuchindex;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TextField;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Artikelsuche für den Kassenvorgang: ein Suchfeld filtert die Produkt-ComboBox.
+ *
+ * Jede Eingabe fragt den {@link ProduktSuchindex} ab, die ComboBox zeigt nur
+ * die besten Treffer statt des gesamten Katalogs. Änderungen aus dem
+ * {@code ProduktListener} werden einzeln in den Index übernommen. Ein
+ * gültiger Barcode mit Enter (so senden ihn Handscanner) wird direkt
+ * erfasst, ohne Treffer auszuwählen. Bis auf
+ * {@link #indexiere(List)} müssen alle Methoden im JavaFX-Thread aufgerufen werden.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+final class KassenProduktSuche {
+    static final int MAX_TREFFER = 50;
+
+    private final ProduktSuchindex index = new ProduktSuchindex();
+    private final ObservableList<Produkt> treffer = FXCollections.observableArrayList();
+    private TextField eingabe;
+    private ComboBox<Produkt> auswahl;
+
+    /**
+     * Verbindet Suchfeld und ComboBox. Der beste Treffer wird vorausgewählt,
+     * Enter im Suchfeld springt zum nächsten Eingabefeld.
+     *
+     * @param eingabe das Suchfeld
+     * @param auswahl die zu filternde ComboBox
+     * @param weiter Feld, das nach Enter den Fokus erhält
+     * @param scan erhält einen per Enter abgeschlossenen gültigen Barcode
+     */
+    void verbinde(TextField eingabe, ComboBox<Produkt> auswahl, Node weiter, Consumer<String> scan) {
+        this.eingabe = eingabe;
+        this.auswahl = auswahl;
+        auswahl.setItems(treffer);
+        auswahl.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Produkt produkt) {
+                return produkt != null
+                    ? "[" + produkt.getId() + "] " + produkt.getName() + " (" + Geld.formatiere(produkt.getPreisCent())
+                      + "€, Bestand: " + produkt.getBestand() + ")"
+                    : "";
+            }
+
+            @Override
+            public Produkt fromString(String string) {
+                return null; // Nicht benötigt für ComboBox
+            }
+        });
+        eingabe.textProperty().addListener((beobachtet, alt, text) -> filtere());
+        eingabe.setOnAction(e -> {
+            // Reason: Eine Zahl mit gültiger GTIN-Länge und Prüfziffer ist ein Scan, keine Produkt-ID
+            if (Barcode.istGueltig(eingabe.getText())) {
+                scan.accept(eingabe.getText());
+                return;
+            }
+            if (auswahl.getValue() == null && !treffer.isEmpty()) {
+                auswahl.setValue(treffer.get(0));
+            }
+            if (auswahl.getValue() != null) {
+                weiter.requestFocus();
+            }
+        });
+        filtere();
+    }
+
+    /**
+     * Ersetzt den Katalog im Index. Darf im Hintergrund laufen, danach im
+     * JavaFX-Thread {@link #filtere()} aufrufen.
+     *
+     * @param produkte alle Produkte
+     */
+    void indexiere(List<Produkt> produkte) {
+        index.setzeAlle(produkte);
+    }
+
+    /**
+     * Nimmt ein neues Produkt auf; passt es zur Eingabe, erscheint es sofort in der Auswahl.
+     *
+     * @param produkt das neue Produkt
+     */
+    void hinzugefuegt(Produkt produkt) {
+        index.aktualisiere(produkt);
+        filtere();
+    }
+
+    /**
+     * Übernimmt Preis- oder Bestandsänderungen, ohne die Auswahl neu zu filtern.
+     *
+     * @param produkt das Produkt mit den neuen Werten
+     */
+    void geaendert(Produkt produkt) {
+        index.aktualisiere(produkt);
+        for (int i = 0; i < treffer.size(); i++) {
+            if (treffer.get(i).getId() == produkt.getId()) {
+                treffer.set(i, produkt);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Leert Suchfeld und Auswahl für die nächste Erfassung.
+     */
+    void zuruecksetzen() {
+        auswahl.setValue(null);
+        eingabe.clear();
+    }
+
+    /**
+     * Sucht erneut mit der aktuellen Eingabe.
+     */
+    void filtere() {
+        if (eingabe == null) {
+            return;
+        }
+        treffer.setAll(index.suche(eingabe.getText(), MAX_TREFFER));
+        // Reason: Der beste Treffer steht sofort in der ComboBox, ohne das Popup zu öffnen,
+        // das die weiteren Tastendrücke abfangen würde
+        if (!eingabe.getText().isBlank() && !treffer.isEmpty()) {
+            auswahl.getSelectionModel().selectFirst();
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package de.berufsschule.kasse.controller;
 
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Geld;
 import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.AsyncServiceFassade;
 import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.ProduktListener;
 import de.berufsschule.kasse.service.StatistikService;
+import de.berufsschule.kasse.service.ZusammengefassteAbfrage;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -21,6 +27,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -45,6 +52,8 @@ public class MainController implements Initializable {
     @FXML private Label lblTagesumsatz;
     @FXML private Label lblAnzahlVerkaufe;
     @FXML private Label lblNiedrigbestand;
+    @FXML private Label lblAbschlussLatenz;
+    @FXML private Label lblCacheStatistik;
     @FXML private ListView<String> listTopProdukte;
     @FXML private ListView<String> listNiedrigbestand;
     @FXML private Button btnDashboardAktualisieren;
@@ -64,6 +73,7 @@ public class MainController implements Initializable {
     @FXML private TextField txtWarenzugangMenge;
     @FXML private Button btnWarenzugangSpeichern;
     
+    @FXML private TextField txtKassenSuche;
     @FXML private ComboBox<Produkt> cmbKassenProdukt;
     @FXML private TextField txtKassenMenge;
     @FXML private Button btnZumWarenkorbHinzufuegen;
@@ -77,22 +87,55 @@ public class MainController implements Initializable {
     @FXML private TabPane tabPane;
       private final KassenService kassenService;
     private final StatistikService statistikService;
+    private final AsyncServiceFassade fassade;
+    private final ZusammengefassteAbfrage<List<Produkt>> produktAbfrage;
+    private final ZusammengefassteAbfrage<StatistikService.DashboardDaten> dashboardAbfrage;
     private final ObservableList<Produkt> produktListe;
+    private final KassenProduktSuche kassenSuche = new KassenProduktSuche();
 
     /**
      * Konstruktor für den MainController.
+     * 
+     * Datenbankzugriffe laufen über die {@link AsyncServiceFassade} im Hintergrund,
+     * Ergebnisse werden mit {@code Platform.runLater} in die Oberfläche übernommen.
      */
     public MainController() {
         this.kassenService = new KassenService();
         this.statistikService = new StatistikService();
+        this.fassade = new AsyncServiceFassade(kassenService, statistikService, Platform::runLater);
+        // Reason: Der Suchindex über den ganzen Katalog wird im Hintergrund aufgebaut, nicht im FX-Thread
+        this.produktAbfrage = fassade.kassenAbfrage(service -> {
+            List<Produkt> produkte = service.getAlleProdukte();
+            kassenSuche.indexiere(produkte);
+            return produkte;
+        }, this::zeigeProdukte, e -> zeigeFehler("Fehler beim Laden der Daten", e));
+        this.dashboardAbfrage = fassade.statistikAbfrage(StatistikService::ladeDashboardDaten, this::zeigeDashboard,
+                e -> zeigeFehler("Fehler beim Laden der Dashboard-Daten", e));
         this.produktListe = FXCollections.observableArrayList();
+        this.kassenService.registriereProduktListener(new ProduktListener() {
+            @Override
+            public void produktHinzugefuegt(Produkt produkt) {
+                Platform.runLater(() -> {
+                    ProduktListenAbgleich.einfuegen(produktListe, produkt);
+                    kassenSuche.hinzugefuegt(produkt);
+                });
+            }
+
+            @Override
+            public void produktGeaendert(Produkt produkt) {
+                Platform.runLater(() -> {
+                    ProduktListenAbgleich.ersetzen(produktListe, produkt);
+                    kassenSuche.geaendert(produkt);
+                });
+            }
+        });
     }    @Override
     public void initialize(URL location, ResourceBundle resources) {
         initializeTableView();
         initializeComboBoxes();
         initializeEventHandlers();
         ladeDaten();
-        aktualisiereWarenkorbAnzeige();
+        zeigeWarenkorb(WarenkorbAnsicht.LEER);
         aktualisiereDashboard();
     }
 
@@ -125,11 +168,14 @@ public class MainController implements Initializable {
      * Initialisiert die ComboBoxes für Produktauswahl.
      */
     private void initializeComboBoxes() {
+        // Tabelle und Warenzugang teilen sich dieselbe Liste, Änderungen erscheinen überall gleichzeitig
+        cmbWarenzugangProdukt.setItems(produktListe);
+        
         // Custom StringConverter für bessere Anzeige in ComboBoxes
         cmbWarenzugangProdukt.setConverter(new javafx.util.StringConverter<Produkt>() {            @Override
             public String toString(Produkt produkt) {
                 return produkt != null 
-                    ? String.format("[%d] %s", produkt.getId(), produkt.getName()) 
+                    ? "[" + produkt.getId() + "] " + produkt.getName()
                     : "";
             }
 
@@ -139,19 +185,8 @@ public class MainController implements Initializable {
             }
         });
         
-        cmbKassenProdukt.setConverter(new javafx.util.StringConverter<Produkt>() {            @Override
-            public String toString(Produkt produkt) {
-                return produkt != null 
-                    ? String.format("[%d] %s (%.2f€, Bestand: %d)", 
-                                produkt.getId(), produkt.getName(), produkt.getPreis(), produkt.getBestand()) 
-                    : "";
-            }
-
-            @Override
-            public Produkt fromString(String string) {
-                return null; // Nicht benötigt für ComboBox
-            }
-        });
+        // Der Kassenvorgang zeigt nur die Suchtreffer statt des gesamten Katalogs
+        kassenSuche.verbinde(txtKassenSuche, cmbKassenProdukt, txtKassenMenge, this::barcodeErfassen);
     }    /**
      * Initialisiert die Event-Handler für alle Buttons.
      */    private void initializeEventHandlers() {
@@ -161,18 +196,16 @@ public class MainController implements Initializable {
             tabPane.getSelectionModel().select(0); // Dashboard-Tab
         });
         btnKassenvorgang.setOnAction(e -> {
-            ladeDaten();
             tabPane.getSelectionModel().select(4); // Kassenvorgang-Tab (Index verschiebt sich)
         });
         btnProduktHinzufuegen.setOnAction(e -> {
             tabPane.getSelectionModel().select(2); // Produkt hinzufügen-Tab
         });
         btnWarenzugang.setOnAction(e -> {
-            ladeDaten();
             tabPane.getSelectionModel().select(3); // Warenzugang-Tab
         });
         btnLagerbestand.setOnAction(e -> {
-            ladeDaten();
+            ladeDaten(); // Explizites Neuladen, z. B. nach Änderungen außerhalb der Anwendung
             tabPane.getSelectionModel().select(1); // Lagerbestand-Tab
         });
         btnBeenden.setOnAction(e -> beenden());
@@ -190,19 +223,20 @@ public class MainController implements Initializable {
 
     /**
      * Lädt alle Daten neu aus der Datenbank.
+     * 
+     * Die Abfrage läuft im Hintergrund, mehrere schnelle Aufrufe werden zusammengefasst.
+     * Einzelne Änderungen kommen über den {@link ProduktListener} und benötigen kein Neuladen.
      */
     private void ladeDaten() {
-        try {
-            produktListe.clear();
-            produktListe.addAll(kassenService.getAlleProdukte());
-            
-            // ComboBoxes aktualisieren
-            cmbWarenzugangProdukt.setItems(FXCollections.observableArrayList(produktListe));
-            cmbKassenProdukt.setItems(FXCollections.observableArrayList(produktListe));
-            
-        } catch (KassenService.KassenServiceException e) {
-            zeigeFehlermeldung("Fehler beim Laden der Daten", e.getMessage());
-        }
+        produktAbfrage.anfordern();
+    }
+
+    /**
+     * Übernimmt eine neu geladene Produktliste in Tabelle und ComboBoxes.
+     */
+    private void zeigeProdukte(List<Produkt> produkte) {
+        produktListe.setAll(produkte);
+        kassenSuche.filtere();
     }
 
     /**
@@ -210,26 +244,30 @@ public class MainController implements Initializable {
      */
     @FXML
     private void produktHinzufuegen() {
+        String name = txtProduktName.getText();
+        long preisCent;
+        int bestand;
         try {
-            String name = txtProduktName.getText();
-            double preis = Double.parseDouble(txtProduktPreis.getText());
-            int bestand = Integer.parseInt(txtProduktBestand.getText());
-            
-            kassenService.fuegeProduktHinzu(name, preis, bestand);
-            
+            preisCent = Geld.parse(txtProduktPreis.getText());
+            bestand = Integer.parseInt(txtProduktBestand.getText());
+        } catch (NumberFormatException e) {
+            zeigeFehlermeldung("Eingabefehler", "Bitte geben Sie gültige Zahlen für Preis und Bestand ein");
+            return;
+        }
+
+        fassade.kasse(service -> service.fuegeProduktHinzu(name, preisCent, bestand))
+               .whenComplete((produkt, fehler) -> {
+            if (fehler != null) {
+                zeigeFehler("Fehler beim Hinzufügen", fehler);
+                return;
+            }
             // Felder leeren
             txtProduktName.clear();
             txtProduktPreis.clear();
             txtProduktBestand.clear();
             
-            ladeDaten();
             zeigeSuccessMeldung("Produkt wurde erfolgreich hinzugefügt");
-            
-        } catch (NumberFormatException e) {
-            zeigeFehlermeldung("Eingabefehler", "Bitte geben Sie gültige Zahlen für Preis und Bestand ein");
-        } catch (KassenService.KassenServiceException e) {
-            zeigeFehlermeldung("Fehler beim Hinzufügen", e.getMessage());
-        }
+        });
     }
 
     /**
@@ -237,28 +275,33 @@ public class MainController implements Initializable {
      */
     @FXML
     private void warenzugangErfassen() {
+        Produkt produkt = cmbWarenzugangProdukt.getValue();
+        if (produkt == null) {
+            zeigeFehlermeldung("Produktauswahl", "Bitte wählen Sie ein Produkt aus");
+            return;
+        }
+        
+        int menge;
         try {
-            Produkt produkt = cmbWarenzugangProdukt.getValue();
-            if (produkt == null) {
-                zeigeFehlermeldung("Produktauswahl", "Bitte wählen Sie ein Produkt aus");
+            menge = Integer.parseInt(txtWarenzugangMenge.getText());
+        } catch (NumberFormatException e) {
+            zeigeFehlermeldung("Eingabefehler", "Bitte geben Sie eine gültige Menge ein");
+            return;
+        }
+
+        fassade.kasse(service -> {
+            service.erfasseWarenzugang(produkt.getId(), menge);
+            return null;
+        }).whenComplete((ergebnis, fehler) -> {
+            if (fehler != null) {
+                zeigeFehler("Fehler beim Warenzugang", fehler);
                 return;
             }
-            
-            int menge = Integer.parseInt(txtWarenzugangMenge.getText());
-            
-            kassenService.erfasseWarenzugang(produkt.getId(), menge);
-            
             txtWarenzugangMenge.clear();
             cmbWarenzugangProdukt.setValue(null);
             
-            ladeDaten();
             zeigeSuccessMeldung("Warenzugang wurde erfolgreich erfasst");
-            
-        } catch (NumberFormatException e) {
-            zeigeFehlermeldung("Eingabefehler", "Bitte geben Sie eine gültige Menge ein");
-        } catch (KassenService.KassenServiceException e) {
-            zeigeFehlermeldung("Fehler beim Warenzugang", e.getMessage());
-        }
+        });
     }
 
     /**
@@ -266,28 +309,50 @@ public class MainController implements Initializable {
      */
     @FXML
     private void produktZumWarenkorbHinzufuegen() {
+        Produkt produkt = cmbKassenProdukt.getValue();
+        if (produkt == null) {
+            zeigeFehlermeldung("Produktauswahl", "Bitte wählen Sie ein Produkt aus");
+            return;
+        }
+        
+        int menge;
         try {
-            Produkt produkt = cmbKassenProdukt.getValue();
-            if (produkt == null) {
-                zeigeFehlermeldung("Produktauswahl", "Bitte wählen Sie ein Produkt aus");
+            menge = Integer.parseInt(txtKassenMenge.getText());
+        } catch (NumberFormatException e) {
+            zeigeFehlermeldung("Eingabefehler", "Bitte geben Sie eine gültige Menge ein");
+            return;
+        }
+
+        fassade.kasse(service -> {
+            service.fuegeProduktZumWarenkorbHinzu(produkt.getId(), menge);
+            return WarenkorbAnsicht.von(service);
+        }).whenComplete((ansicht, fehler) -> {
+            if (fehler != null) {
+                zeigeFehler("Fehler beim Hinzufügen", fehler);
                 return;
             }
-            
-            int menge = Integer.parseInt(txtKassenMenge.getText());
-            
-            kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), menge);
-            
             txtKassenMenge.clear();
-            cmbKassenProdukt.setValue(null);
+            kassenSuche.zuruecksetzen();
             
-            aktualisiereWarenkorbAnzeige();
-            ladeDaten(); // Aktualisierte Bestände anzeigen
-            
-        } catch (NumberFormatException e) {
-            zeigeFehlermeldung("Eingabefehler", "Bitte geben Sie eine gültige Menge ein");
-        } catch (KassenService.KassenServiceException e) {
-            zeigeFehlermeldung("Fehler beim Hinzufügen", e.getMessage());
-        }
+            zeigeWarenkorb(ansicht);
+        });
+    }
+
+    /**
+     * Legt das Produkt zu einem gescannten Barcode mit Menge 1 in den Warenkorb.
+     */
+    private void barcodeErfassen(String barcode) {
+        fassade.kasse(service -> {
+            service.scanneInWarenkorb(barcode);
+            return WarenkorbAnsicht.von(service);
+        }).whenComplete((ansicht, fehler) -> {
+            if (fehler != null) {
+                zeigeFehler("Fehler beim Scannen", fehler);
+                return;
+            }
+            kassenSuche.zuruecksetzen();
+            zeigeWarenkorb(ansicht);
+        });
     }
 
     /**
@@ -295,19 +360,20 @@ public class MainController implements Initializable {
      */
     @FXML
     private void bonAnzeigenUndAbschliessen() {
-        try {
-            String bon = kassenService.schliesseKassenvorgangAb();
+        fassade.kasse(KassenService::schliesseKassenvorgangAb).whenComplete((bon, fehler) -> {
+            if (fehler != null) {
+                // Bei einem Bestandskonflikt weicht die Anzeige von der Datenbank ab
+                ladeDaten();
+                zeigeFehler("Fehler beim Abschließen", fehler);
+                return;
+            }
             txtBonAnzeige.setText(bon);
             
-            aktualisiereWarenkorbAnzeige();
-            ladeDaten();
+            zeigeWarenkorb(WarenkorbAnsicht.LEER);
             
             // Zum Bon-Tab wechseln
             tabPane.getSelectionModel().select(4);
-            
-        } catch (KassenService.KassenServiceException e) {
-            zeigeFehlermeldung("Fehler beim Abschließen", e.getMessage());
-        }
+        });
     }
 
     /**
@@ -315,71 +381,79 @@ public class MainController implements Initializable {
      */
     @FXML
     private void neuerKassenvorgang() {
-        kassenService.starteNeuenKassenvorgang();
-        aktualisiereWarenkorbAnzeige();
-        txtBonAnzeige.clear();
+        // Reason: Auch das Leeren läuft auf dem Kassen-Thread, damit es nach noch laufenden Buchungen passiert
+        fassade.kasse(service -> {
+            service.starteNeuenKassenvorgang();
+            return WarenkorbAnsicht.von(service);
+        }).whenComplete((ansicht, fehler) -> {
+            if (fehler != null) {
+                zeigeFehler("Fehler beim Zurücksetzen", fehler);
+                return;
+            }
+            zeigeWarenkorb(ansicht);
+            txtBonAnzeige.clear();
+        });
     }
 
     /**
      * Aktualisiert die Warenkorb-Anzeige.
      */
-    private void aktualisiereWarenkorbAnzeige() {
-        ObservableList<String> warenkorbItems = FXCollections.observableArrayList();
-        
-        kassenService.getAktuellerWarenkorb().getVerkaeufe().forEach(verkauf -> 
-            warenkorbItems.add(verkauf.toString())
-        );
-        
-        listWarenkorb.setItems(warenkorbItems);
-        lblGesamtbetrag.setText(String.format("Gesamtbetrag: %.2f€", 
-                                            kassenService.getAktuellerWarenkorb().berechneGesamtbetrag()));
+    private void zeigeWarenkorb(WarenkorbAnsicht ansicht) {
+        listWarenkorb.setItems(FXCollections.observableArrayList(ansicht.getPositionen()));
+        lblGesamtbetrag.setText("Gesamtbetrag: " + Geld.formatiere(ansicht.getGesamtbetragCent()) + "€");
     }
 
     /**
      * Aktualisiert alle Dashboard-Daten.
+     * 
+     * Die Abfrage läuft im Hintergrund, mehrere schnelle Aufrufe werden zusammengefasst.
      */
     private void aktualisiereDashboard() {
-        try {
-            // Tagesumsatz aktualisieren
-            double tagesumsatz = statistikService.getTagesumsatz();
-            lblTagesumsatz.setText(String.format("%.2f€", tagesumsatz));
-            
-            // Anzahl Verkäufe aktualisieren
-            int anzahlVerkaufe = statistikService.getAnzahlVerkaufeHeute();
-            lblAnzahlVerkaufe.setText(String.valueOf(anzahlVerkaufe));
-            
-            // Top Produkte aktualisieren
-            var topProdukte = statistikService.getTop5ProdukteMenge();
-            ObservableList<String> topProdukteStrings = FXCollections.observableArrayList();
-            
-            if (topProdukte.isEmpty()) {
-                topProdukteStrings.add("Noch keine Verkäufe heute");
-            } else {
-                for (int i = 0; i < topProdukte.size(); i++) {
-                    var produkt = topProdukte.get(i);
-                    topProdukteStrings.add(String.format("%d. %s", (i + 1), produkt.toString()));
-                }
+        dashboardAbfrage.anfordern();
+    }
+
+    /**
+     * Übernimmt die im Hintergrund geladenen Dashboard-Daten.
+     */
+    private void zeigeDashboard(StatistikService.DashboardDaten daten) {
+        // Tagesumsatz aktualisieren
+        lblTagesumsatz.setText(Geld.formatiere(daten.getTagesumsatzCent()) + "€");
+        
+        // Anzahl Verkäufe aktualisieren
+        lblAnzahlVerkaufe.setText(String.valueOf(daten.getAnzahlVerkaeufe()));
+        
+        // Top Produkte aktualisieren
+        var topProdukte = daten.getTopProdukte();
+        ObservableList<String> topProdukteStrings = FXCollections.observableArrayList();
+        
+        if (topProdukte.isEmpty()) {
+            topProdukteStrings.add("Noch keine Verkäufe heute");
+        } else {
+            for (int i = 0; i < topProdukte.size(); i++) {
+                var produkt = topProdukte.get(i);
+                topProdukteStrings.add(String.format("%d. %s", (i + 1), produkt.toString()));
             }
-            listTopProdukte.setItems(topProdukteStrings);
-            
-            // Niedrigbestand aktualisieren
-            var niedrigbestandProdukte = statistikService.getNiedrigbestandProdukte();
-            lblNiedrigbestand.setText(String.valueOf(niedrigbestandProdukte.size()));
-            
-            ObservableList<String> niedrigbestandStrings = FXCollections.observableArrayList();
-            if (niedrigbestandProdukte.isEmpty()) {
-                niedrigbestandStrings.add("Keine Warnungen");
-            } else {
-                for (var produkt : niedrigbestandProdukte) {
-                    niedrigbestandStrings.add(String.format("%s (Bestand: %d)", 
-                                            produkt.getName(), produkt.getBestand()));
-                }
+        }
+        listTopProdukte.setItems(topProdukteStrings);
+        
+        // Niedrigbestand aktualisieren
+        var niedrigbestandProdukte = daten.getNiedrigbestandProdukte();
+        lblNiedrigbestand.setText(String.valueOf(niedrigbestandProdukte.size()));
+        
+        ObservableList<String> niedrigbestandStrings = FXCollections.observableArrayList();
+        if (niedrigbestandProdukte.isEmpty()) {
+            niedrigbestandStrings.add("Keine Warnungen");
+        } else {
+            for (var produkt : niedrigbestandProdukte) {
+                niedrigbestandStrings.add(String.format("%s (Bestand: %d)", 
+                                        produkt.getName(), produkt.getBestand()));
             }
-            listNiedrigbestand.setItems(niedrigbestandStrings);
-            
-        } catch (StatistikService.StatistikServiceException e) {
-            zeigeFehlermeldung("Fehler beim Laden der Dashboard-Daten", e.getMessage());
         }
+        listNiedrigbestand.setItems(niedrigbestandStrings);
+
+        // Dauer der Kassenabschlüsse und Kennzahlen des Produkt-Caches seit dem Start
+        lblAbschlussLatenz.setText("Kassenabschlüsse: " + kassenService.getAbschlussLatenz());
+        lblCacheStatistik.setText("Produkt-Cache: " + kassenService.getCacheStatistik());
     }
 
     /**
@@ -387,9 +461,19 @@ public class MainController implements Initializable {
      */
     @FXML
     private void beenden() {
+        // Noch eingereihte Buchungen abschließen, bevor der Pool geschlossen wird
+        fassade.close();
+        DatabaseManager.getInstance().schliesseVerbindungen();
         System.exit(0);
     }
 
+    /**
+     * Zeigt die Ursache einer fehlgeschlagenen Hintergrundaufgabe an.
+     */
+    private void zeigeFehler(String titel, Throwable fehler) {
+        zeigeFehlermeldung(titel, AsyncServiceFassade.ursache(fehler).getMessage());
+    }
+
     /**
      * Zeigt eine Fehlermeldung an.
      */
@@ -0,0 +1,69 @@
+package de.berufsschule.kasse.controller;
+
+import de.berufsschule.kasse.model.Produkt;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hilfsmethoden, um einzelne Produktänderungen in eine nach Namen sortierte Liste einzuarbeiten.
+ *
+ * Statt die gesamte Liste neu zu laden, wird die Position per binärer Suche
+ * ermittelt und nur die betroffene Zeile eingefügt oder ersetzt. Auf einer
+ * ObservableList erzeugt das genau ein Änderungsereignis für Tabelle und ComboBoxes.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+final class ProduktListenAbgleich {
+    /** Gleiche Sortierung wie {@code ORDER BY name} in der Datenbank. */
+    static final Comparator<Produkt> NACH_NAME = Comparator.comparing(Produkt::getName);
+
+    private ProduktListenAbgleich() {
+    }
+
+    /**
+     * Fügt ein Produkt an der passenden Position ein.
+     *
+     * @param produkte nach Namen sortierte Liste
+     * @param produkt das neue Produkt
+     * @return die Einfügeposition
+     */
+    static int einfuegen(List<Produkt> produkte, Produkt produkt) {
+        int index = Collections.binarySearch(produkte, produkt, NACH_NAME);
+        int position = index >= 0 ? index : -index - 1;
+        produkte.add(position, produkt);
+        return position;
+    }
+
+    /**
+     * Ersetzt die Zeile eines geänderten Produkts oder fügt es ein, falls es fehlt.
+     *
+     * @param produkte nach Namen sortierte Liste
+     * @param produkt das Produkt mit den neuen Werten
+     * @return die Position der ersetzten bzw. eingefügten Zeile
+     */
+    static int ersetzen(List<Produkt> produkte, Produkt produkt) {
+        int index = Collections.binarySearch(produkte, produkt, NACH_NAME);
+        if (index < 0 || produkte.get(index).getId() != produkt.getId()) {
+            // Reason: Fallback für den Fall, dass sich der Name geändert hat
+            index = -1;
+            for (int i = 0; i < produkte.size(); i++) {
+                if (produkte.get(i).getId() == produkt.getId()) {
+                    index = i;
+                    break;
+                }
+            }
+        }
+        if (index < 0) {
+            return einfuegen(produkte, produkt);
+        }
+        if (NACH_NAME.compare(produkte.get(index), produkt) != 0) {
+            produkte.remove(index);
+            return einfuegen(produkte, produkt);
+        }
+        produkte.set(index, produkt);
+        return index;
+    }
+}
@@ -0,0 +1,46 @@
+package de.berufsschule.kasse.controller;
+
+import de.berufsschule.kasse.service.KassenService;
+
+import java.util.List;
+
+/**
+ * Unveränderliche Momentaufnahme des Warenkorbs für die Anzeige.
+ *
+ * Wird auf dem Kassen-Thread erstellt und anschließend auf dem JavaFX-Thread
+ * angezeigt, damit die Oberfläche nie den gerade bearbeiteten Warenkorb liest.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+final class WarenkorbAnsicht {
+    static final WarenkorbAnsicht LEER = new WarenkorbAnsicht(List.of(), 0);
+
+    private final List<String> positionen;
+    private final long gesamtbetragCent;
+
+    private WarenkorbAnsicht(List<String> positionen, long gesamtbetragCent) {
+        this.positionen = positionen;
+        this.gesamtbetragCent = gesamtbetragCent;
+    }
+
+    /**
+     * Erstellt die Ansicht des aktuellen Warenkorbs eines Services.
+     *
+     * @param service der KassenService (nur auf dessen Thread aufrufen)
+     * @return die Momentaufnahme
+     */
+    static WarenkorbAnsicht von(KassenService service) {
+        var warenkorb = service.getAktuellerWarenkorb();
+        List<String> positionen = warenkorb.getVerkaeufe().stream().map(Object::toString).toList();
+        return new WarenkorbAnsicht(positionen, warenkorb.berechneGesamtbetragCent());
+    }
+
+    List<String> getPositionen() {
+        return positionen;
+    }
+
+    long getGesamtbetragCent() {
+        return gesamtbetragCent;
+    }
+}
@@ -0,0 +1,16 @@
+package de.berufsschule.kasse.database;
+
+/**
+ * Ergebnis einer relativen Bestandsänderung.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public enum BestandsErgebnis {
+    /** Der Bestand wurde geändert. */
+    ERFOLGREICH,
+    /** Es existiert kein Produkt mit der angegebenen ID. */
+    NICHT_GEFUNDEN,
+    /** Der aktuelle Bestand reicht für die gewünschte Entnahme nicht aus. */
+    NICHT_GENUEGEND_BESTAND
+}
@@ -0,0 +1,39 @@
+package de.berufsschule.kasse.database;
+
+import java.sql.SQLException;
+
+/**
+ * Wird geworfen, wenn ein Kassenvorgang wegen eines Bestandskonflikts
+ * zurückgerollt wurde.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public class BestandskonfliktException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    private final int produktId;
+    private final BestandsErgebnis ergebnis;
+
+    /**
+     * Erstellt eine neue Exception für das betroffene Produkt.
+     *
+     * @param produktId die ID des Produkts, dessen Bestand nicht geändert werden konnte
+     * @param ergebnis der Grund des Konflikts
+     */
+    public BestandskonfliktException(int produktId, BestandsErgebnis ergebnis) {
+        super(ergebnis == BestandsErgebnis.NICHT_GEFUNDEN
+                ? "Produkt mit ID " + produktId + " nicht gefunden"
+                : "Nicht genügend Bestand für Produkt mit ID " + produktId);
+        this.produktId = produktId;
+        this.ergebnis = ergebnis;
+    }
+
+    public int getProduktId() {
+        return produktId;
+    }
+
+    public BestandsErgebnis getErgebnis() {
+        return ergebnis;
+    }
+}
@@ -0,0 +1,311 @@
+package de.berufsschule.kasse.database;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Schnelles Laden großer Datenmengen, z. B. Testdaten oder Lieferantenkataloge.
+ *
+ * Alle Zeilen werden per JDBC-Batch in einer einzigen Transaktion geschrieben.
+ * Während des Ladens gilt {@code synchronous=OFF} mit größerem Seitencache, und
+ * sobald Verkäufe geladen werden, entfallen die Sekundärindizes und die laufende
+ * Pflege der Tagesaggregate. Beides wird in {@link #abschliessen()} einmalig
+ * nachgeholt, bevor die Transaktion festgeschrieben wird.
+ *
+ * Wird der Lader ohne {@link #abschliessen()} geschlossen, wird alles seit dem
+ * letzten {@link #festschreiben()} verworfen:
+ * <pre>
+ * try (BulkLader lader = dbManager.oeffneBulkLader()) {
+ *     lader.fuegeProduktHinzu(produkt);
+ *     lader.abschliessen();
+ * }
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class BulkLader implements AutoCloseable {
+    private static final int BATCH_GROESSE = 1_000;
+    private static final int LADE_CACHE_KIB = -262_144;
+
+    private static final String PRODUKT_EINFUEGEN_SQL =
+        "INSERT INTO produkte (id, name, preis_cent, bestand, barcode) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String PRODUKT_UEBERNEHMEN_SQL =
+        "INSERT INTO produkte (name, preis_cent, bestand, barcode) VALUES (?, ?, ?, ?) "
+        + "ON CONFLICT(name) DO UPDATE SET preis_cent = excluded.preis_cent, bestand = excluded.bestand, "
+        + "barcode = COALESCE(excluded.barcode, barcode)";
+
+    private static final String NAECHSTE_PRODUKT_ID_SQL =
+        "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'produkte'), 0), "
+        + "COALESCE((SELECT MAX(id) FROM produkte), 0)) + 1";
+
+    private final Connection conn;
+    private final String vorherigesSynchronous;
+    private final int vorherigeCacheGroesse;
+    private PreparedStatement produktStmt;
+    private PreparedStatement uebernahmeStmt;
+    private PreparedStatement verkaufStmt;
+    private int naechsteProduktId;
+    private int offeneProdukte;
+    private int offeneUebernahmen;
+    private int offeneVerkaeufe;
+    private long anzahlProdukte;
+    private long anzahlVerkaeufe;
+    private boolean abgeschlossen;
+
+    /**
+     * Beginnt den Ladevorgang auf der übergebenen Verbindung.
+     *
+     * @param conn eine ausgeliehene Pool-Verbindung im Autocommit-Modus, wird in {@link #close()} zurückgegeben
+     * @throws SQLException wenn die Schreibsperre nicht erlangt werden kann
+     */
+    BulkLader(Connection conn) throws SQLException {
+        this.conn = conn;
+        try (Statement stmt = conn.createStatement()) {
+            vorherigesSynchronous = frage(stmt, "PRAGMA synchronous");
+            vorherigeCacheGroesse = Integer.parseInt(frage(stmt, "PRAGMA cache_size"));
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA synchronous = OFF");
+            stmt.execute("PRAGMA cache_size = " + LADE_CACHE_KIB);
+            // Reason: IMMEDIATE sperrt sofort für andere Schreiber, damit die selbst
+            // vergebenen Produkt-IDs bis zum Commit nicht doppelt vergeben werden
+            stmt.execute("BEGIN IMMEDIATE");
+        } catch (SQLException e) {
+            try (conn) {
+                stelleEinstellungenWiederHer();
+            } catch (SQLException folgefehler) {
+                e.addSuppressed(folgefehler);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Löscht alle Produkte, Verkäufe und Tagesaggregate und setzt die IDs zurück.
+     *
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void loescheAlleDaten() throws SQLException {
+        sendeBatches();
+        try (Statement stmt = conn.createStatement()) {
+            // Reihenfolge beachten wegen Foreign Key Constraints
+            stmt.execute("DELETE FROM reservierungen");
+            stmt.execute("DELETE FROM journal_konflikte");
+            stmt.execute("DELETE FROM tagesumsatz_produkt");
+            stmt.execute("DELETE FROM tagesumsatz");
+            stmt.execute("DELETE FROM verkaeufe");
+            stmt.execute("DELETE FROM produkte");
+            stmt.execute("DELETE FROM sqlite_sequence WHERE name IN ('produkte', 'verkaeufe')");
+        }
+        naechsteProduktId = 0;
+    }
+
+    /**
+     * Fügt ein Produkt hinzu und setzt dessen ID sofort.
+     *
+     * @param produkt das neue Produkt
+     * @throws SQLException bei Datenbankfehlern, z. B. doppeltem Namen
+     */
+    public void fuegeProduktHinzu(Produkt produkt) throws SQLException {
+        if (produktStmt == null) {
+            produktStmt = conn.prepareStatement(PRODUKT_EINFUEGEN_SQL);
+        }
+        if (naechsteProduktId == 0) {
+            // Ausstehende Übernahmen zuerst schreiben, sonst wäre die höchste ID veraltet
+            sendeBatches();
+            try (Statement stmt = conn.createStatement()) {
+                naechsteProduktId = Integer.parseInt(frage(stmt, NAECHSTE_PRODUKT_ID_SQL));
+            }
+        }
+        // Reason: Generierte Schlüssel sind nach executeBatch nicht zuverlässig abrufbar,
+        // deshalb vergibt der Lader die IDs unter seiner Schreibsperre selbst
+        produkt.setId(naechsteProduktId++);
+        produktStmt.setInt(1, produkt.getId());
+        produktStmt.setString(2, produkt.getName());
+        produktStmt.setLong(3, produkt.getPreisCent());
+        produktStmt.setInt(4, produkt.getBestand());
+        produktStmt.setString(5, produkt.getBarcode());
+        produktStmt.addBatch();
+        anzahlProdukte++;
+        if (++offeneProdukte == BATCH_GROESSE) {
+            produktStmt.executeBatch();
+            offeneProdukte = 0;
+        }
+    }
+
+    /**
+     * Legt ein Produkt an oder aktualisiert Preis und Bestand eines gleichnamigen Produkts.
+     * Ein vorhandener Barcode bleibt erhalten, wenn das Stammdatum keinen mitbringt.
+     *
+     * Die ID des übergebenen Produkts wird dabei nicht gesetzt.
+     *
+     * @param produkt das Produkt aus dem Stammdatenbestand
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void uebernehmeProdukt(Produkt produkt) throws SQLException {
+        if (uebernahmeStmt == null) {
+            uebernahmeStmt = conn.prepareStatement(PRODUKT_UEBERNEHMEN_SQL);
+        }
+        uebernahmeStmt.setString(1, produkt.getName());
+        uebernahmeStmt.setLong(2, produkt.getPreisCent());
+        uebernahmeStmt.setInt(3, produkt.getBestand());
+        uebernahmeStmt.setString(4, produkt.getBarcode());
+        uebernahmeStmt.addBatch();
+        anzahlProdukte++;
+        // Neue Zeilen erhalten ihre ID von SQLite, die eigene Vergabe muss danach neu aufsetzen
+        naechsteProduktId = 0;
+        if (++offeneUebernahmen == BATCH_GROESSE) {
+            sendeBatches();
+        }
+    }
+
+    /**
+     * Fügt einen historischen Verkauf hinzu, ohne Bestände zu ändern.
+     *
+     * @param verkauf der Verkauf (das Produkt muss bereits existieren oder vorher geladen worden sein)
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void fuegeVerkaufHinzu(Verkauf verkauf) throws SQLException {
+        if (verkaufStmt == null) {
+            entferneSekundaerindizes();
+            verkaufStmt = conn.prepareStatement(DatabaseManager.VERKAUF_EINFUEGEN_SQL);
+        }
+        DatabaseManager.setzeVerkaufParameter(verkaufStmt, verkauf);
+        verkaufStmt.addBatch();
+        anzahlVerkaeufe++;
+        if (++offeneVerkaeufe == BATCH_GROESSE) {
+            // Produkte zuerst, damit Verkäufe nie vor ihrem Produkt geschrieben werden
+            sendeBatches();
+        }
+    }
+
+    /**
+     * Schreibt den bisherigen Stand fest und setzt den Ladevorgang in einer neuen Transaktion fort.
+     *
+     * So bleibt die WAL-Datei bei sehr großen Importen klein. Ein späterer Fehler
+     * verwirft nur noch die Zeilen seit diesem Aufruf.
+     *
+     * @throws SQLException bei Datenbankfehlern
+     * @throws IllegalStateException wenn bereits Verkäufe geladen wurden, deren Indizes noch fehlen
+     */
+    public void festschreiben() throws SQLException {
+        if (verkaufStmt != null) {
+            throw new IllegalStateException(
+                "Zwischenstände können nur ohne geladene Verkäufe festgeschrieben werden");
+        }
+        sendeBatches();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("COMMIT");
+            stmt.execute("BEGIN IMMEDIATE");
+        }
+        // Zwischen den Transaktionen können andere Schreiber IDs vergeben haben
+        naechsteProduktId = 0;
+    }
+
+    /**
+     * Schreibt alle Zeilen fest. Wurden Verkäufe geladen, werden vorher die
+     * Indizes neu erstellt und die Tagesaggregate neu berechnet.
+     *
+     * @throws SQLException bei Datenbankfehlern, dann wird der gesamte Ladevorgang verworfen
+     */
+    public void abschliessen() throws SQLException {
+        sendeBatches();
+        try (Statement stmt = conn.createStatement()) {
+            if (verkaufStmt != null) {
+                stmt.execute(Schemamigrationen.INDEX_VERKAEUFE_TAG_PRODUKT);
+                Tagesaggregate.neuAufbauen(conn);
+                stmt.execute(Tagesaggregate.INDEX_MENGE);
+            }
+            stmt.execute("COMMIT");
+        }
+        abgeschlossen = true;
+    }
+
+    public long getAnzahlProdukte() {
+        return anzahlProdukte;
+    }
+
+    public long getAnzahlVerkaeufe() {
+        return anzahlVerkaeufe;
+    }
+
+    /**
+     * Verwirft nicht abgeschlossene Änderungen, stellt die Verbindungseinstellungen
+     * wieder her und gibt die Verbindung an den Pool zurück.
+     *
+     * @throws SQLException bei Datenbankfehlern
+     */
+    @Override
+    public void close() throws SQLException {
+        try (conn) {
+            if (produktStmt != null) {
+                produktStmt.close();
+            }
+            if (uebernahmeStmt != null) {
+                uebernahmeStmt.close();
+            }
+            if (verkaufStmt != null) {
+                verkaufStmt.close();
+            }
+            if (!abgeschlossen) {
+                try (Statement stmt = conn.createStatement()) {
+                    // Reason: DDL ist in SQLite transaktional, der Rollback stellt auch die Indizes wieder her
+                    stmt.execute("ROLLBACK");
+                } finally {
+                    stelleEinstellungenWiederHer();
+                }
+            } else {
+                stelleEinstellungenWiederHer();
+            }
+        }
+    }
+
+    private void stelleEinstellungenWiederHer() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA synchronous = " + vorherigesSynchronous);
+            stmt.execute("PRAGMA cache_size = " + vorherigeCacheGroesse);
+        }
+    }
+
+    private void entferneSekundaerindizes() throws SQLException {
+        // Reason: Ein Index wird nach dem Laden in einem Durchgang sortiert aufgebaut,
+        // statt bei jeder einzelnen Zeile an zufälliger Stelle aktualisiert zu werden
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX IF EXISTS idx_verkaeufe_tag_produkt");
+            stmt.execute("DROP INDEX IF EXISTS idx_tagesumsatz_produkt_menge");
+        }
+    }
+
+    private void sendeBatches() throws SQLException {
+        if (offeneProdukte > 0) {
+            produktStmt.executeBatch();
+            offeneProdukte = 0;
+        }
+        if (offeneUebernahmen > 0) {
+            uebernahmeStmt.executeBatch();
+            offeneUebernahmen = 0;
+        }
+        if (offeneVerkaeufe > 0) {
+            verkaufStmt.executeBatch();
+            offeneVerkaeufe = 0;
+        }
+    }
+
+    private static String frage(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package de.berufsschule.kasse.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Einfacher Connection-Pool für die SQLite-Datenbank.
+ *
+ * Verbindungen werden nach {@link Connection#close()} nicht geschlossen, sondern
+ * an den Pool zurückgegeben und beim nächsten Ausleihen wiederverwendet. Pro
+ * Verbindung werden zusätzlich die zuletzt verwendeten PreparedStatements
+ * gecacht, sodass wiederkehrende Abfragen nicht erneut kompiliert werden müssen.
+ * Neue Verbindungen erhalten die PRAGMAs des konfigurierten {@link Leistungsprofil}s.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class ConnectionPool {
+    private static final long VALIDIERUNG_NACH_LEERLAUF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int VALIDIERUNG_TIMEOUT_SEKUNDEN = 1;
+
+    private final DatenbankKonfiguration konfiguration;
+    private final Semaphore freiePlaetze;
+    private final Deque<PhysischeVerbindung> leerlauf = new ArrayDeque<>();
+    private volatile boolean geschlossen;
+
+    private final AtomicLong ausleihen = new AtomicLong();
+    private final AtomicLong erstellteVerbindungen = new AtomicLong();
+    private final AtomicLong wiederverwendungen = new AtomicLong();
+    private final AtomicLong verworfeneVerbindungen = new AtomicLong();
+    private final AtomicLong entfernteVerbindungen = new AtomicLong();
+    private final AtomicLong zeitueberschreitungen = new AtomicLong();
+    private final AtomicLong statementTreffer = new AtomicLong();
+    private final AtomicLong statementFehlgriffe = new AtomicLong();
+
+    /**
+     * Erstellt einen neuen Pool. Verbindungen werden erst bei Bedarf geöffnet.
+     *
+     * @param konfiguration die Pool-Konfiguration
+     */
+    public ConnectionPool(DatenbankKonfiguration konfiguration) {
+        this.konfiguration = konfiguration;
+        this.freiePlaetze = new Semaphore(konfiguration.getPoolGroesse(), true);
+    }
+
+    /**
+     * Leiht eine Verbindung aus dem Pool aus.
+     *
+     * Die zurückgegebene Verbindung muss mit {@link Connection#close()} wieder
+     * freigegeben werden (am besten per try-with-resources).
+     *
+     * @return eine gültige Datenbankverbindung
+     * @throws SQLException wenn innerhalb der Wartezeit keine Verbindung frei wird
+     */
+    public Connection ausleihen() throws SQLException {
+        if (geschlossen) {
+            throw new SQLException("Connection-Pool ist bereits geschlossen");
+        }
+        try {
+            if (!freiePlaetze.tryAcquire(konfiguration.getWartezeitMillis(), TimeUnit.MILLISECONDS)) {
+                zeitueberschreitungen.incrementAndGet();
+                throw new SQLException("Keine freie Datenbankverbindung innerhalb von "
+                        + konfiguration.getWartezeitMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Warten auf Datenbankverbindung wurde unterbrochen", e);
+        }
+
+        try {
+            PhysischeVerbindung verbindung = naechsteGueltigeVerbindung();
+            ausleihen.incrementAndGet();
+            return verbindung.alsProxy();
+        } catch (SQLException | RuntimeException e) {
+            freiePlaetze.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Schließt alle Verbindungen, die länger als der Leerlauf-Timeout unbenutzt sind.
+     * Die konfigurierte Mindestanzahl an Leerlaufverbindungen bleibt erhalten.
+     */
+    public void entferneLeerlaufendeVerbindungen() {
+        long grenze = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(konfiguration.getLeerlaufTimeoutMillis());
+        synchronized (leerlauf) {
+            // Reason: Neue Verbindungen liegen vorne, die ältesten stehen am Ende der Deque
+            Iterator<PhysischeVerbindung> it = leerlauf.descendingIterator();
+            while (it.hasNext() && leerlauf.size() > konfiguration.getMinLeerlauf()) {
+                PhysischeVerbindung verbindung = it.next();
+                if (verbindung.zuletztBenutzt - grenze > 0) {
+                    break;
+                }
+                it.remove();
+                verbindung.schliessen();
+                entfernteVerbindungen.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Schließt den Pool und alle Leerlaufverbindungen. Noch ausgeliehene
+     * Verbindungen werden bei ihrer Rückgabe geschlossen.
+     */
+    public void schliessen() {
+        geschlossen = true;
+        synchronized (leerlauf) {
+            for (PhysischeVerbindung verbindung : leerlauf) {
+                verbindung.schliessen();
+            }
+            leerlauf.clear();
+        }
+    }
+
+    /**
+     * Liefert eine Momentaufnahme der Pool-Kennzahlen.
+     *
+     * @return aktuelle Pool-Statistik
+     */
+    public Statistik getStatistik() {
+        int leerlaufAnzahl;
+        synchronized (leerlauf) {
+            leerlaufAnzahl = leerlauf.size();
+        }
+        return new Statistik(
+            konfiguration.getPoolGroesse() - freiePlaetze.availablePermits(),
+            leerlaufAnzahl,
+            ausleihen.get(),
+            erstellteVerbindungen.get(),
+            wiederverwendungen.get(),
+            verworfeneVerbindungen.get(),
+            entfernteVerbindungen.get(),
+            zeitueberschreitungen.get(),
+            statementTreffer.get(),
+            statementFehlgriffe.get()
+        );
+    }
+
+    private PhysischeVerbindung naechsteGueltigeVerbindung() throws SQLException {
+        while (true) {
+            PhysischeVerbindung verbindung;
+            synchronized (leerlauf) {
+                verbindung = leerlauf.pollFirst();
+            }
+            if (verbindung == null) {
+                erstellteVerbindungen.incrementAndGet();
+                return new PhysischeVerbindung(oeffneVerbindung());
+            }
+            if (verbindung.istGueltig()) {
+                wiederverwendungen.incrementAndGet();
+                return verbindung;
+            }
+            verbindung.schliessen();
+            verworfeneVerbindungen.incrementAndGet();
+        }
+    }
+
+    private Connection oeffneVerbindung() throws SQLException {
+        Connection conn = DriverManager.getConnection(konfiguration.getUrl());
+        try {
+            konfiguration.getLeistungsprofil().anwenden(conn);
+            return conn;
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    private void zurueckgeben(PhysischeVerbindung verbindung) {
+        try {
+            // Reason: Nicht abgeschlossene Transaktionen dürfen nicht in den nächsten Ausleihvorgang gelangen
+            if (!verbindung.delegate.getAutoCommit()) {
+                verbindung.delegate.rollback();
+                verbindung.delegate.setAutoCommit(true);
+            }
+            verbindung.statementsFreigeben();
+            verbindung.zuletztBenutzt = System.nanoTime();
+            synchronized (leerlauf) {
+                if (geschlossen) {
+                    verbindung.schliessen();
+                } else {
+                    leerlauf.addFirst(verbindung);
+                }
+            }
+        } catch (SQLException e) {
+            verbindung.schliessen();
+            verworfeneVerbindungen.incrementAndGet();
+        } finally {
+            freiePlaetze.release();
+        }
+        entferneLeerlaufendeVerbindungen();
+    }
+
+    /**
+     * Eine physische JDBC-Verbindung inklusive Statement-Cache.
+     */
+    private final class PhysischeVerbindung {
+        private final Connection delegate;
+        private final Map<String, GecachtesStatement> statementCache;
+        private long zuletztBenutzt;
+
+        PhysischeVerbindung(Connection delegate) {
+            this.delegate = delegate;
+            this.zuletztBenutzt = System.nanoTime();
+            int cacheGroesse = konfiguration.getStatementCacheGroesse();
+            this.statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GecachtesStatement> eldest) {
+                    if (size() > cacheGroesse) {
+                        schliesseLeise(eldest.getValue().statement);
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        boolean istGueltig() {
+            try {
+                if (delegate.isClosed()) {
+                    return false;
+                }
+                if (System.nanoTime() - zuletztBenutzt < VALIDIERUNG_NACH_LEERLAUF_NANOS) {
+                    return true;
+                }
+                return delegate.isValid(VALIDIERUNG_TIMEOUT_SEKUNDEN);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        Connection alsProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                new VerbindungsHandler(this));
+        }
+
+        PreparedStatement vorbereiten(String sql, Connection proxy) throws SQLException {
+            if (konfiguration.getStatementCacheGroesse() == 0) {
+                return delegate.prepareStatement(sql);
+            }
+            GecachtesStatement gecacht = statementCache.get(sql);
+            if (gecacht != null && !gecacht.inBenutzung && !gecacht.statement.isClosed()) {
+                statementTreffer.incrementAndGet();
+                gecacht.inBenutzung = true;
+                return gecacht.alsProxy(proxy);
+            }
+            statementFehlgriffe.incrementAndGet();
+            if (gecacht != null && gecacht.inBenutzung) {
+                // Reason: Gleiches SQL wird verschachtelt verwendet, daher ungecachtes Statement liefern
+                return delegate.prepareStatement(sql);
+            }
+            GecachtesStatement neu = new GecachtesStatement(delegate.prepareStatement(sql));
+            neu.inBenutzung = true;
+            statementCache.put(sql, neu);
+            return neu.alsProxy(proxy);
+        }
+
+        void statementsFreigeben() {
+            for (GecachtesStatement gecacht : statementCache.values()) {
+                gecacht.inBenutzung = false;
+            }
+        }
+
+        void schliessen() {
+            for (GecachtesStatement gecacht : statementCache.values()) {
+                schliesseLeise(gecacht.statement);
+            }
+            statementCache.clear();
+            try {
+                delegate.close();
+            } catch (SQLException e) {
+                System.err.println("Fehler beim Schließen einer Datenbankverbindung: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ein PreparedStatement, das nach dem logischen Schließen im Cache verbleibt.
+     */
+    private static final class GecachtesStatement {
+        private final PreparedStatement statement;
+        private boolean inBenutzung;
+
+        GecachtesStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement alsProxy(Connection verbindung) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                new StatementHandler(this, verbindung));
+        }
+    }
+
+    /**
+     * Fängt {@code close()} und {@code prepareStatement(String)} der ausgeliehenen Verbindung ab.
+     */
+    private final class VerbindungsHandler implements InvocationHandler {
+        private final PhysischeVerbindung verbindung;
+        private boolean zurueckgegeben;
+
+        VerbindungsHandler(PhysischeVerbindung verbindung) {
+            this.verbindung = verbindung;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                if (!zurueckgegeben) {
+                    zurueckgegeben = true;
+                    zurueckgeben(verbindung);
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return zurueckgegeben || verbindung.delegate.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "PooledConnection[" + verbindung.delegate + "]";
+            }
+            if (zurueckgegeben) {
+                throw new SQLException("Verbindung wurde bereits an den Pool zurückgegeben");
+            }
+            if ("prepareStatement".equals(name) && args.length == 1) {
+                return verbindung.vorbereiten((String) args[0], (Connection) proxy);
+            }
+            return aufrufen(verbindung.delegate, method, args);
+        }
+    }
+
+    /**
+     * Gibt gecachte Statements beim {@code close()} an den Cache zurück, statt sie zu schließen.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final GecachtesStatement gecacht;
+        private final Connection verbindung;
+        private boolean geschlossen;
+
+        StatementHandler(GecachtesStatement gecacht, Connection verbindung) {
+            this.gecacht = gecacht;
+            this.verbindung = verbindung;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                if (!geschlossen) {
+                    geschlossen = true;
+                    gecacht.statement.clearParameters();
+                    gecacht.statement.clearBatch();
+                    gecacht.inBenutzung = false;
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return geschlossen || gecacht.statement.isClosed();
+            }
+            if ("getConnection".equals(name)) {
+                return verbindung;
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return gecacht.statement.toString();
+            }
+            if (geschlossen) {
+                throw new SQLException("Statement wurde bereits geschlossen");
+            }
+            return aufrufen(gecacht.statement, method, args);
+        }
+    }
+
+    private static Object aufrufen(Object ziel, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(ziel, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void schliesseLeise(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Fehler beim Schließen eines Statements: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Momentaufnahme der Pool-Kennzahlen.
+     */
+    public static final class Statistik {
+        private final int aktiveVerbindungen;
+        private final int leerlaufVerbindungen;
+        private final long ausleihen;
+        private final long erstellteVerbindungen;
+        private final long wiederverwendungen;
+        private final long verworfeneVerbindungen;
+        private final long entfernteVerbindungen;
+        private final long zeitueberschreitungen;
+        private final long statementTreffer;
+        private final long statementFehlgriffe;
+
+        Statistik(int aktiveVerbindungen, int leerlaufVerbindungen, long ausleihen, long erstellteVerbindungen,
+                  long wiederverwendungen, long verworfeneVerbindungen, long entfernteVerbindungen,
+                  long zeitueberschreitungen, long statementTreffer, long statementFehlgriffe) {
+            this.aktiveVerbindungen = aktiveVerbindungen;
+            this.leerlaufVerbindungen = leerlaufVerbindungen;
+            this.ausleihen = ausleihen;
+            this.erstellteVerbindungen = erstellteVerbindungen;
+            this.wiederverwendungen = wiederverwendungen;
+            this.verworfeneVerbindungen = verworfeneVerbindungen;
+            this.entfernteVerbindungen = entfernteVerbindungen;
+            this.zeitueberschreitungen = zeitueberschreitungen;
+            this.statementTreffer = statementTreffer;
+            this.statementFehlgriffe = statementFehlgriffe;
+        }
+
+        public int getAktiveVerbindungen() {
+            return aktiveVerbindungen;
+        }
+
+        public int getLeerlaufVerbindungen() {
+            return leerlaufVerbindungen;
+        }
+
+        public long getAusleihen() {
+            return ausleihen;
+        }
+
+        public long getErstellteVerbindungen() {
+            return erstellteVerbindungen;
+        }
+
+        public long getWiederverwendungen() {
+            return wiederverwendungen;
+        }
+
+        public long getVerworfeneVerbindungen() {
+            return verworfeneVerbindungen;
+        }
+
+        public long getEntfernteVerbindungen() {
+            return entfernteVerbindungen;
+        }
+
+        public long getZeitueberschreitungen() {
+            return zeitueberschreitungen;
+        }
+
+        public long getStatementTreffer() {
+            return statementTreffer;
+        }
+
+        public long getStatementFehlgriffe() {
+            return statementFehlgriffe;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pool{aktiv=%d, leerlauf=%d, ausleihen=%d, erstellt=%d, wiederverwendet=%d, "
+                    + "verworfen=%d, entfernt=%d, timeouts=%d, statementTreffer=%d, statementFehlgriffe=%d}",
+                    aktiveVerbindungen, leerlaufVerbindungen, ausleihen, erstellteVerbindungen,
+                    wiederverwendungen, verworfeneVerbindungen, entfernteVerbindungen, zeitueberschreitungen,
+                    statementTreffer, statementFehlgriffe);
+        }
+    }
+}
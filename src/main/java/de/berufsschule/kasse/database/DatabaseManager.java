@@ -1,14 +1,15 @@
 package de.berufsschule.kasse.database;
 
+import de.berufsschule.kasse.model.Barcode;
 import de.berufsschule.kasse.model.Produkt;
 import de.berufsschule.kasse.model.Verkauf;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,13 +22,22 @@ import java.util.List;
  * @version 1.0
  */
 public final class DatabaseManager {
-    private static final String DATABASE_URL = "jdbc:sqlite:kasse.db";
+    private static final String PRODUKT_SPALTEN = "SELECT id, name, preis_cent, bestand, barcode FROM produkte";
+    static final String BESTAND_VERRINGERN_SQL =
+        "UPDATE produkte SET bestand = bestand - ? WHERE id = ? AND bestand >= ?";
+    static final String VERKAUF_EINFUEGEN_SQL =
+        "INSERT INTO verkaeufe (timestamp, tag, produkt_id, menge, einzelpreis_cent, gesamtpreis_cent) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
     private static DatabaseManager instance;
 
+    private final ConnectionPool connectionPool;
+    private List<MigrationsManager.Ergebnis> migrationsprotokoll = List.of();
+
     /**
      * Private Konstruktor für Singleton-Pattern.
      */
     private DatabaseManager() {
+        this.connectionPool = new ConnectionPool(DatenbankKonfiguration.ausSystemProperties());
         initialisiereDatenbank();
     }
 
@@ -42,45 +52,67 @@ public final class DatabaseManager {
         }
         return instance;
     }    /**
-     * Erstellt eine neue Datenbankverbindung.
+     * Leiht eine Datenbankverbindung aus dem Connection-Pool aus.
+     * 
+     * Die Verbindung muss nach der Verwendung geschlossen werden, wodurch sie
+     * an den Pool zurückgegeben wird.
      * 
      * @return Connection zur Datenbank
      * @throws SQLException bei Verbindungsfehlern
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DATABASE_URL);
+        return connectionPool.ausleihen();
     }
 
     /**
-     * Initialisiert die Datenbank und erstellt die benötigten Tabellen.
+     * Beginnt einen Massenimport in einer eigenen Transaktion.
+     * 
+     * Bis zum Schließen des Laders ist eine Pool-Verbindung belegt und andere
+     * Schreibzugriffe warten auf die Schreibsperre.
+     * 
+     * @return der Lader, muss mit try-with-resources geschlossen werden
+     * @throws SQLException wenn keine Verbindung oder Schreibsperre erlangt werden kann
      */
-    private void initialisiereDatenbank() {
-        String createProduktTable = """
-            CREATE TABLE IF NOT EXISTS produkte (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                name TEXT NOT NULL UNIQUE,
-                preis REAL NOT NULL CHECK(preis > 0),
-                bestand INTEGER NOT NULL CHECK(bestand >= 0)
-            )
-        """;
-
-        String createVerkaufTable = """
-            CREATE TABLE IF NOT EXISTS verkaeufe (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                timestamp TEXT NOT NULL,
-                produkt_id INTEGER NOT NULL,
-                menge INTEGER NOT NULL CHECK(menge > 0),
-                einzelpreis REAL NOT NULL CHECK(einzelpreis > 0),
-                gesamtpreis REAL NOT NULL CHECK(gesamtpreis > 0),
-                FOREIGN KEY (produkt_id) REFERENCES produkte (id)
-            )
-        """;
+    public BulkLader oeffneBulkLader() throws SQLException {
+        return new BulkLader(getConnection());
+    }
 
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            stmt.execute(createProduktTable);
-            stmt.execute(createVerkaufTable);
+    /**
+     * Liefert die aktuellen Kennzahlen des Connection-Pools.
+     * 
+     * @return Pool-Statistik
+     */
+    public ConnectionPool.Statistik getPoolStatistik() {
+        return connectionPool.getStatistik();
+    }
+
+    /**
+     * Gibt die beim Start ausgeführten Schemamigrationen samt Laufzeit zurück.
+     * 
+     * @return Migrationen in Ausführungsreihenfolge, leer wenn das Schema aktuell war
+     */
+    public List<MigrationsManager.Ergebnis> getMigrationsprotokoll() {
+        return migrationsprotokoll;
+    }
+
+    /**
+     * Schließt alle Datenbankverbindungen des Pools.
+     */
+    public void schliesseVerbindungen() {
+        connectionPool.schliessen();
+    }
+
+    /**
+     * Initialisiert die Datenbank und bringt das Schema per Migration auf den aktuellen Stand.
+     */
+    private void initialisiereDatenbank() {
+        try (Connection conn = getConnection()) {
+            migrationsprotokoll = List.copyOf(new MigrationsManager(Schemamigrationen.alle()).migriere(conn));
+            // Reason: Migrationen laufen nur beim ersten Start nach einem Update, die Dauer jedes Schritts
+            // zeigt, ob ein Backfill die Kasse merklich aufgehalten hat
+            for (MigrationsManager.Ergebnis ergebnis : migrationsprotokoll) {
+                System.out.println("Datenbankmigration " + ergebnis);
+            }
             
             // Testdaten einfügen falls Tabelle leer ist
             if (getAlleProdukte().isEmpty()) {
@@ -92,6 +124,17 @@ public final class DatabaseManager {
         }
     }
 
+    /**
+     * Berechnet den Tagesschlüssel (yyyyMMdd) eines Datums, wie er in der Spalte
+     * {@code verkaeufe.tag} gespeichert wird.
+     * 
+     * @param datum das Datum
+     * @return Tagesschlüssel, z. B. 20250611
+     */
+    public static int tagesschluessel(LocalDate datum) {
+        return datum.getYear() * 10_000 + datum.getMonthValue() * 100 + datum.getDayOfMonth();
+    }
+
     /**
      * Erstellt Testdaten für die Demonstration.
      */
@@ -115,30 +158,39 @@ public final class DatabaseManager {
      * @throws SQLException bei Datenbankfehlern
      */
     public int fuegeProduktHinzu(Produkt produkt) throws SQLException {
-        String sql = "INSERT INTO produkte (name, preis, bestand) VALUES (?, ?, ?)";
+        fuegeProdukteHinzu(List.of(produkt));
+        return produkt.getId();
+    }
+
+    /**
+     * Fügt mehrere Produkte in einer Transaktion hinzu und setzt deren generierte IDs.
+     * 
+     * @param produkte die hinzuzufügenden Produkte
+     * @throws SQLException bei Datenbankfehlern, dann wird kein Produkt gespeichert
+     */
+    public void fuegeProdukteHinzu(List<Produkt> produkte) throws SQLException {
+        String sql = "INSERT INTO produkte (name, preis_cent, bestand, barcode) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, produkt.getName());
-            pstmt.setDouble(2, produkt.getPreis());
-            pstmt.setInt(3, produkt.getBestand());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Produkt konnte nicht hinzugefügt werden");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    int id = generatedKeys.getInt(1);
-                    produkt.setId(id);
-                    return id;
-                } else {
-                    throw new SQLException("Keine ID für neues Produkt erhalten");
+        inTransaktion(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Produkt produkt : produkte) {
+                    pstmt.setString(1, produkt.getName());
+                    pstmt.setLong(2, produkt.getPreisCent());
+                    pstmt.setInt(3, produkt.getBestand());
+                    pstmt.setString(4, produkt.getBarcode());
+                    
+                    if (pstmt.executeUpdate() == 0) {
+                        throw new SQLException("Produkt konnte nicht hinzugefügt werden");
+                    }
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Keine ID für neues Produkt erhalten");
+                        }
+                        produkt.setId(generatedKeys.getInt(1));
+                    }
                 }
             }
-        }
+        });
     }
 
     /**
@@ -149,20 +201,14 @@ public final class DatabaseManager {
      */
     public List<Produkt> getAlleProdukte() throws SQLException {
         List<Produkt> produkte = new ArrayList<>();
-        String sql = "SELECT id, name, preis, bestand FROM produkte ORDER BY name";
+        String sql = PRODUKT_SPALTEN + " ORDER BY name";
         
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Produkt produkt = new Produkt(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getDouble("preis"),
-                    rs.getInt("bestand")
-                );
-                produkte.add(produkt);
+                produkte.add(leseProdukt(rs));
             }
         }
         
@@ -177,26 +223,56 @@ public final class DatabaseManager {
      * @throws SQLException bei Datenbankfehlern
      */
     public Produkt getProduktById(int id) throws SQLException {
-        String sql = "SELECT id, name, preis, bestand FROM produkte WHERE id = ?";
-        
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
+             PreparedStatement pstmt = conn.prepareStatement(PRODUKT_SPALTEN + " WHERE id = ?")) {
             pstmt.setInt(1, id);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Produkt(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getDouble("preis"),
-                        rs.getInt("bestand")
-                    );
-                }
-            }
+            return leseEinzelnesProdukt(pstmt);
         }
-        
-        return null;
+    }
+
+    /**
+     * Sucht ein Produkt anhand seines Barcodes über den eindeutigen Index.
+     *
+     * @param barcode der Barcode in 14-stelliger Form (siehe {@link Barcode#normalisiere(String)})
+     * @return das Produkt oder null wenn nicht gefunden
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public Produkt getProduktByBarcode(String barcode) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(PRODUKT_SPALTEN + " WHERE barcode = ?")) {
+            pstmt.setString(1, barcode);
+            return leseEinzelnesProdukt(pstmt);
+        }
+    }
+
+    /**
+     * Hinterlegt den Barcode eines Produkts oder entfernt ihn.
+     *
+     * @param produktId die ID des Produkts
+     * @param barcode der Barcode in 14-stelliger Form oder null
+     * @return true wenn das Produkt existiert
+     * @throws SQLException bei Datenbankfehlern, auch wenn der Barcode schon vergeben ist
+     */
+    public boolean setzeBarcode(int produktId, String barcode) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("UPDATE produkte SET barcode = ? WHERE id = ?")) {
+            pstmt.setString(1, barcode);
+            pstmt.setInt(2, produktId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    private static Produkt leseEinzelnesProdukt(PreparedStatement pstmt) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? leseProdukt(rs) : null;
+        }
+    }
+
+    private static Produkt leseProdukt(ResultSet rs) throws SQLException {
+        Produkt produkt = Produkt.ausCent(rs.getInt("id"), rs.getString("name"), rs.getLong("preis_cent"),
+                                          rs.getInt("bestand"));
+        produkt.setBarcode(rs.getString("barcode"));
+        return produkt;
     }
 
     /**
@@ -223,24 +299,170 @@ public final class DatabaseManager {
     }
 
     /**
-     * Speichert einen Verkauf in der Datenbank.
+     * Erhöht den Bestand eines Produkts atomar um die angegebene Menge.
      * 
-     * @param verkauf der zu speichernde Verkauf
+     * @param produktId die ID des Produkts
+     * @param menge die hinzuzufügende Menge
+     * @return {@link BestandsErgebnis#ERFOLGREICH} oder {@link BestandsErgebnis#NICHT_GEFUNDEN}
      * @throws SQLException bei Datenbankfehlern
-     */    public void speichereVerkauf(Verkauf verkauf) throws SQLException {
-        String sql = "INSERT INTO verkaeufe (timestamp, produkt_id, menge, einzelpreis, gesamtpreis) "
-                + "VALUES (?, ?, ?, ?, ?)";
-        
+     */
+    public BestandsErgebnis erhoeheBestand(int produktId, int menge) throws SQLException {
+        String sql = "UPDATE produkte SET bestand = bestand + ? WHERE id = ?";
+
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, verkauf.getTimestamp().toString());
-            pstmt.setInt(2, verkauf.getProduktId());
-            pstmt.setInt(3, verkauf.getMenge());
-            pstmt.setDouble(4, verkauf.getEinzelpreis());
-            pstmt.setDouble(5, verkauf.getGesamtpreis());
-            
-            pstmt.executeUpdate();
+
+            pstmt.setInt(1, menge);
+            pstmt.setInt(2, produktId);
+
+            return pstmt.executeUpdate() == 0 ? BestandsErgebnis.NICHT_GEFUNDEN : BestandsErgebnis.ERFOLGREICH;
+        }
+    }
+
+    /**
+     * Verringert den Bestand eines Produkts atomar, sofern genügend Bestand vorhanden ist.
+     * 
+     * Prüfung und Änderung erfolgen in einem einzigen UPDATE, sodass parallele
+     * Kassen keine Änderungen überschreiben können.
+     * 
+     * @param produktId die ID des Produkts
+     * @param menge die zu entnehmende Menge
+     * @return Ergebnis der Bestandsänderung
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public BestandsErgebnis verringereBestand(int produktId, int menge) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(BESTAND_VERRINGERN_SQL)) {
+
+            pstmt.setInt(1, menge);
+            pstmt.setInt(2, produktId);
+            pstmt.setInt(3, menge);
+
+            if (pstmt.executeUpdate() > 0) {
+                return BestandsErgebnis.ERFOLGREICH;
+            }
+            return ermittleKonflikt(conn, produktId);
+        }
+    }
+
+    /**
+     * Ermittelt, warum eine Bestandsverringerung keine Zeile geändert hat.
+     */
+    static BestandsErgebnis ermittleKonflikt(Connection conn, int produktId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM produkte WHERE id = ?")) {
+            pstmt.setInt(1, produktId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? BestandsErgebnis.NICHT_GENUEGEND_BESTAND : BestandsErgebnis.NICHT_GEFUNDEN;
+            }
+        }
+    }
+
+    /**
+     * Speichert einen Verkauf in der Datenbank und schreibt die Tagesaggregate fort.
+     * 
+     * @param verkauf der zu speichernde Verkauf
+     * @throws SQLException bei Datenbankfehlern
+     */    public void speichereVerkauf(Verkauf verkauf) throws SQLException {
+        speichereVerkaeufe(List.of(verkauf));
+    }
+
+    /**
+     * Speichert mehrere Verkäufe per JDBC-Batch in einer Transaktion, ohne Bestände zu ändern.
+     * 
+     * Kassenvorgänge laufen über {@link #speichereKassenvorgang(List)}, sehr große
+     * Historien werden schneller mit dem {@link BulkLader} importiert.
+     * 
+     * @param verkaeufe die zu speichernden Verkäufe
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void speichereVerkaeufe(List<Verkauf> verkaeufe) throws SQLException {
+        inTransaktion(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(VERKAUF_EINFUEGEN_SQL)) {
+                for (Verkauf verkauf : verkaeufe) {
+                    setzeVerkaufParameter(pstmt, verkauf);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            Tagesaggregate.buchen(conn, verkaeufe);
+        });
+    }
+
+    /**
+     * Belegt die Parameter von {@link #VERKAUF_EINFUEGEN_SQL} mit den Werten eines Verkaufs.
+     */
+    static void setzeVerkaufParameter(PreparedStatement pstmt, Verkauf verkauf) throws SQLException {
+        pstmt.setString(1, verkauf.getTimestamp().toString());
+        pstmt.setInt(2, tagesschluessel(verkauf.getTimestamp().toLocalDate()));
+        pstmt.setInt(3, verkauf.getProduktId());
+        pstmt.setInt(4, verkauf.getMenge());
+        pstmt.setLong(5, verkauf.getEinzelpreisCent());
+        pstmt.setLong(6, verkauf.getGesamtpreisCent());
+    }
+
+    /**
+     * Speichert alle Verkäufe eines Kassenvorgangs in einer einzigen Transaktion.
+     * 
+     * Bestandsänderungen, Verkaufszeilen und Tagesaggregate werden per JDBC-Batch geschrieben.
+     * Schlägt eine Zeile fehl, wird der gesamte Vorgang zurückgerollt.
+     * 
+     * @param verkaeufe die Verkäufe des Kassenvorgangs
+     * @throws BestandskonfliktException wenn ein Produkt fehlt oder nicht genügend Bestand hat
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void speichereKassenvorgang(List<Verkauf> verkaeufe) throws SQLException {
+        inTransaktion(conn -> {
+            try (PreparedStatement bestandStmt = conn.prepareStatement(BESTAND_VERRINGERN_SQL);
+                 PreparedStatement verkaufStmt = conn.prepareStatement(VERKAUF_EINFUEGEN_SQL)) {
+
+                for (Verkauf verkauf : verkaeufe) {
+                    bestandStmt.setInt(1, verkauf.getMenge());
+                    bestandStmt.setInt(2, verkauf.getProduktId());
+                    bestandStmt.setInt(3, verkauf.getMenge());
+                    bestandStmt.addBatch();
+
+                    setzeVerkaufParameter(verkaufStmt, verkauf);
+                    verkaufStmt.addBatch();
+                }
+
+                int[] geaenderteZeilen = bestandStmt.executeBatch();
+                for (int i = 0; i < geaenderteZeilen.length; i++) {
+                    if (geaenderteZeilen[i] == 0) {
+                        int produktId = verkaeufe.get(i).getProduktId();
+                        throw new BestandskonfliktException(produktId, ermittleKonflikt(conn, produktId));
+                    }
+                }
+                verkaufStmt.executeBatch();
+            }
+            Tagesaggregate.buchen(conn, verkaeufe);
+        });
+    }
+
+    /**
+     * Baut die Tagesaggregate für das Dashboard vollständig aus den Verkäufen neu auf.
+     * 
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void baueTagesaggregateNeu() throws SQLException {
+        inTransaktion(Tagesaggregate::neuAufbauen);
+    }
+
+    /**
+     * Führt die übergebene Arbeit auf einer Pool-Verbindung in einer Transaktion aus.
+     * Bei einem Fehler wird die Transaktion zurückgerollt und der Fehler weitergereicht.
+     */
+    void inTransaktion(TransaktionsArbeit arbeit) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                arbeit.ausfuehren(conn);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
@@ -256,4 +478,12 @@ public final class DatabaseManager {
             return false;
         }
     }
+
+    /**
+     * Arbeitsschritt, der innerhalb einer Transaktion ausgeführt wird.
+     */
+    @FunctionalInterface
+    interface TransaktionsArbeit {
+        void ausfuehren(Connection conn) throws SQLException;
+    }
 }
@@ -0,0 +1,137 @@
+package de.berufsschule.kasse.database;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Konfiguration der Datenbankanbindung.
+ *
+ * Alle Werte können über System-Properties (z. B. {@code -Dkasse.pool.groesse=8})
+ * überschrieben werden. Ohne Angabe gelten die hier definierten Standardwerte,
+ * als {@link Leistungsprofil} also {@link Leistungsprofil#SICHER}.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class DatenbankKonfiguration {
+    public static final String PROPERTY_URL = "kasse.db.url";
+    public static final String PROPERTY_POOL_GROESSE = "kasse.pool.groesse";
+    public static final String PROPERTY_POOL_MIN_LEERLAUF = "kasse.pool.minLeerlauf";
+    public static final String PROPERTY_POOL_LEERLAUF_TIMEOUT = "kasse.pool.leerlaufTimeoutMs";
+    public static final String PROPERTY_POOL_WARTEZEIT = "kasse.pool.wartezeitMs";
+    public static final String PROPERTY_STATEMENT_CACHE = "kasse.pool.statementCache";
+    public static final String PROPERTY_PROFIL = "kasse.db.profil";
+
+    private static final String STANDARD_URL = "jdbc:sqlite:kasse.db";
+    private static final int STANDARD_POOL_GROESSE = 4;
+    private static final int STANDARD_MIN_LEERLAUF = 1;
+    private static final long STANDARD_LEERLAUF_TIMEOUT_MILLIS = 60_000L;
+    private static final long STANDARD_WARTEZEIT_MILLIS = 5_000L;
+    private static final int STANDARD_STATEMENT_CACHE = 32;
+    private static final Leistungsprofil STANDARD_PROFIL = Leistungsprofil.SICHER;
+
+    private final String url;
+    private final int poolGroesse;
+    private final int minLeerlauf;
+    private final long leerlaufTimeoutMillis;
+    private final long wartezeitMillis;
+    private final int statementCacheGroesse;
+    private final Leistungsprofil leistungsprofil;
+
+    /**
+     * Erstellt eine Konfiguration mit expliziten Werten und dem Standardprofil
+     * {@link Leistungsprofil#SICHER}, wie {@link #ausSystemProperties()} ohne Angabe.
+     *
+     * @param url die JDBC-URL der Datenbank
+     * @param poolGroesse maximale Anzahl gleichzeitig ausgeliehener Verbindungen
+     * @param minLeerlauf Anzahl Verbindungen, die nie wegen Leerlauf geschlossen werden
+     * @param leerlaufTimeoutMillis Leerlaufzeit, nach der eine Verbindung geschlossen wird
+     * @param wartezeitMillis maximale Wartezeit auf eine freie Verbindung
+     * @param statementCacheGroesse Anzahl gecachter PreparedStatements pro Verbindung
+     */
+    public DatenbankKonfiguration(String url, int poolGroesse, int minLeerlauf, long leerlaufTimeoutMillis,
+                                  long wartezeitMillis, int statementCacheGroesse) {
+        this(url, poolGroesse, minLeerlauf, leerlaufTimeoutMillis, wartezeitMillis, statementCacheGroesse,
+             STANDARD_PROFIL);
+    }
+
+    /**
+     * Erstellt eine Konfiguration mit expliziten Werten und SQLite-Leistungsprofil.
+     *
+     * @param url die JDBC-URL der Datenbank
+     * @param poolGroesse maximale Anzahl gleichzeitig ausgeliehener Verbindungen
+     * @param minLeerlauf Anzahl Verbindungen, die nie wegen Leerlauf geschlossen werden
+     * @param leerlaufTimeoutMillis Leerlaufzeit, nach der eine Verbindung geschlossen wird
+     * @param wartezeitMillis maximale Wartezeit auf eine freie Verbindung
+     * @param statementCacheGroesse Anzahl gecachter PreparedStatements pro Verbindung
+     * @param leistungsprofil PRAGMAs, die auf jede neue Verbindung angewendet werden
+     */
+    public DatenbankKonfiguration(String url, int poolGroesse, int minLeerlauf, long leerlaufTimeoutMillis,
+                                  long wartezeitMillis, int statementCacheGroesse, Leistungsprofil leistungsprofil) {
+        if (poolGroesse <= 0) {
+            throw new IllegalArgumentException("Poolgröße muss größer als 0 sein");
+        }
+        this.url = url;
+        this.poolGroesse = poolGroesse;
+        this.minLeerlauf = Math.max(0, Math.min(minLeerlauf, poolGroesse));
+        this.leerlaufTimeoutMillis = leerlaufTimeoutMillis;
+        this.wartezeitMillis = wartezeitMillis;
+        this.statementCacheGroesse = Math.max(0, statementCacheGroesse);
+        this.leistungsprofil = leistungsprofil;
+    }
+
+    /**
+     * Liest die Konfiguration aus den System-Properties.
+     *
+     * @return die aktuelle Konfiguration
+     */
+    public static DatenbankKonfiguration ausSystemProperties() {
+        return new DatenbankKonfiguration(
+            System.getProperty(PROPERTY_URL, STANDARD_URL),
+            Integer.getInteger(PROPERTY_POOL_GROESSE, STANDARD_POOL_GROESSE),
+            Integer.getInteger(PROPERTY_POOL_MIN_LEERLAUF, STANDARD_MIN_LEERLAUF),
+            Long.getLong(PROPERTY_POOL_LEERLAUF_TIMEOUT, STANDARD_LEERLAUF_TIMEOUT_MILLIS),
+            Long.getLong(PROPERTY_POOL_WARTEZEIT, STANDARD_WARTEZEIT_MILLIS),
+            Integer.getInteger(PROPERTY_STATEMENT_CACHE, STANDARD_STATEMENT_CACHE),
+            leseLeistungsprofil()
+        );
+    }
+
+    private static Leistungsprofil leseLeistungsprofil() {
+        String wert = System.getProperty(PROPERTY_PROFIL, STANDARD_PROFIL.name());
+        try {
+            return Leistungsprofil.valueOf(wert.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekanntes Leistungsprofil '" + wert + "' für " + PROPERTY_PROFIL
+                                               + ", erlaubt: " + Arrays.toString(Leistungsprofil.values()), e);
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getPoolGroesse() {
+        return poolGroesse;
+    }
+
+    public int getMinLeerlauf() {
+        return minLeerlauf;
+    }
+
+    public long getLeerlaufTimeoutMillis() {
+        return leerlaufTimeoutMillis;
+    }
+
+    public long getWartezeitMillis() {
+        return wartezeitMillis;
+    }
+
+    public int getStatementCacheGroesse() {
+        return statementCacheGroesse;
+    }
+
+    public Leistungsprofil getLeistungsprofil() {
+        return leistungsprofil;
+    }
+}
@@ -0,0 +1,86 @@
+package de.berufsschule.kasse.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQLite-Einstellungen, die der ConnectionPool auf jede neue Verbindung anwendet.
+ *
+ * Auswahl über {@code -Dkasse.db.profil=SCHNELL}. Im WAL-Modus blockieren
+ * Dashboard-Abfragen den Kassenabschluss nicht mehr, und ein Commit schreibt
+ * nur noch ans Ende der WAL-Datei statt Datenbank und Journal zu synchronisieren.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public enum Leistungsprofil {
+    /**
+     * SQLite-Standardwerte (Rollback-Journal, synchronous=FULL), nur zum Vergleich;
+     * gesetzt wird lediglich busy_timeout, damit parallele Verbindungen warten statt scheitern.
+     */
+    STANDARD(null, null, 0, 0, null, 5_000),
+
+    /** WAL mit synchronous=FULL: jeder Commit ist auch bei Stromausfall dauerhaft. */
+    SICHER("WAL", "FULL", -16_384, 268_435_456L, "MEMORY", 5_000),
+
+    /**
+     * WAL mit synchronous=NORMAL: konsistent bei Absturz, bei Stromausfall
+     * können die letzten Commits vor dem nächsten Checkpoint verloren gehen.
+     */
+    SCHNELL("WAL", "NORMAL", -65_536, 268_435_456L, "MEMORY", 5_000);
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+
+    Leistungsprofil(String journalMode, String synchronous, int cacheSize, long mmapSize, String tempStore,
+                    int busyTimeoutMillis) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    /**
+     * Wendet die PRAGMAs des Profils auf eine frisch geöffnete Verbindung an.
+     *
+     * @param conn die Verbindung (im Autocommit-Modus)
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void anwenden(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Reason: busy_timeout zuerst, damit die Umstellung auf WAL bei parallelem Zugriff wartet
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            if (journalMode != null) {
+                stmt.execute("PRAGMA journal_mode = " + journalMode);
+            }
+            if (synchronous != null) {
+                stmt.execute("PRAGMA synchronous = " + synchronous);
+            }
+            if (cacheSize != 0) {
+                // Negative Werte bedeuten KiB statt Seiten
+                stmt.execute("PRAGMA cache_size = " + cacheSize);
+            }
+            if (mmapSize > 0) {
+                stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            }
+            if (tempStore != null) {
+                stmt.execute("PRAGMA temp_store = " + tempStore);
+            }
+        }
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+}
@@ -0,0 +1,82 @@
+package de.berufsschule.kasse.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Eine versionierte Änderung am Datenbankschema.
+ *
+ * Migrationen werden vom {@link MigrationsManager} in aufsteigender Versionsreihenfolge
+ * genau einmal pro Datenbank angewendet.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public interface Migration {
+
+    /**
+     * Gibt die Schemaversion zurück, die nach dieser Migration gilt.
+     *
+     * @return Versionsnummer (aufsteigend, beginnend bei 1)
+     */
+    int getVersion();
+
+    /**
+     * Gibt eine kurze Beschreibung der Migration zurück.
+     *
+     * @return Beschreibung für Protokollausgaben
+     */
+    String getBeschreibung();
+
+    /**
+     * Führt die Migration aus.
+     *
+     * @param conn die Datenbankverbindung
+     * @throws SQLException bei Datenbankfehlern
+     */
+    void anwenden(Connection conn) throws SQLException;
+
+    /**
+     * Gibt an, ob die Migration komplett in einer Transaktion laufen soll.
+     *
+     * Migrationen, die große Datenmengen in Abschnitten bearbeiten, committen selbst
+     * und müssen daher wiederholbar (idempotent) sein.
+     *
+     * @return true wenn der MigrationsManager eine Transaktion um die Migration legt
+     */
+    default boolean inTransaktion() {
+        return true;
+    }
+
+    /**
+     * Erstellt eine Migration, die die angegebenen SQL-Anweisungen ausführt.
+     *
+     * @param version die Zielversion
+     * @param beschreibung kurze Beschreibung
+     * @param anweisungen auszuführende SQL-Anweisungen
+     * @return die Migration
+     */
+    static Migration ausSql(int version, String beschreibung, String... anweisungen) {
+        return new Migration() {
+            @Override
+            public int getVersion() {
+                return version;
+            }
+
+            @Override
+            public String getBeschreibung() {
+                return beschreibung;
+            }
+
+            @Override
+            public void anwenden(Connection conn) throws SQLException {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String anweisung : anweisungen) {
+                        stmt.execute(anweisung);
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package de.berufsschule.kasse.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Wendet versionierte Schemamigrationen auf eine SQLite-Datenbank an.
+ *
+ * Die aktuelle Schemaversion wird in {@code PRAGMA user_version} gespeichert.
+ * Beim Start werden alle Migrationen mit höherer Version der Reihe nach
+ * ausgeführt; {@link #migriere(Connection)} gibt ihre Laufzeiten zurück, der
+ * {@link DatabaseManager} meldet sie beim Start.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class MigrationsManager {
+    /** Standardgröße für Abschnitte bei großen Datenänderungen. */
+    public static final int STANDARD_ABSCHNITTSGROESSE = 10_000;
+
+    private final List<Migration> migrationen;
+
+    /**
+     * Erstellt einen MigrationsManager für die angegebenen Migrationen.
+     *
+     * @param migrationen alle bekannten Migrationen (Reihenfolge beliebig)
+     */
+    public MigrationsManager(List<Migration> migrationen) {
+        List<Migration> sortiert = new ArrayList<>(migrationen);
+        sortiert.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sortiert.size(); i++) {
+            if (sortiert.get(i).getVersion() == sortiert.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Doppelte Migrationsversion " + sortiert.get(i).getVersion());
+            }
+        }
+        this.migrationen = List.copyOf(sortiert);
+    }
+
+    /**
+     * Liest die aktuelle Schemaversion der Datenbank.
+     *
+     * @param conn die Datenbankverbindung
+     * @return Wert von {@code PRAGMA user_version}
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public static int getSchemaversion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Gibt die höchste bekannte Schemaversion zurück.
+     *
+     * @return Zielversion nach allen Migrationen
+     */
+    public int getZielversion() {
+        return migrationen.isEmpty() ? 0 : migrationen.get(migrationen.size() - 1).getVersion();
+    }
+
+    /**
+     * Wendet alle ausstehenden Migrationen an.
+     *
+     * @param conn die Datenbankverbindung
+     * @return Protokoll der angewendeten Migrationen (leer, wenn das Schema aktuell ist)
+     * @throws SQLException wenn eine Migration fehlschlägt oder die Datenbank neuer als die Anwendung ist
+     */
+    public List<Ergebnis> migriere(Connection conn) throws SQLException {
+        int aktuell = getSchemaversion(conn);
+        if (aktuell > getZielversion()) {
+            throw new SQLException("Datenbankschema Version " + aktuell
+                    + " ist neuer als die Anwendung (Version " + getZielversion() + ")");
+        }
+
+        List<Ergebnis> protokoll = new ArrayList<>();
+        for (Migration migration : migrationen) {
+            if (migration.getVersion() <= aktuell) {
+                continue;
+            }
+            long start = System.nanoTime();
+            if (migration.inTransaktion()) {
+                wendeInTransaktionAn(conn, migration);
+            } else {
+                migration.anwenden(conn);
+                setzeSchemaversion(conn, migration.getVersion());
+            }
+            Ergebnis ergebnis = new Ergebnis(migration.getVersion(), migration.getBeschreibung(),
+                                             (System.nanoTime() - start) / 1_000_000L);
+            protokoll.add(ergebnis);
+        }
+        return protokoll;
+    }
+
+    private static void wendeInTransaktionAn(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            migration.anwenden(conn);
+            setzeSchemaversion(conn, migration.getVersion());
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void setzeSchemaversion(Connection conn, int version) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + version);
+        }
+    }
+
+    /**
+     * Führt ein UPDATE in kleinen, einzeln committeten Abschnitten aus.
+     *
+     * Jeder Abschnitt hält die Schreibsperre nur kurz, sodass eine laufende Kasse
+     * zwischen den Abschnitten weiterarbeiten kann. Die Abschnitte sind rowid-Bereiche,
+     * jeder Abschnitt liest also nur seine eigenen Zeilen statt die Tabelle erneut von
+     * vorn zu durchsuchen. Die Bedingung wählt innerhalb eines Bereichs die noch nicht
+     * bearbeiteten Zeilen aus (z. B. {@code spalte IS NULL}).
+     *
+     * @param conn die Datenbankverbindung (im Auto-Commit-Modus)
+     * @param tabelle die zu ändernde Tabelle
+     * @param zuweisung der SET-Teil, z. B. {@code tag = 1}
+     * @param bedingung Bedingung für noch nicht bearbeitete Zeilen
+     * @param abschnittsgroesse Breite eines rowid-Bereichs und damit maximale Zeilen pro Abschnitt
+     * @return Gesamtzahl geänderter Zeilen
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public static long aktualisiereInAbschnitten(Connection conn, String tabelle, String zuweisung,
+                                                 String bedingung, int abschnittsgroesse) throws SQLException {
+        if (abschnittsgroesse <= 0) {
+            throw new IllegalArgumentException("Abschnittsgröße muss größer als 0 sein");
+        }
+        long kleinste;
+        long groesste;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(rowid), MAX(rowid) FROM " + tabelle)) {
+            rs.next();
+            kleinste = rs.getLong(1);
+            if (rs.wasNull()) {
+                return 0;
+            }
+            groesste = rs.getLong(2);
+        }
+
+        String sql = "UPDATE " + tabelle + " SET " + zuweisung
+                + " WHERE rowid > ? AND rowid <= ? AND (" + bedingung + ")";
+        long gesamt = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (long von = kleinste - 1; von < groesste; von += abschnittsgroesse) {
+                stmt.setLong(1, von);
+                stmt.setLong(2, von + abschnittsgroesse);
+                gesamt += stmt.executeUpdate();
+            }
+        }
+        return gesamt;
+    }
+
+    /**
+     * Protokolleintrag einer angewendeten Migration.
+     */
+    public static final class Ergebnis {
+        private final int version;
+        private final String beschreibung;
+        private final long dauerMillis;
+
+        Ergebnis(int version, String beschreibung, long dauerMillis) {
+            this.version = version;
+            this.beschreibung = beschreibung;
+            this.dauerMillis = dauerMillis;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getBeschreibung() {
+            return beschreibung;
+        }
+
+        public long getDauerMillis() {
+            return dauerMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.GERMAN, "V%d (%s) in %d ms", version, beschreibung, dauerMillis);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.berufsschule.kasse.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dauerhafte Ablage der Bestandsreservierungen offener Warenkörbe.
+ *
+ * Die Tabelle {@code reservierungen} dient nur der Wiederherstellung nach
+ * einem Neustart und enthält nur Kassen mit fester Kennung, die sich danach
+ * wieder anmelden können; Verfügbarkeitsprüfungen laufen gegen das
+ * Reservierungsbuch im Speicher und lesen diese Tabelle nicht.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class ReservierungsSpeicher {
+    private static final String SPEICHERN_SQL =
+        "INSERT INTO reservierungen (kasse, produkt_id, menge, ablauf) VALUES (?, ?, ?, ?) "
+        + "ON CONFLICT(kasse, produkt_id) DO UPDATE SET menge = excluded.menge, ablauf = excluded.ablauf";
+
+    // Reason: Die Haltedauer gilt je Kasse; jede Erfassung verlängert alle Reservierungen der Kasse,
+    // gespeichert wird aber nur die Zeile der erfassten Position. Maßgeblich ist daher der späteste Ablauf.
+    private static final String ABGELAUFENE_LOESCHEN_SQL =
+        "DELETE FROM reservierungen WHERE kasse IN "
+        + "(SELECT kasse FROM reservierungen GROUP BY kasse HAVING MAX(ablauf) < ?)";
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * Erstellt einen Speicher auf der Datenbank des DatabaseManagers.
+     *
+     * @param dbManager der DatabaseManager
+     */
+    public ReservierungsSpeicher(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Schreibt gesammelte Änderungen in Aufrufreihenfolge in einer Transaktion.
+     *
+     * @param aenderungen die Änderungen
+     * @throws SQLException bei Datenbankfehlern; die Transaktion wird dann zurückgerollt
+     */
+    public void uebernehme(List<Aenderung> aenderungen) throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement speichern = conn.prepareStatement(SPEICHERN_SQL);
+                 PreparedStatement loeschen = conn.prepareStatement("DELETE FROM reservierungen WHERE kasse = ?");
+                 Statement alleLoeschen = conn.createStatement()) {
+                for (Aenderung aenderung : aenderungen) {
+                    if (aenderung.kasse == null) {
+                        alleLoeschen.executeUpdate("DELETE FROM reservierungen");
+                    } else if (aenderung.menge == 0) {
+                        loeschen.setString(1, aenderung.kasse);
+                        loeschen.executeUpdate();
+                    } else {
+                        speichern.setString(1, aenderung.kasse);
+                        speichern.setInt(2, aenderung.produktId);
+                        speichern.setInt(3, aenderung.menge);
+                        speichern.setLong(4, aenderung.ablauf);
+                        speichern.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Löscht alle Reservierungen.
+     *
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public void leeren() throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM reservierungen");
+        }
+    }
+
+    /**
+     * Entfernt die Reservierungen abgelaufener Kassen und lädt die übrigen.
+     *
+     * @param jetzt aktueller Zeitpunkt in Millisekunden seit 1970
+     * @return alle noch gültigen Reservierungen
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public List<Eintrag> ladeGueltige(long jetzt) throws SQLException {
+        List<Eintrag> eintraege = new ArrayList<>();
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement loeschen = conn.prepareStatement(ABGELAUFENE_LOESCHEN_SQL);
+             Statement stmt = conn.createStatement()) {
+            loeschen.setLong(1, jetzt);
+            loeschen.executeUpdate();
+            try (ResultSet rs = stmt.executeQuery("SELECT kasse, produkt_id, menge, ablauf FROM reservierungen")) {
+                while (rs.next()) {
+                    eintraege.add(new Eintrag(rs.getString("kasse"), rs.getInt("produkt_id"),
+                                              rs.getInt("menge"), rs.getLong("ablauf")));
+                }
+            }
+        }
+        return eintraege;
+    }
+
+    /**
+     * Eine Änderung an den gespeicherten Reservierungen.
+     */
+    public static final class Aenderung {
+        private final String kasse;
+        private final int produktId;
+        private final int menge;
+        private final long ablauf;
+
+        private Aenderung(String kasse, int produktId, int menge, long ablauf) {
+            this.kasse = kasse;
+            this.produktId = produktId;
+            this.menge = menge;
+            this.ablauf = ablauf;
+        }
+
+        /**
+         * Legt die Reservierung einer Kasse für ein Produkt an oder überschreibt sie.
+         *
+         * @param kasse Kennung der Kasse
+         * @param produktId die ID des Produkts
+         * @param menge die reservierte Gesamtmenge, größer als 0
+         * @param ablauf Ablaufzeitpunkt in Millisekunden seit 1970
+         * @return die Änderung
+         */
+        public static Aenderung speichern(String kasse, int produktId, int menge, long ablauf) {
+            if (menge <= 0) {
+                throw new IllegalArgumentException("Menge muss größer als 0 sein");
+            }
+            return new Aenderung(kasse, produktId, menge, ablauf);
+        }
+
+        /**
+         * Löscht alle Reservierungen einer Kasse.
+         *
+         * @param kasse Kennung der Kasse
+         * @return die Änderung
+         */
+        public static Aenderung loeschen(String kasse) {
+            return new Aenderung(kasse, 0, 0, 0);
+        }
+
+        /**
+         * Löscht alle Reservierungen.
+         *
+         * @return die Änderung
+         */
+        public static Aenderung alleLoeschen() {
+            return new Aenderung(null, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Eine gespeicherte Reservierung.
+     */
+    public static final class Eintrag {
+        private final String kasse;
+        private final int produktId;
+        private final int menge;
+        private final long ablauf;
+
+        Eintrag(String kasse, int produktId, int menge, long ablauf) {
+            this.kasse = kasse;
+            this.produktId = produktId;
+            this.menge = menge;
+            this.ablauf = ablauf;
+        }
+
+        public String getKasse() {
+            return kasse;
+        }
+
+        public int getProduktId() {
+            return produktId;
+        }
+
+        public int getMenge() {
+            return menge;
+        }
+
+        public long getAblauf() {
+            return ablauf;
+        }
+    }
+}
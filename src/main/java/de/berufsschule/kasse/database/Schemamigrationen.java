@@ -0,0 +1,307 @@
+package de.berufsschule.kasse.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Alle Schemamigrationen des Kassensystems in Versionsreihenfolge.
+ *
+ * Neue Schemaänderungen werden ausschließlich als weitere Migration am Ende
+ * der Liste ergänzt; bestehende Migrationen dürfen nicht mehr verändert werden.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Schemamigrationen {
+
+    static final String INDEX_VERKAEUFE_TAG_PRODUKT =
+        "CREATE INDEX IF NOT EXISTS idx_verkaeufe_tag_produkt ON verkaeufe (tag, produkt_id)";
+
+    private static final Migration V1_GRUNDSCHEMA = Migration.ausSql(1, "Tabellen produkte und verkaeufe",
+        """
+        CREATE TABLE IF NOT EXISTS produkte (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            name TEXT NOT NULL UNIQUE,
+            preis REAL NOT NULL CHECK(preis > 0),
+            bestand INTEGER NOT NULL CHECK(bestand >= 0)
+        )
+        """,
+        """
+        CREATE TABLE IF NOT EXISTS verkaeufe (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            timestamp TEXT NOT NULL,
+            produkt_id INTEGER NOT NULL,
+            menge INTEGER NOT NULL CHECK(menge > 0),
+            einzelpreis REAL NOT NULL CHECK(einzelpreis > 0),
+            gesamtpreis REAL NOT NULL CHECK(gesamtpreis > 0),
+            FOREIGN KEY (produkt_id) REFERENCES produkte (id)
+        )
+        """);
+
+    // Reason: V3 legte die Tagesaggregate noch mit REAL-Beträgen an; die DDL ist hier eingefroren,
+    // damit sich V3 nicht ändert, wenn Tagesaggregate auf Cent umgestellt wird
+    private static final String V3_TABELLE_TAG = """
+        CREATE TABLE IF NOT EXISTS tagesumsatz (
+            tag INTEGER PRIMARY KEY,
+            umsatz REAL NOT NULL DEFAULT 0,
+            anzahl_verkaeufe INTEGER NOT NULL DEFAULT 0
+        )
+        """;
+
+    private static final String V3_TABELLE_PRODUKT = """
+        CREATE TABLE IF NOT EXISTS tagesumsatz_produkt (
+            tag INTEGER NOT NULL,
+            produkt_id INTEGER NOT NULL,
+            menge INTEGER NOT NULL DEFAULT 0,
+            umsatz REAL NOT NULL DEFAULT 0,
+            PRIMARY KEY (tag, produkt_id)
+        ) WITHOUT ROWID
+        """;
+
+    private static final String V3_INDEX_MENGE =
+        "CREATE INDEX IF NOT EXISTS idx_tagesumsatz_produkt_menge ON tagesumsatz_produkt (tag, menge)";
+
+    private static final Migration V5_RESERVIERUNGEN = Migration.ausSql(5, "Tabelle reservierungen",
+        """
+        CREATE TABLE IF NOT EXISTS reservierungen (
+            kasse TEXT NOT NULL,
+            produkt_id INTEGER NOT NULL,
+            menge INTEGER NOT NULL CHECK(menge > 0),
+            ablauf INTEGER NOT NULL,
+            PRIMARY KEY (kasse, produkt_id)
+        ) WITHOUT ROWID
+        """);
+
+    // Reason: Der UNIQUE-Index lässt mehrere NULL zu, Produkte ohne Barcode bleiben erlaubt
+    private static final Migration V6_BARCODE = Migration.ausSql(6, "Spalte barcode in produkte",
+        "ALTER TABLE produkte ADD COLUMN barcode TEXT",
+        "CREATE UNIQUE INDEX IF NOT EXISTS idx_produkte_barcode ON produkte (barcode)");
+
+    private static final Migration V7_JOURNALSTAND = Migration.ausSql(7, "Tabelle journal_stand",
+        """
+        CREATE TABLE IF NOT EXISTS journal_stand (
+            id INTEGER PRIMARY KEY CHECK(id = 1),
+            sequenz INTEGER NOT NULL
+        )
+        """);
+
+    // Reason: Ohne Fremdschlüssel, ein abgelehnter Abschluss kann ein inzwischen gelöschtes Produkt betreffen
+    private static final Migration V8_JOURNALKONFLIKTE = Migration.ausSql(8, "Tabelle journal_konflikte",
+        """
+        CREATE TABLE IF NOT EXISTS journal_konflikte (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            sequenz INTEGER NOT NULL,
+            timestamp TEXT NOT NULL,
+            produkt_id INTEGER NOT NULL,
+            menge INTEGER NOT NULL,
+            einzelpreis_cent INTEGER NOT NULL,
+            grund TEXT NOT NULL
+        )
+        """);
+
+    private Schemamigrationen() {
+    }
+
+    /**
+     * Gibt alle Migrationen zurück.
+     *
+     * @return unveränderliche Liste aller Migrationen
+     */
+    public static List<Migration> alle() {
+        return List.of(V1_GRUNDSCHEMA, new TagesschluesselMigration(), new TagesaggregatMigration(),
+                       new CentbetragMigration(), V5_RESERVIERUNGEN, V6_BARCODE, V7_JOURNALSTAND,
+                       V8_JOURNALKONFLIKTE);
+    }
+
+    /**
+     * Prüft, ob eine Tabelle eine bestimmte Spalte besitzt.
+     *
+     * @param conn die Datenbankverbindung
+     * @param tabelle der Tabellenname
+     * @param spalte der Spaltenname
+     * @return true wenn die Spalte existiert
+     * @throws SQLException bei Datenbankfehlern
+     */
+    static boolean hatSpalte(Connection conn, String tabelle, String spalte) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tabelle + ")")) {
+            while (rs.next()) {
+                if (spalte.equals(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * V2: Tagesschlüssel (yyyyMMdd) für Verkäufe samt Index.
+     *
+     * Die Befüllung bestehender Zeilen erfolgt in Abschnitten, damit die Kasse
+     * auch bei großen Verkaufshistorien nicht lange blockiert wird.
+     */
+    private static final class TagesschluesselMigration implements Migration {
+        @Override
+        public int getVersion() {
+            return 2;
+        }
+
+        @Override
+        public String getBeschreibung() {
+            return "Tagesschlüssel und Index für verkaeufe";
+        }
+
+        @Override
+        public boolean inTransaktion() {
+            return false;
+        }
+
+        @Override
+        public void anwenden(Connection conn) throws SQLException {
+            if (!hatSpalte(conn, "verkaeufe", "tag")) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE verkaeufe ADD COLUMN tag INTEGER");
+                }
+            }
+            MigrationsManager.aktualisiereInAbschnitten(conn, "verkaeufe",
+                "tag = CAST(REPLACE(SUBSTR(timestamp, 1, 10), '-', '') AS INTEGER)", "tag IS NULL",
+                MigrationsManager.STANDARD_ABSCHNITTSGROESSE);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(INDEX_VERKAEUFE_TAG_PRODUKT);
+            }
+        }
+    }
+
+    /**
+     * V3: Tagesaggregate für das Dashboard, befüllt aus den vorhandenen Verkäufen.
+     */
+    private static final class TagesaggregatMigration implements Migration {
+        @Override
+        public int getVersion() {
+            return 3;
+        }
+
+        @Override
+        public String getBeschreibung() {
+            return "Tagesaggregate tagesumsatz und tagesumsatz_produkt";
+        }
+
+        @Override
+        public void anwenden(Connection conn) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(V3_TABELLE_TAG);
+                stmt.execute(V3_TABELLE_PRODUKT);
+                stmt.execute(V3_INDEX_MENGE);
+                stmt.execute("INSERT INTO tagesumsatz (tag, umsatz, anzahl_verkaeufe) "
+                        + "SELECT tag, SUM(gesamtpreis), COUNT(*) FROM verkaeufe GROUP BY tag");
+                stmt.execute("INSERT INTO tagesumsatz_produkt (tag, produkt_id, menge, umsatz) "
+                        + "SELECT tag, produkt_id, SUM(menge), SUM(gesamtpreis) FROM verkaeufe "
+                        + "GROUP BY tag, produkt_id");
+            }
+        }
+    }
+
+    /**
+     * V4: Alle Geldbeträge als ganze Cent in INTEGER-Spalten statt als REAL.
+     *
+     * SQLite kann Spalten mit CHECK-Bedingung weder umtypisieren noch löschen,
+     * deshalb werden produkte und verkaeufe neu aufgebaut. IDs und die
+     * AUTOINCREMENT-Zähler bleiben erhalten; die Tagesaggregate werden aus den
+     * umgerechneten Verkäufen neu berechnet.
+     */
+    private static final class CentbetragMigration implements Migration {
+        /** Rechnet eine REAL-Spalte in ganze Cent um, mindestens aber 1 Cent. */
+        private static final String IN_CENT = "MAX(CAST(ROUND(%s * 100) AS INTEGER), 1)";
+
+        @Override
+        public int getVersion() {
+            return 4;
+        }
+
+        @Override
+        public String getBeschreibung() {
+            return "Geldbeträge in Cent (INTEGER)";
+        }
+
+        @Override
+        public void anwenden(Connection conn) throws SQLException {
+            long produktSequenz = leseSequenz(conn, "produkte");
+            long verkaufSequenz = leseSequenz(conn, "verkaeufe");
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE produkte_neu (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL UNIQUE,
+                        preis_cent INTEGER NOT NULL CHECK(preis_cent > 0),
+                        bestand INTEGER NOT NULL CHECK(bestand >= 0)
+                    )
+                    """);
+                // Reason: Ein Altpreis unter einem halben Cent war als REAL positiv, ergäbe gerundet aber 0
+                // und verletzte CHECK(preis_cent > 0); er wird auf den kleinsten Betrag von 1 Cent angehoben
+                stmt.execute("INSERT INTO produkte_neu (id, name, preis_cent, bestand) "
+                        + "SELECT id, name, " + IN_CENT.formatted("preis") + ", bestand FROM produkte");
+                stmt.execute("""
+                    CREATE TABLE verkaeufe_neu (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        timestamp TEXT NOT NULL,
+                        tag INTEGER NOT NULL,
+                        produkt_id INTEGER NOT NULL,
+                        menge INTEGER NOT NULL CHECK(menge > 0),
+                        einzelpreis_cent INTEGER NOT NULL CHECK(einzelpreis_cent > 0),
+                        gesamtpreis_cent INTEGER NOT NULL CHECK(gesamtpreis_cent > 0),
+                        FOREIGN KEY (produkt_id) REFERENCES produkte (id)
+                    )
+                    """);
+                // Reason: Der Gesamtpreis wird aus Menge und Einzelpreis neu berechnet, damit
+                // gesamtpreis_cent = menge * einzelpreis_cent wie im Modell immer exakt gilt
+                stmt.execute("INSERT INTO verkaeufe_neu "
+                        + "(id, timestamp, tag, produkt_id, menge, einzelpreis_cent, gesamtpreis_cent) "
+                        + "SELECT id, timestamp, tag, produkt_id, menge, " + IN_CENT.formatted("einzelpreis") + ", "
+                        + "menge * " + IN_CENT.formatted("einzelpreis") + " FROM verkaeufe");
+                stmt.execute("DROP TABLE verkaeufe");
+                stmt.execute("DROP TABLE produkte");
+                stmt.execute("ALTER TABLE produkte_neu RENAME TO produkte");
+                stmt.execute("ALTER TABLE verkaeufe_neu RENAME TO verkaeufe");
+                stmt.execute(INDEX_VERKAEUFE_TAG_PRODUKT);
+
+                stmt.execute("DROP TABLE tagesumsatz");
+                stmt.execute("DROP TABLE tagesumsatz_produkt");
+                stmt.execute(Tagesaggregate.TABELLE_TAG);
+                stmt.execute(Tagesaggregate.TABELLE_PRODUKT);
+                stmt.execute(Tagesaggregate.INDEX_MENGE);
+            }
+            setzeSequenz(conn, "produkte", produktSequenz);
+            setzeSequenz(conn, "verkaeufe", verkaufSequenz);
+            Tagesaggregate.neuAufbauen(conn);
+        }
+
+        private static long leseSequenz(Connection conn, String tabelle) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT seq FROM sqlite_sequence WHERE name = ?")) {
+                stmt.setString(1, tabelle);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getLong(1) : 0;
+                }
+            }
+        }
+
+        private static void setzeSequenz(Connection conn, String tabelle, long seq) throws SQLException {
+            // Reason: Gelöschte Zeilen am Ende dürfen ihre IDs nicht wieder freigeben (AUTOINCREMENT)
+            if (seq <= leseSequenz(conn, tabelle)) {
+                return;
+            }
+            try (PreparedStatement loeschen = conn.prepareStatement("DELETE FROM sqlite_sequence WHERE name = ?");
+                 PreparedStatement einfuegen =
+                     conn.prepareStatement("INSERT INTO sqlite_sequence (name, seq) VALUES (?, ?)")) {
+                loeschen.setString(1, tabelle);
+                loeschen.executeUpdate();
+                einfuegen.setString(1, tabelle);
+                einfuegen.setLong(2, seq);
+                einfuegen.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package de.berufsschule.kasse.database;
+
+import de.berufsschule.kasse.model.Verkauf;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Pflege der Tagesaggregate für das Dashboard.
+ *
+ * Die Tabellen {@code tagesumsatz} und {@code tagesumsatz_produkt} werden in derselben
+ * Transaktion wie die Verkäufe fortgeschrieben, sodass Tagesumsatz, Anzahl Verkäufe und
+ * Top-Produkte ohne Aggregation über alle Verkäufe gelesen werden können.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+final class Tagesaggregate {
+    static final String TABELLE_TAG = """
+        CREATE TABLE IF NOT EXISTS tagesumsatz (
+            tag INTEGER PRIMARY KEY,
+            umsatz_cent INTEGER NOT NULL DEFAULT 0,
+            anzahl_verkaeufe INTEGER NOT NULL DEFAULT 0
+        )
+        """;
+
+    static final String TABELLE_PRODUKT = """
+        CREATE TABLE IF NOT EXISTS tagesumsatz_produkt (
+            tag INTEGER NOT NULL,
+            produkt_id INTEGER NOT NULL,
+            menge INTEGER NOT NULL DEFAULT 0,
+            umsatz_cent INTEGER NOT NULL DEFAULT 0,
+            PRIMARY KEY (tag, produkt_id)
+        ) WITHOUT ROWID
+        """;
+
+    static final String INDEX_MENGE =
+        "CREATE INDEX IF NOT EXISTS idx_tagesumsatz_produkt_menge ON tagesumsatz_produkt (tag, menge)";
+
+    private static final String TAG_BUCHEN_SQL =
+        "INSERT INTO tagesumsatz (tag, umsatz_cent, anzahl_verkaeufe) VALUES (?, ?, 1) "
+        + "ON CONFLICT(tag) DO UPDATE SET umsatz_cent = umsatz_cent + excluded.umsatz_cent, "
+        + "anzahl_verkaeufe = anzahl_verkaeufe + 1";
+
+    private static final String PRODUKT_BUCHEN_SQL =
+        "INSERT INTO tagesumsatz_produkt (tag, produkt_id, menge, umsatz_cent) VALUES (?, ?, ?, ?) "
+        + "ON CONFLICT(tag, produkt_id) DO UPDATE SET menge = menge + excluded.menge, "
+        + "umsatz_cent = umsatz_cent + excluded.umsatz_cent";
+
+    private Tagesaggregate() {
+    }
+
+    /**
+     * Schreibt die Verkäufe in die Tagesaggregate fort. Muss innerhalb der
+     * Transaktion aufgerufen werden, die auch die Verkäufe speichert.
+     *
+     * @param conn die Verbindung der laufenden Transaktion
+     * @param verkaeufe die gespeicherten Verkäufe
+     * @throws SQLException bei Datenbankfehlern
+     */
+    static void buchen(Connection conn, List<Verkauf> verkaeufe) throws SQLException {
+        try (PreparedStatement tagStmt = conn.prepareStatement(TAG_BUCHEN_SQL);
+             PreparedStatement produktStmt = conn.prepareStatement(PRODUKT_BUCHEN_SQL)) {
+            for (Verkauf verkauf : verkaeufe) {
+                int tag = DatabaseManager.tagesschluessel(verkauf.getTimestamp().toLocalDate());
+
+                tagStmt.setInt(1, tag);
+                tagStmt.setLong(2, verkauf.getGesamtpreisCent());
+                tagStmt.addBatch();
+
+                produktStmt.setInt(1, tag);
+                produktStmt.setInt(2, verkauf.getProduktId());
+                produktStmt.setInt(3, verkauf.getMenge());
+                produktStmt.setLong(4, verkauf.getGesamtpreisCent());
+                produktStmt.addBatch();
+            }
+            tagStmt.executeBatch();
+            produktStmt.executeBatch();
+        }
+    }
+
+    /**
+     * Berechnet alle Tagesaggregate aus den Rohdaten der Tabelle verkaeufe neu.
+     *
+     * @param conn die Datenbankverbindung (Transaktion wird vom Aufrufer gesteuert)
+     * @throws SQLException bei Datenbankfehlern
+     */
+    static void neuAufbauen(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM tagesumsatz");
+            stmt.execute("DELETE FROM tagesumsatz_produkt");
+            stmt.execute("INSERT INTO tagesumsatz (tag, umsatz_cent, anzahl_verkaeufe) "
+                    + "SELECT tag, SUM(gesamtpreis_cent), COUNT(*) FROM verkaeufe GROUP BY tag");
+            stmt.execute("INSERT INTO tagesumsatz_produkt (tag, produkt_id, menge, umsatz_cent) "
+                    + "SELECT tag, produkt_id, SUM(menge), SUM(gesamtpreis_cent) FROM verkaeufe "
+                    + "GROUP BY tag, produkt_id");
+        }
+    }
+}
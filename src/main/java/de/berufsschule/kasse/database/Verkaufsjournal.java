@@ -0,0 +1,751 @@
+package de.berufsschule.kasse.database;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-Ahead-Journal für Kassenabschlüsse mit Gruppen-Commit.
+ *
+ * Ein Abschluss gilt als gebucht, sobald sein Satz im Journal per
+ * {@link FileChannel#force(boolean)} auf der Platte liegt. Ein Schreib-Thread
+ * nimmt dafür alle wartenden Abschlüsse auf einmal und synchronisiert sie
+ * gemeinsam; bei vielen Kassen teilen sich so viele Bons einen Plattenzugriff.
+ * Ein zweiter Thread spielt die Sätze danach gesammelt in {@code verkaeufe},
+ * die Bestände und die Tagesaggregate ein und speichert in derselben
+ * Transaktion die letzte eingespielte Sequenznummer in {@code journal_stand}.
+ *
+ * Beim Öffnen werden alle Sätze eingespielt, die noch nicht in der Datenbank
+ * stehen. Ein beim Absturz halb geschriebener letzter Satz fällt über Länge und
+ * Prüfsumme heraus; er wurde nie bestätigt. Bis zum Einspielen hinkt die
+ * Datenbank einige Millisekunden hinterher: Produkte, die über
+ * {@link #leseProdukt(Abfrage)} gelesen werden, sind um die ausstehenden Mengen
+ * korrigiert, Statistiken sehen die Verkäufe erst nach dem Einspielen. Die
+ * Bestandsprüfung übernimmt vor dem Abschluss das Reservierungsbuch. Reicht
+ * der Bestand beim Einspielen trotzdem nicht, wird die Gruppe halbiert, bis
+ * der auslösende Satz feststeht; er landet mit seinen Positionen und dem Grund
+ * in {@code journal_konflikte} statt in {@code verkaeufe}, der Bestand bleibt
+ * unverändert und das Einspielen läuft mit dem nächsten Satz weiter, auch
+ * beim Öffnen. Andere Fehler beim Einspielen werden wiederholt; nach
+ * {@value #MAX_VERSUCHE} Versuchen hält das Einspielen an, das Journal nimmt
+ * keine Abschlüsse mehr an und die Sätze werden beim nächsten Öffnen erneut
+ * eingespielt. Dasselbe gilt, wenn der Schreib-Thread auf einen unerwarteten
+ * Fehler stößt.
+ *
+ * Dateiformat (big-endian): Kennung {@code KWAL} und Version als short, dann je
+ * Abschluss Länge und CRC32C der Nutzdaten (je int), Sequenznummer (long),
+ * Anzahl Positionen (short) und je Position Zeitpunkt (long Sekunden und int
+ * Nanosekunden in lokaler Zeit), Produkt-ID (int), Menge (int) und
+ * Einzelpreis in Cent (long).
+ *
+ * Eingeschaltet wird das Journal mit {@code -Dkasse.journal.datei=<Pfad>}.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Verkaufsjournal implements AutoCloseable {
+    public static final String PROPERTY_DATEI = "kasse.journal.datei";
+
+    static final int KENNUNG = 0x4B57414C;
+    static final short VERSION = 1;
+    static final int KOPF = 6;
+    // Reason: Kürzen braucht vorher einen Checkpoint der Datenbank, deshalb erst ab dieser Größe
+    static final long KUERZEN_AB = 1L << 20;
+
+    private static final int SATZKOPF = 8;
+    private static final int NUTZDATENKOPF = 10;
+    private static final int POSITION = 28;
+    private static final int MAX_GRUPPE = 1_024;
+    private static final long WIEDERHOLUNG_MILLIS = 1_000L;
+    private static final int MAX_VERSUCHE = 10;
+    private static final long SCHLIESSEN_WARTEZEIT_MILLIS = 5_000L;
+
+    private static final String STAND_SQL = "SELECT sequenz FROM journal_stand WHERE id = 1";
+    private static final String STAND_SETZEN_SQL = "INSERT INTO journal_stand (id, sequenz) VALUES (1, ?) "
+        + "ON CONFLICT(id) DO UPDATE SET sequenz = excluded.sequenz";
+    private static final String KONFLIKT_SQL = "INSERT INTO journal_konflikte "
+        + "(sequenz, timestamp, produkt_id, menge, einzelpreis_cent, grund) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final Satz ENDE = new Satz(List.of());
+    private static Verkaufsjournal instance;
+
+    private final DatabaseManager dbManager;
+    private final FileChannel kanal;
+    private final BlockingQueue<Satz> zuSchreiben = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Satz> einzuspielen = new LinkedBlockingQueue<>();
+    private final Map<Integer, Integer> ausstehend = new ConcurrentHashMap<>();
+    // Reason: Einspielen und Lesen eines Bestands aus der Datenbank dürfen sich nicht überlappen,
+    // sonst wird eine ausstehende Menge doppelt oder gar nicht abgezogen
+    private final ReadWriteLock einspielSperre = new ReentrantReadWriteLock();
+    private final Object annahme = new Object();
+    private final CRC32C pruefsumme = new CRC32C();
+    private final Thread schreibThread;
+    private final Thread einspielThread;
+
+    private boolean geschlossen;
+    private boolean beendet;
+    // Reason: Wird ohne Sperre vom Schreib-Thread gelesen
+    private volatile Exception stoerung;
+    // Nur der Schreib-Thread verändert Puffer, Sequenz und Schreibposition
+    private ByteBuffer puffer = ByteBuffer.allocateDirect(64 * 1024);
+    private long naechsteSequenz;
+    private long geschriebenBis = KOPF;
+    private volatile long eingespieltBis = KOPF;
+    private volatile long bestaetigt;
+    private volatile long synchronisierungen;
+    private long eingespielt;
+
+    /**
+     * Öffnet das Journal, spielt noch ausstehende Sätze ein und startet Schreib- und Einspiel-Thread.
+     *
+     * @param datei die Journaldatei, wird bei Bedarf angelegt
+     * @param dbManager der DatabaseManager der Zieldatenbank
+     * @throws IOException wenn die Datei nicht lesbar ist oder kein Verkaufsjournal enthält
+     * @throws SQLException wenn die Datenbank beim Einspielen ausstehender Sätze nicht erreichbar ist
+     */
+    public Verkaufsjournal(Path datei, DatabaseManager dbManager) throws IOException, SQLException {
+        this(datei, dbManager, true);
+    }
+
+    /**
+     * Öffnet das Journal; ohne Einspiel-Thread bleiben neue Sätze nur im Journal (für Tests).
+     */
+    Verkaufsjournal(Path datei, DatabaseManager dbManager, boolean einspielen) throws IOException, SQLException {
+        this.dbManager = dbManager;
+        this.kanal = FileChannel.open(datei, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                      StandardOpenOption.WRITE);
+        try {
+            naechsteSequenz = spieleDateiEin() + 1;
+        } catch (IOException | SQLException | RuntimeException e) {
+            kanal.close();
+            throw e;
+        }
+        schreibThread = starte(this::schreibeGruppen, "verkaufsjournal-schreiben");
+        einspielThread = einspielen ? starte(this::spieleGruppenEin, "verkaufsjournal-einspielen") : null;
+    }
+
+    /**
+     * Gibt das über {@value #PROPERTY_DATEI} konfigurierte Journal zurück (Singleton-Pattern)
+     * und öffnet es beim ersten Aufruf.
+     *
+     * @return das Journal oder null, wenn kein Journal konfiguriert ist
+     * @throws IllegalStateException wenn das Journal nicht geöffnet oder eingespielt werden kann
+     */
+    public static synchronized Verkaufsjournal getInstance() {
+        String datei = System.getProperty(PROPERTY_DATEI);
+        if (instance == null && datei != null && !datei.isBlank()) {
+            try {
+                instance = new Verkaufsjournal(Path.of(datei), DatabaseManager.getInstance());
+            } catch (IOException | SQLException e) {
+                // Reason: Ohne eingespieltes Journal fehlen bestätigte Verkäufe, so darf keine Kasse starten
+                throw new IllegalStateException("Verkaufsjournal " + datei + " konnte nicht geöffnet werden", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "verkaufsjournal-schliessen"));
+        }
+        return instance;
+    }
+
+    /**
+     * Schreibt einen Kassenabschluss ins Journal und wartet, bis er auf der Platte liegt.
+     *
+     * @param positionen die Positionen des Abschlusses
+     * @throws IOException wenn das Journal geschlossen ist oder nicht geschrieben werden kann;
+     *         der Abschluss ist dann nicht gebucht
+     */
+    public void schreibe(List<Verkauf> positionen) throws IOException {
+        if (positionen.isEmpty() || positionen.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Ungültige Anzahl Positionen: " + positionen.size());
+        }
+        Satz satz = new Satz(List.copyOf(positionen));
+        synchronized (annahme) {
+            if (geschlossen) {
+                throw new IOException("Das Verkaufsjournal ist geschlossen", stoerung);
+            }
+            zuSchreiben.add(satz);
+        }
+        try {
+            // Reason: Nicht unterbrechbar warten – ein bereits geschriebener Satz bleibt gebucht
+            satz.geschrieben.join();
+        } catch (CompletionException e) {
+            throw new IOException("Abschluss konnte nicht ins Verkaufsjournal geschrieben werden", e.getCause());
+        }
+    }
+
+    /**
+     * Liest ein Produkt aus der Datenbank und zieht die noch nicht eingespielten Mengen vom Bestand ab.
+     *
+     * @param abfrage liest das Produkt
+     * @return das Produkt mit aktuellem Bestand oder null
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public Produkt leseProdukt(Abfrage<Produkt> abfrage) throws SQLException {
+        einspielSperre.readLock().lock();
+        try {
+            return abzueglichAusstehender(abfrage.ausfuehren());
+        } finally {
+            einspielSperre.readLock().unlock();
+        }
+    }
+
+    /**
+     * Liest Produkte aus der Datenbank und zieht die noch nicht eingespielten Mengen vom Bestand ab.
+     *
+     * @param abfrage liest die Produkte
+     * @return die Produkte mit aktuellem Bestand
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public List<Produkt> leseProdukte(Abfrage<List<Produkt>> abfrage) throws SQLException {
+        einspielSperre.readLock().lock();
+        try {
+            List<Produkt> produkte = abfrage.ausfuehren();
+            for (Produkt produkt : produkte) {
+                abzueglichAusstehender(produkt);
+            }
+            return produkte;
+        } finally {
+            einspielSperre.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wartet, bis alle bisher bestätigten Abschlüsse in der Datenbank stehen.
+     *
+     * @param timeoutMillis maximale Wartezeit
+     * @return true wenn alles eingespielt ist, false nach Ablauf der Wartezeit
+     * @throws InterruptedException wenn der Thread beim Warten unterbrochen wird
+     */
+    public synchronized boolean warteBisEingespielt(long timeoutMillis) throws InterruptedException {
+        long ziel = bestaetigt;
+        long frist = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (eingespielt < ziel) {
+            long rest = TimeUnit.NANOSECONDS.toMillis(frist - System.nanoTime());
+            if (rest <= 0) {
+                return false;
+            }
+            wait(rest);
+        }
+        return true;
+    }
+
+    /**
+     * Gibt die Anzahl der seit dem Öffnen bestätigten Abschlüsse zurück.
+     *
+     * @return bestätigte Abschlüsse
+     */
+    public long getAnzahlAbschluesse() {
+        return bestaetigt;
+    }
+
+    /**
+     * Gibt die Anzahl der Plattensynchronisierungen seit dem Öffnen zurück. Das Verhältnis
+     * zu {@link #getAnzahlAbschluesse()} zeigt, wie viele Bons sich einen Zugriff teilen.
+     *
+     * @return Aufrufe von {@link FileChannel#force(boolean)} für Abschlüsse
+     */
+    public long getAnzahlSynchronisierungen() {
+        return synchronisierungen;
+    }
+
+    /**
+     * Nimmt keine Abschlüsse mehr an, schreibt und spielt die wartenden noch ein und schließt die Datei.
+     * Was in der Wartezeit nicht eingespielt werden kann, wird beim nächsten Öffnen eingespielt.
+     */
+    @Override
+    public void close() {
+        synchronized (annahme) {
+            if (beendet) {
+                return;
+            }
+            beendet = true;
+            geschlossen = true;
+            zuSchreiben.add(ENDE);
+        }
+        try {
+            schreibThread.join();
+            if (einspielThread != null) {
+                einspielThread.join(SCHLIESSEN_WARTEZEIT_MILLIS);
+                if (einspielThread.isAlive()) {
+                    einspielThread.interrupt();
+                    einspielThread.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            kanal.close();
+        } catch (IOException e) {
+            System.err.println("Verkaufsjournal konnte nicht geschlossen werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Nimmt nach einem Fehler, der sich nicht durch Wiederholen beheben lässt, keine Abschlüsse mehr an.
+     */
+    private void stoere(String meldung, Exception e) {
+        synchronized (annahme) {
+            if (stoerung == null) {
+                stoerung = e;
+            }
+            geschlossen = true;
+        }
+        System.err.println(meldung + ": " + e.getMessage());
+    }
+
+    private static Thread starte(Runnable arbeit, String name) {
+        Thread thread = new Thread(arbeit, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private Produkt abzueglichAusstehender(Produkt produkt) {
+        if (produkt != null) {
+            Integer menge = ausstehend.get(produkt.getId());
+            if (menge != null) {
+                // Reason: Nicht bei 0 abschneiden – ein negativer Bestand zeigt einen Satz, der beim
+                // Einspielen als Konflikt abgelehnt wird, statt ihn zu verdecken
+                produkt.setBestand(produkt.getBestand() - menge);
+            }
+        }
+        return produkt;
+    }
+
+    private void vormerken(Satz satz, int vorzeichen) {
+        for (Verkauf position : satz.positionen) {
+            ausstehend.compute(position.getProduktId(), (id, alt) -> {
+                int neu = (alt == null ? 0 : alt) + vorzeichen * position.getMenge();
+                return neu == 0 ? null : neu;
+            });
+        }
+    }
+
+    private void schreibeGruppen() {
+        List<Satz> gruppe = new ArrayList<>();
+        boolean ende = false;
+        while (!ende) {
+            gruppe.clear();
+            try {
+                gruppe.add(zuSchreiben.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            zuSchreiben.drainTo(gruppe, MAX_GRUPPE - 1);
+            // Nach ENDE wird nichts mehr angenommen, es steht also immer am Schluss
+            if (gruppe.get(gruppe.size() - 1) == ENDE) {
+                gruppe.remove(gruppe.size() - 1);
+                ende = true;
+            }
+            if (stoerung != null) {
+                // Reason: Was vor der Störung angenommen wurde, darf nicht hinter einem verworfenen Satz landen
+                for (Satz satz : gruppe) {
+                    satz.geschrieben.completeExceptionally(stoerung);
+                }
+            } else if (!gruppe.isEmpty()) {
+                schreibeGruppe(gruppe);
+            }
+        }
+        einzuspielen.add(ENDE);
+    }
+
+    private void schreibeGruppe(List<Satz> gruppe) {
+        long sequenzVorher = naechsteSequenz;
+        try {
+            if (geschriebenBis >= KUERZEN_AB && eingespieltBis == geschriebenBis) {
+                kuerze();
+            }
+            puffer.clear();
+            for (Satz satz : gruppe) {
+                satz.sequenz = naechsteSequenz++;
+                kodiere(satz);
+                satz.ende = geschriebenBis + puffer.position();
+            }
+            puffer.flip();
+            long position = geschriebenBis;
+            while (puffer.hasRemaining()) {
+                position += kanal.write(puffer, position);
+            }
+            kanal.force(false);
+            geschriebenBis = position;
+        } catch (IOException | RuntimeException e) {
+            naechsteSequenz = sequenzVorher;
+            // Reason: Ein abgelehnter Abschluss darf beim nächsten Start nicht doch eingespielt werden
+            try {
+                kanal.truncate(geschriebenBis);
+            } catch (IOException kuerzen) {
+                e.addSuppressed(kuerzen);
+            }
+            for (Satz satz : gruppe) {
+                satz.geschrieben.completeExceptionally(e);
+            }
+            // Reason: Eine Ein-/Ausgabe-Störung kann vorübergehend sein, ein Programmfehler nicht
+            if (e instanceof RuntimeException) {
+                stoere("Verkaufsjournal nach einem Fehler beim Schreiben geschlossen", e);
+            }
+            return;
+        }
+        synchronisierungen++;
+        bestaetigt += gruppe.size();
+        for (Satz satz : gruppe) {
+            vormerken(satz, 1);
+            einzuspielen.add(satz);
+            satz.geschrieben.complete(null);
+        }
+    }
+
+    private void kodiere(Satz satz) {
+        int benoetigt = SATZKOPF + NUTZDATENKOPF + satz.positionen.size() * POSITION;
+        if (puffer.remaining() < benoetigt) {
+            ByteBuffer groesser = ByteBuffer.allocateDirect(Math.max(puffer.capacity() * 2,
+                                                                     puffer.position() + benoetigt));
+            puffer.flip();
+            groesser.put(puffer);
+            puffer = groesser;
+        }
+        int start = puffer.position();
+        puffer.position(start + SATZKOPF);
+        puffer.putLong(satz.sequenz).putShort((short) satz.positionen.size());
+        for (Verkauf position : satz.positionen) {
+            LocalDateTime zeitpunkt = position.getTimestamp();
+            puffer.putLong(zeitpunkt.toEpochSecond(ZoneOffset.UTC)).putInt(zeitpunkt.getNano())
+                .putInt(position.getProduktId()).putInt(position.getMenge()).putLong(position.getEinzelpreisCent());
+        }
+        int laenge = puffer.position() - start - SATZKOPF;
+        pruefsumme.reset();
+        pruefsumme.update(puffer.slice(start + SATZKOPF, laenge));
+        puffer.putInt(start, laenge).putInt(start + 4, (int) pruefsumme.getValue());
+    }
+
+    private void spieleGruppenEin() {
+        List<Satz> gruppe = new ArrayList<>();
+        boolean ende = false;
+        while (!ende) {
+            gruppe.clear();
+            try {
+                gruppe.add(einzuspielen.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            einzuspielen.drainTo(gruppe, MAX_GRUPPE - 1);
+            if (gruppe.get(gruppe.size() - 1) == ENDE) {
+                gruppe.remove(gruppe.size() - 1);
+                ende = true;
+            }
+            for (int versuch = 1; !gruppe.isEmpty(); versuch++) {
+                try {
+                    spieleEin(gruppe);
+                    break;
+                } catch (SQLException | RuntimeException e) {
+                    // Reason: Bestandskonflikte fängt uebernehme ab, hier bleiben Fehler der Datenbank selbst. Die
+                    // Sätze liegen sicher im Journal und bleiben nach MAX_VERSUCHE dort, bis das nächste Öffnen
+                    // sie einspielt; bereits gebuchte Teilgruppen überspringt jeder neue Versuch
+                    if (versuch == MAX_VERSUCHE) {
+                        stoere(gruppe.size() + " Abschlüsse konnten nach " + versuch
+                               + " Versuchen nicht eingespielt werden, Verkaufsjournal geschlossen", e);
+                        return;
+                    }
+                    System.err.println(gruppe.size() + " Abschlüsse konnten nicht eingespielt werden, "
+                                       + "neuer Versuch: " + e.getMessage());
+                    try {
+                        Thread.sleep(WIEDERHOLUNG_MILLIS);
+                    } catch (InterruptedException unterbrochen) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void spieleEin(List<Satz> gruppe) throws SQLException {
+        einspielSperre.writeLock().lock();
+        try {
+            uebernehme(gruppe);
+            for (Satz satz : gruppe) {
+                vormerken(satz, -1);
+            }
+            eingespieltBis = gruppe.get(gruppe.size() - 1).ende;
+        } finally {
+            einspielSperre.writeLock().unlock();
+        }
+        synchronized (this) {
+            eingespielt += gruppe.size();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Bucht Sätze samt Journalstand. Scheitert eine Gruppe an einem Bestandskonflikt, wird sie
+     * halbiert, bis der auslösende Satz feststeht; dieser wird als Konflikt vermerkt. Bereits
+     * gebuchte Sätze am Anfang werden übersprungen, ein neuer Versuch bucht also nichts doppelt.
+     */
+    private void uebernehme(List<Satz> saetze) throws SQLException {
+        int erster = 0;
+        while (erster < saetze.size() && saetze.get(erster).eingespielt) {
+            erster++;
+        }
+        List<Satz> offen = saetze.subList(erster, saetze.size());
+        if (offen.isEmpty()) {
+            return;
+        }
+        try {
+            bucheGruppe(offen);
+        } catch (BestandskonfliktException e) {
+            // Reason: Der Konflikt ist bei jedem Versuch derselbe; ein Wiederholen der ganzen Gruppe
+            // hielte alle anderen Abschlüsse auf
+            if (offen.size() == 1) {
+                vermerkeKonflikt(offen.get(0), e.getMessage());
+            } else {
+                int mitte = offen.size() / 2;
+                uebernehme(offen.subList(0, mitte));
+                uebernehme(offen.subList(mitte, offen.size()));
+            }
+        }
+    }
+
+    /**
+     * Bucht Sätze samt Journalstand in einer Transaktion.
+     *
+     * @throws BestandskonfliktException wenn ein Produkt fehlt oder nicht genügend Bestand hat
+     */
+    private void bucheGruppe(List<Satz> saetze) throws SQLException {
+        dbManager.inTransaktion(conn -> {
+            List<Verkauf> verkaeufe = new ArrayList<>();
+            try (PreparedStatement bestandStmt = conn.prepareStatement(DatabaseManager.BESTAND_VERRINGERN_SQL);
+                 PreparedStatement verkaufStmt = conn.prepareStatement(DatabaseManager.VERKAUF_EINFUEGEN_SQL)) {
+                for (Satz satz : saetze) {
+                    for (Verkauf verkauf : satz.positionen) {
+                        bestandStmt.setInt(1, verkauf.getMenge());
+                        bestandStmt.setInt(2, verkauf.getProduktId());
+                        bestandStmt.setInt(3, verkauf.getMenge());
+                        bestandStmt.addBatch();
+                        DatabaseManager.setzeVerkaufParameter(verkaufStmt, verkauf);
+                        verkaufStmt.addBatch();
+                        verkaeufe.add(verkauf);
+                    }
+                }
+                int[] geaenderteZeilen = bestandStmt.executeBatch();
+                for (int i = 0; i < geaenderteZeilen.length; i++) {
+                    if (geaenderteZeilen[i] == 0) {
+                        int produktId = verkaeufe.get(i).getProduktId();
+                        throw new BestandskonfliktException(produktId,
+                                                            DatabaseManager.ermittleKonflikt(conn, produktId));
+                    }
+                }
+                verkaufStmt.executeBatch();
+            }
+            Tagesaggregate.buchen(conn, verkaeufe);
+            setzeStand(conn, saetze.get(saetze.size() - 1).sequenz);
+        });
+        for (Satz satz : saetze) {
+            satz.eingespielt = true;
+        }
+    }
+
+    /**
+     * Legt die Positionen eines nicht buchbaren Satzes in {@code journal_konflikte} ab und
+     * rückt den Journalstand darüber hinaus, damit kein Öffnen ihn erneut einspielt.
+     */
+    private void vermerkeKonflikt(Satz satz, String grund) throws SQLException {
+        dbManager.inTransaktion(conn -> {
+            try (PreparedStatement konfliktStmt = conn.prepareStatement(KONFLIKT_SQL)) {
+                for (Verkauf verkauf : satz.positionen) {
+                    konfliktStmt.setLong(1, satz.sequenz);
+                    konfliktStmt.setString(2, verkauf.getTimestamp().toString());
+                    konfliktStmt.setInt(3, verkauf.getProduktId());
+                    konfliktStmt.setInt(4, verkauf.getMenge());
+                    konfliktStmt.setLong(5, verkauf.getEinzelpreisCent());
+                    konfliktStmt.setString(6, grund);
+                    konfliktStmt.addBatch();
+                }
+                konfliktStmt.executeBatch();
+            }
+            setzeStand(conn, satz.sequenz);
+        });
+        satz.eingespielt = true;
+        System.err.println("Abschluss " + satz.sequenz + " nicht eingespielt, steht in journal_konflikte: " + grund);
+    }
+
+    private static void setzeStand(Connection conn, long sequenz) throws SQLException {
+        try (PreparedStatement standStmt = conn.prepareStatement(STAND_SETZEN_SQL)) {
+            standStmt.setLong(1, sequenz);
+            standStmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Spielt beim Öffnen alle Sätze ein, die neuer als der Journalstand der Datenbank sind.
+     *
+     * @return die höchste bekannte Sequenznummer
+     */
+    private long spieleDateiEin() throws IOException, SQLException {
+        long stand = leseStand();
+        long groesse = kanal.size();
+        if (groesse == 0) {
+            kanal.write(ByteBuffer.allocate(KOPF).putInt(KENNUNG).putShort(VERSION).flip(), 0);
+            kanal.force(true);
+            return stand;
+        }
+        if (groesse > Integer.MAX_VALUE) {
+            throw new IOException("Journaldatei ist zu groß: " + groesse + " Byte");
+        }
+        ByteBuffer daten = ByteBuffer.allocate((int) groesse);
+        while (daten.hasRemaining()) {
+            if (kanal.read(daten, daten.position()) < 0) {
+                break;
+            }
+        }
+        daten.flip();
+        if (daten.remaining() < KOPF || daten.getInt() != KENNUNG || daten.getShort() != VERSION) {
+            throw new IOException("Keine Journaldatei in Version " + VERSION);
+        }
+        List<Satz> saetze = new ArrayList<>();
+        long letzte = lese(daten, stand, saetze);
+        if (!saetze.isEmpty()) {
+            uebernehme(saetze);
+        }
+        if (!kuerze()) {
+            // Reason: Neue Sätze dürfen nicht hinter einem halb geschriebenen Satz landen, den das
+            // Einlesen beim nächsten Start als Ende des Journals ansieht
+            kanal.truncate(daten.position());
+            kanal.force(true);
+            geschriebenBis = daten.position();
+            eingespieltBis = geschriebenBis;
+        }
+        return Math.max(stand, letzte);
+    }
+
+    /**
+     * Liest gültige Sätze bis zum ersten unvollständigen oder beschädigten und lässt
+     * die Position der Daten hinter dem letzten gültigen Satz stehen.
+     *
+     * @return die Sequenznummer des letzten gültigen Satzes oder 0
+     */
+    private long lese(ByteBuffer daten, long stand, List<Satz> saetze) {
+        long letzte = 0;
+        while (daten.remaining() >= SATZKOPF) {
+            int satzStart = daten.position();
+            int laenge = daten.getInt();
+            int erwartet = daten.getInt();
+            if (laenge < NUTZDATENKOPF || laenge > daten.remaining()) {
+                daten.position(satzStart);
+                break;
+            }
+            ByteBuffer nutzdaten = daten.slice(daten.position(), laenge);
+            pruefsumme.reset();
+            pruefsumme.update(nutzdaten.duplicate());
+            if ((int) pruefsumme.getValue() != erwartet) {
+                daten.position(satzStart);
+                break;
+            }
+            daten.position(daten.position() + laenge);
+            Satz satz = dekodiere(nutzdaten);
+            letzte = satz.sequenz;
+            if (satz.sequenz > stand) {
+                saetze.add(satz);
+            }
+        }
+        return letzte;
+    }
+
+    private static Satz dekodiere(ByteBuffer nutzdaten) {
+        long sequenz = nutzdaten.getLong();
+        int anzahl = nutzdaten.getShort();
+        List<Verkauf> positionen = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            LocalDateTime zeitpunkt = LocalDateTime.ofEpochSecond(nutzdaten.getLong(), nutzdaten.getInt(),
+                                                                  ZoneOffset.UTC);
+            int produktId = nutzdaten.getInt();
+            int menge = nutzdaten.getInt();
+            Verkauf verkauf = Verkauf.ausCent(produktId, null, menge, nutzdaten.getLong());
+            verkauf.setTimestamp(zeitpunkt);
+            positionen.add(verkauf);
+        }
+        Satz satz = new Satz(positionen);
+        satz.sequenz = sequenz;
+        return satz;
+    }
+
+    private long leseStand() throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(STAND_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Leert die Datei bis auf den Kopf; alle Sätze darin müssen eingespielt sein.
+     *
+     * @return false wenn der Checkpoint fehlschlägt oder unvollständig bleibt; die Datei bleibt dann unverändert
+     */
+    private boolean kuerze() throws IOException {
+        // Reason: Mit synchronous=NORMAL sind eingespielte Sätze erst nach einem Checkpoint sicher
+        // in der Datenbank; erst danach dürfen sie aus dem Journal verschwinden
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(FULL)")) {
+            // Spalten: busy, Seiten im WAL, davon zurückgeschrieben; busy ≠ 0 heißt, ein Leser hielt ihn auf
+            if (!rs.next() || rs.getInt(1) != 0 || rs.getInt(2) != rs.getInt(3)) {
+                return false;
+            }
+        } catch (SQLException e) {
+            System.err.println("Checkpoint vor dem Kürzen des Verkaufsjournals fehlgeschlagen: " + e.getMessage());
+            return false;
+        }
+        kanal.truncate(KOPF);
+        kanal.force(true);
+        geschriebenBis = KOPF;
+        eingespieltBis = KOPF;
+        return true;
+    }
+
+    /**
+     * Liest Produkte aus der Datenbank.
+     *
+     * @param <T> ein Produkt oder eine Liste von Produkten
+     */
+    @FunctionalInterface
+    public interface Abfrage<T> {
+        T ausfuehren() throws SQLException;
+    }
+
+    /**
+     * Ein Kassenabschluss auf dem Weg durch das Journal.
+     */
+    private static final class Satz {
+        private final List<Verkauf> positionen;
+        private final CompletableFuture<Void> geschrieben = new CompletableFuture<>();
+        private long sequenz;
+        private long ende;
+        // Nur der einspielende Thread liest und setzt die Markierung
+        private boolean eingespielt;
+
+        private Satz(List<Verkauf> positionen) {
+            this.positionen = positionen;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package de.berufsschule.kasse.model;
+
+/**
+ * Prüfung und Vereinheitlichung von Artikelnummern (GTIN: EAN-8, UPC-A, EAN-13, GTIN-14).
+ *
+ * Gespeichert und gesucht wird immer die 14-stellige Form mit führenden
+ * Nullen. Derselbe Artikel wird so gefunden, egal ob der Scanner ihn als
+ * UPC-A (12 Stellen) oder EAN-13 liest.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Barcode {
+    /** Länge der einheitlichen Form. */
+    public static final int LAENGE = 14;
+
+    private Barcode() {
+    }
+
+    /**
+     * Prüft Länge, Ziffern und Prüfziffer und gibt die 14-stellige Form zurück.
+     *
+     * @param eingabe gescannte oder eingegebene Nummer, umgebende Leerzeichen sind erlaubt
+     * @return die GTIN mit 14 Stellen
+     * @throws IllegalArgumentException bei ungültiger Länge, Fremdzeichen oder falscher Prüfziffer
+     */
+    public static String normalisiere(String eingabe) {
+        String code = eingabe.trim();
+        int laenge = code.length();
+        if (laenge != 8 && laenge != 12 && laenge != 13 && laenge != LAENGE) {
+            throw new IllegalArgumentException("Barcode muss 8, 12, 13 oder 14 Ziffern haben: " + eingabe);
+        }
+        for (int i = 0; i < laenge; i++) {
+            if (code.charAt(i) < '0' || code.charAt(i) > '9') {
+                throw new IllegalArgumentException("Barcode darf nur Ziffern enthalten: " + eingabe);
+            }
+        }
+        if (pruefziffer(code, laenge - 1) != code.charAt(laenge - 1) - '0') {
+            throw new IllegalArgumentException("Prüfziffer des Barcodes ist falsch: " + eingabe);
+        }
+        return "0".repeat(LAENGE - laenge) + code;
+    }
+
+    /**
+     * Prüft, ob die Eingabe eine gültige GTIN ist.
+     *
+     * @param eingabe die zu prüfende Nummer
+     * @return true bei gültiger Länge und Prüfziffer
+     */
+    public static boolean istGueltig(String eingabe) {
+        try {
+            normalisiere(eingabe);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hängt die Prüfziffer an, z. B. für Hausnummern mit Präfix 20–29.
+     *
+     * @param ohnePruefziffer 7, 11, 12 oder 13 Ziffern
+     * @return die vollständige GTIN in der angegebenen Länge plus Prüfziffer
+     */
+    public static String mitPruefziffer(String ohnePruefziffer) {
+        return ohnePruefziffer + pruefziffer(ohnePruefziffer, ohnePruefziffer.length());
+    }
+
+    /**
+     * Prüfziffer nach GS1: von rechts abwechselnd mit 3 und 1 gewichtet, Ergänzung auf volle Zehn.
+     */
+    private static int pruefziffer(String code, int stellen) {
+        int summe = 0;
+        for (int i = 0; i < stellen; i++) {
+            int ziffer = code.charAt(stellen - 1 - i) - '0';
+            summe += i % 2 == 0 ? 3 * ziffer : ziffer;
+        }
+        return (10 - summe % 10) % 10;
+    }
+}
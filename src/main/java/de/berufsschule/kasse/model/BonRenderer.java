@@ -0,0 +1,197 @@
+package de.berufsschule.kasse.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Schreibt den Kassenbon eines Warenkorbs direkt in ein Ziel.
+ *
+ * Trennlinien, Kopf und Fuß sind vorberechnet, Beträge, Datum und Uhrzeit
+ * werden Ziffer für Ziffer geschrieben. Pro Bon entstehen so keine
+ * Zwischen-Strings; wird derselbe {@link StringBuilder} oder Ausgabestrom
+ * wiederverwendet, arbeitet das Rendern ohne Allokation.
+ *
+ * Neben Text gibt es eine ESC/POS-Ausgabe für Bondrucker (Codepage PC858
+ * mit Euro-Zeichen, Papierschnitt am Ende).
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class BonRenderer {
+
+    /** Zeichen pro Bonzeile. */
+    public static final int BREITE = 40;
+
+    private static final String DOPPELLINIE = "=".repeat(BREITE) + "\n";
+    private static final String LINIE = "-".repeat(BREITE) + "\n";
+    private static final String KOPF = DOPPELLINIE + "           KASSENSYSTEM FIAE24M\n" + DOPPELLINIE;
+    private static final String FUSS = DOPPELLINIE + "Vielen Dank für Ihren Einkauf!\n";
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    // ESC @ (Drucker zurücksetzen), ESC t 19 (Codepage PC858)
+    private static final byte[] ESCPOS_ANFANG = {ESC, '@', ESC, 't', 19};
+    // ESC d 4 (vier Zeilen Vorschub), GS V 66 0 (Teilschnitt)
+    private static final byte[] ESCPOS_ENDE = {ESC, 'd', 4, GS, 'V', 66, 0};
+
+    private BonRenderer() {
+    }
+
+    /**
+     * Schreibt den Bon als Text.
+     *
+     * @param warenkorb der abzurechnende Warenkorb
+     * @param ziel z. B. ein wiederverwendeter {@link StringBuilder} oder ein gepufferter Writer
+     * @param <A> Typ des Ziels
+     * @return das übergebene Ziel
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    public static <A extends Appendable> A schreibeText(Warenkorb warenkorb, A ziel) throws IOException {
+        LocalDateTime zeitpunkt = warenkorb.getErstellungszeitpunkt();
+        ziel.append(KOPF).append("Datum: ");
+        haengeZahlAn(ziel, zeitpunkt.getYear(), 4);
+        haengeZahlAn(ziel.append('-'), zeitpunkt.getMonthValue(), 2);
+        haengeZahlAn(ziel.append('-'), zeitpunkt.getDayOfMonth(), 2);
+        ziel.append("\nZeit:  ");
+        haengeZahlAn(ziel, zeitpunkt.getHour(), 2);
+        haengeZahlAn(ziel.append(':'), zeitpunkt.getMinute(), 2);
+        haengeZahlAn(ziel.append(':'), zeitpunkt.getSecond(), 2);
+        ziel.append('\n').append(LINIE);
+
+        for (Verkauf verkauf : warenkorb.getVerkaeufe()) {
+            haengePositionAn(ziel, verkauf).append('\n');
+        }
+
+        ziel.append(LINIE).append("GESAMT: ");
+        haengeBetragAn(ziel, warenkorb.berechneGesamtbetragCent()).append("€\n");
+        ziel.append(FUSS);
+        return ziel;
+    }
+
+    /**
+     * Schreibt den Bon als ESC/POS-Druckdaten.
+     *
+     * @param warenkorb der abzurechnende Warenkorb
+     * @param ziel Drucker, Datei oder Socket; sollte gepuffert sein und wird nicht geschlossen
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    public static void schreibeEscPos(Warenkorb warenkorb, OutputStream ziel) throws IOException {
+        ziel.write(ESCPOS_ANFANG);
+        schreibeText(warenkorb, new Pc858Ausgabe(ziel)).leere();
+        ziel.write(ESCPOS_ENDE);
+        ziel.flush();
+    }
+
+    /**
+     * Schreibt eine Bonzeile der Form {@code 3x Apfel à 0,50€ = 1,50€}.
+     *
+     * @param ziel das Ziel
+     * @param verkauf die Position
+     * @return das übergebene Ziel
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    static Appendable haengePositionAn(Appendable ziel, Verkauf verkauf) throws IOException {
+        haengeZahlAn(ziel, verkauf.getMenge(), 1);
+        ziel.append("x ").append(verkauf.getProduktName()).append(" à ");
+        haengeBetragAn(ziel, verkauf.getEinzelpreisCent()).append("€ = ");
+        return haengeBetragAn(ziel, verkauf.getGesamtpreisCent()).append('€');
+    }
+
+    /**
+     * Schreibt einen Betrag mit Dezimalkomma und zwei Nachkommastellen.
+     *
+     * @param ziel das Ziel
+     * @param cent Betrag in Cent
+     * @return das übergebene Ziel
+     * @throws IOException wenn das Ziel nicht beschrieben werden kann
+     */
+    static Appendable haengeBetragAn(Appendable ziel, long cent) throws IOException {
+        if (cent < 0) {
+            ziel.append('-');
+        }
+        haengeZahlAn(ziel, Math.abs(cent / 100), 1);
+        ziel.append(',');
+        return haengeZahlAn(ziel, Math.abs(cent % 100), 2);
+    }
+
+    /**
+     * Schreibt eine nicht negative Zahl, links mit Nullen auf die Mindestlänge aufgefüllt.
+     */
+    private static Appendable haengeZahlAn(Appendable ziel, long zahl, int mindestStellen) throws IOException {
+        long stellenwert = 1;
+        int stellen = 1;
+        while (zahl / stellenwert >= 10) {
+            stellenwert *= 10;
+            stellen++;
+        }
+        for (int i = stellen; i < mindestStellen; i++) {
+            ziel.append('0');
+        }
+        for (; stellenwert > 0; stellenwert /= 10) {
+            ziel.append((char) ('0' + zahl / stellenwert % 10));
+        }
+        return ziel;
+    }
+
+    /**
+     * Kodiert Text zeichenweise in die Drucker-Codepage PC858 (wie PC850, mit €).
+     */
+    private static final class Pc858Ausgabe implements Appendable {
+        private final OutputStream ziel;
+        // Reason: Einzelne write(int)-Aufrufe sind auf synchronisierten Strömen teuer, daher blockweise
+        private final byte[] puffer = new byte[512];
+        private int belegt;
+
+        Pc858Ausgabe(OutputStream ziel) {
+            this.ziel = ziel;
+        }
+
+        void leere() throws IOException {
+            ziel.write(puffer, 0, belegt);
+            belegt = 0;
+        }
+
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int ende) throws IOException {
+            for (int i = start; i < ende; i++) {
+                append(text.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char zeichen) throws IOException {
+            if (belegt == puffer.length) {
+                leere();
+            }
+            puffer[belegt++] = (byte) kodiere(zeichen);
+            return this;
+        }
+
+        static int kodiere(char zeichen) {
+            if (zeichen < 0x80) {
+                return zeichen;
+            }
+            return switch (zeichen) {
+                case '€' -> 0xD5;
+                case 'ä' -> 0x84;
+                case 'ö' -> 0x94;
+                case 'ü' -> 0x81;
+                case 'Ä' -> 0x8E;
+                case 'Ö' -> 0x99;
+                case 'Ü' -> 0x9A;
+                case 'ß' -> 0xE1;
+                case 'à' -> 0x85;
+                case 'é' -> 0x82;
+                case 'è' -> 0x8A;
+                default -> '?';
+            };
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package de.berufsschule.kasse.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Rechenregeln für Geldbeträge als ganze Cent in einem {@code long}.
+ *
+ * Beträge werden im ganzen System als Cent gespeichert und gerechnet, damit
+ * Summen exakt sind und SQLite mit INTEGER-Spalten aggregieren kann. Die
+ * Methoden arbeiten auf primitiven Werten und legen in den Rechenpfaden keine
+ * Objekte an; Euro-Beträge als {@code double} gibt es nur noch an den Rändern
+ * (Eingabe und Anzeige).
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Geld {
+
+    private Geld() {
+    }
+
+    /**
+     * Rechnet einen Euro-Betrag in Cent um (kaufmännisch gerundet).
+     *
+     * @param euro Betrag in Euro, z. B. 1.99
+     * @return Betrag in Cent, z. B. 199
+     */
+    public static long ausEuro(double euro) {
+        // Reason: BigDecimal.valueOf nutzt die kürzeste Dezimaldarstellung, sodass 1.005 zu 101 Cent wird
+        // statt durch den binären Rundungsfehler (1.00499...) zu 100 Cent
+        return BigDecimal.valueOf(euro).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Rechnet einen Cent-Betrag für die Anzeige in Euro um.
+     *
+     * @param cent Betrag in Cent
+     * @return Betrag in Euro
+     */
+    public static double inEuro(long cent) {
+        return cent / 100.0;
+    }
+
+    /**
+     * Multipliziert einen Stückpreis mit einer Menge.
+     *
+     * @param cent Stückpreis in Cent
+     * @param menge Anzahl
+     * @return Gesamtbetrag in Cent
+     * @throws ArithmeticException bei Überlauf
+     */
+    public static long mal(long cent, int menge) {
+        return Math.multiplyExact(cent, menge);
+    }
+
+    /**
+     * Liest einen Betrag wie {@code 1,99}, {@code 1.99}, {@code 2} oder {@code -0,5} exakt ein.
+     *
+     * @param text der Betrag in Euro mit Komma oder Punkt und höchstens zwei Nachkommastellen
+     * @return Betrag in Cent
+     * @throws NumberFormatException wenn der Text kein solcher Betrag ist
+     */
+    public static long parse(String text) {
+        String betrag = text.strip();
+        int start = betrag.startsWith("-") ? 1 : 0;
+        long euro = 0;
+        long cent = 0;
+        int nachkommastellen = -1;
+        for (int i = start; i < betrag.length(); i++) {
+            char zeichen = betrag.charAt(i);
+            if ((zeichen == ',' || zeichen == '.') && nachkommastellen < 0 && i > start) {
+                nachkommastellen = 0;
+            } else if (zeichen >= '0' && zeichen <= '9' && nachkommastellen < 2) {
+                if (nachkommastellen < 0) {
+                    euro = Math.addExact(Math.multiplyExact(euro, 10), zeichen - '0');
+                } else {
+                    cent = cent * 10 + (zeichen - '0');
+                    nachkommastellen++;
+                }
+            } else {
+                throw new NumberFormatException("Kein gültiger Betrag: '" + text + "'");
+            }
+        }
+        if (betrag.length() == start || nachkommastellen == 0) {
+            throw new NumberFormatException("Kein gültiger Betrag: '" + text + "'");
+        }
+        if (nachkommastellen == 1) {
+            cent *= 10;
+        }
+        long ergebnis = Math.addExact(Math.multiplyExact(euro, 100), cent);
+        return start == 1 ? -ergebnis : ergebnis;
+    }
+
+    /**
+     * Formatiert einen Betrag mit Dezimalkomma und zwei Nachkommastellen, z. B. {@code 1,99}.
+     *
+     * @param cent Betrag in Cent
+     * @return der formatierte Betrag ohne Währungszeichen
+     */
+    public static String formatiere(long cent) {
+        return haengeAn(new StringBuilder(12), cent, ',').toString();
+    }
+
+    /**
+     * Hängt einen Betrag mit zwei Nachkommastellen an, ohne Zwischenobjekte anzulegen.
+     *
+     * @param ziel der StringBuilder
+     * @param cent Betrag in Cent
+     * @param dezimaltrenner {@code ','} für die Anzeige, {@code '.'} für Austauschformate
+     * @return der übergebene StringBuilder
+     */
+    public static StringBuilder haengeAn(StringBuilder ziel, long cent, char dezimaltrenner) {
+        if (cent < 0) {
+            ziel.append('-');
+        }
+        long euro = Math.abs(cent / 100);
+        long rest = Math.abs(cent % 100);
+        ziel.append(euro).append(dezimaltrenner);
+        if (rest < 10) {
+            ziel.append('0');
+        }
+        return ziel.append(rest);
+    }
+}
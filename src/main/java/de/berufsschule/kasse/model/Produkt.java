@@ -4,7 +4,8 @@ package de.berufsschule.kasse.model;
  * Repräsentiert ein Produkt im Kassensystem.
  * 
  * Diese Klasse enthält alle Informationen zu einem Produkt inklusive
- * ID, Name, Preis und Lagerbestand.
+ * ID, Name, Preis, Lagerbestand und optional den Barcode. Der Preis wird als
+ * ganze Cent gespeichert (siehe {@link Geld}); die Euro-Methoden rechnen nur um.
  * 
  * @author FIAE24M
  * @version 1.0
@@ -12,8 +13,9 @@ package de.berufsschule.kasse.model;
 public class Produkt {
     private int id;
     private String name;
-    private double preis;
+    private long preisCent;
     private int bestand;
+    private String barcode;
 
     /**
      * Standard-Konstruktor für ein leeres Produkt.
@@ -30,10 +32,8 @@ public class Produkt {
      * @param bestand die Anzahl der verfügbaren Stück im Lager
      */
     public Produkt(int id, String name, double preis, int bestand) {
+        this(name, preis, bestand);
         this.id = id;
-        this.name = name;
-        this.preis = preis;
-        this.bestand = bestand;
     }
 
     /**
@@ -45,10 +45,28 @@ public class Produkt {
      */
     public Produkt(String name, double preis, int bestand) {
         this.name = name;
-        this.preis = preis;
+        this.preisCent = Geld.ausEuro(preis);
         this.bestand = bestand;
     }
 
+    /**
+     * Erstellt ein Produkt mit einem Preis in Cent.
+     *
+     * @param id der eindeutige Identifier des Produkts (0 für neue Produkte)
+     * @param name der Name des Produkts
+     * @param preisCent der Preis des Produkts in Cent
+     * @param bestand die Anzahl der verfügbaren Stück im Lager
+     * @return das neue Produkt
+     */
+    public static Produkt ausCent(int id, String name, long preisCent, int bestand) {
+        Produkt produkt = new Produkt();
+        produkt.id = id;
+        produkt.name = name;
+        produkt.preisCent = preisCent;
+        produkt.bestand = bestand;
+        return produkt;
+    }
+
     // Getter und Setter
 
     public int getId() {
@@ -68,11 +86,32 @@ public class Produkt {
     }
 
     public double getPreis() {
-        return preis;
+        return Geld.inEuro(preisCent);
     }
 
     public void setPreis(double preis) {
-        this.preis = preis;
+        this.preisCent = Geld.ausEuro(preis);
+    }
+
+    public long getPreisCent() {
+        return preisCent;
+    }
+
+    public void setPreisCent(long preisCent) {
+        this.preisCent = preisCent;
+    }
+
+    /**
+     * Gibt den Barcode in 14-stelliger Form zurück (siehe {@link Barcode}).
+     *
+     * @return der Barcode oder null, wenn keiner hinterlegt ist
+     */
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
     }
 
     public int getBestand() {
@@ -118,7 +157,7 @@ public class Produkt {
 
     @Override
     public String toString() {
-        return String.format("Produkt{id=%d, name='%s', preis=%.2f€, bestand=%d}", 
-                           id, name, preis, bestand);
+        return String.format("Produkt{id=%d, name='%s', preis=%s€, bestand=%d}",
+                           id, name, Geld.formatiere(preisCent), bestand);
     }
 }
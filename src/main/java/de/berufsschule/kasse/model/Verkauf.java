@@ -1,13 +1,13 @@
 package de.berufsschule.kasse.model;
 
 import java.time.LocalDateTime;
-import java.util.Locale;
 
 /**
  * Repräsentiert einen einzelnen Verkauf in einem Kassenvorgang.
  * 
  * Diese Klasse speichert die Details eines verkauften Produkts inklusive
- * Zeitstempel, Produktinformationen, Menge und Preise.
+ * Zeitstempel, Produktinformationen, Menge und Preise. Die Preise werden
+ * als ganze Cent gespeichert (siehe {@link Geld}).
  * 
  * @author FIAE24M
  * @version 1.0
@@ -18,8 +18,8 @@ public class Verkauf {
     private int produktId;
     private String produktName;
     private int menge;
-    private double einzelpreis;
-    private double gesamtpreis;
+    private long einzelpreisCent;
+    private long gesamtpreisCent;
 
     /**
      * Standard-Konstruktor für einen leeren Verkauf.
@@ -34,15 +34,34 @@ public class Verkauf {
      * @param produktId die ID des verkauften Produkts
      * @param produktName der Name des verkauften Produkts
      * @param menge die verkaufte Menge
-     * @param einzelpreis der Preis pro Stück
+     * @param einzelpreis der Preis pro Stück in Euro
      */
     public Verkauf(int produktId, String produktName, int menge, double einzelpreis) {
         this();
         this.produktId = produktId;
         this.produktName = produktName;
         this.menge = menge;
-        this.einzelpreis = einzelpreis;
-        this.gesamtpreis = menge * einzelpreis;
+        this.einzelpreisCent = Geld.ausEuro(einzelpreis);
+        berechneGesamtpreis();
+    }
+
+    /**
+     * Erstellt einen Verkauf mit einem Einzelpreis in Cent.
+     *
+     * @param produktId die ID des verkauften Produkts
+     * @param produktName der Name des verkauften Produkts
+     * @param menge die verkaufte Menge
+     * @param einzelpreisCent der Preis pro Stück in Cent
+     * @return der neue Verkauf mit dem aktuellen Zeitpunkt
+     */
+    public static Verkauf ausCent(int produktId, String produktName, int menge, long einzelpreisCent) {
+        Verkauf verkauf = new Verkauf();
+        verkauf.produktId = produktId;
+        verkauf.produktName = produktName;
+        verkauf.menge = menge;
+        verkauf.einzelpreisCent = einzelpreisCent;
+        verkauf.berechneGesamtpreis();
+        return verkauf;
     }
 
     // Getter und Setter
@@ -85,30 +104,44 @@ public class Verkauf {
 
     public void setMenge(int menge) {
         this.menge = menge;
-        this.gesamtpreis = menge * einzelpreis;
+        berechneGesamtpreis();
     }
 
     public double getEinzelpreis() {
-        return einzelpreis;
+        return Geld.inEuro(einzelpreisCent);
     }
 
     public void setEinzelpreis(double einzelpreis) {
-        this.einzelpreis = einzelpreis;
-        this.gesamtpreis = menge * einzelpreis;
+        setEinzelpreisCent(Geld.ausEuro(einzelpreis));
+    }
+
+    public long getEinzelpreisCent() {
+        return einzelpreisCent;
+    }
+
+    public void setEinzelpreisCent(long einzelpreisCent) {
+        this.einzelpreisCent = einzelpreisCent;
+        berechneGesamtpreis();
     }
 
     public double getGesamtpreis() {
-        return gesamtpreis;
+        return Geld.inEuro(gesamtpreisCent);
+    }
+
+    public long getGesamtpreisCent() {
+        return gesamtpreisCent;
     }
 
     /**
      * Berechnet den Gesamtpreis neu basierend auf Menge und Einzelpreis.
      */
     public void berechneGesamtpreis() {
-        this.gesamtpreis = this.menge * this.einzelpreis;
-    }    @Override
+        this.gesamtpreisCent = Geld.mal(this.einzelpreisCent, this.menge);
+    }
+
+    @Override
     public String toString() {
-        return String.format(Locale.GERMAN, "%dx %s à %.2f€ = %.2f€", 
-                           menge, produktName, einzelpreis, gesamtpreis);
+        return menge + "x " + produktName + " à " + Geld.formatiere(einzelpreisCent) + "€ = "
+            + Geld.formatiere(gesamtpreisCent) + "€";
     }
 }
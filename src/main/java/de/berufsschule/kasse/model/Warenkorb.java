@@ -1,55 +1,138 @@
 package de.berufsschule.kasse.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Repräsentiert einen Warenkorb für einen Kassenvorgang.
  * 
- * Diese Klasse sammelt alle Verkäufe eines Kassenvorgangs und
- * berechnet den Gesamtbetrag.
+ * Diese Klasse sammelt alle Verkäufe eines Kassenvorgangs mit genau einer
+ * Position je Produkt: Wird ein Produkt erneut erfasst, erhöht sich die Menge
+ * der vorhandenen Position zu deren Einzelpreis. Positionen sind über die
+ * Produkt-ID indiziert, Hinzufügen, Entfernen und Mengenänderungen kosten
+ * daher konstante Zeit, ebenso Gesamtbetrag und Stückzahl, die dabei
+ * fortgeschrieben werden. Der Warenkorb übernimmt beim Hinzufügen eine eigene
+ * Kopie des Verkaufs und gibt seine Positionen nur als lesbare Ansicht heraus;
+ * Mengen werden ausschließlich über den Warenkorb geändert.
  * 
  * @author FIAE24M
  * @version 1.0
  */
 public class Warenkorb {
-    private List<Verkauf> verkaeufe;
-    private LocalDateTime erstellungszeitpunkt;
+    // Reason: LinkedHashMap behält die Erfassungsreihenfolge für Bon und Anzeige bei
+    private final Map<Integer, Verkauf> positionen;
+    private final Collection<Verkauf> positionenNurLesbar;
+    private final LocalDateTime erstellungszeitpunkt;
+    private long gesamtbetragCent;
+    private int gesamtmenge;
 
     /**
      * Erstellt einen neuen leeren Warenkorb.
      */
     public Warenkorb() {
-        this.verkaeufe = new ArrayList<>();
+        this.positionen = new LinkedHashMap<>();
+        this.positionenNurLesbar = Collections.unmodifiableCollection(positionen.values());
         this.erstellungszeitpunkt = LocalDateTime.now();
     }
 
     /**
-     * Fügt einen Verkauf zum Warenkorb hinzu.
+     * Fügt einen Verkauf zum Warenkorb hinzu. Neue Produkte werden als Kopie
+     * übernommen, bei bereits enthaltenen wird die Menge der vorhandenen Position
+     * erhöht. Der übergebene Verkauf bleibt in beiden Fällen unverändert.
      * 
      * @param verkauf der hinzuzufügende Verkauf
      */
     public void fuegeVerkaufHinzu(Verkauf verkauf) {
-        this.verkaeufe.add(verkauf);
+        Verkauf vorhanden = positionen.get(verkauf.getProduktId());
+        if (vorhanden == null) {
+            long neuerBetrag = Math.addExact(gesamtbetragCent, verkauf.getGesamtpreisCent());
+            positionen.put(verkauf.getProduktId(), kopiere(verkauf));
+            this.gesamtbetragCent = neuerBetrag;
+            this.gesamtmenge += verkauf.getMenge();
+        } else {
+            setzeMenge(vorhanden, Math.addExact(vorhanden.getMenge(), verkauf.getMenge()));
+        }
+    }
+
+    private static Verkauf kopiere(Verkauf verkauf) {
+        Verkauf kopie = Verkauf.ausCent(verkauf.getProduktId(), verkauf.getProduktName(),
+                                        verkauf.getMenge(), verkauf.getEinzelpreisCent());
+        kopie.setId(verkauf.getId());
+        kopie.setTimestamp(verkauf.getTimestamp());
+        return kopie;
     }
 
     /**
-     * Entfernt einen Verkauf aus dem Warenkorb.
+     * Entfernt die Position zum Produkt eines Verkaufs aus dem Warenkorb.
      * 
      * @param verkauf der zu entfernende Verkauf
-     * @return true wenn der Verkauf entfernt wurde, false sonst
+     * @return true wenn das Produkt im Warenkorb war, false sonst
+     * @see #entfernePosition(int)
      */
     public boolean entferneVerkauf(Verkauf verkauf) {
-        return this.verkaeufe.remove(verkauf);
+        return entfernePosition(verkauf.getProduktId());
+    }
+
+    /**
+     * Entfernt die Position eines Produkts.
+     * 
+     * @param produktId die ID des Produkts
+     * @return true wenn das Produkt im Warenkorb war, false sonst
+     */
+    public boolean entfernePosition(int produktId) {
+        Verkauf entfernt = positionen.remove(produktId);
+        if (entfernt == null) {
+            return false;
+        }
+        this.gesamtbetragCent -= entfernt.getGesamtpreisCent();
+        this.gesamtmenge -= entfernt.getMenge();
+        return true;
+    }
+
+    /**
+     * Setzt die Menge der Position eines Produkts; bei 0 wird die Position entfernt.
+     * 
+     * @param produktId die ID des Produkts
+     * @param menge die neue Menge (nicht negativ)
+     * @return true wenn das Produkt im Warenkorb war, false sonst
+     * @throws IllegalArgumentException bei negativer Menge
+     */
+    public boolean aendereMenge(int produktId, int menge) {
+        if (menge < 0) {
+            throw new IllegalArgumentException("Menge darf nicht negativ sein: " + menge);
+        }
+        Verkauf position = positionen.get(produktId);
+        if (position == null) {
+            return false;
+        }
+        if (menge == 0) {
+            return entfernePosition(produktId);
+        }
+        setzeMenge(position, menge);
+        return true;
+    }
+
+    private void setzeMenge(Verkauf position, int menge) {
+        long alterPreis = position.getGesamtpreisCent();
+        int alteMenge = position.getMenge();
+        long neuerBetrag = Math.addExact(gesamtbetragCent - alterPreis, Geld.mal(position.getEinzelpreisCent(), menge));
+        position.setMenge(menge);
+        this.gesamtbetragCent = neuerBetrag;
+        this.gesamtmenge += menge - alteMenge;
     }
 
     /**
      * Leert den kompletten Warenkorb.
      */
     public void leeren() {
-        this.verkaeufe.clear();
+        this.positionen.clear();
+        this.gesamtbetragCent = 0;
+        this.gesamtmenge = 0;
     }
 
     /**
@@ -58,9 +141,16 @@ public class Warenkorb {
      * @return der Gesamtbetrag in Euro
      */
     public double berechneGesamtbetrag() {
-        return verkaeufe.stream()
-                       .mapToDouble(Verkauf::getGesamtpreis)
-                       .sum();
+        return Geld.inEuro(berechneGesamtbetragCent());
+    }
+
+    /**
+     * Gibt den fortgeschriebenen Gesamtbetrag aller Verkäufe im Warenkorb exakt in Cent zurück.
+     *
+     * @return der Gesamtbetrag in Cent
+     */
+    public long berechneGesamtbetragCent() {
+        return gesamtbetragCent;
     }
 
     /**
@@ -69,7 +159,27 @@ public class Warenkorb {
      * @return Anzahl der Artikel
      */
     public int getAnzahlArtikel() {
-        return verkaeufe.size();
+        return positionen.size();
+    }
+
+    /**
+     * Gibt die Summe der Mengen aller Positionen zurück.
+     * 
+     * @return Anzahl Stück im Warenkorb
+     */
+    public int getGesamtmenge() {
+        return gesamtmenge;
+    }
+
+    /**
+     * Gibt die Menge eines Produkts im Warenkorb zurück.
+     * 
+     * @param produktId die ID des Produkts
+     * @return Menge im Warenkorb, 0 wenn das Produkt nicht enthalten ist
+     */
+    public int getMenge(int produktId) {
+        Verkauf position = positionen.get(produktId);
+        return position == null ? 0 : position.getMenge();
     }
 
     /**
@@ -78,16 +188,19 @@ public class Warenkorb {
      * @return true wenn leer, false sonst
      */
     public boolean istLeer() {
-        return verkaeufe.isEmpty();
+        return positionen.isEmpty();
     }
 
     /**
-     * Gibt eine Kopie der Verkaufsliste zurück.
+     * Gibt die Positionen in Erfassungsreihenfolge zurück, ohne sie zu kopieren.
+     * Die Positionen gehören dem Warenkorb und dürfen nicht über
+     * {@link Verkauf#setMenge(int)} verändert werden, sonst stimmen die
+     * fortgeschriebenen Summen nicht mehr; dafür gibt es {@link #aendereMenge(int, int)}.
      * 
-     * @return unveränderliche Liste der Verkäufe
+     * @return nur lesbare, mitlaufende Ansicht der Verkäufe, einer je Produkt
      */
-    public List<Verkauf> getVerkaeufe() {
-        return new ArrayList<>(verkaeufe);
+    public Collection<Verkauf> getVerkaeufe() {
+        return positionenNurLesbar;
     }
 
     /**
@@ -105,25 +218,30 @@ public class Warenkorb {
      * @return formatierter Bon als String
      */
     public String erstelleBon() {
-        StringBuilder bon = new StringBuilder();
-        bon.append("=".repeat(40)).append("\n");
-        bon.append("           KASSENSYSTEM FIAE24M\n");
-        bon.append("=".repeat(40)).append("\n");
-        bon.append("Datum: ").append(erstellungszeitpunkt.toLocalDate()).append("\n");
-        bon.append("Zeit:  ").append(erstellungszeitpunkt.toLocalTime().toString().substring(0, 8)).append("\n");
-        bon.append("-".repeat(40)).append("\n");
-
-        for (Verkauf verkauf : verkaeufe) {
-            bon.append(verkauf.toString()).append("\n");
-        }        bon.append("-".repeat(40)).append("\n");
-        bon.append(String.format(Locale.GERMAN, "GESAMT: %.2f€", berechneGesamtbetrag())).append("\n");
-        bon.append("=".repeat(40)).append("\n");
-        bon.append("Vielen Dank für Ihren Einkauf!\n");
-
+        // Reason: Kopf, Fuß und Trennlinien belegen ca. 200 Zeichen, eine Position meist unter 40
+        StringBuilder bon = new StringBuilder(256 + 48 * positionen.size());
+        schreibeBon(bon);
         return bon.toString();
-    }    @Override
+    }
+
+    /**
+     * Hängt die Bon-Darstellung an einen (wiederverwendbaren) StringBuilder an.
+     * 
+     * @param ziel der StringBuilder
+     * @see BonRenderer
+     */
+    public void schreibeBon(StringBuilder ziel) {
+        try {
+            BonRenderer.schreibeText(this, ziel);
+        } catch (IOException e) {
+            // Reason: StringBuilder.append wirft nie eine IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
     public String toString() {
-        return String.format(Locale.GERMAN, "Warenkorb{%d Artikel, Gesamtbetrag: %.2f€}", 
-                           getAnzahlArtikel(), berechneGesamtbetrag());
+        return "Warenkorb{" + getAnzahlArtikel() + " Artikel, Gesamtbetrag: "
+            + Geld.formatiere(berechneGesamtbetragCent()) + "€}";
     }
 }
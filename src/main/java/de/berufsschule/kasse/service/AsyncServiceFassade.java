@@ -0,0 +1,160 @@
+package de.berufsschule.kasse.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Asynchrone Fassade vor KassenService und StatistikService.
+ *
+ * Alle Datenbankzugriffe laufen auf Hintergrund-Threads, die Ergebnisse werden
+ * über den Ergebnis-Executor (in der Oberfläche {@code Platform::runLater})
+ * zugestellt. Aufgaben am KassenService laufen strikt nacheinander auf einem
+ * eigenen Thread, weil ein Neuladen nach einer Buchung deren Ergebnis sehen muss. Dashboard-Abfragen laufen
+ * unabhängig davon auf einem zweiten Thread.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class AsyncServiceFassade implements AutoCloseable {
+    private static final long BEENDEN_WARTEZEIT_SEKUNDEN = 5;
+
+    private final KassenService kassenService;
+    private final StatistikService statistikService;
+    private final ExecutorService kassenExecutor;
+    private final ExecutorService statistikExecutor;
+    private final Executor ergebnisExecutor;
+
+    /**
+     * Erstellt die Fassade mit eigenen Hintergrund-Threads.
+     *
+     * @param kassenService der zu kapselnde KassenService
+     * @param statistikService der zu kapselnde StatistikService
+     * @param ergebnisExecutor Executor, auf dem Ergebnisse zugestellt werden
+     */
+    public AsyncServiceFassade(KassenService kassenService, StatistikService statistikService,
+                               Executor ergebnisExecutor) {
+        this.kassenService = kassenService;
+        this.statistikService = statistikService;
+        this.ergebnisExecutor = ergebnisExecutor;
+        this.kassenExecutor = Executors.newSingleThreadExecutor(r -> erstelleThread(r, "kasse-db"));
+        this.statistikExecutor = Executors.newSingleThreadExecutor(r -> erstelleThread(r, "kasse-statistik"));
+    }
+
+    /**
+     * Führt eine Aufgabe am KassenService im Hintergrund aus.
+     *
+     * @param aufgabe die Aufgabe
+     * @param <T> Typ des Ergebnisses
+     * @return Future, das auf dem Ergebnis-Executor abgeschlossen wird
+     */
+    public <T> CompletableFuture<T> kasse(ServiceAufgabe<KassenService, T> aufgabe) {
+        return ausfuehren(() -> aufgabe.ausfuehren(kassenService), kassenExecutor);
+    }
+
+    /**
+     * Führt eine Aufgabe am StatistikService im Hintergrund aus.
+     *
+     * @param aufgabe die Aufgabe
+     * @param <T> Typ des Ergebnisses
+     * @return Future, das auf dem Ergebnis-Executor abgeschlossen wird
+     */
+    public <T> CompletableFuture<T> statistik(ServiceAufgabe<StatistikService, T> aufgabe) {
+        return ausfuehren(() -> aufgabe.ausfuehren(statistikService), statistikExecutor);
+    }
+
+    /**
+     * Erstellt eine zusammenfassende Abfrage am KassenService (z. B. Neuladen der Produktliste).
+     *
+     * @param abfrage die Abfrage
+     * @param beiErgebnis Verarbeitung des Ergebnisses auf dem Ergebnis-Executor
+     * @param beiFehler Verarbeitung eines Fehlers auf dem Ergebnis-Executor
+     * @param <T> Typ des Ergebnisses
+     * @return die Abfrage, ausgelöst wird sie mit {@link ZusammengefassteAbfrage#anfordern()}
+     */
+    public <T> ZusammengefassteAbfrage<T> kassenAbfrage(ServiceAufgabe<KassenService, T> abfrage,
+                                                       Consumer<T> beiErgebnis, Consumer<Exception> beiFehler) {
+        return new ZusammengefassteAbfrage<>(() -> abfrage.ausfuehren(kassenService), kassenExecutor,
+                                             ergebnisExecutor, beiErgebnis, beiFehler);
+    }
+
+    /**
+     * Erstellt eine zusammenfassende Abfrage am StatistikService (z. B. Dashboard).
+     *
+     * @param abfrage die Abfrage
+     * @param beiErgebnis Verarbeitung des Ergebnisses auf dem Ergebnis-Executor
+     * @param beiFehler Verarbeitung eines Fehlers auf dem Ergebnis-Executor
+     * @param <T> Typ des Ergebnisses
+     * @return die Abfrage, ausgelöst wird sie mit {@link ZusammengefassteAbfrage#anfordern()}
+     */
+    public <T> ZusammengefassteAbfrage<T> statistikAbfrage(ServiceAufgabe<StatistikService, T> abfrage,
+                                                          Consumer<T> beiErgebnis, Consumer<Exception> beiFehler) {
+        return new ZusammengefassteAbfrage<>(() -> abfrage.ausfuehren(statistikService), statistikExecutor,
+                                             ergebnisExecutor, beiErgebnis, beiFehler);
+    }
+
+    /**
+     * Ermittelt die fachliche Ursache eines fehlgeschlagenen Futures.
+     *
+     * @param fehler der Fehler aus {@code whenComplete}/{@code exceptionally}
+     * @return die ursprünglich geworfene Exception
+     */
+    public static Throwable ursache(Throwable fehler) {
+        Throwable ursache = fehler;
+        while (ursache instanceof CompletionException && ursache.getCause() != null) {
+            ursache = ursache.getCause();
+        }
+        return ursache;
+    }
+
+    /**
+     * Beendet die Hintergrund-Threads, nachdem bereits eingereihte Aufgaben abgearbeitet wurden.
+     */
+    @Override
+    public void close() {
+        kassenExecutor.shutdown();
+        statistikExecutor.shutdown();
+        try {
+            kassenExecutor.awaitTermination(BEENDEN_WARTEZEIT_SEKUNDEN, TimeUnit.SECONDS);
+            statistikExecutor.awaitTermination(BEENDEN_WARTEZEIT_SEKUNDEN, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> ausfuehren(Callable<T> aufgabe, Executor executor) {
+        CompletableFuture<T> ergebnis = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                T wert = aufgabe.call();
+                ergebnisExecutor.execute(() -> ergebnis.complete(wert));
+            } catch (Exception e) {
+                ergebnisExecutor.execute(() -> ergebnis.completeExceptionally(e));
+            }
+        });
+        return ergebnis;
+    }
+
+    private static Thread erstelleThread(Runnable runnable, String name) {
+        // Reason: Daemon-Threads verhindern nicht das Beenden der Anwendung
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Aufgabe, die mit einem Service im Hintergrund ausgeführt wird.
+     *
+     * @param <S> Typ des Services
+     * @param <T> Typ des Ergebnisses
+     */
+    @FunctionalInterface
+    public interface ServiceAufgabe<S, T> {
+        T ausfuehren(S service) throws Exception;
+    }
+}
@@ -0,0 +1,215 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Geld;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Service-Klasse für den Export des Verkaufsjournals an die Buchhaltung.
+ *
+ * Die Verkäufe eines Zeitraums werden mit einem Vorwärts-Cursor gelesen und
+ * Zeile für Zeile direkt in das Zielformat geschrieben, ohne Verkauf-Objekte
+ * oder Listen anzulegen. Der Speicherbedarf bleibt so auch für ein ganzes Jahr
+ * konstant, und dank WAL-Modus kann währenddessen weiter kassiert werden.
+ *
+ * Binärformat (big-endian, wie {@link DataOutputStream}): Kennung {@code KJNL},
+ * Version als short, dann je Verkauf das Byte 1 gefolgt von id (long),
+ * Zeitpunkt (long, Sekunden seit 1970 in lokaler Zeit), Produkt-ID (int),
+ * Menge (int), Einzel- und Gesamtpreis in Cent (je long). Das Byte 0 mit der
+ * Anzahl der Verkäufe (long) schließt die Datei ab, sodass abgeschnittene
+ * Dateien erkannt werden.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public class JournalService {
+
+    static final String CSV_KOPFZEILE = "id;zeitpunkt;produkt_id;produkt;menge;einzelpreis;gesamtpreis";
+    static final int BINAER_KENNUNG = 0x4B4A4E4C;
+    static final short BINAER_VERSION = 1;
+
+    private static final byte SATZ_VERKAUF = 1;
+    private static final byte SATZ_ENDE = 0;
+    private static final int ABRUFGROESSE = 1_000;
+
+    // Reason: Der Index (tag, produkt_id) liefert die Tage in Reihenfolge, SQLite muss
+    // daher nur die Verkäufe eines Tages nach Uhrzeit sortieren und nie den ganzen Zeitraum
+    private static final String JOURNAL_SQL = """
+        SELECT v.id, v.timestamp, v.produkt_id, p.name, v.menge, v.einzelpreis_cent, v.gesamtpreis_cent
+        FROM verkaeufe v
+        LEFT JOIN produkte p ON p.id = v.produkt_id
+        WHERE v.tag BETWEEN ? AND ?
+        ORDER BY v.tag, v.timestamp, v.id
+        """;
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * Konstruktor für den JournalService.
+     */
+    public JournalService() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Exportiert die Verkäufe eines Zeitraums als CSV (Semikolon, Punkt als Dezimaltrennzeichen).
+     *
+     * @param von erster Tag (einschließlich)
+     * @param bis letzter Tag (einschließlich)
+     * @param ziel Ausgabe, sollte gepuffert sein und wird nicht geschlossen
+     * @return Anzahl Verkäufe und Dauer
+     * @throws JournalServiceException bei Schreib- oder Datenbankfehlern
+     */
+    public Uebertragungsergebnis exportiereCsv(LocalDate von, LocalDate bis, Writer ziel)
+            throws JournalServiceException {
+        long start = System.nanoTime();
+        StringBuilder zeile = new StringBuilder(128);
+        try {
+            ziel.write(CSV_KOPFZEILE);
+            ziel.write('\n');
+            long anzahl = durchlaufe(von, bis, rs -> {
+                zeile.setLength(0);
+                zeile.append(rs.getLong(1)).append(';')
+                    .append(rs.getString(2)).append(';')
+                    .append(rs.getInt(3)).append(';');
+                String name = rs.getString(4);
+                zeile.append(name == null ? "" : KatalogService.maskiere(name)).append(';')
+                    .append(rs.getInt(5)).append(';');
+                Geld.haengeAn(zeile, rs.getLong(6), '.').append(';');
+                Geld.haengeAn(zeile, rs.getLong(7), '.').append('\n');
+                ziel.append(zeile);
+            });
+            ziel.flush();
+            return new Uebertragungsergebnis(anzahl, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new JournalServiceException("Fehler beim Schreiben des Verkaufsjournals", e);
+        } catch (SQLException e) {
+            throw new JournalServiceException("Fehler beim Lesen der Verkäufe", e);
+        }
+    }
+
+    /**
+     * Exportiert die Verkäufe eines Zeitraums im kompakten Binärformat.
+     *
+     * @param von erster Tag (einschließlich)
+     * @param bis letzter Tag (einschließlich)
+     * @param ziel Ausgabe, wird nicht geschlossen
+     * @return Anzahl Verkäufe und Dauer
+     * @throws JournalServiceException bei Schreib- oder Datenbankfehlern
+     */
+    public Uebertragungsergebnis exportiereBinaer(LocalDate von, LocalDate bis, OutputStream ziel)
+            throws JournalServiceException {
+        long start = System.nanoTime();
+        DataOutputStream aus = new DataOutputStream(new BufferedOutputStream(ziel));
+        try {
+            aus.writeInt(BINAER_KENNUNG);
+            aus.writeShort(BINAER_VERSION);
+            long anzahl = durchlaufe(von, bis, rs -> {
+                aus.writeByte(SATZ_VERKAUF);
+                aus.writeLong(rs.getLong(1));
+                aus.writeLong(LocalDateTime.parse(rs.getString(2)).toEpochSecond(ZoneOffset.UTC));
+                aus.writeInt(rs.getInt(3));
+                aus.writeInt(rs.getInt(5));
+                aus.writeLong(rs.getLong(6));
+                aus.writeLong(rs.getLong(7));
+            });
+            aus.writeByte(SATZ_ENDE);
+            aus.writeLong(anzahl);
+            aus.flush();
+            return new Uebertragungsergebnis(anzahl, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new JournalServiceException("Fehler beim Schreiben des Verkaufsjournals", e);
+        } catch (SQLException e) {
+            throw new JournalServiceException("Fehler beim Lesen der Verkäufe", e);
+        }
+    }
+
+    /**
+     * Liest ein Journal im Binärformat und übergibt jeden Verkauf einzeln.
+     *
+     * @param quelle die Binärdaten, wird nicht geschlossen
+     * @param empfaenger erhält die Verkäufe in der gespeicherten Reihenfolge
+     * @return Anzahl gelesener Verkäufe
+     * @throws JournalServiceException bei fremdem oder unvollständigem Format
+     */
+    public static long leseBinaer(InputStream quelle, JournalEmpfaenger empfaenger) throws JournalServiceException {
+        DataInputStream ein = new DataInputStream(new BufferedInputStream(quelle));
+        try {
+            if (ein.readInt() != BINAER_KENNUNG || ein.readShort() != BINAER_VERSION) {
+                throw new JournalServiceException("Keine Journaldatei in Version " + BINAER_VERSION, null);
+            }
+            long anzahl = 0;
+            while (ein.readByte() == SATZ_VERKAUF) {
+                empfaenger.verkauf(ein.readLong(), LocalDateTime.ofEpochSecond(ein.readLong(), 0, ZoneOffset.UTC),
+                                   ein.readInt(), ein.readInt(), ein.readLong(), ein.readLong());
+                anzahl++;
+            }
+            if (ein.readLong() != anzahl) {
+                throw new JournalServiceException("Journaldatei ist beschädigt: Anzahl stimmt nicht", null);
+            }
+            return anzahl;
+        } catch (IOException e) {
+            throw new JournalServiceException("Journaldatei ist unvollständig oder nicht lesbar", e);
+        }
+    }
+
+    private long durchlaufe(LocalDate von, LocalDate bis, ZeilenSchreiber schreiber)
+            throws SQLException, IOException {
+        if (bis.isBefore(von)) {
+            throw new IllegalArgumentException("Ende " + bis + " liegt vor Beginn " + von);
+        }
+        long anzahl = 0;
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.prepareStatement(JOURNAL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(ABRUFGROESSE);
+            stmt.setInt(1, DatabaseManager.tagesschluessel(von));
+            stmt.setInt(2, DatabaseManager.tagesschluessel(bis));
+            try (var rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    schreiber.schreibe(rs);
+                    anzahl++;
+                }
+            }
+        }
+        return anzahl;
+    }
+
+    /**
+     * Schreibt die aktuelle Zeile des Cursors in das Zielformat.
+     */
+    @FunctionalInterface
+    private interface ZeilenSchreiber {
+        void schreibe(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Empfängt die Verkäufe beim Lesen eines Binärjournals.
+     */
+    @FunctionalInterface
+    public interface JournalEmpfaenger {
+        void verkauf(long id, LocalDateTime zeitpunkt, int produktId, int menge, long einzelpreisCent,
+                     long gesamtpreisCent);
+    }
+
+    /**
+     * Exception-Klasse für JournalService-Fehler.
+     */
+    public static class JournalServiceException extends Exception {
+        public JournalServiceException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package de.berufsschule.kasse.service;
 
+import de.berufsschule.kasse.database.BestandsErgebnis;
+import de.berufsschule.kasse.database.BestandskonfliktException;
 import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.Verkaufsjournal;
+import de.berufsschule.kasse.model.Barcode;
 import de.berufsschule.kasse.model.Produkt;
 import de.berufsschule.kasse.model.Verkauf;
 import de.berufsschule.kasse.model.Warenkorb;
+import de.berufsschule.kasse.util.Latenzstatistik;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Service-Klasse für die Geschäftslogik des Kassensystems.
@@ -14,30 +26,205 @@ import java.util.List;
  * Diese Klasse stellt die Hauptfunktionalitäten des Kassensystems bereit
  * und koordiniert zwischen der GUI und der Datenbankschicht.
  * 
+ * Ein Service bedient beliebig viele Kassen gleichzeitig: jede Kasse ist eine
+ * {@link Kassensitzung} mit eigenem Warenkorb, offene Sitzungen liegen in einer
+ * {@code ConcurrentHashMap}. Die Warenkorb-Methoden ohne Sitzung arbeiten auf
+ * der Standardsitzung, die jeder Service beim Erstellen öffnet (z. B. für die
+ * Oberfläche). Sitzungen, die länger als die Haltedauer des
+ * {@link Reservierungsbuch}s nicht verwendet wurden, werden beim Öffnen oder
+ * Suchen von Sitzungen geschlossen; die Standardsitzung bleibt immer offen.
+ * Kassen mit fester Kennung ({@link #oeffneSitzung(String)}, für die
+ * Standardsitzung {@code -Dkasse.id}) erhalten ihren Warenkorb nach einem
+ * Neustart aus den gespeicherten Reservierungen zurück.
+ * Alle Methoden sind thread-sicher.
+ * 
+ * Ist ein {@link Verkaufsjournal} konfiguriert, gilt ein Abschluss als gebucht,
+ * sobald er im Journal steht; die Datenbank wird im Hintergrund nachgezogen.
+ * 
  * @author FIAE24M
  * @version 1.0
  */
 public class KassenService {
+    public static final String PROPERTY_KASSE = "kasse.id";
+    private static final int MAX_KENNUNG = 64;
+
     private final DatabaseManager dbManager;
-    private Warenkorb aktuellerWarenkorb;
+    private final Verkaufsjournal journal;
+    private final ProduktCache produktCache;
+    private final Reservierungsbuch reservierungen;
+    private final Latenzstatistik abschlussLatenz;
+    private final List<ProduktListener> produktListener = new CopyOnWriteArrayList<>();
+    private final Map<String, Kassensitzung> sitzungen = new ConcurrentHashMap<>();
+    private final AtomicLong naechstesAufraeumen = new AtomicLong();
+    private final Kassensitzung standardSitzung;
 
     /**
-     * Erstellt eine neue Instanz des KassenService.
+     * Erstellt eine neue Instanz des KassenService, mit Verkaufsjournal falls konfiguriert.
      */
     public KassenService() {
+        this(Verkaufsjournal.getInstance());
+    }
+
+    /**
+     * Erstellt eine neue Instanz des KassenService mit einem bestimmten Verkaufsjournal.
+     *
+     * @param journal nimmt die Abschlüsse auf, oder null für Buchungen direkt in der Datenbank
+     */
+    public KassenService(Verkaufsjournal journal) {
+        this(journal, Reservierungsbuch.getInstance());
+    }
+
+    /**
+     * Erstellt eine neue Instanz des KassenService mit eigenem Reservierungsbuch.
+     *
+     * @param journal nimmt die Abschlüsse auf, oder null für Buchungen direkt in der Datenbank
+     * @param reservierungen Reservierungsbuch, dessen Haltedauer auch inaktive Sitzungen beendet
+     */
+    KassenService(Verkaufsjournal journal, Reservierungsbuch reservierungen) {
         this.dbManager = DatabaseManager.getInstance();
-        this.aktuellerWarenkorb = new Warenkorb();
+        this.journal = journal;
+        this.produktCache = ProduktCache.getInstance();
+        this.reservierungen = reservierungen;
+        this.abschlussLatenz = new Latenzstatistik();
+        this.standardSitzung = oeffneStandardsitzung();
+    }
+
+    private Kassensitzung oeffneStandardsitzung() {
+        String kasse = System.getProperty(PROPERTY_KASSE);
+        if (kasse == null || kasse.isBlank()) {
+            return oeffneSitzung();
+        }
+        try {
+            return oeffneSitzung(kasse);
+        } catch (KassenServiceException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Öffnet eine neue Kassensitzung mit eigenem Warenkorb und zufälliger Kennung.
+     * Ihre Reservierungen werden nicht gespeichert.
+     *
+     * @return die neue Sitzung
+     */
+    public Kassensitzung oeffneSitzung() {
+        raeumeInaktiveSitzungenAuf();
+        Kassensitzung sitzung = new Kassensitzung("kasse-" + UUID.randomUUID(), this, reservierungen);
+        sitzungen.put(sitzung.getId(), sitzung);
+        return sitzung;
+    }
+
+    /**
+     * Öffnet die Sitzung einer Kasse mit fester Kennung oder gibt ihre offene Sitzung zurück.
+     * Hielt die Kasse vor einem Neustart noch Reservierungen, enthält der Warenkorb diese
+     * Positionen wieder, zum aktuellen Preis.
+     *
+     * @param kasse feste Kennung der Kasse, z. B. die Kassennummer; sie ist zugleich die Sitzungs-ID
+     * @return die Sitzung
+     * @throws KassenServiceException bei leerer oder zu langer Kennung
+     */
+    public Kassensitzung oeffneSitzung(String kasse) throws KassenServiceException {
+        if (kasse == null || kasse.isBlank() || kasse.length() > MAX_KENNUNG) {
+            throw new KassenServiceException("Ungültige Kassenkennung: " + kasse);
+        }
+        raeumeInaktiveSitzungenAuf();
+        Kassensitzung neu = new Kassensitzung(kasse, this, reservierungen);
+        // Reason: Anfragen derselben Kasse warten auf die Sperre der Sitzung, bis der Warenkorb wiederhergestellt ist
+        synchronized (neu) {
+            Kassensitzung offen = sitzungen.putIfAbsent(kasse, neu);
+            if (offen != null) {
+                offen.beruehre();
+                return offen;
+            }
+            neu.stelleWarenkorbWiederHer();
+        }
+        return neu;
+    }
+
+    /**
+     * Sucht eine offene Kassensitzung und vermerkt sie als verwendet.
+     *
+     * @param id die Sitzungs-ID
+     * @return die Sitzung
+     * @throws KassenServiceException wenn keine offene Sitzung diese ID hat
+     */
+    public Kassensitzung getSitzung(String id) throws KassenServiceException {
+        raeumeInaktiveSitzungenAuf();
+        Kassensitzung sitzung = id != null ? sitzungen.get(id) : null;
+        // Reason: Die Reservierungen einer inaktiven Sitzung sind verfallen, auch wenn das Aufräumen noch aussteht
+        if (sitzung != null && sitzung != standardSitzung && sitzung.istInaktiv(reservierungen.jetzt())) {
+            schliesseSitzung(id);
+            sitzung = null;
+        }
+        if (sitzung == null) {
+            throw new KassenServiceException("Unbekannte Kassensitzung: " + id);
+        }
+        sitzung.beruehre();
+        return sitzung;
+    }
+
+    /**
+     * Schließt eine Kassensitzung, verwirft ihren Warenkorb und gibt ihre Reservierungen frei.
+     *
+     * @param id die Sitzungs-ID
+     * @return true wenn die Sitzung offen war
+     */
+    public boolean schliesseSitzung(String id) {
+        Kassensitzung sitzung = sitzungen.remove(id);
+        if (sitzung == null) {
+            return false;
+        }
+        sitzung.starteNeuenKassenvorgang();
+        return true;
+    }
+
+    /**
+     * Schließt alle Sitzungen außer der Standardsitzung, die länger als die Haltedauer
+     * nicht verwendet wurden. Läuft höchstens einmal je Viertel der Haltedauer.
+     *
+     * @return Anzahl geschlossener Sitzungen
+     */
+    int raeumeInaktiveSitzungenAuf() {
+        long jetzt = reservierungen.jetzt();
+        long faellig = naechstesAufraeumen.get();
+        // Reason: Ohne Drosselung durchliefe jedes Öffnen alle Sitzungen
+        if (jetzt < faellig
+            || !naechstesAufraeumen.compareAndSet(faellig, jetzt + reservierungen.getHaltedauerMillis() / 4)) {
+            return 0;
+        }
+        int geschlossen = 0;
+        for (Kassensitzung sitzung : sitzungen.values()) {
+            if (sitzung != standardSitzung && sitzung.istInaktiv(jetzt) && schliesseSitzung(sitzung.getId())) {
+                geschlossen++;
+            }
+        }
+        return geschlossen;
     }
 
     /**
-     * Lädt alle verfügbaren Produkte aus der Datenbank.
+     * Gibt die Anzahl offener Kassensitzungen zurück.
+     *
+     * @return Anzahl Sitzungen einschließlich der Standardsitzung
+     */
+    public int getAnzahlSitzungen() {
+        return sitzungen.size();
+    }
+
+    /**
+     * Lädt alle verfügbaren Produkte, bevorzugt aus dem {@link ProduktCache}.
      * 
      * @return Liste aller Produkte
      * @throws KassenServiceException bei Datenbankfehlern
      */
     public List<Produkt> getAlleProdukte() throws KassenServiceException {
+        List<Produkt> produkte = produktCache.getAlle();
+        if (produkte != null) {
+            return produkte;
+        }
         try {
-            return dbManager.getAlleProdukte();
+            produkte = journal != null ? journal.leseProdukte(dbManager::getAlleProdukte) : dbManager.getAlleProdukte();
+            produktCache.ladeKatalog(produkte);
+            return produkte;
         } catch (SQLException e) {
             throw new KassenServiceException("Fehler beim Laden der Produkte", e);
         }
@@ -52,7 +239,7 @@ public class KassenService {
      */
     public Produkt getProduktById(int id) throws KassenServiceException {
         try {
-            return dbManager.getProduktById(id);
+            return ladeProdukt(id);
         } catch (SQLException e) {
             throw new KassenServiceException("Fehler beim Suchen des Produkts mit ID " + id, e);
         }
@@ -62,26 +249,32 @@ public class KassenService {
      * Fügt ein neues Produkt hinzu.
      * 
      * @param name der Name des Produkts
-     * @param preis der Preis des Produkts
+     * @param preisCent der Preis des Produkts in Cent
      * @param bestand der Anfangsbestand
      * @return das erstellte Produkt mit ID
      * @throws KassenServiceException bei Validierungs- oder Datenbankfehlern
      */
-    public Produkt fuegeProduktHinzu(String name, double preis, int bestand) throws KassenServiceException {
+    public Produkt fuegeProduktHinzu(String name, long preisCent, int bestand) throws KassenServiceException {
         // Validierung
         if (name == null || name.trim().isEmpty()) {
             throw new KassenServiceException("Produktname darf nicht leer sein");
         }
-        if (preis <= 0) {
+        if (preisCent <= 0) {
             throw new KassenServiceException("Preis muss größer als 0 sein");
         }
         if (bestand < 0) {
             throw new KassenServiceException("Bestand darf nicht negativ sein");
         }
 
+        if (produktCache.getNachName(name.trim()) != null) {
+            throw new KassenServiceException("Ein Produkt mit diesem Namen existiert bereits");
+        }
+
         try {
-            Produkt produkt = new Produkt(name.trim(), preis, bestand);
+            Produkt produkt = Produkt.ausCent(0, name.trim(), preisCent, bestand);
             dbManager.fuegeProduktHinzu(produkt);
+            produktCache.speichere(produkt);
+            melde(listener -> listener.produktHinzugefuegt(produkt));
             return produkt;
         } catch (SQLException e) {
             if (e.getMessage().contains("UNIQUE constraint failed")) {
@@ -104,98 +297,225 @@ public class KassenService {
         }
 
         try {
-            Produkt produkt = dbManager.getProduktById(produktId);
-            if (produkt == null) {
+            if (dbManager.erhoeheBestand(produktId, zusaetzlicheMenge) == BestandsErgebnis.NICHT_GEFUNDEN) {
+                produktCache.entferne(produktId);
                 throw new KassenServiceException("Produkt mit ID " + produktId + " nicht gefunden");
             }
-
-            int neuerBestand = produkt.getBestand() + zusaetzlicheMenge;
-            dbManager.aktualisiereBestand(produktId, neuerBestand);
+            meldeAenderung(aktualisierterStand(produktId, zusaetzlicheMenge));
         } catch (SQLException e) {
             throw new KassenServiceException("Fehler beim Erfassen des Warenzugangs", e);
         }
     }
 
     /**
-     * Startet einen neuen Kassenvorgang (leert den Warenkorb).
+     * Startet einen neuen Kassenvorgang in der Standardsitzung.
+     *
+     * @see Kassensitzung#starteNeuenKassenvorgang()
      */
     public void starteNeuenKassenvorgang() {
-        this.aktuellerWarenkorb = new Warenkorb();
+        standardSitzung.starteNeuenKassenvorgang();
     }
 
     /**
-     * Fügt ein Produkt zum aktuellen Warenkorb hinzu.
+     * Fügt ein Produkt zum Warenkorb der Standardsitzung hinzu.
      * 
      * @param produktId die ID des Produkts
      * @param menge die gewünschte Menge
      * @throws KassenServiceException bei Validierungs- oder Verfügbarkeitsfehlern
+     * @see Kassensitzung#fuegeProduktZumWarenkorbHinzu(int, int)
      */
     public void fuegeProduktZumWarenkorbHinzu(int produktId, int menge) throws KassenServiceException {
-        if (menge <= 0) {
-            throw new KassenServiceException("Menge muss größer als 0 sein");
+        standardSitzung.fuegeProduktZumWarenkorbHinzu(produktId, menge);
+    }
+
+    /**
+     * Gibt zurück, wie viel von einem Produkt die Standardsitzung noch zusätzlich erfassen kann.
+     * 
+     * @param produktId die ID des Produkts
+     * @return Bestand abzüglich aller Reservierungen anderer Kassen und des eigenen Warenkorbs
+     * @throws KassenServiceException wenn das Produkt nicht existiert oder bei Datenbankfehlern
+     */
+    public int getVerfuegbareMenge(int produktId) throws KassenServiceException {
+        return standardSitzung.getVerfuegbareMenge(produktId);
+    }
+
+    /**
+     * Sucht ein Produkt anhand seines Barcodes, bevorzugt im {@link ProduktCache}.
+     *
+     * @param barcode EAN-8, UPC-A, EAN-13 oder GTIN-14
+     * @return das Produkt oder null wenn kein Produkt diesen Barcode trägt
+     * @throws KassenServiceException bei ungültigem Barcode oder Datenbankfehlern
+     */
+    public Produkt getProduktByBarcode(String barcode) throws KassenServiceException {
+        String gtin = pruefeBarcode(barcode);
+        Produkt produkt = produktCache.getNachBarcode(gtin);
+        // Reason: Liegt der ganze Katalog im Cache, ist ein Fehlgriff ein unbekannter Barcode
+        if (produkt != null || produktCache.istVollstaendig()) {
+            return produkt;
         }
+        try {
+            produkt = ausDatenbank(() -> dbManager.getProduktByBarcode(gtin));
+            if (produkt != null) {
+                produktCache.speichere(produkt);
+            }
+            return produkt;
+        } catch (SQLException e) {
+            throw new KassenServiceException("Fehler beim Suchen des Barcodes " + barcode, e);
+        }
+    }
 
+    /**
+     * Legt ein gescanntes Produkt mit Menge 1 in den Warenkorb der Standardsitzung.
+     *
+     * @param barcode der gescannte Barcode
+     * @return das erfasste Produkt
+     * @throws KassenServiceException wie {@link Kassensitzung#scanneInWarenkorb(String)}
+     */
+    public Produkt scanneInWarenkorb(String barcode) throws KassenServiceException {
+        return standardSitzung.scanneInWarenkorb(barcode);
+    }
+
+    /**
+     * Hinterlegt den Barcode eines Produkts.
+     *
+     * @param produktId die ID des Produkts
+     * @param barcode EAN-8, UPC-A, EAN-13 oder GTIN-14
+     * @throws KassenServiceException bei ungültigem oder bereits vergebenem Barcode und Datenbankfehlern
+     */
+    public void setzeBarcode(int produktId, String barcode) throws KassenServiceException {
+        String gtin = pruefeBarcode(barcode);
         try {
-            Produkt produkt = dbManager.getProduktById(produktId);
-            if (produkt == null) {
+            if (!dbManager.setzeBarcode(produktId, gtin)) {
+                produktCache.entferne(produktId);
                 throw new KassenServiceException("Produkt mit ID " + produktId + " nicht gefunden");
             }
-
-            if (!produkt.istVerfuegbar(menge)) {
-                throw new KassenServiceException(
-                    String.format("Nicht genügend Bestand verfügbar. Verfügbar: %d, gewünscht: %d", 
-                                produkt.getBestand(), menge));
+            Produkt produkt = produktCache.get(produktId);
+            if (produkt != null) {
+                // speichere ersetzt auch den Eintrag unter dem alten Barcode
+                produkt.setBarcode(gtin);
+                produktCache.speichere(produkt);
+            } else {
+                produkt = ladeProdukt(produktId);
             }
-
-            Verkauf verkauf = new Verkauf(produktId, produkt.getName(), menge, produkt.getPreis());
-            aktuellerWarenkorb.fuegeVerkaufHinzu(verkauf);
-
+            meldeAenderung(produkt);
         } catch (SQLException e) {
-            throw new KassenServiceException("Fehler beim Hinzufügen zum Warenkorb", e);
+            if (e.getMessage().contains("UNIQUE constraint failed")) {
+                throw new KassenServiceException("Barcode " + gtin + " ist bereits vergeben");
+            }
+            throw new KassenServiceException("Fehler beim Speichern des Barcodes", e);
         }
     }
 
     /**
-     * Schließt den aktuellen Kassenvorgang ab und aktualisiert die Bestände.
+     * Schließt den Kassenvorgang der Standardsitzung ab.
      * 
      * @return der Bon als formatierter String
      * @throws KassenServiceException bei Datenbankfehlern
+     * @see Kassensitzung#schliesseKassenvorgangAb()
      */
     public String schliesseKassenvorgangAb() throws KassenServiceException {
-        if (aktuellerWarenkorb.istLeer()) {
-            throw new KassenServiceException("Der Warenkorb ist leer");
-        }
+        return standardSitzung.schliesseKassenvorgangAb();
+    }
 
+    /**
+     * Bucht die Positionen eines Kassenvorgangs in einer Transaktion oder im Verkaufsjournal
+     * und meldet die neuen Bestände.
+     *
+     * Die Dauer jeder Buchung wird in der {@link #getAbschlussLatenz() Latenzstatistik} erfasst.
+     *
+     * @param kasse Kennung der Kasse, unter der die Positionen reserviert sind
+     * @param positionen eine Position je Produkt
+     * @throws KassenServiceException bei Bestandskonflikt, mit Journal auch bei verfallener Reservierung,
+     *         oder bei Datenbankfehlern, dann ist nichts gebucht
+     */
+    void bucheKassenvorgang(String kasse, List<Verkauf> positionen) throws KassenServiceException {
         try {
-            // Bestände aktualisieren und Verkäufe speichern
-            for (Verkauf verkauf : aktuellerWarenkorb.getVerkaeufe()) {
-                Produkt produkt = dbManager.getProduktById(verkauf.getProduktId());
-                if (produkt != null) {
-                    int neuerBestand = produkt.getBestand() - verkauf.getMenge();
-                    dbManager.aktualisiereBestand(verkauf.getProduktId(), neuerBestand);
-                    dbManager.speichereVerkauf(verkauf);
-                }
+            long start = System.nanoTime();
+            if (journal != null) {
+                pruefeReservierungen(kasse, positionen);
+                journal.schreibe(positionen);
+            } else {
+                dbManager.speichereKassenvorgang(positionen);
             }
-
-            String bon = aktuellerWarenkorb.erstelleBon();
-            
-            // Warenkorb für nächsten Vorgang leeren
-            starteNeuenKassenvorgang();
-            
-            return bon;
-
+            abschlussLatenz.erfasse(System.nanoTime() - start);
+        } catch (BestandskonfliktException e) {
+            // Reason: Der Datenbankstand weicht vom Cache ab, das Produkt wird beim nächsten Zugriff neu geladen
+            produktCache.entferne(e.getProduktId());
+            throw new KassenServiceException(e.getMessage() + ". Der Kassenvorgang wurde nicht gebucht.", e);
         } catch (SQLException e) {
             throw new KassenServiceException("Fehler beim Abschließen des Kassenvorgangs", e);
+        } catch (IOException e) {
+            throw new KassenServiceException("Fehler beim Schreiben des Verkaufsjournals", e);
+        }
+
+        // Der Warenkorb führt eine Position je Produkt, also eine Änderungsmeldung je Produkt
+        for (Verkauf position : positionen) {
+            meldeAenderung(aktualisierterStand(position.getProduktId(), -position.getMenge()));
         }
     }
 
     /**
-     * Gibt den aktuellen Warenkorb zurück.
+     * Stellt sicher, dass die Kasse jede Position noch reserviert hat, und verlängert die Reservierungen
+     * für die Dauer der Buchung.
+     */
+    private void pruefeReservierungen(String kasse, List<Verkauf> positionen) throws KassenServiceException {
+        // Reason: Das Journal prüft keinen Bestand; eine verfallene Reservierung kann eine andere Kasse
+        // übernommen haben, und beim Einspielen wäre es für eine Ablehnung zu spät
+        if (!reservierungen.verlaengere(kasse)) {
+            throw new KassenServiceException("Die Reservierungen dieser Kasse sind abgelaufen. "
+                                             + "Der Kassenvorgang wurde nicht gebucht.");
+        }
+        for (Verkauf position : positionen) {
+            if (!reservierungen.haelt(kasse, position.getProduktId(), position.getMenge())) {
+                throw new KassenServiceException("Die Reservierung für " + position.getProduktName()
+                                                 + " ist abgelaufen. Der Kassenvorgang wurde nicht gebucht.");
+            }
+        }
+    }
+
+    /**
+     * Gibt die Latenzstatistik der bisherigen Kassenabschlüsse zurück.
+     * 
+     * @return Latenzen aller erfolgreichen Abschlüsse dieses Services
+     */
+    public Latenzstatistik getAbschlussLatenz() {
+        return abschlussLatenz;
+    }
+
+    /**
+     * Registriert einen Beobachter für Produktänderungen.
+     * 
+     * @param listener der zu benachrichtigende Beobachter
+     */
+    public void registriereProduktListener(ProduktListener listener) {
+        produktListener.add(listener);
+    }
+
+    /**
+     * Entfernt einen zuvor registrierten Beobachter.
+     * 
+     * @param listener der zu entfernende Beobachter
+     */
+    public void entferneProduktListener(ProduktListener listener) {
+        produktListener.remove(listener);
+    }
+
+    /**
+     * Gibt die Kennzahlen des Produkt-Caches zurück.
+     * 
+     * @return Treffer, Fehlgriffe und Verdrängungen des gemeinsamen Caches
+     */
+    public ProduktCache.Statistik getCacheStatistik() {
+        return produktCache.getStatistik();
+    }
+
+    /**
+     * Gibt den aktuellen Warenkorb der Standardsitzung zurück.
      * 
      * @return der aktuelle Warenkorb
      */
     public Warenkorb getAktuellerWarenkorb() {
-        return aktuellerWarenkorb;
+        return standardSitzung.getWarenkorb();
     }
 
     /**
@@ -207,6 +527,63 @@ public class KassenService {
         return dbManager.testVerbindung();
     }
 
+    private static String pruefeBarcode(String barcode) throws KassenServiceException {
+        if (barcode == null) {
+            throw new KassenServiceException("Barcode darf nicht leer sein");
+        }
+        try {
+            return Barcode.normalisiere(barcode);
+        } catch (IllegalArgumentException e) {
+            throw new KassenServiceException(e.getMessage());
+        }
+    }
+
+    Produkt ladeProdukt(int id) throws SQLException {
+        Produkt produkt = produktCache.get(id);
+        if (produkt == null) {
+            produkt = ausDatenbank(() -> dbManager.getProduktById(id));
+            if (produkt != null) {
+                produktCache.speichere(produkt);
+            }
+        }
+        return produkt;
+    }
+
+    /**
+     * Liest ein Produkt aus der Datenbank; mit Journal samt den noch nicht eingespielten Verkäufen.
+     */
+    private Produkt ausDatenbank(Verkaufsjournal.Abfrage<Produkt> abfrage) throws SQLException {
+        return journal != null ? journal.leseProdukt(abfrage) : abfrage.ausfuehren();
+    }
+
+    private Produkt aktualisierterStand(int id, int differenz) {
+        Produkt produkt = produktCache.aendereBestand(id, differenz);
+        if (produkt != null) {
+            return produkt;
+        }
+        // Reason: Die Buchung ist bereits committet, ein Fehler beim Nachladen darf sie nicht als
+        // fehlgeschlagen melden – die Ansicht erhält dann nur keine Änderungsmeldung
+        try {
+            return ladeProdukt(id);
+        } catch (SQLException e) {
+            System.err.println("Aktueller Stand von Produkt " + id + " konnte nicht geladen werden: "
+                               + e.getMessage());
+            return null;
+        }
+    }
+
+    private void meldeAenderung(Produkt produkt) {
+        if (produkt != null) {
+            melde(listener -> listener.produktGeaendert(produkt));
+        }
+    }
+
+    private void melde(Consumer<ProduktListener> ereignis) {
+        for (ProduktListener listener : produktListener) {
+            ereignis.accept(listener);
+        }
+    }
+
     /**
      * Custom Exception für Service-Fehler.
      */
@@ -0,0 +1,206 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+import de.berufsschule.kasse.model.Warenkorb;
+import de.berufsschule.kasse.service.KassenService.KassenServiceException;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eine Kasse innerhalb eines {@link KassenService}: eigener Warenkorb, eigener
+ * Bon-Puffer und eigene Bestandsreservierungen.
+ *
+ * Katalog, Produkt-Cache, Reservierungsbuch und Datenbank teilen sich alle
+ * Sitzungen des Service. Die Methoden einer Sitzung sind untereinander
+ * synchronisiert, verschiedene Sitzungen sperren sich nicht gegenseitig –
+ * so bedient ein Prozess viele Kassen parallel. Sitzungen werden mit
+ * {@link KassenService#oeffneSitzung()} oder, für Kassen mit fester Kennung,
+ * {@link KassenService#oeffneSitzung(String)} angelegt. Wird eine Sitzung länger
+ * als die Haltedauer der Reservierungen nicht verwendet, schließt der Service
+ * sie.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Kassensitzung {
+    private final String id;
+    private final KassenService service;
+    private final Reservierungsbuch reservierungen;
+    // Reason: Der Bon wird bei jedem Abschluss in denselben Puffer geschrieben, die Sitzung gehört genau einer Kasse
+    private final StringBuilder bonPuffer = new StringBuilder(1024);
+    private Warenkorb warenkorb = new Warenkorb();
+    // Reason: Wird beim Aufräumen ohne die Sperre der Sitzung gelesen
+    private volatile long letzteNutzung;
+
+    Kassensitzung(String id, KassenService service, Reservierungsbuch reservierungen) {
+        this.id = id;
+        this.service = service;
+        this.reservierungen = reservierungen;
+        this.letzteNutzung = reservierungen.jetzt();
+    }
+
+    /**
+     * Meldet die Kasse im Reservierungsbuch mit fester Kennung an und baut den Warenkorb aus den
+     * Reservierungen auf, die sie vor einem Neustart gehalten hat.
+     */
+    synchronized void stelleWarenkorbWiederHer() {
+        for (Map.Entry<Integer, Integer> reservierung : reservierungen.meldeKasseAn(id).entrySet()) {
+            try {
+                Produkt produkt = service.ladeProdukt(reservierung.getKey());
+                // Reason: Die Reservierung eines inzwischen gelöschten Produkts gibt der nächste Vorgang frei
+                if (produkt != null) {
+                    warenkorb.fuegeVerkaufHinzu(Verkauf.ausCent(produkt.getId(), produkt.getName(),
+                                                                reservierung.getValue(), produkt.getPreisCent()));
+                }
+            } catch (SQLException e) {
+                System.err.println("Position für Produkt " + reservierung.getKey() + " der Kasse " + id
+                                   + " konnte nicht wiederhergestellt werden: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Vermerkt die Sitzung als gerade verwendet.
+     */
+    void beruehre() {
+        letzteNutzung = reservierungen.jetzt();
+    }
+
+    /**
+     * Prüft, ob die Sitzung länger als die Haltedauer der Reservierungen nicht verwendet wurde.
+     *
+     * @param jetzt die aktuelle Zeit in Millisekunden seit 1970
+     * @return true wenn die Sitzung inaktiv ist
+     */
+    boolean istInaktiv(long jetzt) {
+        return jetzt - letzteNutzung > reservierungen.getHaltedauerMillis();
+    }
+
+    /**
+     * Gibt die Kennung der Sitzung zurück, unter der auch reserviert wird.
+     *
+     * @return die Sitzungs-ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gibt den aktuellen Warenkorb zurück. Wer ihn liest, während andere Threads
+     * dieselbe Sitzung verwenden, synchronisiert auf die Sitzung.
+     *
+     * @return der aktuelle Warenkorb
+     */
+    public synchronized Warenkorb getWarenkorb() {
+        return warenkorb;
+    }
+
+    /**
+     * Startet einen neuen Kassenvorgang (leert den Warenkorb und gibt die
+     * Bestandsreservierungen dieser Kasse frei).
+     */
+    public synchronized void starteNeuenKassenvorgang() {
+        beruehre();
+        reservierungen.gibFrei(id);
+        warenkorb = new Warenkorb();
+    }
+
+    /**
+     * Fügt ein Produkt zum Warenkorb hinzu und reserviert die Menge im
+     * {@link Reservierungsbuch}, damit andere Kassen sie nicht mehr verkaufen.
+     *
+     * @param produktId die ID des Produkts
+     * @param menge die gewünschte Menge
+     * @throws KassenServiceException bei Validierungs- oder Verfügbarkeitsfehlern
+     */
+    public synchronized void fuegeProduktZumWarenkorbHinzu(int produktId, int menge) throws KassenServiceException {
+        if (menge <= 0) {
+            throw new KassenServiceException("Menge muss größer als 0 sein");
+        }
+        beruehre();
+
+        try {
+            Produkt produkt = service.ladeProdukt(produktId);
+            if (produkt == null) {
+                throw new KassenServiceException("Produkt mit ID " + produktId + " nicht gefunden");
+            }
+
+            // Reason: Wiederholte Erfassungen landen in derselben Position, der Bestand muss für die Summe reichen
+            int gewuenscht = warenkorb.getMenge(produktId) + menge;
+            if (!reservierungen.reserviere(id, produktId, gewuenscht, produkt.getBestand())) {
+                throw new KassenServiceException(
+                    String.format("Nicht genügend Bestand verfügbar. Verfügbar: %d, gewünscht: %d",
+                                reservierungen.getVerfuegbar(id, produktId, produkt.getBestand()),
+                                gewuenscht));
+            }
+
+            warenkorb.fuegeVerkaufHinzu(Verkauf.ausCent(produktId, produkt.getName(), menge, produkt.getPreisCent()));
+        } catch (SQLException e) {
+            throw new KassenServiceException("Fehler beim Hinzufügen zum Warenkorb", e);
+        }
+    }
+
+    /**
+     * Legt ein gescanntes Produkt mit Menge 1 in den Warenkorb.
+     *
+     * @param barcode der gescannte Barcode
+     * @return das erfasste Produkt
+     * @throws KassenServiceException bei unbekanntem oder ungültigem Barcode und wie
+     *         {@link #fuegeProduktZumWarenkorbHinzu(int, int)}
+     */
+    public synchronized Produkt scanneInWarenkorb(String barcode) throws KassenServiceException {
+        Produkt produkt = service.getProduktByBarcode(barcode);
+        if (produkt == null) {
+            throw new KassenServiceException("Kein Produkt mit Barcode " + barcode.trim() + " gefunden");
+        }
+        fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        return produkt;
+    }
+
+    /**
+     * Gibt zurück, wie viel von einem Produkt diese Kasse noch zusätzlich erfassen kann.
+     *
+     * @param produktId die ID des Produkts
+     * @return Bestand abzüglich aller Reservierungen anderer Kassen und des eigenen Warenkorbs
+     * @throws KassenServiceException wenn das Produkt nicht existiert oder bei Datenbankfehlern
+     */
+    public synchronized int getVerfuegbareMenge(int produktId) throws KassenServiceException {
+        Produkt produkt = service.getProduktById(produktId);
+        if (produkt == null) {
+            throw new KassenServiceException("Produkt mit ID " + produktId + " nicht gefunden");
+        }
+        return reservierungen.getVerfuegbar(id, produktId, produkt.getBestand()) - warenkorb.getMenge(produktId);
+    }
+
+    /**
+     * Schließt den aktuellen Kassenvorgang ab und aktualisiert die Bestände.
+     *
+     * Alle Bestandsänderungen und Verkäufe werden in einer Transaktion gespeichert.
+     *
+     * @return der Bon als formatierter String
+     * @throws KassenServiceException bei leerem Warenkorb, Bestandskonflikt oder Datenbankfehlern
+     */
+    public synchronized String schliesseKassenvorgangAb() throws KassenServiceException {
+        beruehre();
+        if (warenkorb.istLeer()) {
+            throw new KassenServiceException("Der Warenkorb ist leer");
+        }
+
+        // Reason: Eine Referenzkopie je Position; das Journal übernimmt die unveränderliche Liste ohne
+        // weitere Kopie, und die Ansicht des Warenkorbs bietet keinen Indexzugriff
+        service.bucheKassenvorgang(id, List.copyOf(warenkorb.getVerkaeufe()));
+
+        bonPuffer.setLength(0);
+        warenkorb.schreibeBon(bonPuffer);
+        String bon = bonPuffer.toString();
+
+        // Reason: Erst jetzt ist der Bestand in Datenbank und Cache gebucht; bis hierher zählt die
+        // Ware doppelt (Bestand und Reservierung), andere Kassen sehen also nie zu viel
+        starteNeuenKassenvorgang();
+
+        return bon;
+    }
+}
@@ -0,0 +1,201 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.BulkLader;
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Geld;
+import de.berufsschule.kasse.model.Produkt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service-Klasse für den Austausch der Produktstammdaten als CSV.
+ *
+ * Format: Kopfzeile {@code name;preis;bestand}, danach eine Zeile pro Produkt.
+ * Namen mit Semikolon oder Anführungszeichen werden in {@code "..."} gesetzt,
+ * Preise dürfen beim Import Punkt oder Komma als Dezimaltrennzeichen und höchstens
+ * zwei Nachkommastellen haben; sie werden exakt in Cent umgerechnet.
+ *
+ * Beide Richtungen arbeiten zeilenweise und brauchen unabhängig von der
+ * Dateigröße konstant Speicher. Der Import legt unbekannte Produkte an und
+ * überschreibt Preis und Bestand vorhandener Produkte gleichen Namens.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public class KatalogService {
+
+    static final String KOPFZEILE = "name;preis;bestand";
+    private static final char TRENNZEICHEN = ';';
+    private static final char ANFUEHRUNGSZEICHEN = '"';
+    private static final int ZEILEN_PRO_COMMIT = 50_000;
+
+    private final DatabaseManager dbManager;
+    private final ProduktCache produktCache;
+
+    /**
+     * Konstruktor für den KatalogService.
+     */
+    public KatalogService() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.produktCache = ProduktCache.getInstance();
+    }
+
+    /**
+     * Importiert Produkte aus einer CSV-Quelle.
+     *
+     * Festgeschrieben wird alle 50.000 Zeilen. Bricht der Import ab, bleiben die
+     * bereits festgeschriebenen Zeilen erhalten; da nach Namen abgeglichen wird,
+     * kann dieselbe Datei danach einfach erneut importiert werden.
+     *
+     * @param quelle die CSV-Daten, wird nicht geschlossen
+     * @return Anzahl Zeilen und Dauer
+     * @throws KatalogServiceException bei Formatfehlern (mit Zeilennummer), Lese- oder Datenbankfehlern
+     */
+    public Uebertragungsergebnis importiere(Reader quelle) throws KatalogServiceException {
+        long start = System.nanoTime();
+        BufferedReader leser = new BufferedReader(quelle);
+        long zeilennummer = 1;
+        try (BulkLader lader = dbManager.oeffneBulkLader()) {
+            pruefeKopfzeile(leser.readLine());
+            String zeile;
+            while ((zeile = leser.readLine()) != null) {
+                zeilennummer++;
+                if (zeile.isBlank()) {
+                    continue;
+                }
+                lader.uebernehmeProdukt(leseProdukt(zeile, zeilennummer));
+                if (lader.getAnzahlProdukte() % ZEILEN_PRO_COMMIT == 0) {
+                    lader.festschreiben();
+                }
+            }
+            lader.abschliessen();
+            return new Uebertragungsergebnis(lader.getAnzahlProdukte(), System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new KatalogServiceException("Fehler beim Lesen der Katalogdatei in Zeile " + zeilennummer, e);
+        } catch (SQLException e) {
+            throw new KatalogServiceException("Fehler beim Speichern des Katalogs bis Zeile " + zeilennummer, e);
+        } finally {
+            // Reason: Auch ein abgebrochener Import kann schon Produkte geändert haben
+            produktCache.leeren();
+        }
+    }
+
+    /**
+     * Exportiert alle Produkte nach Namen sortiert.
+     *
+     * @param ziel Ausgabe für die CSV-Daten, wird nicht geschlossen
+     * @return Anzahl Zeilen und Dauer
+     * @throws KatalogServiceException bei Schreib- oder Datenbankfehlern
+     */
+    public Uebertragungsergebnis exportiere(Writer ziel) throws KatalogServiceException {
+        long start = System.nanoTime();
+        long zeilen = 0;
+        String sql = "SELECT name, preis_cent, bestand FROM produkte ORDER BY name";
+        StringBuilder felder = new StringBuilder(32);
+
+        // Reason: Das ResultSet liefert Zeile für Zeile aus SQLite, es wird nie der ganze Katalog geladen
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.createStatement();
+             var rs = stmt.executeQuery(sql)) {
+            ziel.write(KOPFZEILE);
+            ziel.write('\n');
+            while (rs.next()) {
+                ziel.write(maskiere(rs.getString("name")));
+                felder.setLength(0);
+                Geld.haengeAn(felder.append(';'), rs.getLong("preis_cent"), '.')
+                    .append(';').append(rs.getInt("bestand")).append('\n');
+                ziel.append(felder);
+                zeilen++;
+            }
+            ziel.flush();
+            return new Uebertragungsergebnis(zeilen, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new KatalogServiceException("Fehler beim Schreiben der Katalogdatei", e);
+        } catch (SQLException e) {
+            throw new KatalogServiceException("Fehler beim Lesen der Produkte", e);
+        }
+    }
+
+    private static void pruefeKopfzeile(String kopfzeile) throws KatalogServiceException {
+        // Ein von Excel geschriebenes Byte-Order-Mark ignorieren
+        if (kopfzeile == null || !KOPFZEILE.equalsIgnoreCase(kopfzeile.replace("\uFEFF", "").strip())) {
+            throw new KatalogServiceException("Zeile 1: Kopfzeile '" + KOPFZEILE + "' erwartet", null);
+        }
+    }
+
+    private static Produkt leseProdukt(String zeile, long zeilennummer) throws KatalogServiceException {
+        List<String> felder = teile(zeile);
+        if (felder.size() != 3) {
+            throw new KatalogServiceException("Zeile " + zeilennummer + ": 3 Felder erwartet, gefunden "
+                                              + felder.size(), null);
+        }
+        String name = felder.get(0).strip();
+        long preisCent;
+        int bestand;
+        try {
+            preisCent = Geld.parse(felder.get(1));
+            bestand = Integer.parseInt(felder.get(2).strip());
+        } catch (NumberFormatException e) {
+            throw new KatalogServiceException("Zeile " + zeilennummer + ": Preis oder Bestand ist keine Zahl", e);
+        }
+        if (name.isEmpty() || preisCent <= 0 || bestand < 0) {
+            throw new KatalogServiceException("Zeile " + zeilennummer
+                + ": Name darf nicht leer, Preis muss größer als 0 und Bestand nicht negativ sein", null);
+        }
+        return Produkt.ausCent(0, name, preisCent, bestand);
+    }
+
+    /**
+     * Zerlegt eine CSV-Zeile; Felder in Anführungszeichen dürfen Trennzeichen
+     * und verdoppelte Anführungszeichen enthalten.
+     */
+    private static List<String> teile(String zeile) {
+        List<String> felder = new ArrayList<>(3);
+        StringBuilder feld = new StringBuilder();
+        boolean inAnfuehrung = false;
+        for (int i = 0; i < zeile.length(); i++) {
+            char zeichen = zeile.charAt(i);
+            if (inAnfuehrung) {
+                if (zeichen != ANFUEHRUNGSZEICHEN) {
+                    feld.append(zeichen);
+                } else if (i + 1 < zeile.length() && zeile.charAt(i + 1) == ANFUEHRUNGSZEICHEN) {
+                    feld.append(ANFUEHRUNGSZEICHEN);
+                    i++;
+                } else {
+                    inAnfuehrung = false;
+                }
+            } else if (zeichen == ANFUEHRUNGSZEICHEN) {
+                inAnfuehrung = true;
+            } else if (zeichen == TRENNZEICHEN) {
+                felder.add(feld.toString());
+                feld.setLength(0);
+            } else {
+                feld.append(zeichen);
+            }
+        }
+        felder.add(feld.toString());
+        return felder;
+    }
+
+    static String maskiere(String name) {
+        if (name.indexOf(TRENNZEICHEN) < 0 && name.indexOf(ANFUEHRUNGSZEICHEN) < 0) {
+            return name;
+        }
+        return ANFUEHRUNGSZEICHEN + name.replace("\"", "\"\"") + ANFUEHRUNGSZEICHEN;
+    }
+
+    /**
+     * Exception-Klasse für KatalogService-Fehler.
+     */
+    public static class KatalogServiceException extends Exception {
+        public KatalogServiceException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
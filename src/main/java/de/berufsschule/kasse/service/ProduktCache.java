@@ -0,0 +1,326 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.model.Produkt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Speicherbegrenzter Zwischenspeicher für den Produktkatalog.
+ *
+ * Produkte werden nach ID (LRU-Reihenfolge), nach Name und nach Barcode indiziert. Der
+ * KassenService schreibt jede Änderung erst in die Datenbank und danach in den
+ * Cache (Write-Through). Ist der gesamte Katalog geladen und wurde seitdem
+ * nichts verdrängt, wird auch {@link #getAlle()} aus dem Speicher bedient.
+ *
+ * Die maximale Anzahl Einträge ist über {@code -Dkasse.cache.maxProdukte}
+ * einstellbar. Herausgegeben werden immer Kopien, damit Aufrufer den Cache
+ * nicht versehentlich verändern.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class ProduktCache {
+    public static final String PROPERTY_MAX_PRODUKTE = "kasse.cache.maxProdukte";
+    private static final int STANDARD_MAX_PRODUKTE = 100_000;
+
+    private static ProduktCache instance;
+
+    private final int maxEintraege;
+    private final Map<Integer, Produkt> nachId;
+    private final TreeMap<String, Produkt> nachName = new TreeMap<>();
+    // Reason: Scans fragen nur exakte Barcodes ab, eine HashMap findet sie ohne Sortierung in O(1)
+    private final Map<String, Produkt> nachBarcode = new HashMap<>();
+    private boolean vollstaendig;
+
+    private long treffer;
+    private long fehlgriffe;
+    private long verdraengungen;
+
+    /**
+     * Erstellt einen Cache mit der angegebenen Größe.
+     *
+     * @param maxEintraege maximale Anzahl gecachter Produkte
+     */
+    ProduktCache(int maxEintraege) {
+        if (maxEintraege <= 0) {
+            throw new IllegalArgumentException("Cachegröße muss größer als 0 sein");
+        }
+        this.maxEintraege = maxEintraege;
+        // Reason: accessOrder=true macht die LinkedHashMap zur LRU-Liste,
+        // removeEldestEntry verdrängt den am längsten nicht genutzten Eintrag
+        this.nachId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Produkt> eldest) {
+                if (size() <= ProduktCache.this.maxEintraege) {
+                    return false;
+                }
+                entferneAusIndizes(eldest.getValue());
+                verdraengungen++;
+                vollstaendig = false;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gibt die gemeinsame Instanz zurück (Singleton-Pattern).
+     *
+     * @return die ProduktCache-Instanz
+     */
+    public static synchronized ProduktCache getInstance() {
+        if (instance == null) {
+            instance = new ProduktCache(Integer.getInteger(PROPERTY_MAX_PRODUKTE, STANDARD_MAX_PRODUKTE));
+        }
+        return instance;
+    }
+
+    /**
+     * Sucht ein Produkt anhand seiner ID.
+     *
+     * @param id die Produkt-ID
+     * @return eine Kopie des Produkts oder null, wenn es nicht im Cache liegt
+     */
+    public synchronized Produkt get(int id) {
+        Produkt produkt = nachId.get(id);
+        zaehle(produkt);
+        return kopiere(produkt);
+    }
+
+    /**
+     * Sucht ein Produkt anhand seines Namens.
+     *
+     * @param name der exakte Produktname
+     * @return eine Kopie des Produkts oder null, wenn es nicht im Cache liegt
+     */
+    public synchronized Produkt getNachName(String name) {
+        Produkt produkt = nachName.get(name);
+        if (produkt != null) {
+            // Zugriff auch in der LRU-Reihenfolge vermerken
+            nachId.get(produkt.getId());
+        }
+        zaehle(produkt);
+        return kopiere(produkt);
+    }
+
+    /**
+     * Sucht ein Produkt anhand seines Barcodes.
+     *
+     * @param barcode der Barcode in 14-stelliger Form
+     * @return eine Kopie des Produkts oder null, wenn es nicht im Cache liegt
+     */
+    public synchronized Produkt getNachBarcode(String barcode) {
+        Produkt produkt = nachBarcode.get(barcode);
+        if (produkt != null) {
+            nachId.get(produkt.getId());
+        }
+        zaehle(produkt);
+        return kopiere(produkt);
+    }
+
+    /**
+     * Gibt den vollständigen Katalog nach Namen sortiert zurück.
+     *
+     * @return Kopien aller Produkte oder null, wenn der Katalog nicht vollständig im Cache liegt
+     */
+    public synchronized List<Produkt> getAlle() {
+        if (!vollstaendig) {
+            fehlgriffe++;
+            return null;
+        }
+        treffer++;
+        List<Produkt> produkte = new ArrayList<>(nachName.size());
+        for (Produkt produkt : nachName.values()) {
+            produkte.add(kopiere(produkt));
+        }
+        return produkte;
+    }
+
+    /**
+     * Prüft, ob der Cache den gesamten Katalog enthält.
+     *
+     * @return true, wenn ein fehlender Eintrag bedeutet, dass das Produkt nicht existiert
+     */
+    public synchronized boolean istVollstaendig() {
+        return vollstaendig;
+    }
+
+    /**
+     * Ersetzt den Cache-Inhalt durch den vollständigen Katalog.
+     *
+     * Passt der Katalog nicht in den Cache, wird nur der Anfang übernommen
+     * und der Cache gilt weiterhin als unvollständig.
+     *
+     * @param produkte alle Produkte aus der Datenbank
+     */
+    public synchronized void ladeKatalog(List<Produkt> produkte) {
+        nachId.clear();
+        nachName.clear();
+        nachBarcode.clear();
+        for (Produkt produkt : produkte) {
+            if (nachId.size() >= maxEintraege) {
+                vollstaendig = false;
+                return;
+            }
+            speichereKopie(produkt);
+        }
+        vollstaendig = true;
+    }
+
+    /**
+     * Übernimmt ein Produkt nach einem Datenbankzugriff in den Cache.
+     *
+     * @param produkt das gespeicherte oder geladene Produkt (mit ID)
+     */
+    public synchronized void speichere(Produkt produkt) {
+        speichereKopie(produkt);
+    }
+
+    /**
+     * Ändert den Bestand eines gecachten Produkts relativ.
+     *
+     * Nicht gecachte Produkte werden ignoriert, sie werden beim nächsten
+     * Zugriff ohnehin aus der Datenbank geladen.
+     *
+     * @param id die Produkt-ID
+     * @param differenz positive oder negative Bestandsänderung
+     * @return eine Kopie des geänderten Produkts oder null, wenn es nicht im Cache liegt
+     */
+    public synchronized Produkt aendereBestand(int id, int differenz) {
+        Produkt produkt = nachId.get(id);
+        if (produkt != null) {
+            produkt.setBestand(produkt.getBestand() + differenz);
+        }
+        return kopiere(produkt);
+    }
+
+    /**
+     * Entfernt ein Produkt, z. B. wenn der Datenbankstand abweicht.
+     *
+     * @param id die Produkt-ID
+     */
+    public synchronized void entferne(int id) {
+        Produkt produkt = nachId.remove(id);
+        if (produkt != null) {
+            entferneAusIndizes(produkt);
+        }
+        vollstaendig = false;
+    }
+
+    /**
+     * Verwirft den gesamten Cache-Inhalt (z. B. nach einer Neuinitialisierung der Datenbank).
+     */
+    public synchronized void leeren() {
+        nachId.clear();
+        nachName.clear();
+        nachBarcode.clear();
+        vollstaendig = false;
+    }
+
+    /**
+     * Liefert eine Momentaufnahme der Cache-Kennzahlen.
+     *
+     * @return aktuelle Statistik
+     */
+    public synchronized Statistik getStatistik() {
+        return new Statistik(nachId.size(), maxEintraege, treffer, fehlgriffe, verdraengungen);
+    }
+
+    private void speichereKopie(Produkt produkt) {
+        Produkt kopie = kopiere(produkt);
+        Produkt alt = nachId.put(kopie.getId(), kopie);
+        if (alt != null) {
+            entferneAusIndizes(alt);
+        }
+        nachName.put(kopie.getName(), kopie);
+        if (kopie.getBarcode() != null) {
+            nachBarcode.put(kopie.getBarcode(), kopie);
+        }
+    }
+
+    private void entferneAusIndizes(Produkt produkt) {
+        nachName.remove(produkt.getName());
+        if (produkt.getBarcode() != null) {
+            nachBarcode.remove(produkt.getBarcode());
+        }
+    }
+
+    private void zaehle(Produkt produkt) {
+        if (produkt != null) {
+            treffer++;
+        } else {
+            fehlgriffe++;
+        }
+    }
+
+    private static Produkt kopiere(Produkt produkt) {
+        if (produkt == null) {
+            return null;
+        }
+        Produkt kopie = Produkt.ausCent(produkt.getId(), produkt.getName(), produkt.getPreisCent(),
+                                        produkt.getBestand());
+        kopie.setBarcode(produkt.getBarcode());
+        return kopie;
+    }
+
+    /**
+     * Momentaufnahme der Cache-Kennzahlen.
+     */
+    public static final class Statistik {
+        private final int eintraege;
+        private final int maxEintraege;
+        private final long treffer;
+        private final long fehlgriffe;
+        private final long verdraengungen;
+
+        Statistik(int eintraege, int maxEintraege, long treffer, long fehlgriffe, long verdraengungen) {
+            this.eintraege = eintraege;
+            this.maxEintraege = maxEintraege;
+            this.treffer = treffer;
+            this.fehlgriffe = fehlgriffe;
+            this.verdraengungen = verdraengungen;
+        }
+
+        public int getEintraege() {
+            return eintraege;
+        }
+
+        public int getMaxEintraege() {
+            return maxEintraege;
+        }
+
+        public long getTreffer() {
+            return treffer;
+        }
+
+        public long getFehlgriffe() {
+            return fehlgriffe;
+        }
+
+        public long getVerdraengungen() {
+            return verdraengungen;
+        }
+
+        /**
+         * Berechnet den Anteil der Zugriffe, die aus dem Speicher bedient wurden.
+         *
+         * @return Trefferquote zwischen 0 und 1
+         */
+        public double getTrefferquote() {
+            long zugriffe = treffer + fehlgriffe;
+            return zugriffe == 0 ? 0.0 : treffer / (double) zugriffe;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.GERMAN, "%d/%d Produkte, %d Treffer, %d Fehlgriffe (%.1f %%), %d verdrängt",
+                                 eintraege, maxEintraege, treffer, fehlgriffe, getTrefferquote() * 100,
+                                 verdraengungen);
+        }
+    }
+}
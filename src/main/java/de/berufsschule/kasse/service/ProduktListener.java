@@ -0,0 +1,30 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.model.Produkt;
+
+/**
+ * Beobachter für Änderungen am Produktkatalog.
+ *
+ * Der KassenService meldet jede Änderung nach dem erfolgreichen Commit, damit
+ * Ansichten nur die betroffenen Zeilen aktualisieren statt alles neu zu laden.
+ * Die Benachrichtigung erfolgt auf dem Thread, der die Änderung ausgeführt hat.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public interface ProduktListener {
+
+    /**
+     * Ein neues Produkt wurde angelegt.
+     *
+     * @param produkt das neue Produkt inklusive ID
+     */
+    void produktHinzugefuegt(Produkt produkt);
+
+    /**
+     * Der Bestand eines Produkts hat sich geändert.
+     *
+     * @param produkt das Produkt mit dem neuen Bestand
+     */
+    void produktGeaendert(Produkt produkt);
+}
@@ -0,0 +1,262 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.model.Produkt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Suchindex über Produktnamen und IDs für die Artikelsuche an der Kasse.
+ *
+ * Treffer werden in drei Stufen geliefert: zuerst das Produkt mit genau der
+ * eingegebenen ID, dann Produkte, bei denen ein Wort des Namens mit der Eingabe
+ * beginnt (sortiert nach dem Namen ab diesem Wort), zuletzt Produkte, die die
+ * Eingabe irgendwo im Namen enthalten. Die Wortanfänge liegen in einer
+ * sortierten Map, für die Teilwortsuche gibt es einen Trigramm-Index. Groß- und
+ * Kleinschreibung werden nicht unterschieden.
+ *
+ * Neue, geänderte und entfernte Produkte werden einzeln eingearbeitet, ohne
+ * den Index neu aufzubauen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class ProduktSuchindex {
+    private static final Locale SPRACHE = Locale.GERMAN;
+    private static final int TRIGRAMM = 3;
+    // Reason: Längere Eingaben werden über die ersten Zeichen gefunden und danach geprüft,
+    // das hält die Schlüssel der Wortanfänge kurz
+    static final int SCHLUESSEL_LAENGE = 16;
+
+    /** Slot je Produkt in Einfügereihenfolge, entfernte Produkte hinterlassen {@code null}. */
+    private List<Eintrag> eintraege = new ArrayList<>();
+    private Map<Integer, Integer> slotNachId = new HashMap<>();
+    /** Schlüssel: Name ab Wortanfang (gekürzt) + '\0' + Slot; Wert: Slot und Wortanfang. */
+    private TreeMap<String, Long> wortanfaenge = new TreeMap<>();
+    private Map<Long, Postings> trigramme = new HashMap<>();
+
+    /**
+     * Ersetzt den gesamten Inhalt des Index.
+     *
+     * @param produkte alle Produkte, am besten nach Namen sortiert
+     */
+    public void setzeAlle(Collection<Produkt> produkte) {
+        // Reason: Der Aufbau eines großen Katalogs dauert; er läuft ohne Sperre auf einem neuen Index,
+        // Suchen bedienen bis zum Austausch weiter den alten Stand
+        ProduktSuchindex neu = new ProduktSuchindex();
+        for (Produkt produkt : produkte) {
+            neu.fuegeEin(produkt);
+        }
+        synchronized (this) {
+            eintraege = neu.eintraege;
+            slotNachId = neu.slotNachId;
+            wortanfaenge = neu.wortanfaenge;
+            trigramme = neu.trigramme;
+        }
+    }
+
+    /**
+     * Nimmt ein Produkt auf oder aktualisiert es, falls die ID schon bekannt ist.
+     *
+     * @param produkt das neue oder geänderte Produkt
+     */
+    public synchronized void aktualisiere(Produkt produkt) {
+        Integer slot = slotNachId.get(produkt.getId());
+        if (slot == null) {
+            fuegeEin(produkt);
+            return;
+        }
+        Eintrag alt = eintraege.get(slot);
+        if (alt.name.equals(normalisiere(produkt.getName()))) {
+            // Nur Preis oder Bestand geändert, die Schlüssel bleiben gleich
+            eintraege.set(slot, new Eintrag(produkt, alt.name));
+            return;
+        }
+        entferne(produkt.getId());
+        fuegeEin(produkt);
+    }
+
+    /**
+     * Entfernt ein Produkt aus dem Index.
+     *
+     * @param produktId die ID des Produkts
+     */
+    public synchronized void entferne(int produktId) {
+        Integer slot = slotNachId.remove(produktId);
+        if (slot == null) {
+            return;
+        }
+        Eintrag eintrag = eintraege.set(slot, null);
+        for (int anfang : wortanfaenge(eintrag.name)) {
+            wortanfaenge.remove(schluessel(eintrag.name, anfang, slot));
+        }
+        // Trigramm-Listen behalten den Slot, er wird bei der Suche übersprungen
+    }
+
+    /**
+     * Gibt die Anzahl der Produkte im Index zurück.
+     *
+     * @return Anzahl Produkte
+     */
+    public synchronized int getAnzahl() {
+        return slotNachId.size();
+    }
+
+    /**
+     * Sucht Produkte nach ID, Wortanfang oder Teilwort.
+     *
+     * @param eingabe die Eingabe des Benutzers; leer liefert die ersten Produkte
+     * @param maxTreffer maximale Anzahl Treffer
+     * @return Treffer in Rangfolge
+     */
+    public synchronized List<Produkt> suche(String eingabe, int maxTreffer) {
+        String anfrage = normalisiere(eingabe.trim());
+        List<Produkt> treffer = new ArrayList<>(Math.min(maxTreffer, 64));
+        if (anfrage.isEmpty()) {
+            for (int slot = 0; slot < eintraege.size() && treffer.size() < maxTreffer; slot++) {
+                if (eintraege.get(slot) != null) {
+                    treffer.add(eintraege.get(slot).produkt);
+                }
+            }
+            return treffer;
+        }
+
+        Set<Integer> gefunden = new HashSet<>();
+        Integer idSlot = istZahl(anfrage) ? slotNachId.get(Integer.parseInt(anfrage)) : null;
+        if (idSlot != null && treffer.size() < maxTreffer) {
+            treffer.add(eintraege.get(idSlot).produkt);
+            gefunden.add(idSlot);
+        }
+        sucheWortanfaenge(anfrage, maxTreffer, treffer, gefunden);
+        if (anfrage.length() >= TRIGRAMM) {
+            sucheTeilwoerter(anfrage, maxTreffer, treffer, gefunden);
+        }
+        return treffer;
+    }
+
+    private void sucheWortanfaenge(String anfrage, int maxTreffer, List<Produkt> treffer, Set<Integer> gefunden) {
+        String von = anfrage.length() > SCHLUESSEL_LAENGE ? anfrage.substring(0, SCHLUESSEL_LAENGE) : anfrage;
+        for (long wert : wortanfaenge.subMap(von, von + Character.MAX_VALUE).values()) {
+            if (treffer.size() >= maxTreffer) {
+                return;
+            }
+            int slot = (int) (wert >>> 32);
+            Eintrag eintrag = eintraege.get(slot);
+            if (eintrag.name.startsWith(anfrage, (int) wert) && gefunden.add(slot)) {
+                treffer.add(eintrag.produkt);
+            }
+        }
+    }
+
+    private void sucheTeilwoerter(String anfrage, int maxTreffer, List<Produkt> treffer, Set<Integer> gefunden) {
+        // Reason: Jeder Treffer enthält alle Trigramme der Anfrage; es genügt, die kürzeste Liste
+        // zu durchlaufen und die Kandidaten mit contains zu prüfen
+        Postings kuerzeste = null;
+        for (int i = 0; i + TRIGRAMM <= anfrage.length(); i++) {
+            Postings postings = trigramme.get(trigramm(anfrage, i));
+            if (postings == null) {
+                return;
+            }
+            if (kuerzeste == null || postings.anzahl < kuerzeste.anzahl) {
+                kuerzeste = postings;
+            }
+        }
+        for (int i = 0; i < kuerzeste.anzahl && treffer.size() < maxTreffer; i++) {
+            int slot = kuerzeste.slots[i];
+            Eintrag eintrag = eintraege.get(slot);
+            if (eintrag != null && eintrag.name.contains(anfrage) && gefunden.add(slot)) {
+                treffer.add(eintrag.produkt);
+            }
+        }
+    }
+
+    private void fuegeEin(Produkt produkt) {
+        int slot = eintraege.size();
+        String name = normalisiere(produkt.getName());
+        eintraege.add(new Eintrag(produkt, name));
+        slotNachId.put(produkt.getId(), slot);
+        for (int anfang : wortanfaenge(name)) {
+            wortanfaenge.put(schluessel(name, anfang, slot), ((long) slot << 32) | anfang);
+        }
+        for (int i = 0; i + TRIGRAMM <= name.length(); i++) {
+            trigramme.computeIfAbsent(trigramm(name, i), t -> new Postings()).fuegeHinzu(slot);
+        }
+    }
+
+    private static String schluessel(String name, int anfang, int slot) {
+        int ende = Math.min(name.length(), anfang + SCHLUESSEL_LAENGE);
+        return name.substring(anfang, ende) + '\0' + slot;
+    }
+
+    private static int[] wortanfaenge(String name) {
+        int[] anfaenge = new int[4];
+        int anzahl = 0;
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isLetterOrDigit(name.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)))) {
+                if (anzahl == anfaenge.length) {
+                    anfaenge = Arrays.copyOf(anfaenge, anzahl * 2);
+                }
+                anfaenge[anzahl++] = i;
+            }
+        }
+        return Arrays.copyOf(anfaenge, anzahl);
+    }
+
+    private static long trigramm(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static boolean istZahl(String text) {
+        if (text.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalisiere(String text) {
+        return text.toLowerCase(SPRACHE);
+    }
+
+    private static final class Eintrag {
+        private final Produkt produkt;
+        private final String name;
+
+        Eintrag(Produkt produkt, String name) {
+            this.produkt = produkt;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Aufsteigende Slots eines Trigramms.
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int anzahl;
+
+        void fuegeHinzu(int slot) {
+            // Slots kommen aufsteigend, ein Trigramm kann im selben Namen mehrfach vorkommen
+            if (anzahl > 0 && slots[anzahl - 1] == slot) {
+                return;
+            }
+            if (anzahl == slots.length) {
+                slots = Arrays.copyOf(slots, anzahl * 2);
+            }
+            slots[anzahl++] = slot;
+        }
+    }
+}
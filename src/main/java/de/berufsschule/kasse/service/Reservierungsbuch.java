@@ -0,0 +1,422 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.ReservierungsSpeicher;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Bestandsreservierungen der offenen Warenkörbe aller Kassen.
+ *
+ * Jede Erfassung reserviert die Menge im Warenkorb für die erfassende Kasse.
+ * Verfügbar für eine Kasse ist der Bestand abzüglich der Reservierungen aller
+ * anderen Kassen; die Prüfung läuft vollständig im Speicher. Eine Kasse gibt
+ * ihre Reservierungen nach dem Abschluss oder beim Start eines neuen
+ * Kassenvorgangs frei. Hat eine Kasse länger als die Haltedauer nichts
+ * erfasst, verfallen ihre Reservierungen.
+ *
+ * Die Produkte sind auf {@value #STREIFEN} Sperren verteilt (Lock-Striping),
+ * Kassen mit verschiedenen Produkten warten also nicht aufeinander.
+ * Reservierungen von Kassen mit fester Kennung (siehe {@link #meldeKasseAn(String)})
+ * werden von einem Hintergrund-Thread gesammelt in die Tabelle
+ * {@code reservierungen} geschrieben und beim Start wiederhergestellt, damit
+ * Ware aus offenen Warenkörben nach einem Absturz nicht sofort erneut
+ * verkauft wird. Meldet sich die Kasse wieder an, erhält sie ihre
+ * Reservierungen zurück und gibt sie wie gewohnt frei. Sitzungen mit
+ * zufälliger Kennung überstehen keinen Neustart, ihre Reservierungen werden
+ * daher nicht gespeichert.
+ *
+ * Die Haltedauer ist über {@code -Dkasse.reservierung.haltedauerSekunden}
+ * einstellbar.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Reservierungsbuch {
+    public static final String PROPERTY_HALTEDAUER = "kasse.reservierung.haltedauerSekunden";
+    private static final int STANDARD_HALTEDAUER_SEKUNDEN = 900;
+    static final int STREIFEN = 64;
+
+    private static Reservierungsbuch instance;
+
+    private final Streifen[] streifen = new Streifen[STREIFEN];
+    private final Map<String, Kasse> kassen = new ConcurrentHashMap<>();
+    private final long haltedauerMillis;
+    private final LongSupplier uhr;
+    private final ReservierungsSpeicher speicher;
+    private final Executor schreiber;
+    private final Set<String> festeKassen = ConcurrentHashMap.newKeySet();
+    private final Queue<ReservierungsSpeicher.Aenderung> offeneAenderungen = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean schreiblaufGeplant = new AtomicBoolean();
+
+    /**
+     * Erstellt ein Reservierungsbuch ohne dauerhafte Ablage.
+     *
+     * @param haltedauer Zeit ohne Erfassung, nach der die Reservierungen einer Kasse verfallen
+     * @param uhr liefert die aktuelle Zeit in Millisekunden seit 1970
+     */
+    Reservierungsbuch(Duration haltedauer, LongSupplier uhr) {
+        this(haltedauer, uhr, null, null);
+    }
+
+    /**
+     * Erstellt ein Reservierungsbuch.
+     *
+     * @param haltedauer Zeit ohne Erfassung, nach der die Reservierungen einer Kasse verfallen
+     * @param uhr liefert die aktuelle Zeit in Millisekunden seit 1970
+     * @param speicher dauerhafte Ablage oder null ohne Wiederherstellung
+     * @param schreiber führt die Schreibläufe in den Speicher nacheinander aus
+     */
+    Reservierungsbuch(Duration haltedauer, LongSupplier uhr, ReservierungsSpeicher speicher, Executor schreiber) {
+        if (haltedauer.isNegative() || haltedauer.isZero()) {
+            throw new IllegalArgumentException("Haltedauer muss größer als 0 sein");
+        }
+        this.haltedauerMillis = haltedauer.toMillis();
+        this.uhr = uhr;
+        this.speicher = speicher;
+        this.schreiber = schreiber;
+        for (int i = 0; i < STREIFEN; i++) {
+            streifen[i] = new Streifen();
+        }
+    }
+
+    /**
+     * Gibt die gemeinsame Instanz zurück (Singleton-Pattern) und stellt beim
+     * ersten Aufruf die gespeicherten Reservierungen wieder her.
+     *
+     * @return die Reservierungsbuch-Instanz
+     */
+    public static synchronized Reservierungsbuch getInstance() {
+        if (instance == null) {
+            Duration haltedauer =
+                Duration.ofSeconds(Integer.getInteger(PROPERTY_HALTEDAUER, STANDARD_HALTEDAUER_SEKUNDEN));
+            instance = new Reservierungsbuch(haltedauer, System::currentTimeMillis,
+                new ReservierungsSpeicher(DatabaseManager.getInstance()),
+                Executors.newSingleThreadExecutor(aufgabe -> {
+                    Thread thread = new Thread(aufgabe, "reservierungen-speichern");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+            instance.stelleWiederHer();
+        }
+        return instance;
+    }
+
+    /**
+     * Lädt die noch gültigen Reservierungen aus dem Speicher. Sie zählen sofort gegen alle
+     * anderen Kassen; ihre eigene Kasse übernimmt sie mit {@link #meldeKasseAn(String)}.
+     */
+    void stelleWiederHer() {
+        if (speicher == null) {
+            return;
+        }
+        try {
+            for (ReservierungsSpeicher.Eintrag eintrag : speicher.ladeGueltige(uhr.getAsLong())) {
+                Kasse kasse = kassen.computeIfAbsent(eintrag.getKasse(), kennung -> new Kasse());
+                kasse.ablauf = Math.max(kasse.ablauf, eintrag.getAblauf());
+                Streifen streifen = streifenFuer(eintrag.getProduktId());
+                synchronized (streifen) {
+                    streifen.setze(kasse, eintrag.getProduktId(), eintrag.getMenge());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Reservierungen konnten nicht wiederhergestellt werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Meldet eine Kasse mit fester Kennung an. Ihre Reservierungen werden ab jetzt gespeichert;
+     * noch gültige Reservierungen aus der Zeit vor einem Neustart werden verlängert und
+     * zurückgegeben, damit die Kasse ihren Warenkorb daraus wieder aufbauen kann.
+     *
+     * @param kasse die feste Kennung der Kasse
+     * @return reservierte Menge je Produkt-ID, leer wenn die Kasse nichts reserviert hat
+     */
+    public Map<Integer, Integer> meldeKasseAn(String kasse) {
+        festeKassen.add(kasse);
+        Map<Integer, Integer> mengen = new HashMap<>();
+        Kasse halter = kassen.get(kasse);
+        long jetzt = uhr.getAsLong();
+        if (halter == null || halter.ablauf < jetzt) {
+            return mengen;
+        }
+        halter.ablauf = jetzt + haltedauerMillis;
+        for (Integer produktId : halter.produkte) {
+            Streifen streifen = streifenFuer(produktId);
+            synchronized (streifen) {
+                int menge = streifen.reserviert(produktId, halter, jetzt);
+                if (menge > 0) {
+                    mengen.put(produktId, menge);
+                }
+            }
+        }
+        return mengen;
+    }
+
+    /**
+     * Gibt die Zeit ohne Erfassung zurück, nach der die Reservierungen einer Kasse verfallen.
+     *
+     * @return die Haltedauer in Millisekunden
+     */
+    long getHaltedauerMillis() {
+        return haltedauerMillis;
+    }
+
+    /**
+     * Gibt die aktuelle Zeit der Uhr zurück, nach der die Reservierungen verfallen.
+     *
+     * @return Millisekunden seit 1970
+     */
+    long jetzt() {
+        return uhr.getAsLong();
+    }
+
+    /**
+     * Reserviert für eine Kasse die angegebene Gesamtmenge eines Produkts und
+     * verlängert die Haltedauer aller Reservierungen dieser Kasse.
+     *
+     * @param kasse Kennung der Kasse
+     * @param produktId die ID des Produkts
+     * @param menge die gesamte Menge des Produkts im Warenkorb der Kasse
+     * @param bestand der aktuelle Bestand des Produkts
+     * @return true wenn reserviert, false wenn der Bestand abzüglich der
+     *         Reservierungen anderer Kassen nicht reicht
+     */
+    public boolean reserviere(String kasse, int produktId, int menge, int bestand) {
+        if (menge <= 0) {
+            throw new IllegalArgumentException("Menge muss größer als 0 sein");
+        }
+        long jetzt = uhr.getAsLong();
+        Kasse halter = kassen.computeIfAbsent(kasse, kennung -> new Kasse());
+        long ablauf = jetzt + haltedauerMillis;
+        halter.ablauf = ablauf;
+
+        Streifen streifen = streifenFuer(produktId);
+        synchronized (streifen) {
+            if (bestand - streifen.reserviertVonAnderen(produktId, halter, jetzt) < menge) {
+                return false;
+            }
+            streifen.setze(halter, produktId, menge);
+        }
+        if (festeKassen.contains(kasse)) {
+            schreibe(ReservierungsSpeicher.Aenderung.speichern(kasse, produktId, menge, ablauf));
+        }
+        return true;
+    }
+
+    /**
+     * Gibt zurück, wie viel eine Kasse von einem Produkt insgesamt reservieren könnte.
+     *
+     * @param kasse Kennung der Kasse
+     * @param produktId die ID des Produkts
+     * @param bestand der aktuelle Bestand des Produkts
+     * @return Bestand abzüglich der gültigen Reservierungen anderer Kassen
+     */
+    public int getVerfuegbar(String kasse, int produktId, int bestand) {
+        Kasse halter = kassen.get(kasse);
+        Streifen streifen = streifenFuer(produktId);
+        synchronized (streifen) {
+            return bestand - streifen.reserviertVonAnderen(produktId, halter, uhr.getAsLong());
+        }
+    }
+
+    /**
+     * Verlängert die Haltedauer aller Reservierungen einer Kasse, solange sie noch gültig sind.
+     *
+     * @param kasse Kennung der Kasse
+     * @return false wenn die Kasse nichts reserviert hat oder ihre Reservierungen verfallen sind
+     */
+    public boolean verlaengere(String kasse) {
+        Kasse halter = kassen.get(kasse);
+        long jetzt = uhr.getAsLong();
+        if (halter == null || halter.ablauf < jetzt) {
+            return false;
+        }
+        halter.ablauf = jetzt + haltedauerMillis;
+        return true;
+    }
+
+    /**
+     * Prüft, ob eine Kasse von einem Produkt noch mindestens die angegebene Menge reserviert hat.
+     *
+     * @param kasse Kennung der Kasse
+     * @param produktId die ID des Produkts
+     * @param menge die benötigte Menge
+     * @return true wenn eine gültige Reservierung über mindestens diese Menge besteht
+     */
+    public boolean haelt(String kasse, int produktId, int menge) {
+        Kasse halter = kassen.get(kasse);
+        if (halter == null) {
+            return false;
+        }
+        Streifen streifen = streifenFuer(produktId);
+        synchronized (streifen) {
+            return streifen.reserviert(produktId, halter, uhr.getAsLong()) >= menge;
+        }
+    }
+
+    /**
+     * Gibt alle Reservierungen einer Kasse frei, z. B. nach dem Abschluss, wenn
+     * der Bestand bereits gebucht ist, oder beim Abbruch des Kassenvorgangs.
+     *
+     * @param kasse Kennung der Kasse
+     */
+    public void gibFrei(String kasse) {
+        Kasse halter = kassen.remove(kasse);
+        if (halter == null) {
+            return;
+        }
+        for (Integer produktId : halter.produkte) {
+            Streifen streifen = streifenFuer(produktId);
+            synchronized (streifen) {
+                streifen.entferne(produktId, halter);
+            }
+        }
+        if (festeKassen.contains(kasse)) {
+            schreibe(ReservierungsSpeicher.Aenderung.loeschen(kasse));
+        }
+    }
+
+    /**
+     * Verwirft alle Reservierungen, z. B. nachdem der Datenbestand ersetzt wurde.
+     */
+    public void leeren() {
+        kassen.clear();
+        for (Streifen eintrag : streifen) {
+            synchronized (eintrag) {
+                eintrag.nachProdukt.clear();
+            }
+        }
+        schreibe(ReservierungsSpeicher.Aenderung.alleLoeschen());
+    }
+
+    private Streifen streifenFuer(int produktId) {
+        return streifen[produktId & (STREIFEN - 1)];
+    }
+
+    private void schreibe(ReservierungsSpeicher.Aenderung aenderung) {
+        if (speicher == null) {
+            return;
+        }
+        offeneAenderungen.add(aenderung);
+        // Reason: Die Kasse wartet nicht auf die Datenbank. Ein Schreiblauf übernimmt alle bis dahin
+        // gesammelten Änderungen in einer Transaktion; bei einem Absturz fehlen höchstens die letzten
+        if (schreiblaufGeplant.compareAndSet(false, true)) {
+            schreiber.execute(this::uebernehmeOffeneAenderungen);
+        }
+    }
+
+    private void uebernehmeOffeneAenderungen() {
+        schreiblaufGeplant.set(false);
+        List<ReservierungsSpeicher.Aenderung> aenderungen = new ArrayList<>();
+        for (ReservierungsSpeicher.Aenderung aenderung; (aenderung = offeneAenderungen.poll()) != null; ) {
+            aenderungen.add(aenderung);
+        }
+        if (aenderungen.isEmpty()) {
+            return;
+        }
+        try {
+            speicher.uebernehme(aenderungen);
+        } catch (SQLException e) {
+            System.err.println(aenderungen.size() + " Reservierungsänderungen konnten nicht gespeichert werden: "
+                               + e.getMessage());
+        }
+    }
+
+    /**
+     * Eine Kasse mit gemeinsamer Haltedauer für alle ihre Reservierungen.
+     */
+    private static final class Kasse {
+        // Reason: Wird ohne Sperre verlängert und unter der Sperre eines beliebigen Streifens gelesen
+        private volatile long ablauf;
+        private final Set<Integer> produkte = ConcurrentHashMap.newKeySet();
+    }
+
+    private static final class Reservierung {
+        private final Kasse kasse;
+        private int menge;
+
+        Reservierung(Kasse kasse, int menge) {
+            this.kasse = kasse;
+            this.menge = menge;
+        }
+    }
+
+    /**
+     * Reservierungen der Produkte eines Streifens; Zugriffe nur unter der Sperre des Streifens.
+     */
+    private static final class Streifen {
+        // Reason: Je Produkt reservieren nur wenige Kassen gleichzeitig, eine Liste ist dafür am schnellsten
+        private final Map<Integer, List<Reservierung>> nachProdukt = new HashMap<>();
+
+        int reserviertVonAnderen(int produktId, Kasse halter, long jetzt) {
+            List<Reservierung> reservierungen = nachProdukt.get(produktId);
+            if (reservierungen == null) {
+                return 0;
+            }
+            int summe = 0;
+            for (Iterator<Reservierung> it = reservierungen.iterator(); it.hasNext(); ) {
+                Reservierung reservierung = it.next();
+                if (reservierung.kasse.ablauf < jetzt) {
+                    it.remove();
+                    reservierung.kasse.produkte.remove(produktId);
+                } else if (reservierung.kasse != halter) {
+                    summe += reservierung.menge;
+                }
+            }
+            if (reservierungen.isEmpty()) {
+                nachProdukt.remove(produktId);
+            }
+            return summe;
+        }
+
+        int reserviert(int produktId, Kasse halter, long jetzt) {
+            List<Reservierung> reservierungen = nachProdukt.get(produktId);
+            if (reservierungen == null || halter.ablauf < jetzt) {
+                return 0;
+            }
+            for (Reservierung reservierung : reservierungen) {
+                if (reservierung.kasse == halter) {
+                    return reservierung.menge;
+                }
+            }
+            return 0;
+        }
+
+        void setze(Kasse halter, int produktId, int menge) {
+            List<Reservierung> reservierungen = nachProdukt.computeIfAbsent(produktId, id -> new ArrayList<>(2));
+            for (Reservierung reservierung : reservierungen) {
+                if (reservierung.kasse == halter) {
+                    reservierung.menge = menge;
+                    return;
+                }
+            }
+            reservierungen.add(new Reservierung(halter, menge));
+            halter.produkte.add(produktId);
+        }
+
+        void entferne(int produktId, Kasse halter) {
+            List<Reservierung> reservierungen = nachProdukt.get(produktId);
+            if (reservierungen != null) {
+                reservierungen.removeIf(reservierung -> reservierung.kasse == halter);
+                if (reservierungen.isEmpty()) {
+                    nachProdukt.remove(produktId);
+                }
+            }
+        }
+    }
+}
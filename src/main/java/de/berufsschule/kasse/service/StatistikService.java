@@ -1,11 +1,11 @@
 package de.berufsschule.kasse.service;
 
 import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Geld;
 import de.berufsschule.kasse.model.Produkt;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,23 +34,22 @@ public class StatistikService {
     /**
      * Berechnet den Gesamtumsatz des aktuellen Tages.
      * 
-     * @return Gesamtumsatz des heutigen Tages
+     * @return Gesamtumsatz des heutigen Tages in Cent
      * @throws StatistikServiceException bei Datenbankfehlern
-     */    public double getTagesumsatz() throws StatistikServiceException {
-        String heute = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String sql = "SELECT COALESCE(SUM(gesamtpreis), 0.0) as umsatz FROM verkaeufe "
-                    + "WHERE DATE(timestamp) = ?";
+     */    public long getTagesumsatzCent() throws StatistikServiceException {
+        int heute = DatabaseManager.tagesschluessel(LocalDate.now());
+        String sql = "SELECT umsatz_cent FROM tagesumsatz WHERE tag = ?";
         
         try (var conn = dbManager.getConnection();
              var stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, heute);
+            stmt.setInt(1, heute);
             
             try (var rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getDouble("umsatz");
+                    return rs.getLong("umsatz_cent");
                 }
-                return 0.0;
+                return 0;
             }
             
         } catch (SQLException e) {
@@ -64,14 +63,13 @@ public class StatistikService {
      * @return Anzahl der heutigen Verkäufe
      * @throws StatistikServiceException bei Datenbankfehlern
      */    public int getAnzahlVerkaufeHeute() throws StatistikServiceException {
-        String heute = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String sql = "SELECT COUNT(*) as anzahl FROM verkaeufe "
-                    + "WHERE DATE(timestamp) = ?";
+        int heute = DatabaseManager.tagesschluessel(LocalDate.now());
+        String sql = "SELECT anzahl_verkaeufe AS anzahl FROM tagesumsatz WHERE tag = ?";
         
         try (var conn = dbManager.getConnection();
              var stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, heute);
+            stmt.setInt(1, heute);
             
             try (var rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -92,14 +90,13 @@ public class StatistikService {
      * @throws StatistikServiceException bei Datenbankfehlern
      */
     public List<TopProdukt> getTop5ProdukteMenge() throws StatistikServiceException {
-        String heute = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        int heute = DatabaseManager.tagesschluessel(LocalDate.now());
         String sql = """
-            SELECT p.id, p.name, p.preis, SUM(v.menge) as verkaufte_menge
-            FROM produkte p 
-            JOIN verkaeufe v ON p.id = v.produkt_id 
-            WHERE DATE(v.timestamp) = ?
-            GROUP BY p.id, p.name, p.preis 
-            ORDER BY verkaufte_menge DESC 
+            SELECT p.id, p.name, p.preis_cent, a.menge AS verkaufte_menge
+            FROM tagesumsatz_produkt a
+            JOIN produkte p ON p.id = a.produkt_id
+            WHERE a.tag = ?
+            ORDER BY a.menge DESC
             LIMIT 5
             """;
         
@@ -108,14 +105,14 @@ public class StatistikService {
         try (var conn = dbManager.getConnection();
              var stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, heute);
+            stmt.setInt(1, heute);
             
             try (var rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     TopProdukt topProdukt = new TopProdukt(
                         rs.getInt("id"),
                         rs.getString("name"),
-                        rs.getDouble("preis"),
+                        rs.getLong("preis_cent"),
                         rs.getInt("verkaufte_menge")
                     );
                     topProdukte.add(topProdukt);
@@ -129,6 +126,21 @@ public class StatistikService {
         return topProdukte;
     }
 
+    /**
+     * Baut die Tagesaggregate aus den gespeicherten Verkäufen neu auf.
+     * 
+     * Wird nur benötigt, wenn Verkäufe außerhalb der Anwendung geändert wurden.
+     * 
+     * @throws StatistikServiceException bei Datenbankfehlern
+     */
+    public void baueTagesaggregateNeu() throws StatistikServiceException {
+        try {
+            dbManager.baueTagesaggregateNeu();
+        } catch (SQLException e) {
+            throw new StatistikServiceException("Fehler beim Neuaufbau der Tagesaggregate", e);
+        }
+    }
+
     /**
      * Ermittelt alle Produkte mit niedrigem Bestand.
      * 
@@ -136,7 +148,7 @@ public class StatistikService {
      * @throws StatistikServiceException bei Datenbankfehlern
      */
     public List<Produkt> getNiedrigbestandProdukte() throws StatistikServiceException {
-        String sql = "SELECT * FROM produkte WHERE bestand < ? ORDER BY bestand ASC";
+        String sql = "SELECT id, name, preis_cent, bestand FROM produkte WHERE bestand < ? ORDER BY bestand ASC";
         List<Produkt> niedrigbestandProdukte = new ArrayList<>();
         
         try (var conn = dbManager.getConnection();
@@ -146,12 +158,12 @@ public class StatistikService {
             
             try (var rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Produkt produkt = new Produkt(
+                    Produkt produkt = Produkt.ausCent(
+                        rs.getInt("id"),
                         rs.getString("name"),
-                        rs.getDouble("preis"),
+                        rs.getLong("preis_cent"),
                         rs.getInt("bestand")
                     );
-                    produkt.setId(rs.getInt("id"));
                     niedrigbestandProdukte.add(produkt);
                 }
             }
@@ -163,19 +175,67 @@ public class StatistikService {
         return niedrigbestandProdukte;
     }
 
+    /**
+     * Lädt alle Kennzahlen des Dashboards in einem Aufruf.
+     * 
+     * Gedacht für die Ausführung im Hintergrund, damit die Oberfläche
+     * das Ergebnis anschließend in einem Schritt übernehmen kann.
+     * 
+     * @return Momentaufnahme der Dashboard-Daten
+     * @throws StatistikServiceException bei Datenbankfehlern
+     */
+    public DashboardDaten ladeDashboardDaten() throws StatistikServiceException {
+        return new DashboardDaten(getTagesumsatzCent(), getAnzahlVerkaufeHeute(),
+                                  getTop5ProdukteMenge(), getNiedrigbestandProdukte());
+    }
+
+    /**
+     * Datenklasse für alle Kennzahlen des Dashboards.
+     */
+    public static class DashboardDaten {
+        private final long tagesumsatzCent;
+        private final int anzahlVerkaeufe;
+        private final List<TopProdukt> topProdukte;
+        private final List<Produkt> niedrigbestandProdukte;
+
+        public DashboardDaten(long tagesumsatzCent, int anzahlVerkaeufe, List<TopProdukt> topProdukte,
+                              List<Produkt> niedrigbestandProdukte) {
+            this.tagesumsatzCent = tagesumsatzCent;
+            this.anzahlVerkaeufe = anzahlVerkaeufe;
+            this.topProdukte = List.copyOf(topProdukte);
+            this.niedrigbestandProdukte = List.copyOf(niedrigbestandProdukte);
+        }
+
+        public long getTagesumsatzCent() {
+            return tagesumsatzCent;
+        }
+
+        public int getAnzahlVerkaeufe() {
+            return anzahlVerkaeufe;
+        }
+
+        public List<TopProdukt> getTopProdukte() {
+            return topProdukte;
+        }
+
+        public List<Produkt> getNiedrigbestandProdukte() {
+            return niedrigbestandProdukte;
+        }
+    }
+
     /**
      * Datenklasse für Top-verkaufte Produkte.
      */
     public static class TopProdukt {
         private final int id;
         private final String name;
-        private final double preis;
+        private final long preisCent;
         private final int verkaufteMenge;
 
-        public TopProdukt(int id, String name, double preis, int verkaufteMenge) {
+        public TopProdukt(int id, String name, long preisCent, int verkaufteMenge) {
             this.id = id;
             this.name = name;
-            this.preis = preis;
+            this.preisCent = preisCent;
             this.verkaufteMenge = verkaufteMenge;        }
 
         public int getId() { 
@@ -187,7 +247,11 @@ public class StatistikService {
         }
         
         public double getPreis() { 
-            return preis; 
+            return Geld.inEuro(preisCent); 
+        }
+
+        public long getPreisCent() {
+            return preisCent;
         }
         
         public int getVerkaufteMenge() { 
@@ -0,0 +1,33 @@
+package de.berufsschule.kasse.service;
+
+import java.util.Locale;
+
+/**
+ * Anzahl übertragener Zeilen und Dauer eines Imports oder Exports.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Uebertragungsergebnis {
+    private final long zeilen;
+    private final long dauerNanos;
+
+    Uebertragungsergebnis(long zeilen, long dauerNanos) {
+        this.zeilen = zeilen;
+        this.dauerNanos = dauerNanos;
+    }
+
+    public long getZeilen() {
+        return zeilen;
+    }
+
+    public double getZeilenProSekunde() {
+        return dauerNanos == 0 ? 0.0 : zeilen * 1_000_000_000.0 / dauerNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.GERMAN, "%d Zeilen in %.1f s (%.0f Zeilen/s)",
+                             zeilen, dauerNanos / 1_000_000_000.0, getZeilenProSekunde());
+    }
+}
@@ -0,0 +1,103 @@
+package de.berufsschule.kasse.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hintergrundabfrage, bei der sich schnell aufeinanderfolgende Anforderungen zusammenfassen.
+ *
+ * Wird {@link #anfordern()} aufgerufen, während die Abfrage noch wartet, passiert
+ * nichts weiter – die geplante Ausführung liefert ohnehin den aktuellen Stand.
+ * Läuft die Abfrage bereits, wird genau eine weitere Ausführung vorgemerkt.
+ * So führen zehn schnelle Klicks zu höchstens zwei Abfragen statt zehn.
+ *
+ * Ergebnis und Fehler werden über den Ergebnis-Executor zugestellt,
+ * in der Oberfläche also z. B. mit {@code Platform::runLater}.
+ *
+ * @param <T> Typ des Abfrageergebnisses
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class ZusammengefassteAbfrage<T> {
+    private static final int LEERLAUF = 0;
+    private static final int GEPLANT = 1;
+    private static final int LAEUFT = 2;
+    private static final int LAEUFT_ERNEUT_ANGEFORDERT = 3;
+
+    private final Callable<T> abfrage;
+    private final Executor hintergrund;
+    private final Executor ergebnisExecutor;
+    private final Consumer<T> beiErgebnis;
+    private final Consumer<Exception> beiFehler;
+    private final AtomicInteger zustand = new AtomicInteger(LEERLAUF);
+    private final AtomicLong anforderungen = new AtomicLong();
+    private final AtomicLong ausfuehrungen = new AtomicLong();
+
+    /**
+     * Erstellt eine zusammenfassende Abfrage.
+     *
+     * @param abfrage die im Hintergrund auszuführende Abfrage
+     * @param hintergrund Executor für die Abfrage
+     * @param ergebnisExecutor Executor für die Zustellung von Ergebnis und Fehler
+     * @param beiErgebnis Verarbeitung des Ergebnisses
+     * @param beiFehler Verarbeitung eines Fehlers
+     */
+    public ZusammengefassteAbfrage(Callable<T> abfrage, Executor hintergrund, Executor ergebnisExecutor,
+                                   Consumer<T> beiErgebnis, Consumer<Exception> beiFehler) {
+        this.abfrage = abfrage;
+        this.hintergrund = hintergrund;
+        this.ergebnisExecutor = ergebnisExecutor;
+        this.beiErgebnis = beiErgebnis;
+        this.beiFehler = beiFehler;
+    }
+
+    /**
+     * Fordert eine Ausführung an, sofern nicht bereits eine aussteht.
+     */
+    public void anfordern() {
+        anforderungen.incrementAndGet();
+        int vorher = zustand.getAndUpdate(z -> z == LAEUFT ? LAEUFT_ERNEUT_ANGEFORDERT : Math.max(z, GEPLANT));
+        if (vorher == LEERLAUF) {
+            hintergrund.execute(this::ausfuehren);
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Anforderungen zurück.
+     *
+     * @return Anzahl der Aufrufe von {@link #anfordern()}
+     */
+    public long getAnforderungen() {
+        return anforderungen.get();
+    }
+
+    /**
+     * Gibt die Anzahl der tatsächlich ausgeführten Abfragen zurück.
+     *
+     * @return Anzahl Ausführungen
+     */
+    public long getAusfuehrungen() {
+        return ausfuehrungen.get();
+    }
+
+    private void ausfuehren() {
+        zustand.set(LAEUFT);
+        ausfuehrungen.incrementAndGet();
+        try {
+            T ergebnis = abfrage.call();
+            ergebnisExecutor.execute(() -> beiErgebnis.accept(ergebnis));
+        } catch (Exception e) {
+            ergebnisExecutor.execute(() -> beiFehler.accept(e));
+        }
+
+        // Reason: Eine während der Ausführung eingegangene Anforderung wird neu eingeplant statt
+        // direkt wiederholt, damit zwischenzeitlich eingereihte Aufgaben zuerst an die Reihe kommen
+        if (!zustand.compareAndSet(LAEUFT, LEERLAUF)) {
+            zustand.set(GEPLANT);
+            hintergrund.execute(this::ausfuehren);
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package de.berufsschule.kasse.util;
 
+import de.berufsschule.kasse.database.BulkLader;
 import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Barcode;
+import de.berufsschule.kasse.model.Geld;
 import de.berufsschule.kasse.model.Produkt;
 import de.berufsschule.kasse.model.Verkauf;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.JournalService;
+import de.berufsschule.kasse.service.KatalogService;
+import de.berufsschule.kasse.service.ProduktCache;
+import de.berufsschule.kasse.service.Reservierungsbuch;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -13,8 +27,11 @@ import java.util.Random;
 /**
  * Utility-Klasse zur Initialisierung der Datenbank mit Testdaten.
  * 
- * Diese Klasse erstellt realistische Testdaten für das Kassensystem
- * mit 100 Produkten und 100 Verkäufen.
+ * Diese Klasse erstellt realistische Testdaten für das Kassensystem,
+ * standardmäßig 100 Produkte und 100 Verkäufe. Mit
+ * {@link #initialisiere(int, int, int)} lassen sich beliebig große Datenbestände
+ * erzeugen, die Verkäufe verteilen sich dabei wie in einem Supermarkt über
+ * Wochentage und Öffnungszeiten.
  * 
  * @author FIAE24M
  * @version 1.0
@@ -47,6 +64,27 @@ public class DatabaseInitializer {
         "Getränke", "Süßwaren", "Tiefkühl", "Drogerie", "Baby", "Haushalt"
     };
 
+    private static final String ARGUMENT_AGGREGATE_NEU = "aggregate";
+    private static final String ARGUMENT_LASTSIMULATION = "last";
+    private static final String ARGUMENT_IMPORT = "import";
+    private static final String ARGUMENT_EXPORT = "export";
+    private static final String ARGUMENT_JOURNAL = "journal";
+    private static final String AUFRUF = """
+        Aufruf: DatabaseInitializer [aggregate | last schluessel=wert ... | import <datei> | export <datei>
+                                     | journal <von> <bis> <datei>]
+        Ohne Argumente wird die Datenbank gelöscht und mit Testdaten neu befüllt.""";
+
+    /** Relative Kundenfrequenz Montag bis Sonntag (sonntags nur Sonderöffnung). */
+    private static final double[] WOCHENTAG_GEWICHTE = {0.9, 0.85, 0.9, 1.0, 1.3, 1.5, 0.15};
+
+    /** Erste Öffnungsstunde, die Stundengewichte decken 7 bis 21 Uhr ab. */
+    static final int OEFFNUNG_STUNDE = 7;
+
+    /** Relative Kundenfrequenz je Stunde mit Spitzen mittags und nach Feierabend. */
+    private static final double[] STUNDEN_GEWICHTE = {
+        0.3, 0.5, 0.7, 0.9, 1.2, 1.4, 1.0, 0.8, 0.9, 1.2, 1.6, 1.8, 1.3, 0.6
+    };
+
     private final DatabaseManager dbManager;
     private final Random random;
 
@@ -64,59 +102,69 @@ public class DatabaseInitializer {
      * @throws SQLException bei Datenbankfehlern
      */
     public void initialisiereMitTestdaten() throws SQLException {
-        System.out.println("Starte Datenbankinitialisierung mit Testdaten...");
-        
-        // Erst alle bestehenden Daten löschen
-        loescheBestehendeDaten();
-        
-        // 100 Produkte erstellen
-        List<Produkt> produkte = erstelleTestprodukte();
-        System.out.println("100 Testprodukte erstellt");
-        
-        // 100 Verkäufe erstellen
-        erstelleTestverkaeufe(produkte);
-        System.out.println("100 Testverkäufe erstellt");
-        
-        System.out.println("Datenbankinitialisierung abgeschlossen!");
+        initialisiere(100, 100, 30);
     }
 
     /**
-     * Löscht alle bestehenden Daten aus den Tabellen.
+     * Ersetzt alle Daten durch einen synthetischen Datenbestand.
      * 
+     * Die Verkäufe bilden eine bereits abgeschlossene Historie und ändern die
+     * Bestände der Produkte nicht.
+     * 
+     * @param anzahlProdukte Anzahl der Produkte
+     * @param anzahlVerkaeufe Anzahl der Verkaufspositionen
+     * @param tage Anzahl der zurückliegenden Tage, über die sich die Verkäufe verteilen
      * @throws SQLException bei Datenbankfehlern
      */
-    private void loescheBestehendeDaten() throws SQLException {
-        System.out.println("Lösche bestehende Daten...");
+    public void initialisiere(int anzahlProdukte, int anzahlVerkaeufe, int tage) throws SQLException {
+        if (anzahlProdukte <= 0 || anzahlVerkaeufe < 0 || tage <= 0) {
+            throw new IllegalArgumentException("Produkte und Tage müssen größer als 0 sein, Verkäufe mindestens 0");
+        }
+        System.out.println("Starte Datenbankinitialisierung mit Testdaten...");
+        long start = System.nanoTime();
         
-        try (var conn = dbManager.getConnection();
-             var stmt = conn.createStatement()) {
+        // Reason: Löschen und Neuaufbau in einer Transaktion, bei einem Fehler bleibt der alte Stand erhalten
+        try (BulkLader lader = dbManager.oeffneBulkLader()) {
+            System.out.println("Lösche bestehende Daten...");
+            lader.loescheAlleDaten();
+            
+            List<Produkt> produkte = erstelleTestprodukte(lader, anzahlProdukte);
+            System.out.println(anzahlProdukte + " Testprodukte erstellt");
             
-            // Reihenfolge beachten wegen Foreign Key Constraints
-            stmt.execute("DELETE FROM verkaeufe");
-            stmt.execute("DELETE FROM produkte");
+            erstelleTestverkaeufe(lader, produkte, anzahlVerkaeufe, tage);
+            System.out.println(anzahlVerkaeufe + " Testverkäufe über " + tage + " Tage erstellt");
             
-            // Auto-Increment zurücksetzen
-            stmt.execute("DELETE FROM sqlite_sequence WHERE name='produkte'");
-            stmt.execute("DELETE FROM sqlite_sequence WHERE name='verkaeufe'");
+            lader.abschliessen();
         }
+        
+        // Daten wurden direkt in der Datenbank geändert, der Produkt-Cache ist veraltet
+        ProduktCache.getInstance().leeren();
+        Reservierungsbuch.getInstance().leeren();
+        
+        System.out.printf("Datenbankinitialisierung abgeschlossen in %d ms!%n",
+                          (System.nanoTime() - start) / 1_000_000);
     }
 
     /**
-     * Erstellt 100 realistische Testprodukte.
+     * Erstellt realistische Testprodukte.
      * 
-     * @return Liste der erstellten Produkte
+     * @param lader der laufende Massenimport
+     * @param anzahl Anzahl der Produkte
+     * @return Liste der erstellten Produkte (mit IDs)
      * @throws SQLException bei Datenbankfehlern
      */
-    private List<Produkt> erstelleTestprodukte() throws SQLException {
-        List<Produkt> produkte = new ArrayList<>();
+    private List<Produkt> erstelleTestprodukte(BulkLader lader, int anzahl) throws SQLException {
+        List<Produkt> produkte = new ArrayList<>(anzahl);
         
-        for (int i = 0; i < 100; i++) {
+        for (int i = 0; i < anzahl; i++) {
             String name = generiereProduktname(i);
-            double preis = generiereRealistischenPreis(name);
+            long preisCent = generiereRealistischenPreisCent(name);
             int bestand = generiereRealistischenBestand();
             
-            Produkt produkt = new Produkt(name, preis, bestand);
-            dbManager.fuegeProduktHinzu(produkt);
+            Produkt produkt = Produkt.ausCent(0, name, preisCent, bestand);
+            // Hausinterne EAN-13 mit Präfix 20, wie sie Märkte für eigene Artikel vergeben
+            produkt.setBarcode(Barcode.normalisiere(Barcode.mitPruefziffer(String.format("20%010d", i + 1))));
+            lader.fuegeProduktHinzu(produkt);
             produkte.add(produkt);
         }
         
@@ -141,52 +189,52 @@ public class DatabaseInitializer {
     }
 
     /**
-     * Generiert einen realistischen Preis basierend auf dem Produktnamen.
+     * Generiert einen realistischen Preis in Cent basierend auf dem Produktnamen.
      * 
      * @param produktName der Name des Produkts
-     * @return realistischer Preis
+     * @return realistischer Preis in Cent
      */
-    private double generiereRealistischenPreis(String produktName) {
+    private long generiereRealistischenPreisCent(String produktName) {
         String lowerName = produktName.toLowerCase();
-          // Kategoriebasierte Preisgestaltung
+        // Kategoriebasierte Preisgestaltung
         if (lowerName.contains("obst") || lowerName.contains("apfel") 
             || lowerName.contains("banane") || lowerName.contains("orange")) {
-            return rundePReisAuf(0.30 + random.nextDouble() * 2.70); // 0.30€ - 3.00€
+            return waehlePreisCent(30, 300); // 0.30€ - 3.00€
         } else if (lowerName.contains("fleisch") || lowerName.contains("filet")
                   || lowerName.contains("steak")) {
-            return rundePReisAuf(8.00 + random.nextDouble() * 17.00); // 8.00€ - 25.00€
+            return waehlePreisCent(800, 2500); // 8.00€ - 25.00€
         } else if (lowerName.contains("milch") || lowerName.contains("joghurt")
                   || lowerName.contains("käse")) {
-            return rundePReisAuf(1.00 + random.nextDouble() * 6.00); // 1.00€ - 7.00€
+            return waehlePreisCent(100, 700); // 1.00€ - 7.00€
         } else if (lowerName.contains("brot") || lowerName.contains("brötchen")) {
-            return rundePReisAuf(0.50 + random.nextDouble() * 3.50); // 0.50€ - 4.00€
+            return waehlePreisCent(50, 400); // 0.50€ - 4.00€
         } else if (lowerName.contains("getränk") || lowerName.contains("wasser")
                   || lowerName.contains("saft") || lowerName.contains("cola")) {
-            return rundePReisAuf(0.80 + random.nextDouble() * 3.20); // 0.80€ - 4.00€
+            return waehlePreisCent(80, 400); // 0.80€ - 4.00€
         } else if (lowerName.contains("alkohol") || lowerName.contains("bier")
                   || lowerName.contains("wein") || lowerName.contains("whisky")) {
-            return rundePReisAuf(2.00 + random.nextDouble() * 48.00); // 2.00€ - 50.00€
+            return waehlePreisCent(200, 5000); // 2.00€ - 50.00€
         } else {
             // Standard-Preisbereich
-            return rundePReisAuf(0.99 + random.nextDouble() * 9.01); // 0.99€ - 10.00€
+            return waehlePreisCent(99, 1000); // 0.99€ - 10.00€
         }
     }
 
     /**
-     * Rundet den Preis auf 2 Dezimalstellen und endet meist auf 9.
+     * Wählt einen Preis in ganzen Cent aus dem Bereich, der meist auf 9 endet.
      * 
-     * @param preis der ursprüngliche Preis
-     * @return gerundeter Preis
+     * @param vonCent Untergrenze in Cent
+     * @param bisCent Obergrenze in Cent (inklusive)
+     * @return Preis in Cent
      */
-    private double rundePReisAuf(double preis) {
-        // 70% der Preise enden auf .99, .49, .95
+    private long waehlePreisCent(long vonCent, long bisCent) {
+        long preisCent = vonCent + random.nextLong(bisCent - vonCent + 1);
+        // 70% der Preise enden auf ,99, ,49, ,95
         if (random.nextDouble() < 0.7) {
-            double[] endungen = {0.99, 0.49, 0.95, 0.89, 0.79};
-            double basis = Math.floor(preis);
-            return basis + endungen[random.nextInt(endungen.length)];
-        } else {
-            return Math.round(preis * 100.0) / 100.0;
+            long[] endungen = {99, 49, 95, 89, 79};
+            return preisCent / 100 * 100 + endungen[random.nextInt(endungen.length)];
         }
+        return preisCent;
     }
 
     /**
@@ -206,57 +254,202 @@ public class DatabaseInitializer {
     }
 
     /**
-     * Erstellt 100 realistische Testverkäufe.
+     * Erstellt Testverkäufe, verteilt nach Wochentag und Tageszeit.
      * 
+     * @param lader der laufende Massenimport
      * @param produkte die verfügbaren Produkte
+     * @param anzahl Anzahl der Verkaufspositionen
+     * @param tage Anzahl der zurückliegenden Tage (heute ausgenommen)
      * @throws SQLException bei Datenbankfehlern
      */
-    private void erstelleTestverkaeufe(List<Produkt> produkte) throws SQLException {
-        LocalDateTime startZeit = LocalDateTime.now().minusDays(30);
+    private void erstelleTestverkaeufe(BulkLader lader, List<Produkt> produkte, int anzahl, int tage)
+            throws SQLException {
+        LocalDate ersterTag = LocalDate.now().minusDays(tage);
+        double[] tagesgewichte = new double[tage];
+        for (int i = 0; i < tage; i++) {
+            tagesgewichte[i] = WOCHENTAG_GEWICHTE[ersterTag.plusDays(i).getDayOfWeek().ordinal()];
+        }
         
-        for (int i = 0; i < 100; i++) {
-            // Zufälliges Produkt auswählen
-            Produkt produkt = produkte.get(random.nextInt(produkte.size()));
-              // Realistische Verkaufsmenge (meist 1-5 Stück)
-            int maxMenge = Math.min(produkt.getBestand(), 10);
-            if (maxMenge <= 0) {
-                continue; // Überspringe ausverkaufte Produkte
-            }
+        for (int i = 0; i < anzahl; i++) {
+            // Reason: Quadrierte Zufallszahl bevorzugt die vorderen Produkte, so entstehen
+            // wie im echten Sortiment wenige Schnelldreher und viele selten verkaufte Artikel
+            double r = random.nextDouble();
+            Produkt produkt = produkte.get((int) (r * r * produkte.size()));
             
-            int menge = 1 + random.nextInt(maxMenge);
+            // Realistische Verkaufsmenge (meist 1-5 Stück)
+            int menge = random.nextDouble() < 0.9 ? 1 + random.nextInt(5) : 6 + random.nextInt(15);
             
-            // Verkauf in den letzten 30 Tagen
-            LocalDateTime verkaufszeit = startZeit.plusMinutes(random.nextInt(30 * 24 * 60));
+            LocalDateTime verkaufszeit = ersterTag.plusDays(waehleGewichtet(tagesgewichte))
+                .atTime(OEFFNUNG_STUNDE + waehleGewichtet(STUNDEN_GEWICHTE), random.nextInt(60), random.nextInt(60));
             
-            Verkauf verkauf = new Verkauf(produkt.getId(), produkt.getName(), 
-                                        menge, produkt.getPreis());
+            Verkauf verkauf = Verkauf.ausCent(produkt.getId(), produkt.getName(),
+                                              menge, produkt.getPreisCent());
             verkauf.setTimestamp(verkaufszeit);
-            
-            dbManager.speichereVerkauf(verkauf);
-            
-            // Bestand des Produkts reduzieren
-            int neuerBestand = produkt.getBestand() - menge;
-            dbManager.aktualisiereBestand(produkt.getId(), neuerBestand);
-            produkt.setBestand(neuerBestand);
+            lader.fuegeVerkaufHinzu(verkauf);
+        }
+    }
+
+    /**
+     * Wählt einen Index zufällig, aber proportional zu seinem Gewicht.
+     * 
+     * @param gewichte nicht negative Gewichte, mindestens eines größer als 0
+     * @return der gewählte Index
+     */
+    private int waehleGewichtet(double[] gewichte) {
+        double summe = 0;
+        for (double gewicht : gewichte) {
+            summe += gewicht;
+        }
+        double ziel = random.nextDouble() * summe;
+        for (int i = 0; i < gewichte.length - 1; i++) {
+            ziel -= gewichte[i];
+            if (ziel < 0) {
+                return i;
+            }
         }
+        return gewichte.length - 1;
     }
 
     /**
      * Hauptmethode zum Ausführen der Datenbankinitialisierung.
      * 
+     * Mit dem Argument {@code aggregate} werden statt einer Neuinitialisierung
+     * nur die Tagesaggregate aus den vorhandenen Verkäufen neu aufgebaut.
+     * Mit {@code last} wird ein synthetischer Datenbestand erzeugt und anschließend
+     * eine {@link Lastsimulation} mit mehreren Kassen ausgeführt, z. B.
+     * {@code last produkte=5000 verkaeufe=1000000 tage=365 kassen=8 dauer=60}.
+     * Mit {@code import <datei>} bzw. {@code export <datei>} werden die Produktstammdaten
+     * als CSV über den {@link KatalogService} ein- oder ausgelesen (UTF-8).
+     * {@code journal <von> <bis> <datei>} exportiert die Verkäufe des Zeitraums
+     * (ISO-Datum), als CSV bei Endung {@code .csv}, sonst im Binärformat.
+     * 
+     * Nur ohne Argumente wird die Datenbank neu befüllt; unbekannte Befehle oder eine
+     * falsche Anzahl Argumente beenden das Programm mit Aufrufhinweis und Status 1.
+     * 
      * @param args Kommandozeilenargumente
      */
     public static void main(String[] args) {
+        String fehler = pruefeArgumente(args);
+        if (fehler != null) {
+            System.err.println(fehler);
+            System.err.println(AUFRUF);
+            System.exit(1);
+        }
         try {
-            DatabaseInitializer initializer = new DatabaseInitializer();
-            initializer.initialisiereMitTestdaten();
-            
-            // Statistiken anzeigen
-            zeigeStatistiken();
-            
+            if (args.length == 0) {
+                DatabaseInitializer initializer = new DatabaseInitializer();
+                initializer.initialisiereMitTestdaten();
+
+                // Statistiken anzeigen
+                zeigeStatistiken();
+                return;
+            }
+            switch (args[0]) {
+                case ARGUMENT_AGGREGATE_NEU -> {
+                    // Nur die Dashboard-Aggregate aus den vorhandenen Verkäufen neu berechnen
+                    long start = System.nanoTime();
+                    DatabaseManager.getInstance().baueTagesaggregateNeu();
+                    System.out.printf("Tagesaggregate neu aufgebaut in %d ms%n",
+                                      (System.nanoTime() - start) / 1_000_000);
+                }
+                case ARGUMENT_LASTSIMULATION -> {
+                    Lastsimulation.Konfiguration konfiguration = Lastsimulation.Konfiguration.aus(args, 1);
+                    new DatabaseInitializer().initialisiere(konfiguration.getProdukte(),
+                                                            konfiguration.getVerkaeufe(), konfiguration.getTage());
+                    System.out.println(new Lastsimulation(konfiguration).ausfuehren());
+                }
+                case ARGUMENT_IMPORT -> {
+                    try (var leser = Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8)) {
+                        System.out.println("Importiert: " + new KatalogService().importiere(leser));
+                    }
+                }
+                case ARGUMENT_EXPORT -> {
+                    try (var schreiber = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)) {
+                        System.out.println("Exportiert: " + new KatalogService().exportiere(schreiber));
+                    }
+                }
+                case ARGUMENT_JOURNAL -> exportiereJournal(LocalDate.parse(args[1]), LocalDate.parse(args[2]),
+                                                           Path.of(args[3]));
+                default -> throw new IllegalStateException("Nicht geprüfter Befehl " + args[0]);
+            }
         } catch (SQLException e) {
             System.err.println("Fehler bei der Datenbankinitialisierung: " + e.getMessage());
             e.printStackTrace();
+        } catch (KatalogService.KatalogServiceException | JournalService.JournalServiceException | IOException e) {
+            System.err.println("Fehler beim Import/Export: " + e.getMessage());
+        } catch (KassenService.KassenServiceException e) {
+            System.err.println("Fehler in der Lastsimulation: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Lastsimulation abgebrochen");
+        }
+    }
+
+    /**
+     * Prüft Befehl und Anzahl der Kommandozeilenargumente sowie den Zeitraum von {@code journal}.
+     *
+     * @param args Kommandozeilenargumente
+     * @return Fehlermeldung oder null, wenn der Aufruf gültig ist
+     */
+    static String pruefeArgumente(String[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        int erwartet = switch (args[0]) {
+            case ARGUMENT_AGGREGATE_NEU -> 1;
+            // Die Lastsimulation prüft ihre schluessel=wert-Paare selbst
+            case ARGUMENT_LASTSIMULATION -> args.length;
+            case ARGUMENT_IMPORT, ARGUMENT_EXPORT -> 2;
+            case ARGUMENT_JOURNAL -> 4;
+            default -> -1;
+        };
+        if (erwartet < 0) {
+            return "Unbekannter Befehl '" + args[0] + "'";
+        }
+        if (args.length != erwartet) {
+            return "Falsche Anzahl Argumente für '" + args[0] + "': erwartet " + (erwartet - 1)
+                   + ", erhalten " + (args.length - 1);
+        }
+        if (ARGUMENT_JOURNAL.equals(args[0])) {
+            return pruefeZeitraum(args[1], args[2]);
+        }
+        return null;
+    }
+
+    private static String pruefeZeitraum(String von, String bis) {
+        for (String datum : new String[] {von, bis}) {
+            try {
+                LocalDate.parse(datum);
+            } catch (DateTimeParseException e) {
+                return "Ungültiges Datum '" + datum + "', erwartet JJJJ-MM-TT";
+            }
+        }
+        if (LocalDate.parse(bis).isBefore(LocalDate.parse(von))) {
+            return "Ende " + bis + " liegt vor Beginn " + von;
+        }
+        return null;
+    }
+
+    /**
+     * Exportiert das Verkaufsjournal eines Zeitraums in eine Datei.
+     * 
+     * @param von erster Tag
+     * @param bis letzter Tag
+     * @param datei Zieldatei, Endung {@code .csv} für CSV, sonst Binärformat
+     * @throws IOException wenn die Datei nicht geschrieben werden kann
+     * @throws JournalService.JournalServiceException bei Datenbankfehlern
+     */
+    private static void exportiereJournal(LocalDate von, LocalDate bis, Path datei)
+            throws IOException, JournalService.JournalServiceException {
+        JournalService journalService = new JournalService();
+        if (datei.toString().endsWith(".csv")) {
+            try (var schreiber = Files.newBufferedWriter(datei, StandardCharsets.UTF_8)) {
+                System.out.println("Journal exportiert: " + journalService.exportiereCsv(von, bis, schreiber));
+            }
+        } else {
+            try (var ausgabe = Files.newOutputStream(datei)) {
+                System.out.println("Journal exportiert: " + journalService.exportiereBinaer(von, bis, ausgabe));
+            }
         }
     }
 
@@ -277,9 +470,10 @@ public class DatabaseInitializer {
                 System.out.println("\nProdukte in Datenbank: " + rs.getInt("anzahl"));
             }
             
-            rs = stmt.executeQuery("SELECT AVG(preis) as durchschnittspreis FROM produkte");
+            rs = stmt.executeQuery("SELECT CAST(ROUND(AVG(preis_cent)) AS INTEGER) as durchschnittspreis "
+                                   + "FROM produkte");
             if (rs.next()) {
-                System.out.printf("Durchschnittspreis: %.2f€%n", rs.getDouble("durchschnittspreis"));
+                System.out.println("Durchschnittspreis: " + Geld.formatiere(rs.getLong("durchschnittspreis")) + "€");
             }
             
             rs = stmt.executeQuery("SELECT SUM(bestand) as gesamtbestand FROM produkte");
@@ -293,9 +487,9 @@ public class DatabaseInitializer {
                 System.out.println("Verkäufe in Datenbank: " + rs.getInt("anzahl"));
             }
             
-            rs = stmt.executeQuery("SELECT SUM(gesamtpreis) as gesamtumsatz FROM verkaeufe");
+            rs = stmt.executeQuery("SELECT SUM(gesamtpreis_cent) as gesamtumsatz FROM verkaeufe");
             if (rs.next()) {
-                System.out.printf("Gesamtumsatz: %.2f€%n", rs.getDouble("gesamtumsatz"));
+                System.out.println("Gesamtumsatz: " + Geld.formatiere(rs.getLong("gesamtumsatz")) + "€");
             }
         }
     }
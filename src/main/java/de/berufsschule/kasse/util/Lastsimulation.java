@@ -0,0 +1,311 @@
+package de.berufsschule.kasse.util;
+
+import de.berufsschule.kasse.database.BestandskonfliktException;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.KassenService.KassenServiceException;
+import de.berufsschule.kasse.service.Kassensitzung;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lastsimulation mit mehreren gleichzeitig arbeitenden Kassen.
+ *
+ * Alle Kassen teilen sich einen {@link KassenService}; jede läuft auf einem
+ * eigenen Thread mit eigener {@link Kassensitzung} und schließt so lange Kassenvorgänge mit 1 bis 5 zufälligen Positionen ab,
+ * bis die eingestellte Dauer erreicht ist. Reicht der Bestand für eine Position
+ * nicht, wird wie im Laden nachgeliefert. Gemessen wird die Dauer jedes
+ * Abschlusses, am Ende stehen Durchsatz und Perzentile im {@link Ergebnis}.
+ *
+ * Aufruf über {@code mvn exec:java -Dexec.args="last kassen=8 dauer=60"}.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Lastsimulation {
+    private static final int MAX_POSITIONEN = 5;
+    private static final int MAX_MENGE = 3;
+    private static final int NACHLIEFERUNG = 500;
+    private static final int MAX_ERFASSUNGSVERSUCHE = 3;
+
+    private final Konfiguration konfiguration;
+    private final Latenzstatistik latenz = new Latenzstatistik();
+    private final LongAdder abschluesse = new LongAdder();
+    private final LongAdder konflikte = new LongAdder();
+    private final LongAdder nachlieferungen = new LongAdder();
+    private final LongAdder fehler = new LongAdder();
+    private final AtomicReference<Exception> ersterFehler = new AtomicReference<>();
+
+    /**
+     * Erstellt eine Simulation.
+     *
+     * @param konfiguration Anzahl Kassen und Dauer (die Datenmengen werden hier nicht verwendet)
+     */
+    public Lastsimulation(Konfiguration konfiguration) {
+        this.konfiguration = konfiguration;
+    }
+
+    /**
+     * Lässt alle Kassen gleichzeitig gegen die vorhandenen Produkte arbeiten.
+     *
+     * @return Kennzahlen der Simulation
+     * @throws KassenServiceException wenn der Produktkatalog nicht geladen werden kann
+     * @throws InterruptedException wenn der aufrufende Thread unterbrochen wird
+     */
+    public Ergebnis ausfuehren() throws KassenServiceException, InterruptedException {
+        KassenService service = new KassenService();
+        List<Integer> produktIds = new ArrayList<>();
+        for (Produkt produkt : service.getAlleProdukte()) {
+            produktIds.add(produkt.getId());
+        }
+        if (produktIds.isEmpty()) {
+            throw new KassenServiceException("Keine Produkte für die Lastsimulation vorhanden");
+        }
+
+        System.out.printf("Starte Lastsimulation mit %d Kassen für %d s...%n",
+                          konfiguration.getKassen(), konfiguration.getDauer().toSeconds());
+        long start = System.nanoTime();
+        long ende = start + konfiguration.getDauer().toNanos();
+        List<Thread> kassen = new ArrayList<>();
+        for (int i = 1; i <= konfiguration.getKassen(); i++) {
+            Thread kasse = new Thread(() -> kassieren(service, produktIds, ende), "kasse-" + i);
+            kasse.start();
+            kassen.add(kasse);
+        }
+        for (Thread kasse : kassen) {
+            kasse.join();
+        }
+
+        return new Ergebnis(konfiguration.getKassen(), System.nanoTime() - start, abschluesse.sum(),
+                            konflikte.sum(), nachlieferungen.sum(), fehler.sum(), latenz, ersterFehler.get());
+    }
+
+    private void kassieren(KassenService service, List<Integer> produktIds, long ende) {
+        Kassensitzung sitzung = service.oeffneSitzung();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < ende) {
+            sitzung.starteNeuenKassenvorgang();
+            try {
+                int positionen = 1 + random.nextInt(MAX_POSITIONEN);
+                for (int i = 0; i < positionen; i++) {
+                    int produktId = produktIds.get(random.nextInt(produktIds.size()));
+                    legeInWarenkorb(service, sitzung, produktId, 1 + random.nextInt(MAX_MENGE));
+                }
+
+                long abschlussStart = System.nanoTime();
+                sitzung.schliesseKassenvorgangAb();
+                latenz.erfasse(System.nanoTime() - abschlussStart);
+                abschluesse.increment();
+            } catch (KassenServiceException e) {
+                // Reason: Ein Bestandskonflikt ist bei parallelen Kassen ein erwartetes Ergebnis,
+                // der Vorgang wird wie an der echten Kasse verworfen und der nächste begonnen
+                if (e.getCause() instanceof BestandskonfliktException) {
+                    konflikte.increment();
+                } else {
+                    melde(e);
+                }
+            } catch (RuntimeException e) {
+                melde(e);
+            }
+        }
+        // Ein verworfener letzter Vorgang darf keine Reservierungen zurücklassen
+        service.schliesseSitzung(sitzung.getId());
+    }
+
+    private void legeInWarenkorb(KassenService service, Kassensitzung sitzung, int produktId, int menge)
+            throws KassenServiceException {
+        // Reason: Der KassenService prüft gegen den Bestand abzüglich der Reservierungen aller Kassen;
+        // vorher nachliefern statt die Erfassung scheitern zu lassen. Reserviert eine andere Kasse
+        // zwischen Prüfung und Erfassung, wird erneut nachgeliefert.
+        for (int versuch = 1; ; versuch++) {
+            if (sitzung.getVerfuegbareMenge(produktId) < menge) {
+                service.erfasseWarenzugang(produktId, NACHLIEFERUNG);
+                nachlieferungen.increment();
+            }
+            try {
+                sitzung.fuegeProduktZumWarenkorbHinzu(produktId, menge);
+                return;
+            } catch (KassenServiceException e) {
+                if (versuch == MAX_ERFASSUNGSVERSUCHE || sitzung.getVerfuegbareMenge(produktId) >= menge) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void melde(Exception e) {
+        fehler.increment();
+        ersterFehler.compareAndSet(null, e);
+    }
+
+    /**
+     * Einstellungen für Datenbestand und Simulation.
+     */
+    public static final class Konfiguration {
+        private final int produkte;
+        private final int verkaeufe;
+        private final int tage;
+        private final int kassen;
+        private final Duration dauer;
+
+        /**
+         * Erstellt eine Konfiguration.
+         *
+         * @param produkte Anzahl Produkte im Datenbestand
+         * @param verkaeufe Anzahl historischer Verkaufspositionen
+         * @param tage Zeitraum der Verkaufshistorie in Tagen
+         * @param kassen Anzahl gleichzeitig arbeitender Kassen
+         * @param dauer Laufzeit der Simulation
+         */
+        public Konfiguration(int produkte, int verkaeufe, int tage, int kassen, Duration dauer) {
+            if (produkte <= 0 || verkaeufe < 0 || tage <= 0 || kassen <= 0 || dauer.isNegative() || dauer.isZero()) {
+                throw new IllegalArgumentException("Ungültige Lastkonfiguration: produkte=" + produkte
+                    + ", verkaeufe=" + verkaeufe + ", tage=" + tage + ", kassen=" + kassen + ", dauer=" + dauer);
+            }
+            this.produkte = produkte;
+            this.verkaeufe = verkaeufe;
+            this.tage = tage;
+            this.kassen = kassen;
+            this.dauer = dauer;
+        }
+
+        /**
+         * Liest die Konfiguration aus Argumenten der Form {@code schluessel=wert}.
+         *
+         * Bekannt sind {@code produkte}, {@code verkaeufe}, {@code tage}, {@code kassen}
+         * und {@code dauer} (in Sekunden). Fehlende Werte entsprechen den Standard-Testdaten
+         * mit 4 Kassen für 30 Sekunden.
+         *
+         * @param args die Argumente
+         * @param ab Index des ersten auszuwertenden Arguments
+         * @return die Konfiguration
+         * @throws IllegalArgumentException bei unbekannten Schlüsseln oder ungültigen Werten
+         */
+        public static Konfiguration aus(String[] args, int ab) {
+            int produkte = 100;
+            int verkaeufe = 100;
+            int tage = 30;
+            int kassen = 4;
+            int dauerSekunden = 30;
+            for (int i = ab; i < args.length; i++) {
+                String[] teile = args[i].split("=", 2);
+                if (teile.length != 2) {
+                    throw new IllegalArgumentException("Argument muss die Form schluessel=wert haben: " + args[i]);
+                }
+                int wert = Integer.parseInt(teile[1].trim());
+                switch (teile[0].trim()) {
+                    case "produkte" -> produkte = wert;
+                    case "verkaeufe" -> verkaeufe = wert;
+                    case "tage" -> tage = wert;
+                    case "kassen" -> kassen = wert;
+                    case "dauer" -> dauerSekunden = wert;
+                    default -> throw new IllegalArgumentException("Unbekannter Schlüssel '" + teile[0]
+                        + "', erlaubt: produkte, verkaeufe, tage, kassen, dauer");
+                }
+            }
+            return new Konfiguration(produkte, verkaeufe, tage, kassen, Duration.ofSeconds(dauerSekunden));
+        }
+
+        public int getProdukte() {
+            return produkte;
+        }
+
+        public int getVerkaeufe() {
+            return verkaeufe;
+        }
+
+        public int getTage() {
+            return tage;
+        }
+
+        public int getKassen() {
+            return kassen;
+        }
+
+        public Duration getDauer() {
+            return dauer;
+        }
+    }
+
+    /**
+     * Kennzahlen einer abgeschlossenen Simulation.
+     */
+    public static final class Ergebnis {
+        private final int kassen;
+        private final long laufzeitNanos;
+        private final long abschluesse;
+        private final long konflikte;
+        private final long nachlieferungen;
+        private final long fehler;
+        private final Latenzstatistik latenz;
+        private final Exception ersterFehler;
+
+        Ergebnis(int kassen, long laufzeitNanos, long abschluesse, long konflikte, long nachlieferungen,
+                 long fehler, Latenzstatistik latenz, Exception ersterFehler) {
+            this.kassen = kassen;
+            this.laufzeitNanos = laufzeitNanos;
+            this.abschluesse = abschluesse;
+            this.konflikte = konflikte;
+            this.nachlieferungen = nachlieferungen;
+            this.fehler = fehler;
+            this.latenz = latenz;
+            this.ersterFehler = ersterFehler;
+        }
+
+        public long getAbschluesse() {
+            return abschluesse;
+        }
+
+        public long getKonflikte() {
+            return konflikte;
+        }
+
+        public long getNachlieferungen() {
+            return nachlieferungen;
+        }
+
+        public long getFehler() {
+            return fehler;
+        }
+
+        public Latenzstatistik getLatenz() {
+            return latenz;
+        }
+
+        /**
+         * Gibt den ersten aufgetretenen unerwarteten Fehler zurück.
+         *
+         * @return der Fehler oder null, wenn keiner aufgetreten ist
+         */
+        public Exception getErsterFehler() {
+            return ersterFehler;
+        }
+
+        /**
+         * Berechnet den Durchsatz über alle Kassen.
+         *
+         * @return abgeschlossene Kassenvorgänge pro Sekunde
+         */
+        public double getDurchsatzProSekunde() {
+            return laufzeitNanos == 0 ? 0.0 : abschluesse * 1_000_000_000.0 / laufzeitNanos;
+        }
+
+        @Override
+        public String toString() {
+            String bericht = String.format(Locale.GERMAN,
+                "Lastsimulation: %d Kassen, %.1f s%n"
+                + "  Abschlüsse: %d (%.1f/s), Bestandskonflikte: %d, Nachlieferungen: %d, Fehler: %d%n"
+                + "  Abschlusslatenz: %s",
+                kassen, laufzeitNanos / 1_000_000_000.0, abschluesse, getDurchsatzProSekunde(), konflikte,
+                nachlieferungen, fehler, latenz);
+            return ersterFehler == null ? bericht : bericht + String.format("%n  Erster Fehler: %s", ersterFehler);
+        }
+    }
+}
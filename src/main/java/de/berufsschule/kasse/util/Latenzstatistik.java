@@ -0,0 +1,132 @@
+package de.berufsschule.kasse.util;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-sichere Erfassung von Latenzen mit Perzentil-Auswertung.
+ *
+ * Die Messwerte werden in Mikrosekunden in ein logarithmisches Histogramm
+ * einsortiert (32 Unterteilungen pro Zweierpotenz, also höchstens ca. 3 %
+ * Abweichung). Dadurch ist der Speicherbedarf konstant, unabhängig von der
+ * Anzahl der Messungen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class Latenzstatistik {
+    private static final int UNTERTEILUNG_BITS = 5;
+    private static final int UNTERTEILUNGEN = 1 << UNTERTEILUNG_BITS;
+    private static final int ANZAHL_BUCKETS = (Long.SIZE - UNTERTEILUNG_BITS + 1) * UNTERTEILUNGEN;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(ANZAHL_BUCKETS);
+    private final AtomicLong anzahl = new AtomicLong();
+    private final AtomicLong summeNanos = new AtomicLong();
+    private final AtomicLong maximumNanos = new AtomicLong();
+
+    /**
+     * Erfasst eine einzelne Messung.
+     *
+     * @param dauerNanos gemessene Dauer in Nanosekunden
+     */
+    public void erfasse(long dauerNanos) {
+        long nanos = Math.max(0, dauerNanos);
+        buckets.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMicros(nanos)));
+        anzahl.incrementAndGet();
+        summeNanos.addAndGet(nanos);
+        maximumNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Gibt die Anzahl der erfassten Messungen zurück.
+     *
+     * @return Anzahl Messungen
+     */
+    public long getAnzahl() {
+        return anzahl.get();
+    }
+
+    /**
+     * Berechnet die durchschnittliche Dauer.
+     *
+     * @return Durchschnitt in Millisekunden, 0 wenn noch nichts gemessen wurde
+     */
+    public double getDurchschnittMillis() {
+        long n = anzahl.get();
+        return n == 0 ? 0.0 : summeNanos.get() / (double) n / 1_000_000.0;
+    }
+
+    /**
+     * Gibt die längste gemessene Dauer zurück.
+     *
+     * @return Maximum in Millisekunden
+     */
+    public double getMaximumMillis() {
+        return maximumNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Ermittelt ein Perzentil der erfassten Messungen.
+     *
+     * @param perzentil gewünschtes Perzentil zwischen 0 und 100 (z. B. 99 für p99)
+     * @return Näherungswert des Perzentils in Millisekunden
+     */
+    public double getPerzentilMillis(double perzentil) {
+        if (perzentil < 0 || perzentil > 100) {
+            throw new IllegalArgumentException("Perzentil muss zwischen 0 und 100 liegen");
+        }
+        long n = anzahl.get();
+        if (n == 0) {
+            return 0.0;
+        }
+        long ziel = Math.max(1, (long) Math.ceil(n * perzentil / 100.0));
+        long kumuliert = 0;
+        for (int i = 0; i < ANZAHL_BUCKETS; i++) {
+            kumuliert += buckets.get(i);
+            if (kumuliert >= ziel) {
+                return Math.min(untereGrenzeMikros(i) / 1000.0, getMaximumMillis());
+            }
+        }
+        return getMaximumMillis();
+    }
+
+    /**
+     * Setzt alle Messwerte zurück.
+     */
+    public void zuruecksetzen() {
+        for (int i = 0; i < ANZAHL_BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        anzahl.set(0);
+        summeNanos.set(0);
+        maximumNanos.set(0);
+    }
+
+    private static int bucketIndex(long mikros) {
+        if (mikros < UNTERTEILUNGEN) {
+            return (int) mikros;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(mikros);
+        int verschiebung = exponent - UNTERTEILUNG_BITS;
+        int unterteilung = (int) (mikros >>> verschiebung) - UNTERTEILUNGEN;
+        return (verschiebung + 1) * UNTERTEILUNGEN + unterteilung;
+    }
+
+    private static long untereGrenzeMikros(int index) {
+        if (index < UNTERTEILUNGEN) {
+            return index;
+        }
+        int verschiebung = index / UNTERTEILUNGEN - 1;
+        long basis = UNTERTEILUNGEN + (index % UNTERTEILUNGEN);
+        return basis << verschiebung;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.GERMAN, "%d Messungen, Ø %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                             getAnzahl(), getDurchschnittMillis(), getPerzentilMillis(50),
+                             getPerzentilMillis(99), getMaximumMillis());
+    }
+}
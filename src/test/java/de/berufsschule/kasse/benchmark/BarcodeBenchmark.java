@@ -0,0 +1,97 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.ProduktCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Messung der Barcode-Suche bei einem Katalog mit einer Million Artikeln.
+ *
+ * Vergleicht den Durchlauf durch die Produktliste mit der Suche über den
+ * eindeutigen Datenbankindex und über den Barcode-Index des
+ * {@link ProduktCache}. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="BarcodeBenchmark -prof gc"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-D" + ProduktCache.PROPERTY_MAX_PRODUKTE + "=1000000"})
+public class BarcodeBenchmark {
+    private static final int KATALOG_GROESSE = 1_000_000;
+
+    private DatabaseManager dbManager;
+    private KassenService kassenService;
+    private List<Produkt> produkte;
+    private String[] barcodes;
+    private Random random;
+
+    /**
+     * Erstellt den Katalog und lädt ihn vollständig in den Cache.
+     *
+     * @throws Exception bei Datenbank- oder Dateifehlern
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbManager = BenchmarkDatenbank.erstelle();
+        BenchmarkDatenbank.fuelleProdukte(dbManager, KATALOG_GROESSE);
+        kassenService = new KassenService();
+        produkte = kassenService.getAlleProdukte();
+        barcodes = produkte.stream().map(Produkt::getBarcode).filter(b -> b != null).toArray(String[]::new);
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.schliesseVerbindungen();
+    }
+
+    private String zufaelligerBarcode() {
+        return barcodes[random.nextInt(barcodes.length)];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Produkt listeDurchlaufen() {
+        String barcode = zufaelligerBarcode();
+        for (Produkt produkt : produkte) {
+            if (barcode.equals(produkt.getBarcode())) {
+                return produkt;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Produkt datenbankIndex() throws Exception {
+        return dbManager.getProduktByBarcode(zufaelligerBarcode());
+    }
+
+    @Benchmark
+    public Produkt cacheIndex() throws Exception {
+        return kassenService.getProduktByBarcode(zufaelligerBarcode());
+    }
+}
@@ -0,0 +1,142 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.DatenbankKonfiguration;
+import de.berufsschule.kasse.model.Barcode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Erzeugt temporäre Datenbanken mit großem Katalog und langer Verkaufshistorie für Benchmarks.
+ *
+ * Da der DatabaseManager ein Singleton ist, kann pro JVM nur eine Benchmark-Datenbank
+ * verwendet werden. JMH startet jede Parameterkombination in einem eigenen Fork,
+ * Läufe mit {@code -f 0} werden deshalb nicht unterstützt.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class BenchmarkDatenbank {
+    private static final int HISTORIE_TAGE = 365;
+    private static final int BATCH_GROESSE = 10_000;
+
+    private BenchmarkDatenbank() {
+    }
+
+    /**
+     * Legt eine temporäre Datenbank an und verbindet den DatabaseManager damit.
+     *
+     * Die Datei wird beim Beenden der JVM gelöscht.
+     *
+     * @return der mit der neuen Datenbank verbundene DatabaseManager
+     * @throws IOException wenn die temporäre Datei nicht angelegt werden kann
+     */
+    public static DatabaseManager erstelle() throws IOException {
+        Path datei = Files.createTempFile("kasse-benchmark", ".db");
+        datei.toFile().deleteOnExit();
+        System.setProperty(DatenbankKonfiguration.PROPERTY_URL, "jdbc:sqlite:" + datei);
+        return DatabaseManager.getInstance();
+    }
+
+    /**
+     * Legt eine temporäre Datenbank mit Katalog, Verkaufshistorie und Tagesaggregaten an.
+     *
+     * @param katalogGroesse Anzahl Produkte (IDs 1 bis katalogGroesse)
+     * @param verkaeufe Anzahl Verkäufe, verteilt über das letzte Jahr
+     * @return der mit der neuen Datenbank verbundene DatabaseManager
+     * @throws IOException wenn die temporäre Datei nicht angelegt werden kann
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public static DatabaseManager erstelle(int katalogGroesse, long verkaeufe) throws IOException, SQLException {
+        DatabaseManager dbManager = erstelle();
+        Random random = new Random(42);
+        fuelleProdukte(dbManager, katalogGroesse);
+        fuelleVerkaeufe(dbManager, random, verkaeufe);
+        dbManager.baueTagesaggregateNeu();
+        return dbManager;
+    }
+
+    /**
+     * Füllt den Katalog bis zur gewünschten Größe mit Artikeln auf.
+     *
+     * Jedes zehnte Produkt hat einen Bestand unter dem Niedrigbestand-Schwellwert.
+     *
+     * @param dbManager der DatabaseManager
+     * @param katalogGroesse gewünschte Anzahl Produkte
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public static void fuelleProdukte(DatabaseManager dbManager, int katalogGroesse) throws SQLException {
+        int vorhanden = dbManager.getAlleProdukte().size();
+        String sql = "INSERT INTO produkte (name, preis_cent, bestand, barcode) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int i = vorhanden; i < katalogGroesse; i++) {
+                stmt.setString(1, String.format("Artikel %07d", i));
+                stmt.setLong(2, 49 + (i % 200) * 10);
+                stmt.setInt(3, i % 10 == 0 ? 5 : 10 + i % 90);
+                stmt.setString(4, barcode(i));
+                stmt.addBatch();
+                if ((i + 1) % BATCH_GROESSE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    /**
+     * Gibt den Barcode zurück, den {@link #fuelleProdukte} dem i-ten Artikel gibt.
+     *
+     * @param i laufende Nummer des Artikels
+     * @return hausinterne EAN-13 mit Präfix 21 in 14-stelliger Form
+     */
+    public static String barcode(int i) {
+        return Barcode.normalisiere(Barcode.mitPruefziffer(String.format("21%010d", i)));
+    }
+
+    /**
+     * Fügt zufällige Verkäufe über das letzte Jahr hinzu (ohne Tagesaggregate).
+     *
+     * @param dbManager der DatabaseManager
+     * @param random Zufallsgenerator
+     * @param anzahl Anzahl neuer Verkäufe
+     * @throws SQLException bei Datenbankfehlern
+     */
+    public static void fuelleVerkaeufe(DatabaseManager dbManager, Random random, long anzahl) throws SQLException {
+        int produkte = dbManager.getAlleProdukte().size();
+        LocalDateTime jetzt = LocalDateTime.now();
+        String sql = "INSERT INTO verkaeufe (timestamp, tag, produkt_id, menge, einzelpreis_cent, gesamtpreis_cent) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (long i = 0; i < anzahl; i++) {
+                LocalDateTime zeitpunkt = jetzt.minusMinutes(random.nextInt(HISTORIE_TAGE * 24 * 60));
+                int menge = 1 + random.nextInt(5);
+                stmt.setString(1, zeitpunkt.toString());
+                stmt.setInt(2, DatabaseManager.tagesschluessel(zeitpunkt.toLocalDate()));
+                stmt.setInt(3, 1 + random.nextInt(produkte));
+                stmt.setInt(4, menge);
+                stmt.setLong(5, 199);
+                stmt.setLong(6, menge * 199L);
+                stmt.addBatch();
+                if ((i + 1) % BATCH_GROESSE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+}
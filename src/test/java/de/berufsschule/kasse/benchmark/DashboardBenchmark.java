@@ -0,0 +1,122 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.service.StatistikService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Misst die Dashboard-Abfragen des StatistikService bei großen Verkaufshistorien.
+ *
+ * Für jede Stufe (Standard: 1 Mio. und 10 Mio. Verkäufe) wird eine temporäre
+ * Datenbank auf die gewünschte Zeilenzahl aufgefüllt. Anschließend wird die
+ * Laufzeit der Dashboard-Abfragen (Tagesaggregate) mit der ursprünglichen
+ * Variante {@code WHERE DATE(timestamp) = ?} über alle Verkäufe verglichen.
+ *
+ * Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:java@dashboard-benchmark -Dexec.args="1000000 10000000"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+public final class DashboardBenchmark {
+    private static final int WIEDERHOLUNGEN = 20;
+
+    private static final String ALT_UMSATZ =
+        "SELECT COALESCE(SUM(gesamtpreis_cent), 0) FROM verkaeufe WHERE DATE(timestamp) = ?";
+    private static final String ALT_ANZAHL = "SELECT COUNT(*) FROM verkaeufe WHERE DATE(timestamp) = ?";
+    private static final String ALT_TOP5 = "SELECT p.id, SUM(v.menge) AS m FROM produkte p "
+        + "JOIN verkaeufe v ON p.id = v.produkt_id WHERE DATE(v.timestamp) = ? "
+        + "GROUP BY p.id ORDER BY m DESC LIMIT 5";
+
+    private DashboardBenchmark() {
+    }
+
+    /**
+     * Startet den Benchmark.
+     *
+     * @param args aufsteigende Zeilenzahlen der Verkaufshistorie
+     * @throws Exception bei Datenbank- oder Dateifehlern
+     */
+    public static void main(String[] args) throws Exception {
+        long[] stufen = args.length == 0
+            ? new long[] {1_000_000L, 10_000_000L}
+            : Arrays.stream(args).mapToLong(Long::parseLong).sorted().toArray();
+
+        DatabaseManager dbManager = BenchmarkDatenbank.erstelle();
+        StatistikService statistikService = new StatistikService();
+        Random random = new Random(42);
+
+        try {
+            long vorhanden = 0;
+            for (long stufe : stufen) {
+                long start = System.nanoTime();
+                BenchmarkDatenbank.fuelleVerkaeufe(dbManager, random, stufe - vorhanden);
+                vorhanden = stufe;
+                System.out.printf(Locale.GERMAN, "%n%,d Verkäufe erzeugt in %.1f s%n",
+                                  stufe, (System.nanoTime() - start) / 1e9);
+                start = System.nanoTime();
+                dbManager.baueTagesaggregateNeu();
+                System.out.printf(Locale.GERMAN, "Tagesaggregate neu aufgebaut in %.1f s%n",
+                                  (System.nanoTime() - start) / 1e9);
+
+                String heute = LocalDate.now().toString();
+                System.out.printf(Locale.GERMAN, "  %-26s %12s %12s%n", "Abfrage", "Neu [ms]", "DATE() [ms]");
+                drucke("Tagesumsatz", miss(statistikService::getTagesumsatzCent),
+                       missAlt(dbManager, ALT_UMSATZ, heute));
+                drucke("Anzahl Verkäufe", miss(statistikService::getAnzahlVerkaufeHeute),
+                       missAlt(dbManager, ALT_ANZAHL, heute));
+                drucke("Top 5 Produkte", miss(statistikService::getTop5ProdukteMenge),
+                       missAlt(dbManager, ALT_TOP5, heute));
+            }
+        } finally {
+            dbManager.schliesseVerbindungen();
+        }
+    }
+
+    private static double miss(Abfrage abfrage) throws Exception {
+        abfrage.ausfuehren();
+        long[] dauern = new long[WIEDERHOLUNGEN];
+        for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            abfrage.ausfuehren();
+            dauern[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(dauern);
+        return dauern[WIEDERHOLUNGEN / 2] / 1e6;
+    }
+
+    private static double missAlt(DatabaseManager dbManager, String sql, String heute) throws Exception {
+        return miss(() -> {
+            try (Connection conn = dbManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, heute);
+                try (var rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getObject(1);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void drucke(String name, double neu, double alt) {
+        System.out.printf(Locale.GERMAN, "  %-26s %12.3f %12.3f%n", name, neu, alt);
+    }
+
+    /**
+     * Eine zu messende Abfrage.
+     */
+    @FunctionalInterface
+    private interface Abfrage {
+        Object ausfuehren() throws Exception;
+    }
+}
@@ -0,0 +1,96 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.model.Geld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Vergleich der Geldrechnung mit {@code double}-Euro (bisher) und {@code long}-Cent.
+ *
+ * Summiert Menge mal Einzelpreis über die Positionen und formatiert jeden
+ * Gesamtpreis für den Bon. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="GeldBenchmark -prof gc"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeldBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int positionen;
+
+    private int[] mengen;
+    private double[] preiseEuro;
+    private long[] preiseCent;
+    private final StringBuilder zeile = new StringBuilder(16);
+
+    /**
+     * Erzeugt dieselben Preise in beiden Darstellungen.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        mengen = new int[positionen];
+        preiseEuro = new double[positionen];
+        preiseCent = new long[positionen];
+        for (int i = 0; i < positionen; i++) {
+            mengen[i] = 1 + i % 4;
+            preiseCent[i] = 49 + (i % 20) * 100;
+            preiseEuro[i] = preiseCent[i] / 100.0;
+        }
+    }
+
+    @Benchmark
+    public double summeDouble() {
+        double summe = 0;
+        for (int i = 0; i < positionen; i++) {
+            summe += mengen[i] * preiseEuro[i];
+        }
+        return summe;
+    }
+
+    @Benchmark
+    public long summeCent() {
+        long summe = 0;
+        for (int i = 0; i < positionen; i++) {
+            summe = Math.addExact(summe, Geld.mal(preiseCent[i], mengen[i]));
+        }
+        return summe;
+    }
+
+    @Benchmark
+    public void formatiereDouble(Blackhole bh) {
+        for (int i = 0; i < positionen; i++) {
+            bh.consume(String.format(Locale.GERMAN, "%.2f", mengen[i] * preiseEuro[i]));
+        }
+    }
+
+    @Benchmark
+    public void formatiereCent(Blackhole bh) {
+        for (int i = 0; i < positionen; i++) {
+            zeile.setLength(0);
+            bh.consume(Geld.haengeAn(zeile, Geld.mal(preiseCent[i], mengen[i]), ','));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.controller.KassenHttpServer;
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.Kassensitzung;
+import de.berufsschule.kasse.service.StatistikService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Durchsatz der HTTP-Schnittstelle mit 16 gleichzeitigen Kassen.
+ *
+ * Jeder JMH-Thread ist eine Kasse mit eigener Sitzung und schickt seine
+ * Anfragen über einen lokalen {@link HttpClient}. Zum Vergleich läuft derselbe
+ * Scan mit Abschluss direkt an der {@link Kassensitzung}. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="HttpKassenBenchmark"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+// Reason: Wie im Headless-Betrieb der App, sonst misst der Benchmark das verzögerte ACK
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HttpKassenBenchmark {
+    private static final int KATALOG_GROESSE = 10_000;
+    private static final Pattern SITZUNG = Pattern.compile("\"sitzung\":\"([^\"]+)\"");
+
+    private DatabaseManager dbManager;
+    private KassenService kassenService;
+    private KassenHttpServer server;
+    private HttpClient client;
+    private String[] barcodes;
+
+    /**
+     * Erstellt Katalog und Server mit ausreichend Bestand für alle Durchläufe.
+     *
+     * @throws Exception bei Datenbank-, Datei- oder Netzwerkfehlern
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbManager = BenchmarkDatenbank.erstelle();
+        BenchmarkDatenbank.fuelleProdukte(dbManager, KATALOG_GROESSE);
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE produkte SET bestand = 1000000000");
+        }
+        kassenService = new KassenService();
+        barcodes = kassenService.getAlleProdukte().stream().map(Produkt::getBarcode).filter(b -> b != null)
+                .toArray(String[]::new);
+        server = new KassenHttpServer(kassenService, new StatistikService(), 0, 32);
+        server.starte();
+        // Reason: Der HttpServer des JDK spricht nur HTTP/1.1, der Upgrade-Versuch auf HTTP/2 kostet je Anfrage
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+        dbManager.schliesseVerbindungen();
+    }
+
+    private String zufaelligerBarcode() {
+        return barcodes[ThreadLocalRandom.current().nextInt(barcodes.length)];
+    }
+
+    private String sende(String methode, String pfad) throws Exception {
+        HttpRequest anfrage = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + pfad))
+                .method(methode, HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> antwort = client.send(anfrage, HttpResponse.BodyHandlers.ofString());
+        if (antwort.statusCode() >= 400) {
+            throw new IllegalStateException(antwort.statusCode() + " " + antwort.body());
+        }
+        return antwort.body();
+    }
+
+    /**
+     * Eine Kasse je JMH-Thread, per HTTP und direkt geöffnet.
+     */
+    @State(Scope.Thread)
+    public static class Kasse {
+        private String sitzungsId;
+        private Kassensitzung sitzung;
+
+        @Setup(Level.Trial)
+        public void oeffne(HttpKassenBenchmark benchmark) throws Exception {
+            Matcher treffer = SITZUNG.matcher(benchmark.sende("POST", "/sitzungen"));
+            treffer.find();
+            sitzungsId = treffer.group(1);
+            sitzung = benchmark.kassenService.oeffneSitzung();
+        }
+    }
+
+    @Benchmark
+    public String produktSuche() throws Exception {
+        return sende("GET", "/produkte?max=10&suche=" + ThreadLocalRandom.current().nextInt(1, KATALOG_GROESSE));
+    }
+
+    @Benchmark
+    public String scanUndAbschluss(Kasse kasse) throws Exception {
+        sende("POST", "/sitzungen/" + kasse.sitzungsId + "/positionen?barcode=" + zufaelligerBarcode());
+        return sende("POST", "/sitzungen/" + kasse.sitzungsId + "/abschluss");
+    }
+
+    @Benchmark
+    public String scanUndAbschlussDirekt(Kasse kasse) throws Exception {
+        kasse.sitzung.scanneInWarenkorb(zufaelligerBarcode());
+        return kasse.sitzung.schliesseKassenvorgangAb();
+    }
+}
@@ -0,0 +1,100 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.KassenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Benchmarks für den Kassenvorgang und das Laden des Katalogs.
+ *
+ * Parametriert nach Katalog- und Historiengröße. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="KassenBenchmark"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KassenBenchmark {
+    private static final int POSITIONEN_JE_BON = 3;
+
+    @Param({"100", "10000"})
+    private int katalogGroesse;
+
+    @Param({"10000", "1000000"})
+    private long verkaeufe;
+
+    private DatabaseManager dbManager;
+    private KassenService kassenService;
+    private Random random;
+
+    /**
+     * Erstellt die Benchmark-Datenbank mit ausreichend Bestand für alle Durchläufe.
+     *
+     * @throws Exception bei Datenbank- oder Dateifehlern
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbManager = BenchmarkDatenbank.erstelle(katalogGroesse, verkaeufe);
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE produkte SET bestand = 1000000000");
+        }
+        kassenService = new KassenService();
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.schliesseVerbindungen();
+    }
+
+    private int zufaelligeProduktId() {
+        return 1 + random.nextInt(katalogGroesse);
+    }
+
+    @Benchmark
+    public Object warenkorbHinzufuegen() throws Exception {
+        kassenService.starteNeuenKassenvorgang();
+        kassenService.fuegeProduktZumWarenkorbHinzu(zufaelligeProduktId(), 1);
+        return kassenService.getAktuellerWarenkorb();
+    }
+
+    @Benchmark
+    public String kassenabschluss() throws Exception {
+        for (int i = 0; i < POSITIONEN_JE_BON; i++) {
+            kassenService.fuegeProduktZumWarenkorbHinzu(zufaelligeProduktId(), 1);
+        }
+        return kassenService.schliesseKassenvorgangAb();
+    }
+
+    @Benchmark
+    public List<Produkt> alleProdukteAusDatenbank() throws SQLException {
+        return dbManager.getAlleProdukte();
+    }
+}
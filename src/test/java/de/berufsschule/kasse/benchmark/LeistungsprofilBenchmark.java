@@ -0,0 +1,105 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.DatenbankKonfiguration;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.StatistikService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht den Durchsatz der SQLite-Leistungsprofile.
+ *
+ * Gemessen werden Kassenabschlüsse allein sowie Kassenabschlüsse, während
+ * drei weitere Threads fortlaufend das Dashboard abfragen. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="LeistungsprofilBenchmark"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeistungsprofilBenchmark {
+    private static final int KATALOG_GROESSE = 1_000;
+    private static final long VERKAEUFE = 100_000;
+
+    @Param({"STANDARD", "SICHER", "SCHNELL"})
+    private String profil;
+
+    private DatabaseManager dbManager;
+    private KassenService kassenService;
+    private StatistikService statistikService;
+    private Random random;
+
+    /**
+     * Erstellt die Benchmark-Datenbank mit dem gewählten Profil.
+     *
+     * @throws Exception bei Datenbank- oder Dateifehlern
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty(DatenbankKonfiguration.PROPERTY_PROFIL, profil);
+        dbManager = BenchmarkDatenbank.erstelle(KATALOG_GROESSE, VERKAEUFE);
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE produkte SET bestand = 1000000000");
+        }
+        kassenService = new KassenService();
+        statistikService = new StatistikService();
+        random = new Random(11);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.schliesseVerbindungen();
+    }
+
+    private String kassiere() throws Exception {
+        kassenService.fuegeProduktZumWarenkorbHinzu(1 + random.nextInt(KATALOG_GROESSE), 1);
+        kassenService.fuegeProduktZumWarenkorbHinzu(1 + random.nextInt(KATALOG_GROESSE), 2);
+        return kassenService.schliesseKassenvorgangAb();
+    }
+
+    @Benchmark
+    @Group("nurKasse")
+    public String kassenabschlussAllein() throws Exception {
+        return kassiere();
+    }
+
+    @Benchmark
+    @Group("kasseMitDashboard")
+    @GroupThreads(1)
+    public String kassenabschluss() throws Exception {
+        return kassiere();
+    }
+
+    @Benchmark
+    @Group("kasseMitDashboard")
+    @GroupThreads(3)
+    public StatistikService.DashboardDaten dashboard() throws Exception {
+        return statistikService.ladeDashboardDaten();
+    }
+}
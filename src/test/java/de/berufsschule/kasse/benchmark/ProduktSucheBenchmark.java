@@ -0,0 +1,95 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.model.Geld;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.ProduktSuchindex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Messung der Artikelsuche an der Kasse mit 50.000 Produkten.
+ *
+ * Vergleicht das Durchsuchen der formatierten ComboBox-Einträge (so würde ein
+ * Filter auf der bisherigen Liste arbeiten) mit dem {@link ProduktSuchindex}
+ * für einen Tastendruck. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="ProduktSucheBenchmark -prof gc"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProduktSucheBenchmark {
+    private static final int PRODUKTE = 50_000;
+    private static final int MAX_TREFFER = 50;
+    private static final String[] SORTEN = {"Bio", "Vollkorn", "Frische", "Hafer", "Land", "Premium", "Classic"};
+    private static final String[] WAREN = {"milch", "brot", "käse", "joghurt", "saft", "müsli", "butter", "tee"};
+
+    @Param({"m", "mil", "hafermil", "4711"})
+    private String eingabe;
+
+    private List<Produkt> produkte;
+    private ProduktSuchindex index;
+
+    /**
+     * Erzeugt den Katalog und baut den Index auf.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        produkte = new ArrayList<>(PRODUKTE);
+        for (int i = 1; i <= PRODUKTE; i++) {
+            String name = SORTEN[i % SORTEN.length] + " " + WAREN[i / SORTEN.length % WAREN.length] + " " + i;
+            produkte.add(Produkt.ausCent(i, name, 99 + i % 500, i % 80));
+        }
+        index = new ProduktSuchindex();
+        index.setzeAlle(produkte);
+    }
+
+    @Benchmark
+    public List<Produkt> filterFormatiert() {
+        String anfrage = eingabe.toLowerCase(Locale.GERMAN);
+        List<Produkt> treffer = new ArrayList<>();
+        for (Produkt produkt : produkte) {
+            String anzeige = String.format("[%d] %s (%s€, Bestand: %d)", produkt.getId(), produkt.getName(),
+                                           Geld.formatiere(produkt.getPreisCent()), produkt.getBestand());
+            if (anzeige.toLowerCase(Locale.GERMAN).contains(anfrage) && treffer.size() < MAX_TREFFER) {
+                treffer.add(produkt);
+            }
+        }
+        return treffer;
+    }
+
+    @Benchmark
+    public List<Produkt> suchindex() {
+        return index.suche(eingabe, MAX_TREFFER);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProduktSuchindex aufbau() {
+        ProduktSuchindex neu = new ProduktSuchindex();
+        neu.setzeAlle(produkte);
+        return neu;
+    }
+}
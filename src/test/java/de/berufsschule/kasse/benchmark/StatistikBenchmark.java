@@ -0,0 +1,86 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.StatistikService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Benchmarks für alle Dashboard-Abfragen des StatistikService.
+ *
+ * Parametriert nach Katalog- und Historiengröße. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="StatistikBenchmark"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatistikBenchmark {
+
+    @Param({"100", "10000"})
+    private int katalogGroesse;
+
+    @Param({"10000", "1000000"})
+    private long verkaeufe;
+
+    private DatabaseManager dbManager;
+    private StatistikService statistikService;
+
+    /**
+     * Erstellt die Benchmark-Datenbank.
+     *
+     * @throws Exception bei Datenbank- oder Dateifehlern
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbManager = BenchmarkDatenbank.erstelle(katalogGroesse, verkaeufe);
+        statistikService = new StatistikService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.schliesseVerbindungen();
+    }
+
+    @Benchmark
+    public long tagesumsatz() throws Exception {
+        return statistikService.getTagesumsatzCent();
+    }
+
+    @Benchmark
+    public int anzahlVerkaeufeHeute() throws Exception {
+        return statistikService.getAnzahlVerkaufeHeute();
+    }
+
+    @Benchmark
+    public List<StatistikService.TopProdukt> top5ProdukteMenge() throws Exception {
+        return statistikService.getTop5ProdukteMenge();
+    }
+
+    @Benchmark
+    public List<Produkt> niedrigbestandProdukte() throws Exception {
+        return statistikService.getNiedrigbestandProdukte();
+    }
+}
@@ -0,0 +1,108 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.Verkaufsjournal;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.Kassensitzung;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kassenabschlüsse von 16 gleichzeitigen Kassen, direkt in SQLite gebucht oder über das
+ * {@link Verkaufsjournal} mit Gruppen-Commit.
+ *
+ * Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="VerkaufsjournalBenchmark"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class VerkaufsjournalBenchmark {
+    private static final int KATALOG_GROESSE = 1_000;
+
+    @Param({"false", "true"})
+    private boolean mitJournal;
+
+    private DatabaseManager dbManager;
+    private Verkaufsjournal journal;
+    private KassenService kassenService;
+
+    /**
+     * Erstellt Katalog und Service mit ausreichend Bestand für alle Durchläufe.
+     *
+     * @throws Exception bei Datenbank- oder Dateifehlern
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dbManager = BenchmarkDatenbank.erstelle();
+        BenchmarkDatenbank.fuelleProdukte(dbManager, KATALOG_GROESSE);
+        try (Connection conn = dbManager.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE produkte SET bestand = 1000000000");
+        }
+        if (mitJournal) {
+            Path datei = Files.createTempFile("kasse-benchmark", ".wal");
+            datei.toFile().deleteOnExit();
+            journal = new Verkaufsjournal(datei, dbManager);
+        }
+        kassenService = new KassenService(journal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (journal != null) {
+            System.out.printf("%nAbschlüsse je Synchronisierung: %.1f%n",
+                              (double) journal.getAnzahlAbschluesse() / journal.getAnzahlSynchronisierungen());
+            journal.close();
+        }
+        dbManager.schliesseVerbindungen();
+    }
+
+    /**
+     * Eine Kasse je JMH-Thread.
+     */
+    @State(Scope.Thread)
+    public static class Kasse {
+        private Kassensitzung sitzung;
+
+        @Setup(Level.Trial)
+        public void oeffne(VerkaufsjournalBenchmark benchmark) {
+            sitzung = benchmark.kassenService.oeffneSitzung();
+        }
+    }
+
+    @Benchmark
+    public String abschluss(Kasse kasse) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        kasse.sitzung.fuegeProduktZumWarenkorbHinzu(1 + random.nextInt(KATALOG_GROESSE), 1);
+        kasse.sitzung.fuegeProduktZumWarenkorbHinzu(1 + random.nextInt(KATALOG_GROESSE), 2);
+        return kasse.sitzung.schliesseKassenvorgangAb();
+    }
+}
@@ -0,0 +1,110 @@
+package de.berufsschule.kasse.benchmark;
+
+import de.berufsschule.kasse.model.BonRenderer;
+import de.berufsschule.kasse.model.Verkauf;
+import de.berufsschule.kasse.model.Warenkorb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Benchmarks für die Berechnungen im Warenkorb (ohne Datenbank).
+ *
+ * Parametriert nach Anzahl der Positionen. Der Bon wird mit der bisherigen
+ * Umsetzung ({@code erstelleBonAlt}), als neuer String, in einen wiederverwendeten
+ * Puffer und als ESC/POS-Druckdaten erzeugt. Ausführen mit:
+ * <pre>
+ * mvn test-compile exec:exec@jmh -Djmh.args="WarenkorbBenchmark -prof gc"
+ * </pre>
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarenkorbBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int positionen;
+
+    private Warenkorb warenkorb;
+    private final StringBuilder puffer = new StringBuilder(32_768);
+    private final ByteArrayOutputStream druckdaten = new ByteArrayOutputStream(32_768);
+
+    /**
+     * Füllt den Warenkorb mit der gewünschten Anzahl Positionen.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        warenkorb = new Warenkorb();
+        for (int i = 0; i < positionen; i++) {
+            warenkorb.fuegeVerkaufHinzu(new Verkauf(i + 1, "Artikel " + i, 1 + i % 4, 0.49 + i % 20));
+        }
+    }
+
+    @Benchmark
+    public double berechneGesamtbetrag() {
+        return warenkorb.berechneGesamtbetrag();
+    }
+
+    @Benchmark
+    public String erstelleBon() {
+        return warenkorb.erstelleBon();
+    }
+
+    /**
+     * Bisherige Umsetzung von {@code erstelleBon()} mit {@code String.format} je Position als Vergleich.
+     */
+    @Benchmark
+    public String erstelleBonAlt() {
+        StringBuilder bon = new StringBuilder();
+        bon.append("=".repeat(40)).append("\n");
+        bon.append("           KASSENSYSTEM FIAE24M\n");
+        bon.append("=".repeat(40)).append("\n");
+        bon.append("Datum: ").append(warenkorb.getErstellungszeitpunkt().toLocalDate()).append("\n");
+        bon.append("Zeit:  ").append(warenkorb.getErstellungszeitpunkt().toLocalTime().toString(), 0, 8).append("\n");
+        bon.append("-".repeat(40)).append("\n");
+        for (Verkauf verkauf : warenkorb.getVerkaeufe()) {
+            bon.append(String.format(Locale.GERMAN, "%dx %s à %.2f€ = %.2f€", verkauf.getMenge(),
+                    verkauf.getProduktName(), verkauf.getEinzelpreis(), verkauf.getGesamtpreis())).append("\n");
+        }
+        bon.append("-".repeat(40)).append("\n");
+        bon.append(String.format(Locale.GERMAN, "GESAMT: %.2f€", warenkorb.getVerkaeufe().stream()
+                .mapToDouble(Verkauf::getGesamtpreis).sum())).append("\n");
+        bon.append("=".repeat(40)).append("\n");
+        bon.append("Vielen Dank für Ihren Einkauf!\n");
+        return bon.toString();
+    }
+
+    @Benchmark
+    public StringBuilder bonInPuffer() {
+        puffer.setLength(0);
+        warenkorb.schreibeBon(puffer);
+        return puffer;
+    }
+
+    @Benchmark
+    public int bonEscPos() throws IOException {
+        druckdaten.reset();
+        BonRenderer.schreibeEscPos(warenkorb, druckdaten);
+        return druckdaten.size();
+    }
+}
@@ -0,0 +1,120 @@
+package de.berufsschule.kasse.controller;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.service.KassenService;
+import de.berufsschule.kasse.service.StatistikService;
+import de.berufsschule.kasse.util.DatabaseInitializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integrationstests für die HTTP-Schnittstelle.
+ *
+ * Diese Testklasse spielt Kassenvorgänge über echte HTTP-Anfragen
+ * gegen einen Server auf einem freien Port durch.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class KassenHttpServerTest {
+
+    private static final Pattern SITZUNG = Pattern.compile("\"sitzung\":\"([^\"]+)\"");
+
+    private static KassenService kassenService;
+    private static KassenHttpServer server;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void setUpClass() throws Exception {
+        new DatabaseInitializer().initialisiereMitTestdaten();
+        kassenService = new KassenService();
+        server = new KassenHttpServer(kassenService, new StatistikService(), 0, 4);
+        server.starte();
+        // Reason: Der HttpServer des JDK spricht nur HTTP/1.1, der Upgrade-Versuch auf HTTP/2 kostet je Anfrage
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        server.close();
+    }
+
+    private static HttpResponse<String> sende(String methode, String pfad) throws Exception {
+        HttpRequest anfrage = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + pfad))
+                .method(methode, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(anfrage, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String oeffneSitzung() throws Exception {
+        HttpResponse<String> antwort = sende("POST", "/sitzungen");
+        assertEquals(201, antwort.statusCode());
+        Matcher treffer = SITZUNG.matcher(antwort.body());
+        assertTrue(treffer.find(), antwort.body());
+        return treffer.group(1);
+    }
+
+    @Test
+    void testKassenvorgangUeberHttp() throws Exception {
+        // Happy Path: Sitzung öffnen, scannen, per ID erfassen, abschließen
+        Produkt produkt = kassenService.getAlleProdukte().stream().filter(p -> p.getBestand() >= 3)
+                .findFirst().orElseThrow();
+        String sitzung = oeffneSitzung();
+
+        assertEquals(200, sende("POST", "/sitzungen/" + sitzung + "/positionen?barcode="
+                                        + produkt.getBarcode()).statusCode());
+        HttpResponse<String> warenkorb = sende("POST", "/sitzungen/" + sitzung + "/positionen?produktId="
+                                                       + produkt.getId() + "&menge=2");
+        assertTrue(warenkorb.body().contains("\"menge\":3"), warenkorb.body());
+        assertEquals("application/json; charset=utf-8", warenkorb.headers().firstValue("Content-Type").orElse(""));
+
+        HttpResponse<String> abschluss = sende("POST", "/sitzungen/" + sitzung + "/abschluss");
+        assertEquals(200, abschluss.statusCode());
+        assertTrue(abschluss.body().contains(produkt.getName()), abschluss.body());
+        assertEquals(produkt.getBestand() - 3, kassenService.getProduktById(produkt.getId()).getBestand());
+
+        assertEquals(204, sende("DELETE", "/sitzungen/" + sitzung).statusCode());
+        assertEquals(404, sende("GET", "/sitzungen/" + sitzung).statusCode());
+    }
+
+    @Test
+    void testProduktabfragen() throws Exception {
+        // Happy Path: Suche, ID und Barcode liefern Produkte als JSON
+        Produkt produkt = kassenService.getAlleProdukte().get(0);
+
+        HttpResponse<String> suche = sende("GET", "/produkte?suche=" + produkt.getId() + "&max=1");
+        assertTrue(suche.body().startsWith("[{\"id\":" + produkt.getId() + ","), suche.body());
+        assertEquals(200, sende("GET", "/produkte/" + produkt.getId()).statusCode());
+        assertTrue(sende("GET", "/barcodes/" + produkt.getBarcode()).body().contains("\"preisCent\":"));
+        String dashboard = sende("GET", "/dashboard").body();
+        assertTrue(dashboard.startsWith("{\"tagesumsatzCent\":"), dashboard);
+        assertTrue(dashboard.contains("\"abschlussLatenz\":{\"anzahl\":"), dashboard);
+        assertTrue(dashboard.contains("\"produktCache\":{\"eintraege\":"), dashboard);
+    }
+
+    @Test
+    void testFehlerWerdenAlsStatusGemeldet() throws Exception {
+        // Failure Case: Unbekannte Routen und Produkte, fehlende Parameter und Bestandsfehler
+        String sitzung = oeffneSitzung();
+
+        assertEquals(404, sende("GET", "/gibtsnicht").statusCode());
+        assertEquals(404, sende("GET", "/produkte/999999").statusCode());
+        assertEquals(400, sende("GET", "/produkte/abc").statusCode());
+        assertEquals(400, sende("GET", "/barcodes/4006381333932").statusCode());
+        assertEquals(400, sende("POST", "/sitzungen/" + sitzung + "/positionen").statusCode());
+        HttpResponse<String> leer = sende("POST", "/sitzungen/" + sitzung + "/abschluss");
+        assertEquals(400, leer.statusCode());
+        assertEquals("{\"fehler\":\"Der Warenkorb ist leer\"}", leer.body());
+
+        sende("DELETE", "/sitzungen/" + sitzung);
+    }
+}
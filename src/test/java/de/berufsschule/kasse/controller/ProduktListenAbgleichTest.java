@@ -0,0 +1,76 @@
+package de.berufsschule.kasse.controller;
+
+import de.berufsschule.kasse.model.Produkt;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den ProduktListenAbgleich.
+ *
+ * Diese Testklasse überprüft, dass Einzeländerungen die
+ * Namenssortierung der Produktliste erhalten.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class ProduktListenAbgleichTest {
+
+    private List<Produkt> erstelleListe() {
+        return new ArrayList<>(List.of(new Produkt(1, "Apfel", 0.5, 10),
+                                       new Produkt(2, "Birne", 0.6, 5),
+                                       new Produkt(3, "Kiwi", 0.3, 7)));
+    }
+
+    private List<String> namen(List<Produkt> produkte) {
+        return produkte.stream().map(Produkt::getName).toList();
+    }
+
+    @Test
+    void testEinfuegenHaeltSortierung() {
+        // Happy Path: Ein neues Produkt landet an der alphabetisch richtigen Stelle
+        List<Produkt> produkte = erstelleListe();
+
+        int position = ProduktListenAbgleich.einfuegen(produkte, new Produkt(4, "Banane", 0.4, 20));
+
+        assertEquals(1, position);
+        assertEquals(List.of("Apfel", "Banane", "Birne", "Kiwi"), namen(produkte));
+    }
+
+    @Test
+    void testErsetzenAendertNurDieBetroffeneZeile() {
+        // Happy Path: Eine Bestandsänderung ersetzt genau die Zeile des Produkts
+        List<Produkt> produkte = erstelleListe();
+        Produkt kiwi = produkte.get(2);
+
+        int position = ProduktListenAbgleich.ersetzen(produkte, new Produkt(2, "Birne", 0.6, 1));
+
+        assertEquals(1, position);
+        assertEquals(1, produkte.get(1).getBestand());
+        assertSame(kiwi, produkte.get(2));
+        assertEquals(3, produkte.size());
+    }
+
+    @Test
+    void testErsetzenFuegtUnbekanntesProduktEin() {
+        // Edge Case: Fehlt das Produkt in der Liste, wird es eingefügt
+        List<Produkt> produkte = erstelleListe();
+
+        ProduktListenAbgleich.ersetzen(produkte, new Produkt(9, "Zitrone", 0.2, 3));
+
+        assertEquals(List.of("Apfel", "Birne", "Kiwi", "Zitrone"), namen(produkte));
+    }
+
+    @Test
+    void testErsetzenBeiGeaendertemNamen() {
+        // Edge Case: Ändert sich der Name, wird die Zeile an die neue Position verschoben
+        List<Produkt> produkte = erstelleListe();
+
+        ProduktListenAbgleich.ersetzen(produkte, new Produkt(1, "Mango", 0.5, 10));
+
+        assertEquals(List.of("Birne", "Kiwi", "Mango"), namen(produkte));
+    }
+}
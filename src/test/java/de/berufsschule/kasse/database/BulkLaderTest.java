@@ -0,0 +1,119 @@
+package de.berufsschule.kasse.database;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den BulkLader.
+ *
+ * Diese Testklasse überprüft ID-Vergabe, Indizes, Tagesaggregate und
+ * das Verwerfen abgebrochener Ladevorgänge auf einer temporären Datenbank.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class BulkLaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String url;
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        url = "jdbc:sqlite:" + tempDir.resolve("bulk.db");
+        conn = DriverManager.getConnection(url);
+        new MigrationsManager(Schemamigrationen.alle()).migriere(conn);
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO produkte (name, preis_cent, bestand) VALUES ('Vorhanden', 100, 1)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private BulkLader oeffne() throws SQLException {
+        return new BulkLader(DriverManager.getConnection(url));
+    }
+
+    private int zaehle(String sql) throws SQLException {
+        try (var stmt = conn.createStatement(); var rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static Verkauf verkauf(Produkt produkt, int menge, LocalDateTime zeit) {
+        Verkauf verkauf = new Verkauf(produkt.getId(), produkt.getName(), menge, produkt.getPreis());
+        verkauf.setTimestamp(zeit);
+        return verkauf;
+    }
+
+    @Test
+    void testProdukteUndVerkaeufeWerdenGeladen() throws SQLException {
+        // Happy Path: IDs schließen an vorhandene an, Aggregate und Indizes stehen nach dem Abschluss bereit
+        LocalDateTime zeit = LocalDateTime.of(2026, 10, 1, 12, 0);
+        try (BulkLader lader = oeffne()) {
+            for (int i = 0; i < 2_500; i++) {
+                Produkt produkt = new Produkt("Artikel " + i, 2.0, 10);
+                lader.fuegeProduktHinzu(produkt);
+                assertEquals(i + 2, produkt.getId());
+                lader.fuegeVerkaufHinzu(verkauf(produkt, 1, zeit.plusDays(i % 3)));
+            }
+            lader.abschliessen();
+        }
+
+        assertEquals(2_501, zaehle("SELECT COUNT(*) FROM produkte"));
+        assertEquals(2_500, zaehle("SELECT COUNT(*) FROM verkaeufe"));
+        assertEquals(2_500, zaehle("SELECT SUM(anzahl_verkaeufe) FROM tagesumsatz"));
+        assertEquals(3, zaehle("SELECT COUNT(*) FROM tagesumsatz"));
+        assertEquals(2, zaehle("SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name IN "
+                               + "('idx_verkaeufe_tag_produkt', 'idx_tagesumsatz_produkt_menge')"));
+    }
+
+    @Test
+    void testLoescheAlleDatenSetztIdsZurueck() throws SQLException {
+        // Edge Case: Nach dem Löschen beginnt die ID-Vergabe wieder bei 1
+        Produkt produkt = new Produkt("Neu", 1.5, 3);
+        try (BulkLader lader = oeffne()) {
+            lader.loescheAlleDaten();
+            lader.fuegeProduktHinzu(produkt);
+            lader.abschliessen();
+        }
+
+        assertEquals(1, produkt.getId());
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM produkte"));
+    }
+
+    @Test
+    void testOhneAbschlussWirdAllesVerworfen() throws SQLException {
+        // Failure Case: Ein Fehler mitten im Import hinterlässt weder Daten noch fehlende Indizes
+        try (BulkLader lader = oeffne()) {
+            lader.loescheAlleDaten();
+            Produkt produkt = new Produkt("Doppelt", 1.0, 1);
+            lader.fuegeProduktHinzu(produkt);
+            lader.fuegeVerkaufHinzu(verkauf(produkt, 2, LocalDateTime.now()));
+            lader.fuegeProduktHinzu(new Produkt("Doppelt", 1.0, 1));
+            assertThrows(SQLException.class, lader::abschliessen);
+        }
+
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM produkte WHERE name = 'Vorhanden'"));
+        assertEquals(0, zaehle("SELECT COUNT(*) FROM verkaeufe"));
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_verkaeufe_tag_produkt'"));
+    }
+}
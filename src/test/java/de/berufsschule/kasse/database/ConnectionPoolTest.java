@@ -0,0 +1,203 @@
+package de.berufsschule.kasse.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den ConnectionPool.
+ *
+ * Diese Testklasse überprüft Wiederverwendung, Statement-Cache,
+ * Größenbegrenzung und Leerlauf-Bereinigung des Pools.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class ConnectionPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+
+    private ConnectionPool erstellePool(int groesse, int minLeerlauf, long leerlaufTimeoutMillis) {
+        String url = "jdbc:sqlite:" + tempDir.resolve("pool.db");
+        pool = new ConnectionPool(new DatenbankKonfiguration(url, groesse, minLeerlauf,
+                                                              leerlaufTimeoutMillis, 200, 8));
+        return pool;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.schliessen();
+        }
+    }
+
+    @Test
+    void testVerbindungWirdWiederverwendet() throws SQLException {
+        // Happy Path: Zweites Ausleihen nutzt die zurückgegebene Verbindung
+        erstellePool(2, 1, 60_000);
+
+        try (Connection conn = pool.ausleihen()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.ausleihen()) {
+            assertFalse(conn.isClosed());
+        }
+
+        ConnectionPool.Statistik statistik = pool.getStatistik();
+        assertEquals(1, statistik.getErstellteVerbindungen());
+        assertEquals(1, statistik.getWiederverwendungen());
+        assertEquals(2, statistik.getAusleihen());
+        assertEquals(0, statistik.getAktiveVerbindungen());
+        assertEquals(1, statistik.getLeerlaufVerbindungen());
+    }
+
+    @Test
+    void testPreparedStatementWirdGecacht() throws SQLException {
+        // Happy Path: Gleiches SQL auf derselben Verbindung trifft den Statement-Cache
+        erstellePool(1, 1, 60_000);
+
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = pool.ausleihen();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT ?")) {
+                stmt.setInt(1, i);
+                try (var rs = stmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                }
+            }
+        }
+
+        assertEquals(1, pool.getStatistik().getStatementFehlgriffe());
+        assertEquals(2, pool.getStatistik().getStatementTreffer());
+    }
+
+    @Test
+    void testVerschachteltesGleichesStatement() throws SQLException {
+        // Edge Case: Gleiches SQL zweimal gleichzeitig offen liefert zwei unabhängige Statements
+        erstellePool(1, 1, 60_000);
+
+        try (Connection conn = pool.ausleihen();
+             PreparedStatement erstes = conn.prepareStatement("SELECT ?");
+             PreparedStatement zweites = conn.prepareStatement("SELECT ?")) {
+            erstes.setInt(1, 1);
+            zweites.setInt(1, 2);
+            try (var rs1 = erstes.executeQuery(); var rs2 = zweites.executeQuery()) {
+                assertTrue(rs1.next());
+                assertTrue(rs2.next());
+                assertEquals(1, rs1.getInt(1));
+                assertEquals(2, rs2.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void testPoolGroesseWirdEingehalten() throws SQLException {
+        // Failure Case: Mehr Ausleihen als Poolgröße führt nach der Wartezeit zu einem Fehler
+        erstellePool(1, 1, 60_000);
+
+        try (Connection conn = pool.ausleihen()) {
+            assertNotNull(conn);
+            assertThrows(SQLException.class, () -> pool.ausleihen());
+        }
+        assertEquals(1, pool.getStatistik().getZeitueberschreitungen());
+    }
+
+    @Test
+    void testGeschlosseneVerbindungIstNichtMehrNutzbar() throws SQLException {
+        // Failure Case: Nach close() darf die Verbindung nicht mehr verwendet werden
+        erstellePool(1, 1, 60_000);
+
+        Connection conn = pool.ausleihen();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+    }
+
+    @Test
+    void testOffeneTransaktionWirdBeiRueckgabeZurueckgerollt() throws SQLException {
+        // Edge Case: Nicht committete Änderungen gelangen nicht in den nächsten Ausleihvorgang
+        erstellePool(1, 1, 60_000);
+
+        try (Connection conn = pool.ausleihen(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE test (wert INTEGER)");
+        }
+        try (Connection conn = pool.ausleihen(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("INSERT INTO test VALUES (1)");
+        }
+        try (Connection conn = pool.ausleihen();
+             Statement stmt = conn.createStatement();
+             var rs = stmt.executeQuery("SELECT COUNT(*) FROM test")) {
+            assertTrue(conn.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testLeerlaufendeVerbindungenWerdenEntfernt() throws SQLException {
+        // Edge Case: Mit Timeout 0 werden alle Leerlaufverbindungen bis auf das Minimum geschlossen
+        erstellePool(3, 0, 0);
+
+        Connection eins = pool.ausleihen();
+        Connection zwei = pool.ausleihen();
+        eins.close();
+        zwei.close();
+        pool.entferneLeerlaufendeVerbindungen();
+
+        assertEquals(0, pool.getStatistik().getLeerlaufVerbindungen());
+        assertEquals(2, pool.getStatistik().getEntfernteVerbindungen());
+    }
+
+    @Test
+    void testGeschlossenerPoolVerweigertAusleihe() {
+        // Failure Case: Ein geschlossener Pool gibt keine Verbindungen mehr aus
+        erstellePool(1, 1, 60_000);
+        pool.schliessen();
+
+        assertThrows(SQLException.class, () -> pool.ausleihen());
+    }
+
+    @Test
+    void testLeistungsprofilWirdAufNeueVerbindungenAngewendet() throws SQLException {
+        // Happy Path: Das Profil SCHNELL schaltet WAL und synchronous=NORMAL ein
+        String url = "jdbc:sqlite:" + tempDir.resolve("profil.db");
+        pool = new ConnectionPool(new DatenbankKonfiguration(url, 1, 1, 60_000, 200, 8, Leistungsprofil.SCHNELL));
+
+        try (Connection conn = pool.ausleihen(); Statement stmt = conn.createStatement()) {
+            try (var rs = stmt.executeQuery("PRAGMA journal_mode")) {
+                assertTrue(rs.next());
+                assertEquals("wal", rs.getString(1));
+            }
+            try (var rs = stmt.executeQuery("PRAGMA synchronous")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1), "1 entspricht NORMAL");
+            }
+        }
+    }
+
+    @Test
+    void testUnbekanntesLeistungsprofil() {
+        // Failure Case: Ein Tippfehler im Profilnamen wird mit verständlicher Meldung abgelehnt
+        System.setProperty(DatenbankKonfiguration.PROPERTY_PROFIL, "turbo");
+        try {
+            var exception = assertThrows(IllegalArgumentException.class,
+                                         DatenbankKonfiguration::ausSystemProperties);
+            assertTrue(exception.getMessage().contains("SICHER"));
+        } finally {
+            System.clearProperty(DatenbankKonfiguration.PROPERTY_PROFIL);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.berufsschule.kasse.database;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integrationstests für den DatabaseManager.
+ *
+ * Diese Testklasse überprüft die relativen Bestandsoperationen
+ * gegen die SQLite-Datenbank.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class DatabaseManagerTest {
+
+    private static DatabaseManager dbManager;
+    private Produkt produkt;
+
+    @BeforeAll
+    static void setUpClass() {
+        dbManager = DatabaseManager.getInstance();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        produkt = new Produkt("Bestandstest " + System.nanoTime(), 1.00, 5);
+        dbManager.fuegeProduktHinzu(produkt);
+    }
+
+    @Test
+    void testMigrationsprotokoll() {
+        // Edge Case: Das Protokoll des Starts ist nur lesbar und nach Version geordnet
+        List<MigrationsManager.Ergebnis> protokoll = dbManager.getMigrationsprotokoll();
+
+        assertThrows(UnsupportedOperationException.class, () -> protokoll.add(null));
+        for (int i = 1; i < protokoll.size(); i++) {
+            assertTrue(protokoll.get(i - 1).getVersion() < protokoll.get(i).getVersion());
+        }
+    }
+
+    @Test
+    void testVerringereBestand() throws SQLException {
+        // Happy Path: Entnahme innerhalb des Bestands
+        assertEquals(BestandsErgebnis.ERFOLGREICH, dbManager.verringereBestand(produkt.getId(), 3));
+        assertEquals(2, dbManager.getProduktById(produkt.getId()).getBestand());
+    }
+
+    @Test
+    void testVerringereBestandBisNull() throws SQLException {
+        // Edge Case: Der komplette Bestand darf entnommen werden
+        assertEquals(BestandsErgebnis.ERFOLGREICH, dbManager.verringereBestand(produkt.getId(), 5));
+        assertEquals(0, dbManager.getProduktById(produkt.getId()).getBestand());
+    }
+
+    @Test
+    void testVerringereBestandNichtGenuegend() throws SQLException {
+        // Failure Case: Mehr als vorhanden wird abgelehnt, der Bestand bleibt unverändert
+        assertEquals(BestandsErgebnis.NICHT_GENUEGEND_BESTAND, dbManager.verringereBestand(produkt.getId(), 6));
+        assertEquals(5, dbManager.getProduktById(produkt.getId()).getBestand());
+    }
+
+    @Test
+    void testBestandsaenderungUnbekanntesProdukt() throws SQLException {
+        // Failure Case: Unbekannte Produkt-ID
+        assertEquals(BestandsErgebnis.NICHT_GEFUNDEN, dbManager.verringereBestand(999_999, 1));
+        assertEquals(BestandsErgebnis.NICHT_GEFUNDEN, dbManager.erhoeheBestand(999_999, 1));
+    }
+
+    @Test
+    void testErhoeheBestand() throws SQLException {
+        // Happy Path: Relative Erhöhung
+        assertEquals(BestandsErgebnis.ERFOLGREICH, dbManager.erhoeheBestand(produkt.getId(), 10));
+        assertEquals(15, dbManager.getProduktById(produkt.getId()).getBestand());
+    }
+
+    @Test
+    void testTagesschluessel() {
+        // Happy Path: Datum wird als yyyyMMdd kodiert
+        assertEquals(20250611, DatabaseManager.tagesschluessel(LocalDate.of(2025, 6, 11)));
+        assertEquals(19991231, DatabaseManager.tagesschluessel(LocalDate.of(1999, 12, 31)));
+    }
+
+    @Test
+    void testVerkaufSpeichertTagesschluessel() throws SQLException {
+        // Happy Path: Der gespeicherte Verkauf enthält den Tagesschlüssel seines Zeitstempels
+        Verkauf verkauf = new Verkauf(produkt.getId(), produkt.getName(), 1, produkt.getPreis());
+        verkauf.setTimestamp(LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+        dbManager.speichereVerkauf(verkauf);
+
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.prepareStatement("SELECT tag FROM verkaeufe WHERE produkt_id = ?")) {
+            stmt.setInt(1, produkt.getId());
+            try (var rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(20240229, rs.getInt("tag"));
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package de.berufsschule.kasse.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den MigrationsManager.
+ *
+ * Diese Testklasse überprüft Reihenfolge, Versionsverwaltung und
+ * Fehlerverhalten der Schemamigrationen auf einer temporären Datenbank.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class MigrationsManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("migration.db"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private int zaehle(String sql) throws SQLException {
+        try (var stmt = conn.createStatement(); var rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void testMigrationenWerdenInReihenfolgeAngewendet() throws SQLException {
+        // Happy Path: Ungeordnet übergebene Migrationen laufen nach Version sortiert
+        MigrationsManager manager = new MigrationsManager(List.of(
+            Migration.ausSql(2, "Zeile", "INSERT INTO t VALUES (1)"),
+            Migration.ausSql(1, "Tabelle", "CREATE TABLE t (wert INTEGER)")));
+
+        List<MigrationsManager.Ergebnis> protokoll = manager.migriere(conn);
+
+        assertEquals(2, protokoll.size());
+        assertEquals(1, protokoll.get(0).getVersion());
+        assertEquals(2, MigrationsManager.getSchemaversion(conn));
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM t"));
+    }
+
+    @Test
+    void testBereitsAngewendeteMigrationenWerdenUebersprungen() throws SQLException {
+        // Edge Case: Zweiter Lauf ändert nichts mehr
+        MigrationsManager manager = new MigrationsManager(List.of(
+            Migration.ausSql(1, "Tabelle", "CREATE TABLE t (wert INTEGER)"),
+            Migration.ausSql(2, "Zeile", "INSERT INTO t VALUES (1)")));
+
+        manager.migriere(conn);
+        List<MigrationsManager.Ergebnis> zweiterLauf = manager.migriere(conn);
+
+        assertTrue(zweiterLauf.isEmpty());
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM t"));
+    }
+
+    @Test
+    void testFehlgeschlageneMigrationWirdZurueckgerollt() throws SQLException {
+        // Failure Case: Fehler in V2 lässt Schema auf V1 und verwirft Teiländerungen
+        MigrationsManager manager = new MigrationsManager(List.of(
+            Migration.ausSql(1, "Tabelle", "CREATE TABLE t (wert INTEGER)"),
+            Migration.ausSql(2, "Fehler", "INSERT INTO t VALUES (1)", "INSERT INTO gibt_es_nicht VALUES (1)")));
+
+        assertThrows(SQLException.class, () -> manager.migriere(conn));
+        assertEquals(1, MigrationsManager.getSchemaversion(conn));
+        assertEquals(0, zaehle("SELECT COUNT(*) FROM t"));
+    }
+
+    @Test
+    void testNeuereDatenbankversionWirdAbgelehnt() throws SQLException {
+        // Failure Case: Datenbank aus einer neueren Programmversion
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA user_version = 99");
+        }
+        MigrationsManager manager = new MigrationsManager(List.of(Migration.ausSql(1, "leer", "SELECT 1")));
+
+        assertThrows(SQLException.class, () -> manager.migriere(conn));
+    }
+
+    @Test
+    void testDoppelteVersionWirdAbgelehnt() {
+        // Failure Case: Zwei Migrationen mit gleicher Version
+        assertThrows(IllegalArgumentException.class, () -> new MigrationsManager(List.of(
+            Migration.ausSql(1, "a", "SELECT 1"), Migration.ausSql(1, "b", "SELECT 1"))));
+    }
+
+    @Test
+    void testAktualisierungInAbschnitten() throws SQLException {
+        // Edge Case: Zeilenzahl ist kein Vielfaches der Abschnittsgröße
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (wert INTEGER)");
+            stmt.execute("WITH RECURSIVE n(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM n WHERE x < 25) "
+                       + "INSERT INTO t SELECT NULL FROM n");
+        }
+
+        long geaendert = MigrationsManager.aktualisiereInAbschnitten(conn, "t", "wert = 1", "wert IS NULL", 10);
+
+        assertEquals(25, geaendert);
+        assertEquals(0, zaehle("SELECT COUNT(*) FROM t WHERE wert IS NULL"));
+    }
+
+    @Test
+    void testAbschnitteUeberspringenLueckenUndBearbeiteteZeilen() throws SQLException {
+        // Edge Case: Lücken in der rowid und bereits gesetzte Werte werden nicht mitgezählt
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (wert INTEGER)");
+            stmt.execute("WITH RECURSIVE n(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM n WHERE x < 30) "
+                       + "INSERT INTO t SELECT CASE WHEN x % 3 = 0 THEN 2 END FROM n");
+            stmt.execute("DELETE FROM t WHERE rowid BETWEEN 11 AND 20");
+        }
+
+        long geaendert = MigrationsManager.aktualisiereInAbschnitten(conn, "t", "wert = 1", "wert IS NULL", 4);
+
+        assertEquals(13, geaendert);
+        assertEquals(0, zaehle("SELECT COUNT(*) FROM t WHERE wert IS NULL"));
+        assertEquals(7, zaehle("SELECT COUNT(*) FROM t WHERE wert = 2"));
+    }
+
+    @Test
+    void testSchemamigrationenErzeugenAktuellesSchema() throws SQLException {
+        // Happy Path: Alle Migrationen des Kassensystems auf einer leeren Datenbank
+        MigrationsManager manager = new MigrationsManager(Schemamigrationen.alle());
+
+        manager.migriere(conn);
+
+        assertEquals(manager.getZielversion(), MigrationsManager.getSchemaversion(conn));
+        assertTrue(Schemamigrationen.hatSpalte(conn, "verkaeufe", "tag"));
+    }
+
+    @Test
+    void testBestehendeDatenbankWirdAktualisiert() throws SQLException {
+        // Edge Case: Datenbank aus einer Version ohne Migrationen (user_version 0) mit Altdaten
+        Migration.ausSql(0, "Altbestand",
+            "CREATE TABLE produkte (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE, "
+                + "preis REAL NOT NULL, bestand INTEGER NOT NULL)",
+            "CREATE TABLE verkaeufe (id INTEGER PRIMARY KEY AUTOINCREMENT, timestamp TEXT NOT NULL, "
+                + "produkt_id INTEGER NOT NULL, menge INTEGER NOT NULL, einzelpreis REAL NOT NULL, "
+                + "gesamtpreis REAL NOT NULL)",
+            "INSERT INTO produkte (name, preis, bestand) VALUES ('Apfel', 0.5, 10)",
+            "INSERT INTO verkaeufe (timestamp, produkt_id, menge, einzelpreis, gesamtpreis) "
+                + "VALUES ('2025-06-11T10:15:30.123456', 1, 2, 0.5, 1.0)").anwenden(conn);
+
+        new MigrationsManager(Schemamigrationen.alle()).migriere(conn);
+
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM verkaeufe WHERE tag = 20250611"));
+        assertEquals(1, zaehle("SELECT COUNT(*) FROM produkte"));
+    }
+
+    @Test
+    void testBetraegeWerdenExaktInCentUmgerechnet() throws SQLException {
+        // Edge Case: REAL-Beträge mit Binärfehler (3 * 0.7 = 2.0999999999999996) und gelöschtes letztes Produkt
+        Migration.ausSql(0, "Altbestand",
+            "CREATE TABLE produkte (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE, "
+                + "preis REAL NOT NULL, bestand INTEGER NOT NULL)",
+            "CREATE TABLE verkaeufe (id INTEGER PRIMARY KEY AUTOINCREMENT, timestamp TEXT NOT NULL, "
+                + "produkt_id INTEGER NOT NULL, menge INTEGER NOT NULL, einzelpreis REAL NOT NULL, "
+                + "gesamtpreis REAL NOT NULL)",
+            "INSERT INTO produkte (name, preis, bestand) VALUES ('Apfel', 0.7, 10), ('Alt', 1.0, 1)",
+            "DELETE FROM produkte WHERE name = 'Alt'",
+            "INSERT INTO verkaeufe (timestamp, produkt_id, menge, einzelpreis, gesamtpreis) "
+                + "VALUES ('2025-06-11T10:15:30', 1, 3, 0.7, 2.0999999999999996)").anwenden(conn);
+
+        new MigrationsManager(Schemamigrationen.alle()).migriere(conn);
+
+        assertEquals(70, zaehle("SELECT preis_cent FROM produkte WHERE name = 'Apfel'"));
+        assertEquals(210, zaehle("SELECT gesamtpreis_cent FROM verkaeufe"));
+        assertEquals(210, zaehle("SELECT umsatz_cent FROM tagesumsatz WHERE tag = 20250611"));
+        assertFalse(Schemamigrationen.hatSpalte(conn, "produkte", "preis"));
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO produkte (name, preis_cent, bestand) VALUES ('Neu', 100, 1)");
+        }
+        assertEquals(3, zaehle("SELECT id FROM produkte WHERE name = 'Neu'"));
+    }
+
+    @Test
+    void testBetraegeUnterEinemHalbenCentWerdenAngehoben() throws SQLException {
+        // Edge Case: Altpreis 0.001 € war als REAL gültig, ergäbe gerundet aber 0 Cent
+        Migration.ausSql(0, "Altbestand",
+            "CREATE TABLE produkte (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE, "
+                + "preis REAL NOT NULL, bestand INTEGER NOT NULL)",
+            "CREATE TABLE verkaeufe (id INTEGER PRIMARY KEY AUTOINCREMENT, timestamp TEXT NOT NULL, "
+                + "produkt_id INTEGER NOT NULL, menge INTEGER NOT NULL, einzelpreis REAL NOT NULL, "
+                + "gesamtpreis REAL NOT NULL)",
+            "INSERT INTO produkte (name, preis, bestand) VALUES ('Schraube', 0.001, 10)",
+            "INSERT INTO verkaeufe (timestamp, produkt_id, menge, einzelpreis, gesamtpreis) "
+                + "VALUES ('2025-06-11T10:15:30', 1, 3, 0.001, 0.003)").anwenden(conn);
+
+        new MigrationsManager(Schemamigrationen.alle()).migriere(conn);
+
+        assertEquals(1, zaehle("SELECT preis_cent FROM produkte WHERE name = 'Schraube'"));
+        assertEquals(1, zaehle("SELECT einzelpreis_cent FROM verkaeufe"));
+        assertEquals(3, zaehle("SELECT gesamtpreis_cent FROM verkaeufe"));
+    }
+}
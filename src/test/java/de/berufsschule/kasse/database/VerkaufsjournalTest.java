@@ -0,0 +1,211 @@
+package de.berufsschule.kasse.database;
+
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integrationstests für das Verkaufsjournal.
+ *
+ * Diese Testklasse überprüft Gruppen-Commit, Einspielen und den
+ * Wiederanlauf nach einem simulierten Absturz gegen die SQLite-Datenbank.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class VerkaufsjournalTest {
+
+    private static DatabaseManager dbManager;
+
+    @TempDir
+    Path verzeichnis;
+
+    private Path datei;
+    private Produkt produkt;
+
+    @BeforeAll
+    static void setUpClass() {
+        dbManager = DatabaseManager.getInstance();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        datei = verzeichnis.resolve("verkaeufe.wal");
+        produkt = new Produkt("Journaltest " + System.nanoTime(), 2.50, 20);
+        dbManager.fuegeProduktHinzu(produkt);
+    }
+
+    private List<Verkauf> abschluss(int menge) {
+        return List.of(Verkauf.ausCent(produkt.getId(), produkt.getName(), menge, produkt.getPreisCent()));
+    }
+
+    private int bestandInDatenbank() throws SQLException {
+        return dbManager.getProduktById(produkt.getId()).getBestand();
+    }
+
+    private int verkaufteMenge() throws SQLException {
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.prepareStatement("SELECT COALESCE(SUM(menge), 0) FROM verkaeufe WHERE produkt_id = ?")) {
+            stmt.setInt(1, produkt.getId());
+            try (var rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    @Test
+    void testAbschluesseWerdenEingespielt() throws Exception {
+        // Happy Path: Parallele Abschlüsse landen vollständig in Bestand und Verkäufen
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager)) {
+            Thread[] kassen = new Thread[8];
+            for (int i = 0; i < kassen.length; i++) {
+                kassen[i] = new Thread(() -> {
+                    try {
+                        journal.schreibe(abschluss(1));
+                        journal.schreibe(abschluss(1));
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                kassen[i].start();
+            }
+            for (Thread kasse : kassen) {
+                kasse.join();
+            }
+
+            assertTrue(journal.warteBisEingespielt(5_000));
+            assertEquals(16, journal.getAnzahlAbschluesse());
+            assertTrue(journal.getAnzahlSynchronisierungen() <= 16);
+            assertEquals(4, bestandInDatenbank());
+            assertEquals(16, verkaufteMenge());
+        }
+    }
+
+    @Test
+    void testNeustartSpieltBestaetigteAbschluesseEin() throws Exception {
+        // Edge Case: Absturz vor dem Einspielen, dahinter ein halb geschriebener Satz
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager, false)) {
+            journal.schreibe(abschluss(3));
+            journal.schreibe(abschluss(2));
+        }
+        Files.write(datei, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+        assertEquals(20, bestandInDatenbank());
+
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager)) {
+            assertEquals(15, bestandInDatenbank());
+            assertEquals(5, verkaufteMenge());
+            assertEquals(Verkaufsjournal.KOPF, Files.size(datei));
+
+            journal.schreibe(abschluss(1));
+            assertTrue(journal.warteBisEingespielt(5_000));
+            assertEquals(14, bestandInDatenbank());
+        }
+    }
+
+    @Test
+    void testEingespielteSaetzeWerdenNichtDoppeltGebucht() throws Exception {
+        // Edge Case: Absturz nach dem Einspielen, aber bevor das Journal gekürzt wurde
+        byte[] inhalt;
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager)) {
+            journal.schreibe(abschluss(4));
+            assertTrue(journal.warteBisEingespielt(5_000));
+            inhalt = Files.readAllBytes(datei);
+        }
+        Files.write(datei, inhalt);
+
+        new Verkaufsjournal(datei, dbManager).close();
+
+        assertEquals(16, bestandInDatenbank());
+        assertEquals(4, verkaufteMenge());
+    }
+
+    @Test
+    void testLeseProduktZiehtAusstehendeMengenAb() throws Exception {
+        // Happy Path: Vor dem Einspielen zeigt das Journal den Bestand nach dem Abschluss
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager, false)) {
+            journal.schreibe(abschluss(6));
+
+            assertEquals(14, journal.leseProdukt(() -> dbManager.getProduktById(produkt.getId())).getBestand());
+            assertEquals(20, bestandInDatenbank());
+        }
+        new Verkaufsjournal(datei, dbManager).close();
+        assertEquals(14, bestandInDatenbank());
+    }
+
+    private int konfliktMenge() throws SQLException {
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.prepareStatement(
+                 "SELECT COALESCE(SUM(menge), 0) FROM journal_konflikte WHERE produkt_id = ?")) {
+            stmt.setInt(1, produkt.getId());
+            try (var rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    @Test
+    void testBestandWirdBeimEinspielenNichtUnterschritten() throws Exception {
+        // Failure Case: Ein Satz über den Bestand hinaus wird weder abgeschnitten noch blockiert den Start
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager, false)) {
+            journal.schreibe(abschluss(2));
+            journal.schreibe(abschluss(25));
+            journal.schreibe(abschluss(3));
+        }
+
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager)) {
+            assertEquals(15, bestandInDatenbank());
+            assertEquals(5, verkaufteMenge());
+            assertEquals(25, konfliktMenge());
+        }
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager)) {
+            assertEquals(25, konfliktMenge());
+            assertEquals(5, verkaufteMenge());
+        }
+    }
+
+    @Test
+    void testKonfliktHaeltLaufendesEinspielenNichtAuf() throws Exception {
+        // Failure Case: Der abgelehnte Satz landet in journal_konflikte, die übrigen werden gebucht
+        try (Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager)) {
+            journal.schreibe(abschluss(4));
+            journal.schreibe(abschluss(30));
+            journal.schreibe(abschluss(6));
+            assertTrue(journal.warteBisEingespielt(5_000));
+
+            assertEquals(10, bestandInDatenbank());
+            assertEquals(10, verkaufteMenge());
+            assertEquals(30, konfliktMenge());
+            assertEquals(10, journal.leseProdukt(() -> dbManager.getProduktById(produkt.getId())).getBestand());
+            journal.schreibe(abschluss(1));
+            assertTrue(journal.warteBisEingespielt(5_000));
+        }
+        assertEquals(9, bestandInDatenbank());
+    }
+
+    @Test
+    void testFehlerFaelle() throws Exception {
+        // Failure Case: Geschlossenes Journal und fremde Datei
+        Verkaufsjournal journal = new Verkaufsjournal(datei, dbManager);
+        journal.close();
+        assertThrows(IOException.class, () -> journal.schreibe(abschluss(1)));
+
+        Path fremd = verzeichnis.resolve("fremd.wal");
+        Files.writeString(fremd, "keine Journaldatei");
+        assertThrows(IOException.class, () -> new Verkaufsjournal(fremd, dbManager));
+        assertEquals(20, bestandInDatenbank());
+    }
+}
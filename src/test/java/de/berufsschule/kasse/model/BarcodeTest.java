@@ -0,0 +1,42 @@
+package de.berufsschule.kasse.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für die Barcode-Klasse.
+ *
+ * Diese Testklasse überprüft Prüfziffer und Vereinheitlichung
+ * der unterstützten GTIN-Formate.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class BarcodeTest {
+
+    @Test
+    void testNormalisiereAlleFormate() {
+        // Happy Path: EAN-8, UPC-A, EAN-13 und GTIN-14 werden auf 14 Stellen aufgefüllt
+        assertEquals("00000096385074", Barcode.normalisiere("96385074"));
+        assertEquals("00036000291452", Barcode.normalisiere("036000291452"));
+        assertEquals("04006381333931", Barcode.normalisiere(" 4006381333931 "));
+        assertEquals("04006381333931", Barcode.normalisiere("04006381333931"));
+    }
+
+    @Test
+    void testMitPruefziffer() {
+        // Happy Path: Die angehängte Prüfziffer ergibt einen gültigen Barcode
+        assertEquals("4006381333931", Barcode.mitPruefziffer("400638133393"));
+        assertTrue(Barcode.istGueltig(Barcode.mitPruefziffer("200000000001")));
+    }
+
+    @Test
+    void testUngueltigeBarcodes() {
+        // Failure Case: Falsche Prüfziffer, falsche Länge und Fremdzeichen
+        assertThrows(IllegalArgumentException.class, () -> Barcode.normalisiere("4006381333932"));
+        assertThrows(IllegalArgumentException.class, () -> Barcode.normalisiere("12345"));
+        assertThrows(IllegalArgumentException.class, () -> Barcode.normalisiere("40063813339a1"));
+        assertFalse(Barcode.istGueltig(""));
+        assertFalse(Barcode.istGueltig("42"));
+    }
+}
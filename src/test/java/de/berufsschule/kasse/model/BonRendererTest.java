@@ -0,0 +1,83 @@
+package de.berufsschule.kasse.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den BonRenderer.
+ *
+ * Diese Testklasse überprüft Text- und ESC/POS-Ausgabe des Kassenbons
+ * sowie die Formatierung der Beträge.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class BonRendererTest {
+
+    private Warenkorb warenkorb;
+
+    @BeforeEach
+    void setUp() {
+        warenkorb = new Warenkorb();
+        warenkorb.fuegeVerkaufHinzu(new Verkauf(1, "Apfel", 3, 0.50));
+        warenkorb.fuegeVerkaufHinzu(new Verkauf(2, "Käse", 12, 4.99));
+    }
+
+    @Test
+    void testTextEntsprichtBonformat() throws IOException {
+        // Happy Path: Positionen wie Verkauf.toString, Datum und Uhrzeit mit festen Stellen
+        String[] zeilen = BonRenderer.schreibeText(warenkorb, new StringBuilder()).toString().split("\n");
+
+        assertEquals("=".repeat(BonRenderer.BREITE), zeilen[0]);
+        assertEquals("           KASSENSYSTEM FIAE24M", zeilen[1]);
+        assertEquals("Datum: " + warenkorb.getErstellungszeitpunkt().toLocalDate(), zeilen[3]);
+        assertTrue(zeilen[4].matches("Zeit:  \\d{2}:\\d{2}:\\d{2}"), zeilen[4]);
+        assertEquals(warenkorb.getVerkaeufe().iterator().next().toString(), zeilen[6]);
+        assertEquals("12x Käse à 4,99€ = 59,88€", zeilen[7]);
+        assertEquals("GESAMT: 61,38€", zeilen[9]);
+        assertEquals("Vielen Dank für Ihren Einkauf!", zeilen[11]);
+    }
+
+    @Test
+    void testPufferWirdWiederverwendet() {
+        // Edge Case: Derselbe StringBuilder liefert nach setLength(0) denselben Bon
+        StringBuilder puffer = new StringBuilder();
+        warenkorb.schreibeBon(puffer);
+        String erster = puffer.toString();
+
+        puffer.setLength(0);
+        warenkorb.schreibeBon(puffer);
+
+        assertEquals(erster, puffer.toString());
+        assertEquals(erster, warenkorb.erstelleBon());
+    }
+
+    @Test
+    void testBetraegeMitFuehrendenNullen() throws IOException {
+        // Edge Case: Cent-Anteile unter 10, Beträge unter einem Euro und negative Beträge
+        assertEquals("0,05", BonRenderer.haengeBetragAn(new StringBuilder(), 5).toString());
+        assertEquals("100,00", BonRenderer.haengeBetragAn(new StringBuilder(), 10_000).toString());
+        assertEquals("-0,50", BonRenderer.haengeBetragAn(new StringBuilder(), -50).toString());
+    }
+
+    @Test
+    void testEscPosMitSteuerbefehlenUndCodepage() throws IOException {
+        // Happy Path: Initialisierung, PC858-Umlaute und Euro, Papierschnitt am Ende
+        ByteArrayOutputStream druckdaten = new ByteArrayOutputStream();
+
+        BonRenderer.schreibeEscPos(warenkorb, druckdaten);
+
+        byte[] bytes = druckdaten.toByteArray();
+        assertArrayEquals(new byte[] {0x1B, '@', 0x1B, 't', 19}, Arrays.copyOf(bytes, 5));
+        assertArrayEquals(new byte[] {0x1D, 'V', 66, 0}, Arrays.copyOfRange(bytes, bytes.length - 4, bytes.length));
+        String text = new String(bytes, "IBM00858");
+        assertTrue(text.contains("12x Käse à 4,99€ = 59,88€"), text);
+        assertTrue(text.contains("Vielen Dank für Ihren Einkauf!"));
+    }
+}
@@ -0,0 +1,62 @@
+package de.berufsschule.kasse.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für die Geld-Klasse.
+ *
+ * Diese Testklasse überprüft Umrechnung, Einlesen und Formatieren
+ * von Cent-Beträgen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class GeldTest {
+
+    @Test
+    void testAusEuroRundetKaufmaennisch() {
+        // Happy Path: Euro-Beträge werden exakt in Cent umgerechnet
+        assertEquals(199, Geld.ausEuro(1.99));
+        assertEquals(101, Geld.ausEuro(1.005));
+        assertEquals(210, Geld.ausEuro(3 * 0.7));
+        assertEquals(0, Geld.ausEuro(0.0));
+    }
+
+    @Test
+    void testParseAkzeptiertKommaUndPunkt() {
+        // Happy Path: Typische Eingaben aus Oberfläche und CSV
+        assertEquals(199, Geld.parse("1,99"));
+        assertEquals(199, Geld.parse(" 1.99 "));
+        assertEquals(250, Geld.parse("2,5"));
+        assertEquals(300, Geld.parse("3"));
+        assertEquals(-50, Geld.parse("-0,50"));
+    }
+
+    @Test
+    void testParseLehntUngueltigeBetraegeAb() {
+        // Failure Case: Mehr als zwei Nachkommastellen, leere Eingaben und Fremdzeichen
+        assertThrows(NumberFormatException.class, () -> Geld.parse("1,999"));
+        assertThrows(NumberFormatException.class, () -> Geld.parse(""));
+        assertThrows(NumberFormatException.class, () -> Geld.parse("1,"));
+        assertThrows(NumberFormatException.class, () -> Geld.parse(",5"));
+        assertThrows(NumberFormatException.class, () -> Geld.parse("1.000,00"));
+        assertThrows(NumberFormatException.class, () -> Geld.parse("1e3"));
+    }
+
+    @Test
+    void testFormatiere() {
+        // Edge Case: Führende Nullen bei Cent und negative Beträge unter einem Euro
+        assertEquals("1,99", Geld.formatiere(199));
+        assertEquals("0,05", Geld.formatiere(5));
+        assertEquals("-0,50", Geld.formatiere(-50));
+        assertEquals("12.30", Geld.haengeAn(new StringBuilder(), 1230, '.').toString());
+    }
+
+    @Test
+    void testMalErkenntUeberlauf() {
+        // Failure Case: Überlauf wird nicht stillschweigend abgeschnitten
+        assertEquals(597, Geld.mal(199, 3));
+        assertThrows(ArithmeticException.class, () -> Geld.mal(Long.MAX_VALUE / 2, 3));
+    }
+}
@@ -2,6 +2,9 @@ package de.berufsschule.kasse.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -51,6 +54,16 @@ class WarenkorbTest {
         assertEquals(2.10, warenkorb.berechneGesamtbetrag(), 0.01); // 1.50 + 0.60
     }
 
+    @Test
+    void testGesamtbetragIstCentGenau() {
+        // Edge Case: 10 x 0,10€ + 3 x 0,70€ ergibt mit double 3.0999999999999996
+        warenkorb.fuegeVerkaufHinzu(new Verkauf(1, "Kaugummi", 10, 0.10));
+        warenkorb.fuegeVerkaufHinzu(new Verkauf(2, "Brötchen", 3, 0.70));
+
+        assertEquals(310, warenkorb.berechneGesamtbetragCent());
+        assertEquals(3.10, warenkorb.berechneGesamtbetrag());
+    }
+
     @Test
     void testVerkaufEntfernen() {
         warenkorb.fuegeVerkaufHinzu(verkauf1);
@@ -87,14 +100,83 @@ class WarenkorbTest {
     }
 
     @Test
-    void testGetVerkaeufeGibtKopieZurueck() {
+    void testGetVerkaeufeIstNurLesbareAnsicht() {
         warenkorb.fuegeVerkaufHinzu(verkauf1);
         
         var verkaeufe = warenkorb.getVerkaeufe();
-        verkaeufe.clear(); // Kopie ändern
+        assertThrows(UnsupportedOperationException.class, verkaeufe::clear);
         
-        // Original sollte unverändert sein
+        // Die Ansicht läuft ohne Kopie mit dem Warenkorb mit
+        warenkorb.fuegeVerkaufHinzu(verkauf2);
+        assertEquals(2, verkaeufe.size());
+    }
+
+    @Test
+    void testWiederholteErfassungErhoehtMenge() {
+        // Happy Path: Dasselbe Produkt ergibt eine Position mit summierter Menge
+        warenkorb.fuegeVerkaufHinzu(verkauf1);
+        warenkorb.fuegeVerkaufHinzu(verkauf2);
+        warenkorb.fuegeVerkaufHinzu(new Verkauf(1, "Apfel", 2, 0.50));
+
+        assertEquals(2, warenkorb.getAnzahlArtikel());
+        assertEquals(7, warenkorb.getGesamtmenge());
+        assertEquals(5, warenkorb.getMenge(1));
+        assertEquals(0, warenkorb.getMenge(99));
+        assertEquals(310, warenkorb.berechneGesamtbetragCent());
+        assertEquals(List.of(1, 2), warenkorb.getVerkaeufe().stream().map(Verkauf::getProduktId).toList());
+        assertEquals(3, verkauf1.getMenge());
+        assertEquals(150, verkauf1.getGesamtpreisCent());
+    }
+
+    @Test
+    void testPositionenSindKopien() {
+        // Edge Case: Der übergebene Verkauf wird kopiert, die Ansicht lässt sich nicht verändern
+        warenkorb.fuegeVerkaufHinzu(verkauf1);
+        verkauf1.setMenge(100);
+
+        Verkauf position = warenkorb.getVerkaeufe().iterator().next();
+        assertNotSame(verkauf1, position);
+        assertSame(position, warenkorb.getVerkaeufe().iterator().next());
+        assertThrows(UnsupportedOperationException.class, () -> warenkorb.getVerkaeufe().remove(position));
+
+        assertEquals(3, warenkorb.getMenge(1));
+        assertEquals(3, warenkorb.getGesamtmenge());
+        assertEquals(150, warenkorb.berechneGesamtbetragCent());
+    }
+
+    @Test
+    void testMengeAendernUndPositionEntfernen() {
+        // Edge Case: Menge 0 entfernt die Position, unbekannte Produkte werden gemeldet
+        warenkorb.fuegeVerkaufHinzu(verkauf1);
+        warenkorb.fuegeVerkaufHinzu(verkauf2);
+
+        assertTrue(warenkorb.aendereMenge(1, 10));
+        assertEquals(560, warenkorb.berechneGesamtbetragCent());
+        assertTrue(warenkorb.aendereMenge(2, 0));
         assertEquals(1, warenkorb.getAnzahlArtikel());
+        assertEquals(10, warenkorb.getGesamtmenge());
+        assertFalse(warenkorb.aendereMenge(99, 1));
+        assertFalse(warenkorb.entfernePosition(2));
+        assertThrows(IllegalArgumentException.class, () -> warenkorb.aendereMenge(1, -1));
+    }
+
+    @Test
+    void testEntfernenUndLeerenSetzenSummenZurueck() {
+        // Edge Case: Nach dem Entfernen der letzten Position eines Produkts verschwindet dessen Eintrag
+        warenkorb.fuegeVerkaufHinzu(verkauf1);
+        warenkorb.fuegeVerkaufHinzu(verkauf2);
+
+        warenkorb.entferneVerkauf(verkauf2);
+
+        assertEquals(150, warenkorb.berechneGesamtbetragCent());
+        assertEquals(3, warenkorb.getGesamtmenge());
+        assertEquals(0, warenkorb.getMenge(2));
+
+        warenkorb.leeren();
+
+        assertEquals(0, warenkorb.berechneGesamtbetragCent());
+        assertEquals(0, warenkorb.getGesamtmenge());
+        assertTrue(warenkorb.istLeer());
     }
 
     @Test
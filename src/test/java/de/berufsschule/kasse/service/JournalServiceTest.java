@@ -0,0 +1,122 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.util.DatabaseInitializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den JournalService.
+ *
+ * Diese Testklasse überprüft CSV- und Binärexport des Verkaufsjournals
+ * sowie das Erkennen unvollständiger Binärdateien.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class JournalServiceTest {
+
+    private static final LocalDate VON = LocalDate.now().minusDays(31);
+    private static final LocalDate BIS = LocalDate.now();
+
+    private static DatabaseManager dbManager;
+    private JournalService journalService;
+
+    @BeforeAll
+    static void setUpClass() throws SQLException {
+        dbManager = DatabaseManager.getInstance();
+        new DatabaseInitializer().initialisiereMitTestdaten();
+    }
+
+    @BeforeEach
+    void setUp() {
+        journalService = new JournalService();
+    }
+
+    private static long[] anzahlUndSummeCent() throws SQLException {
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.createStatement();
+             var rs = stmt.executeQuery("SELECT COUNT(*), SUM(gesamtpreis_cent) FROM verkaeufe")) {
+            rs.next();
+            return new long[] {rs.getLong(1), rs.getLong(2)};
+        }
+    }
+
+    @Test
+    void testCsvExportEnthaeltAlleVerkaeufeChronologisch() throws Exception {
+        // Happy Path: Eine Zeile pro Verkauf, nach Zeitpunkt sortiert
+        StringWriter csv = new StringWriter();
+
+        Uebertragungsergebnis ergebnis = journalService.exportiereCsv(VON, BIS, csv);
+
+        List<String> zeilen = Arrays.asList(csv.toString().split("\n"));
+        assertEquals(JournalService.CSV_KOPFZEILE, zeilen.get(0));
+        assertEquals(anzahlUndSummeCent()[0], ergebnis.getZeilen());
+        assertEquals(ergebnis.getZeilen() + 1, zeilen.size());
+        for (int i = 2; i < zeilen.size(); i++) {
+            String vorher = zeilen.get(i - 1).split(";")[1];
+            String aktuell = zeilen.get(i).split(";")[1];
+            assertTrue(vorher.compareTo(aktuell) <= 0, "Nicht chronologisch: " + vorher + " > " + aktuell);
+        }
+        assertTrue(zeilen.get(1).matches("\\d+;[0-9T:\\-.]+;\\d+;[^;]+;\\d+;\\d+\\.\\d{2};\\d+\\.\\d{2}"),
+                   zeilen.get(1));
+    }
+
+    @Test
+    void testBinaerexportLaesstSichVollstaendigLesen() throws Exception {
+        // Happy Path: Anzahl und Summe der Cent-Beträge stimmen mit der Datenbank überein
+        ByteArrayOutputStream binaer = new ByteArrayOutputStream();
+        journalService.exportiereBinaer(VON, BIS, binaer);
+        List<LocalDateTime> zeitpunkte = new ArrayList<>();
+        long[] summe = new long[1];
+
+        long anzahl = JournalService.leseBinaer(new ByteArrayInputStream(binaer.toByteArray()),
+            (id, zeitpunkt, produktId, menge, einzelpreisCent, gesamtpreisCent) -> {
+                zeitpunkte.add(zeitpunkt);
+                summe[0] += gesamtpreisCent;
+            });
+
+        long[] erwartet = anzahlUndSummeCent();
+        assertEquals(erwartet[0], anzahl);
+        assertEquals(erwartet[1], summe[0]);
+        for (int i = 1; i < zeitpunkte.size(); i++) {
+            assertFalse(zeitpunkte.get(i).isBefore(zeitpunkte.get(i - 1)));
+        }
+    }
+
+    @Test
+    void testLeererZeitraumLiefertNurKopfzeile() throws Exception {
+        // Edge Case: Zeitraum in der Zukunft
+        StringWriter csv = new StringWriter();
+
+        Uebertragungsergebnis ergebnis = journalService.exportiereCsv(BIS.plusDays(1), BIS.plusDays(7), csv);
+
+        assertEquals(0, ergebnis.getZeilen());
+        assertEquals(JournalService.CSV_KOPFZEILE + "\n", csv.toString());
+    }
+
+    @Test
+    void testAbgeschnitteneBinaerdateiWirdErkannt() throws Exception {
+        // Failure Case: Eine unvollständig übertragene Datei wird nicht stillschweigend akzeptiert
+        ByteArrayOutputStream binaer = new ByteArrayOutputStream();
+        journalService.exportiereBinaer(VON, BIS, binaer);
+        byte[] abgeschnitten = Arrays.copyOf(binaer.toByteArray(), binaer.size() - 20);
+
+        assertThrows(JournalService.JournalServiceException.class,
+                     () -> JournalService.leseBinaer(new ByteArrayInputStream(abgeschnitten),
+                                                     (id, zeitpunkt, produktId, menge, einzel, gesamt) -> { }));
+    }
+}
@@ -0,0 +1,280 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.Verkaufsjournal;
+import de.berufsschule.kasse.model.Barcode;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.model.Verkauf;
+import de.berufsschule.kasse.util.DatabaseInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integrationstests für den KassenService.
+ *
+ * Diese Testklasse überprüft den Kassenabschluss gegen die
+ * SQLite-Datenbank inklusive Transaktionsverhalten.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class KassenServiceTest {
+
+    private static DatabaseManager dbManager;
+    private KassenService kassenService;
+
+    @BeforeAll
+    static void setUpClass() throws SQLException {
+        dbManager = DatabaseManager.getInstance();
+        new DatabaseInitializer().initialisiereMitTestdaten();
+    }
+
+    @BeforeEach
+    void setUp() {
+        kassenService = new KassenService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Reason: Offene Warenkörbe reservieren Bestand im gemeinsamen Reservierungsbuch
+        kassenService.starteNeuenKassenvorgang();
+    }
+
+    private Produkt findeProduktMitBestand(int mindestBestand) throws KassenService.KassenServiceException {
+        return kassenService.getAlleProdukte().stream()
+                .filter(p -> p.getBestand() >= mindestBestand)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private int zaehleVerkaeufe() throws SQLException {
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.createStatement();
+             var rs = stmt.executeQuery("SELECT COUNT(*) FROM verkaeufe")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void testKassenabschlussAktualisiertBestandUndVerkaeufe() throws Exception {
+        // Happy Path: Abschluss verringert den Bestand, zwei Erfassungen ergeben eine Verkaufszeile
+        Produkt produkt = findeProduktMitBestand(3);
+        int verkaeufeVorher = zaehleVerkaeufe();
+
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        String bon = kassenService.schliesseKassenvorgangAb();
+
+        assertTrue(bon.contains(produkt.getName()));
+        assertEquals(produkt.getBestand() - 3, kassenService.getProduktById(produkt.getId()).getBestand());
+        assertEquals(verkaeufeVorher + 1, zaehleVerkaeufe());
+        assertTrue(kassenService.getAktuellerWarenkorb().istLeer());
+    }
+
+    @Test
+    void testKassenabschlussUeberVerkaufsjournal(@TempDir Path verzeichnis) throws Exception {
+        // Happy Path: Der Bestand sinkt sofort, die Verkaufszeile folgt nach dem Einspielen
+        Produkt produkt = findeProduktMitBestand(2);
+        int verkaeufeVorher = zaehleVerkaeufe();
+
+        try (Verkaufsjournal journal = new Verkaufsjournal(verzeichnis.resolve("verkaeufe.wal"), dbManager)) {
+            KassenService mitJournal = new KassenService(journal);
+            mitJournal.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+            mitJournal.schliesseKassenvorgangAb();
+
+            assertEquals(produkt.getBestand() - 2, mitJournal.getProduktById(produkt.getId()).getBestand());
+            assertTrue(journal.warteBisEingespielt(5_000));
+            assertEquals(verkaeufeVorher + 1, zaehleVerkaeufe());
+            assertEquals(produkt.getBestand() - 2, dbManager.getProduktById(produkt.getId()).getBestand());
+        }
+    }
+
+    @Test
+    void testKassenabschlussWirdGemessen() throws Exception {
+        // Happy Path: Jeder erfolgreiche Abschluss wird in der Latenzstatistik erfasst
+        Produkt produkt = findeProduktMitBestand(1);
+
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        kassenService.schliesseKassenvorgangAb();
+
+        assertEquals(1, kassenService.getAbschlussLatenz().getAnzahl());
+        assertTrue(kassenService.getAbschlussLatenz().getMaximumMillis() > 0.0);
+    }
+
+    @Test
+    void testKassenabschlussIstAtomar() throws Exception {
+        // Failure Case: Ein unbekanntes Produkt rollt den gesamten Vorgang zurück
+        Produkt produkt = findeProduktMitBestand(1);
+        int verkaeufeVorher = zaehleVerkaeufe();
+
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        kassenService.getAktuellerWarenkorb().fuegeVerkaufHinzu(new Verkauf(999_999, "Unbekannt", 1, 1.0));
+
+        assertThrows(KassenService.KassenServiceException.class, () -> kassenService.schliesseKassenvorgangAb());
+        assertEquals(produkt.getBestand(), kassenService.getProduktById(produkt.getId()).getBestand());
+        assertEquals(verkaeufeVorher, zaehleVerkaeufe());
+        assertEquals(0, kassenService.getAbschlussLatenz().getAnzahl());
+    }
+
+    @Test
+    void testLeererWarenkorbKannNichtAbgeschlossenWerden() {
+        // Edge Case: Leerer Warenkorb wird abgelehnt
+        assertThrows(KassenService.KassenServiceException.class, () -> kassenService.schliesseKassenvorgangAb());
+    }
+
+    @Test
+    void testWarenzugangErhoehtBestand() throws Exception {
+        // Happy Path: Warenzugang erhöht den Bestand relativ
+        Produkt produkt = findeProduktMitBestand(0);
+
+        kassenService.erfasseWarenzugang(produkt.getId(), 5);
+
+        assertEquals(produkt.getBestand() + 5, kassenService.getProduktById(produkt.getId()).getBestand());
+    }
+
+    @Test
+    void testWarenzugangFuerUnbekanntesProdukt() {
+        // Failure Case: Warenzugang für eine unbekannte ID wird abgelehnt
+        assertThrows(KassenService.KassenServiceException.class,
+                     () -> kassenService.erfasseWarenzugang(999_999, 1));
+    }
+
+    @Test
+    void testKassenabschlussBeiBestandskonflikt() throws Exception {
+        // Failure Case: Wird der Bestand zwischenzeitlich verkauft, wird der Vorgang nicht gebucht
+        Produkt produkt = findeProduktMitBestand(2);
+        int verkaeufeVorher = zaehleVerkaeufe();
+
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+        dbManager.aktualisiereBestand(produkt.getId(), 1);
+
+        var exception = assertThrows(KassenService.KassenServiceException.class,
+                                     () -> kassenService.schliesseKassenvorgangAb());
+        assertTrue(exception.getMessage().contains("Nicht genügend Bestand"));
+        assertEquals(1, kassenService.getProduktById(produkt.getId()).getBestand());
+        assertEquals(verkaeufeVorher, zaehleVerkaeufe());
+    }
+
+    @Test
+    void testProduktWirdAusDemCacheGeliefert() throws Exception {
+        // Happy Path: Nach dem ersten Laden wird das Produkt ohne Datenbankzugriff geliefert
+        Produkt produkt = findeProduktMitBestand(1);
+        long trefferVorher = kassenService.getCacheStatistik().getTreffer();
+
+        kassenService.getProduktById(produkt.getId());
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+
+        assertEquals(trefferVorher + 2, kassenService.getCacheStatistik().getTreffer());
+    }
+
+    @Test
+    void testNeuesProduktIstSofortImCache() throws Exception {
+        // Happy Path: Neue Produkte werden durchgeschrieben und doppelte Namen abgelehnt
+        kassenService.getAlleProdukte();
+        Produkt neu = kassenService.fuegeProduktHinzu("Cachetest " + System.nanoTime(), 100, 4);
+
+        assertTrue(kassenService.getAlleProdukte().stream().anyMatch(p -> p.getId() == neu.getId()));
+        assertThrows(KassenService.KassenServiceException.class,
+                     () -> kassenService.fuegeProduktHinzu(neu.getName(), 100, 1));
+    }
+
+    @Test
+    void testAenderungenWerdenGemeldet() throws Exception {
+        // Happy Path: Warenzugang und Abschluss melden das Produkt mit dem neuen Bestand
+        Produkt produkt = findeProduktMitBestand(2);
+        List<Produkt> geaendert = new ArrayList<>();
+        List<Produkt> hinzugefuegt = new ArrayList<>();
+        kassenService.registriereProduktListener(new ProduktListener() {
+            @Override
+            public void produktHinzugefuegt(Produkt neu) {
+                hinzugefuegt.add(neu);
+            }
+
+            @Override
+            public void produktGeaendert(Produkt aktuell) {
+                geaendert.add(aktuell);
+            }
+        });
+
+        kassenService.erfasseWarenzugang(produkt.getId(), 3);
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        kassenService.schliesseKassenvorgangAb();
+        Produkt neu = kassenService.fuegeProduktHinzu("Listenertest " + System.nanoTime(), 100, 1);
+
+        assertEquals(2, geaendert.size());
+        assertEquals(produkt.getBestand() + 3, geaendert.get(0).getBestand());
+        assertEquals(produkt.getBestand() + 1, geaendert.get(1).getBestand());
+        assertEquals(List.of(neu.getId()), hinzugefuegt.stream().map(Produkt::getId).toList());
+    }
+
+    @Test
+    void testReservierungSperrtBestandFuerAndereKassen() throws Exception {
+        // Edge Case: Der gesamte Bestand liegt im Warenkorb einer Kasse, die zweite Kasse geht leer aus
+        Produkt produkt = findeProduktMitBestand(1);
+        KassenService andereKasse = new KassenService();
+
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), produkt.getBestand());
+
+        assertEquals(0, andereKasse.getVerfuegbareMenge(produkt.getId()));
+        KassenService.KassenServiceException fehler = assertThrows(KassenService.KassenServiceException.class,
+            () -> andereKasse.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1));
+        assertTrue(fehler.getMessage().contains("Verfügbar: 0"), fehler.getMessage());
+
+        // Abbruch gibt die Reservierung frei
+        kassenService.starteNeuenKassenvorgang();
+        andereKasse.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+        assertEquals(produkt.getBestand() - 1, kassenService.getVerfuegbareMenge(produkt.getId()));
+        andereKasse.starteNeuenKassenvorgang();
+    }
+
+    @Test
+    void testScanLegtProduktInDenWarenkorb() throws Exception {
+        // Happy Path: EAN-13 und die 14-stellige Form finden dasselbe Produkt, jeder Scan zählt 1
+        Produkt produkt = findeProduktMitBestand(2);
+        String ean13 = produkt.getBarcode().substring(1);
+
+        assertEquals(produkt.getId(), kassenService.scanneInWarenkorb(ean13).getId());
+        kassenService.scanneInWarenkorb(produkt.getBarcode());
+
+        assertEquals(2, kassenService.getAktuellerWarenkorb().getMenge(produkt.getId()));
+    }
+
+    @Test
+    void testUnbekannterUndUngueltigerBarcode() {
+        // Failure Case: Unbekannte Barcodes und falsche Prüfziffern landen nicht im Warenkorb
+        var unbekannt = assertThrows(KassenService.KassenServiceException.class,
+                                     () -> kassenService.scanneInWarenkorb("4006381333931"));
+        assertTrue(unbekannt.getMessage().contains("Kein Produkt"), unbekannt.getMessage());
+        var ungueltig = assertThrows(KassenService.KassenServiceException.class,
+                                     () -> kassenService.scanneInWarenkorb("4006381333932"));
+        assertTrue(ungueltig.getMessage().contains("Prüfziffer"), ungueltig.getMessage());
+        assertTrue(kassenService.getAktuellerWarenkorb().istLeer());
+    }
+
+    @Test
+    void testBarcodeSetzenUndDoppelteVergabe() throws Exception {
+        // Edge Case: Ein neuer Barcode ist sofort scanbar, ein vergebener wird abgelehnt
+        Produkt vorhanden = findeProduktMitBestand(1);
+        Produkt neu = kassenService.fuegeProduktHinzu("Barcodetest " + System.nanoTime(), 100, 3);
+        String barcode = Barcode.mitPruefziffer(String.format("29%010d", neu.getId()));
+
+        kassenService.setzeBarcode(neu.getId(), barcode);
+        assertEquals(neu.getId(), kassenService.getProduktByBarcode(barcode).getId());
+
+        var fehler = assertThrows(KassenService.KassenServiceException.class,
+                                  () -> kassenService.setzeBarcode(neu.getId(), vorhanden.getBarcode()));
+        assertTrue(fehler.getMessage().contains("bereits vergeben"), fehler.getMessage());
+    }
+}
@@ -0,0 +1,200 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.ReservierungsSpeicher;
+import de.berufsschule.kasse.database.Verkaufsjournal;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.util.DatabaseInitializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integrationstests für Kassensitzungen.
+ *
+ * Diese Testklasse überprüft, dass ein KassenService viele Kassen
+ * gleichzeitig bedient, ohne Warenkörbe zu vermischen oder Bestand
+ * doppelt zu verkaufen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class KassensitzungTest {
+
+    private static final int SITZUNGEN = 120;
+
+    private KassenService kassenService;
+
+    @BeforeAll
+    static void setUpClass() throws Exception {
+        new DatabaseInitializer().initialisiereMitTestdaten();
+    }
+
+    @BeforeEach
+    void setUp() {
+        kassenService = new KassenService();
+    }
+
+    @Test
+    void testSitzungenHabenEigeneWarenkoerbe() throws Exception {
+        // Happy Path: Zwei Sitzungen desselben Service erfassen unabhängig voneinander
+        Produkt produkt = kassenService.fuegeProduktHinzu("Sitzungstest " + System.nanoTime(), 100, 5);
+        Kassensitzung kasse1 = kassenService.oeffneSitzung();
+        Kassensitzung kasse2 = kassenService.oeffneSitzung();
+
+        kasse1.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+        kasse2.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+
+        assertEquals(2, kasse1.getWarenkorb().getMenge(produkt.getId()));
+        assertEquals(1, kasse2.getWarenkorb().getMenge(produkt.getId()));
+        assertEquals(2, kasse2.getVerfuegbareMenge(produkt.getId()));
+        assertSame(kasse1, kassenService.getSitzung(kasse1.getId()));
+        assertEquals(3, kassenService.getAnzahlSitzungen());
+
+        // Schließen gibt die Reservierung frei
+        assertTrue(kassenService.schliesseSitzung(kasse1.getId()));
+        assertEquals(4, kasse2.getVerfuegbareMenge(produkt.getId()));
+        kassenService.schliesseSitzung(kasse2.getId());
+    }
+
+    @Test
+    void testUnbekannteSitzung() {
+        // Failure Case: Geschlossene oder erfundene Sitzungen werden abgelehnt
+        Kassensitzung sitzung = kassenService.oeffneSitzung();
+        kassenService.schliesseSitzung(sitzung.getId());
+
+        assertThrows(KassenService.KassenServiceException.class, () -> kassenService.getSitzung(sitzung.getId()));
+        assertThrows(KassenService.KassenServiceException.class, () -> kassenService.getSitzung(null));
+        assertFalse(kassenService.schliesseSitzung(sitzung.getId()));
+    }
+
+    @Test
+    void testFesteKasseErhaeltWarenkorbNachNeustart() throws Exception {
+        // Happy Path: Nach einem Neustart übernimmt die Kasse mit derselben Kennung ihre Reservierungen
+        AtomicLong uhr = new AtomicLong(1_000_000);
+        ReservierungsSpeicher speicher = new ReservierungsSpeicher(DatabaseManager.getInstance());
+        Produkt produkt = kassenService.fuegeProduktHinzu("Neustart " + System.nanoTime(), 100, 5);
+        try {
+            KassenService vorher = new KassenService(null,
+                new Reservierungsbuch(Duration.ofMinutes(15), uhr::get, speicher, Runnable::run));
+            Kassensitzung kasse = vorher.oeffneSitzung("kasse-7");
+            kasse.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 3);
+            assertSame(kasse, vorher.oeffneSitzung("kasse-7"));
+
+            Reservierungsbuch buch = new Reservierungsbuch(Duration.ofMinutes(15), uhr::get, speicher, Runnable::run);
+            buch.stelleWiederHer();
+            KassenService nachher = new KassenService(null, buch);
+            assertEquals(2, nachher.oeffneSitzung().getVerfuegbareMenge(produkt.getId()));
+
+            Kassensitzung wieder = nachher.oeffneSitzung("kasse-7");
+            assertEquals(3, wieder.getWarenkorb().getMenge(produkt.getId()));
+            assertEquals(300, wieder.getWarenkorb().berechneGesamtbetragCent());
+            wieder.starteNeuenKassenvorgang();
+            assertEquals(5, nachher.oeffneSitzung().getVerfuegbareMenge(produkt.getId()));
+            assertThrows(KassenService.KassenServiceException.class, () -> nachher.oeffneSitzung(" "));
+        } finally {
+            speicher.leeren();
+        }
+    }
+
+    @Test
+    void testInaktiveSitzungenWerdenGeschlossen() throws Exception {
+        // Edge Case: Sitzungen ohne DELETE verschwinden nach der Haltedauer, die Standardsitzung bleibt
+        AtomicLong uhr = new AtomicLong(1_000_000);
+        KassenService service = new KassenService(null, new Reservierungsbuch(Duration.ofMinutes(15), uhr::get));
+        Produkt produkt = service.fuegeProduktHinzu("Verwaist " + System.nanoTime(), 100, 2);
+        Kassensitzung verwaist = service.oeffneSitzung();
+        Kassensitzung aktiv = service.oeffneSitzung();
+        verwaist.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+
+        uhr.addAndGet(Duration.ofMinutes(10).toMillis());
+        service.getSitzung(aktiv.getId());
+        uhr.addAndGet(Duration.ofMinutes(6).toMillis());
+        Kassensitzung neu = service.oeffneSitzung();
+
+        assertEquals(3, service.getAnzahlSitzungen());
+        assertTrue(verwaist.getWarenkorb().istLeer());
+        assertSame(aktiv, service.getSitzung(aktiv.getId()));
+        assertThrows(KassenService.KassenServiceException.class, () -> service.getSitzung(verwaist.getId()));
+        assertEquals(2, neu.getVerfuegbareMenge(produkt.getId()));
+    }
+
+    @Test
+    void testAbschlussMitJournalBrauchtGueltigeReservierung(@TempDir Path verzeichnis) throws Exception {
+        // Failure Case: Nach Ablauf der Haltedauer hat eine andere Kasse die Ware übernommen
+        AtomicLong uhr = new AtomicLong(1_000_000);
+        try (Verkaufsjournal journal = new Verkaufsjournal(verzeichnis.resolve("verkaeufe.wal"),
+                                                           DatabaseManager.getInstance())) {
+            KassenService service = new KassenService(journal, new Reservierungsbuch(Duration.ofMinutes(15), uhr::get));
+            Produkt produkt = service.fuegeProduktHinzu("Verfallen " + System.nanoTime(), 100, 2);
+            Kassensitzung langsam = service.oeffneSitzung();
+            Kassensitzung schnell = service.oeffneSitzung();
+            langsam.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+
+            uhr.addAndGet(Duration.ofMinutes(16).toMillis());
+            schnell.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+
+            var fehler = assertThrows(KassenService.KassenServiceException.class, langsam::schliesseKassenvorgangAb);
+            assertTrue(fehler.getMessage().contains("abgelaufen"), fehler.getMessage());
+            schnell.schliesseKassenvorgangAb();
+            assertTrue(journal.warteBisEingespielt(5_000));
+            assertEquals(0, DatabaseManager.getInstance().getProduktById(produkt.getId()).getBestand());
+        }
+    }
+
+    @Test
+    void testVieleSitzungenVerkaufenNieMehrAlsDenBestand() throws Exception {
+        // Edge Case: 120 Kassen wollen gleichzeitig je ein Stück von 100 vorhandenen kaufen
+        int bestand = 100;
+        Produkt produkt = kassenService.fuegeProduktHinzu("Ansturm " + System.nanoTime(), 100, bestand);
+        AtomicInteger verkauft = new AtomicInteger();
+        AtomicInteger abgewiesen = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService kassen = Executors.newFixedThreadPool(SITZUNGEN);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+        for (int i = 0; i < SITZUNGEN; i++) {
+            ergebnisse.add(kassen.submit(() -> {
+                Kassensitzung sitzung = kassenService.oeffneSitzung();
+                start.await();
+                try {
+                    sitzung.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 1);
+                    sitzung.schliesseKassenvorgangAb();
+                    verkauft.incrementAndGet();
+                } catch (KassenService.KassenServiceException e) {
+                    assertTrue(e.getMessage().contains("Nicht genügend Bestand"), e.getMessage());
+                    abgewiesen.incrementAndGet();
+                } finally {
+                    kassenService.schliesseSitzung(sitzung.getId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(30, TimeUnit.SECONDS);
+        }
+        kassen.shutdown();
+
+        assertEquals(bestand, verkauft.get());
+        assertEquals(SITZUNGEN - bestand, abgewiesen.get());
+        assertEquals(0, kassenService.getProduktById(produkt.getId()).getBestand());
+        assertEquals(bestand, kassenService.getAbschlussLatenz().getAnzahl());
+        assertEquals(1, kassenService.getAnzahlSitzungen());
+    }
+}
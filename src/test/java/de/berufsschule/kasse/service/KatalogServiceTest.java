@@ -0,0 +1,97 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.model.Produkt;
+import de.berufsschule.kasse.util.DatabaseInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den KatalogService.
+ *
+ * Diese Testklasse überprüft Import (Anlegen und Aktualisieren nach Namen),
+ * Export und die Fehlermeldungen bei ungültigen CSV-Zeilen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class KatalogServiceTest {
+
+    private DatabaseManager dbManager;
+    private KatalogService katalogService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Reason: Importe verändern den Katalog, deshalb vor jedem Test die Standard-Testdaten
+        new DatabaseInitializer().initialisiereMitTestdaten();
+        dbManager = DatabaseManager.getInstance();
+        katalogService = new KatalogService();
+    }
+
+    private Produkt sucheNachName(String name) throws SQLException {
+        return dbManager.getAlleProdukte().stream()
+            .filter(p -> p.getName().equals(name))
+            .findFirst()
+            .orElse(null);
+    }
+
+    @Test
+    void testImportLegtAnUndAktualisiertNachName() throws Exception {
+        // Happy Path: Unbekannte Namen werden angelegt, vorhandene überschrieben
+        Produkt apfel = sucheNachName("Apfel");
+        String csv = "name;preis;bestand\n"
+            + "Apfel;0,79;250\n"
+            + "\"Tee; grün\";3.49;12\n";
+
+        Uebertragungsergebnis ergebnis = katalogService.importiere(new StringReader(csv));
+
+        assertEquals(2, ergebnis.getZeilen());
+        assertEquals(101, dbManager.getAlleProdukte().size());
+        Produkt aktualisiert = sucheNachName("Apfel");
+        assertEquals(apfel.getId(), aktualisiert.getId());
+        assertEquals(0.79, aktualisiert.getPreis(), 0.001);
+        assertEquals(250, aktualisiert.getBestand());
+        assertNotNull(sucheNachName("Tee; grün"));
+    }
+
+    @Test
+    void testExportUndErneuterImportErgebenDenselbenKatalog() throws Exception {
+        // Edge Case: Export ist wieder importierbar, auch mit Trennzeichen und Anführungszeichen im Namen
+        katalogService.importiere(new StringReader("name;preis;bestand\n\"Saft \"\"Bio\"\"; 1l\";2.29;5\n"));
+        StringWriter csv = new StringWriter();
+
+        Uebertragungsergebnis export = katalogService.exportiere(csv);
+        Uebertragungsergebnis reimport = katalogService.importiere(new StringReader(csv.toString()));
+
+        assertEquals(101, export.getZeilen());
+        assertEquals(101, reimport.getZeilen());
+        assertEquals(101, dbManager.getAlleProdukte().size());
+        assertTrue(csv.toString().startsWith(KatalogService.KOPFZEILE + "\n"));
+        assertTrue(csv.toString().contains("\"Saft \"\"Bio\"\"; 1l\";2.29;5\n"));
+    }
+
+    @Test
+    void testUngueltigeZeileNenntZeilennummer() throws Exception {
+        // Failure Case: Ein negativer Preis bricht den Import mit Zeilenangabe ab, nichts wird übernommen
+        String csv = "name;preis;bestand\nNeu A;1.00;1\nNeu B;-2;1\n";
+
+        var fehler = assertThrows(KatalogService.KatalogServiceException.class,
+                                  () -> katalogService.importiere(new StringReader(csv)));
+
+        assertTrue(fehler.getMessage().startsWith("Zeile 3"), fehler.getMessage());
+        assertNull(sucheNachName("Neu A"));
+    }
+
+    @Test
+    void testFehlendeKopfzeileWirdAbgelehnt() {
+        // Failure Case: Dateien ohne Kopfzeile werden nicht als Daten interpretiert
+        assertThrows(KatalogService.KatalogServiceException.class,
+                     () -> katalogService.importiere(new StringReader("Apfel;1.00;1\n")));
+    }
+}
@@ -0,0 +1,130 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.model.Produkt;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den ProduktCache.
+ *
+ * Diese Testklasse überprüft Indizes, Verdrängung, Vollständigkeit
+ * und Kennzahlen des Caches ohne Datenbankzugriff.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class ProduktCacheTest {
+
+    @Test
+    void testTrefferUndFehlgriffeWerdenGezaehlt() {
+        // Happy Path: Gespeicherte Produkte werden nach ID und Name gefunden
+        ProduktCache cache = new ProduktCache(10);
+        cache.speichere(new Produkt(1, "Apfel", 0.5, 10));
+
+        assertEquals("Apfel", cache.get(1).getName());
+        assertEquals(1, cache.getNachName("Apfel").getId());
+        assertNull(cache.get(2));
+
+        ProduktCache.Statistik statistik = cache.getStatistik();
+        assertEquals(2, statistik.getTreffer());
+        assertEquals(1, statistik.getFehlgriffe());
+        assertEquals(1, statistik.getEintraege());
+    }
+
+    @Test
+    void testCacheGibtKopienHeraus() {
+        // Edge Case: Änderungen am herausgegebenen Objekt verändern den Cache nicht
+        ProduktCache cache = new ProduktCache(10);
+        cache.speichere(new Produkt(1, "Apfel", 0.5, 10));
+
+        cache.get(1).setBestand(0);
+
+        assertEquals(10, cache.get(1).getBestand());
+    }
+
+    @Test
+    void testLruVerdraengung() {
+        // Edge Case: Bei voller Kapazität wird der am längsten nicht genutzte Eintrag verdrängt
+        ProduktCache cache = new ProduktCache(2);
+        cache.speichere(new Produkt(1, "Apfel", 0.5, 10));
+        cache.speichere(new Produkt(2, "Birne", 0.6, 10));
+        cache.get(1);
+        cache.speichere(new Produkt(3, "Kiwi", 0.3, 10));
+
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertNull(cache.getNachName("Birne"));
+        assertEquals(1, cache.getStatistik().getVerdraengungen());
+    }
+
+    @Test
+    void testVollstaendigerKatalog() {
+        // Happy Path: Ein vollständig geladener Katalog wird sortiert aus dem Speicher geliefert
+        ProduktCache cache = new ProduktCache(10);
+        assertNull(cache.getAlle());
+
+        cache.ladeKatalog(List.of(new Produkt(2, "Birne", 0.6, 5), new Produkt(1, "Apfel", 0.5, 10)));
+        cache.speichere(new Produkt(3, "Ananas", 1.5, 3));
+
+        List<Produkt> alle = cache.getAlle();
+        assertTrue(cache.istVollstaendig());
+        assertEquals(List.of("Ananas", "Apfel", "Birne"), alle.stream().map(Produkt::getName).toList());
+    }
+
+    @Test
+    void testZuGrosserKatalogBleibtUnvollstaendig() {
+        // Edge Case: Passt der Katalog nicht in den Cache, geht getAlle() weiter an die Datenbank
+        ProduktCache cache = new ProduktCache(2);
+
+        cache.ladeKatalog(List.of(new Produkt(1, "Apfel", 0.5, 10), new Produkt(2, "Birne", 0.6, 5),
+                                  new Produkt(3, "Kiwi", 0.3, 7)));
+
+        assertFalse(cache.istVollstaendig());
+        assertNull(cache.getAlle());
+        assertEquals(2, cache.getStatistik().getEintraege());
+    }
+
+    @Test
+    void testBestandsaenderungUndEntfernen() {
+        // Happy Path: Bestandsänderungen werden übernommen, entfernte Produkte nicht mehr geliefert
+        ProduktCache cache = new ProduktCache(10);
+        cache.ladeKatalog(List.of(new Produkt(1, "Apfel", 0.5, 10)));
+
+        cache.aendereBestand(1, -3);
+        cache.aendereBestand(99, 5);
+        assertEquals(7, cache.get(1).getBestand());
+
+        cache.entferne(1);
+        assertNull(cache.get(1));
+        assertFalse(cache.istVollstaendig());
+    }
+
+    @Test
+    void testBarcodeIndexFolgtAenderungen() {
+        // Happy Path: Barcode-Suche findet das Produkt, ein neuer Barcode ersetzt den alten
+        ProduktCache cache = new ProduktCache(10);
+        Produkt apfel = new Produkt(1, "Apfel", 0.5, 10);
+        apfel.setBarcode("04006381333931");
+        cache.speichere(apfel);
+
+        assertEquals(1, cache.getNachBarcode("04006381333931").getId());
+        assertEquals("04006381333931", cache.get(1).getBarcode());
+
+        apfel.setBarcode("00000096385074");
+        cache.speichere(apfel);
+        assertNull(cache.getNachBarcode("04006381333931"));
+        assertEquals(1, cache.getNachBarcode("00000096385074").getId());
+
+        cache.entferne(1);
+        assertNull(cache.getNachBarcode("00000096385074"));
+    }
+
+    @Test
+    void testUngueltigeGroesse() {
+        // Failure Case: Ein Cache ohne Kapazität wird abgelehnt
+        assertThrows(IllegalArgumentException.class, () -> new ProduktCache(0));
+    }
+}
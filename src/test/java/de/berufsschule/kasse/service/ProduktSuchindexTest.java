@@ -0,0 +1,88 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.model.Produkt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den ProduktSuchindex.
+ *
+ * Diese Testklasse überprüft Rangfolge, Teilwortsuche und die
+ * schrittweise Pflege des Index.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class ProduktSuchindexTest {
+
+    private ProduktSuchindex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProduktSuchindex();
+        index.setzeAlle(List.of(
+            Produkt.ausCent(1, "Apfelsaft", 199, 10),
+            Produkt.ausCent(2, "Bio Vollmilch 3,5%", 129, 10),
+            Produkt.ausCent(3, "Milchreis", 89, 10),
+            Produkt.ausCent(12, "Käse Gouda", 299, 10),
+            Produkt.ausCent(21, "Äpfel Elstar", 249, 10)));
+    }
+
+    private static List<Integer> ids(List<Produkt> produkte) {
+        return produkte.stream().map(Produkt::getId).toList();
+    }
+
+    @Test
+    void testRangfolgeIdWortanfangTeilwort() {
+        // Happy Path: Wortanfänge vor Teilwörtern, Groß- und Kleinschreibung egal
+        assertEquals(List.of(3, 2), ids(index.suche("MILCH", 10)));
+        assertEquals(List.of(12), ids(index.suche("gouda", 10)));
+        assertEquals(List.of(21), ids(index.suche("äpf", 10)));
+    }
+
+    @Test
+    void testSucheNachId() {
+        // Happy Path: Eine Zahl findet zuerst das Produkt mit dieser ID
+        assertEquals(List.of(12), ids(index.suche(" 12 ", 10)));
+        assertEquals(List.of(), ids(index.suche("99", 10)));
+    }
+
+    @Test
+    void testLeereEingabeUndTrefferbegrenzung() {
+        // Edge Case: Leere Eingabe liefert den Katalog in Ladereihenfolge, höchstens maxTreffer
+        assertEquals(List.of(1, 2, 3), ids(index.suche("", 3)));
+        assertEquals(1, index.suche("milch", 1).size());
+        assertEquals(List.of(), ids(index.suche("xyz", 10)));
+    }
+
+    @Test
+    void testLangeEingabeUeberSchluessellaengeHinaus() {
+        // Edge Case: Eingaben länger als der gespeicherte Schlüssel werden vollständig geprüft
+        index.aktualisiere(Produkt.ausCent(30, "Schokoladenpudding Vanille", 79, 5));
+        index.aktualisiere(Produkt.ausCent(31, "Schokoladenpudding Schoko", 79, 5));
+
+        assertEquals(List.of(31), ids(index.suche("schokoladenpudding s", 10)));
+    }
+
+    @Test
+    void testAenderungenWerdenEingearbeitet() {
+        // Happy Path: Neue, umbenannte und entfernte Produkte ohne Neuaufbau
+        index.aktualisiere(Produkt.ausCent(40, "Hafermilch", 199, 3));
+        assertEquals(List.of(3, 2, 40), ids(index.suche("milch", 10)));
+
+        index.aktualisiere(Produkt.ausCent(3, "Grießbrei", 89, 10));
+        assertEquals(List.of(2, 40), ids(index.suche("milch", 10)));
+        assertEquals(List.of(3), ids(index.suche("grieß", 10)));
+
+        index.aktualisiere(Produkt.ausCent(40, "Hafermilch", 199, 0));
+        assertEquals(0, index.suche("hafer", 10).get(0).getBestand());
+
+        index.entferne(2);
+        assertEquals(List.of(40), ids(index.suche("milch", 10)));
+        assertEquals(5, index.getAnzahl());
+    }
+}
@@ -0,0 +1,159 @@
+package de.berufsschule.kasse.service;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import de.berufsschule.kasse.database.ReservierungsSpeicher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für das Reservierungsbuch.
+ *
+ * Diese Testklasse überprüft Reservierung, Freigabe, Ablauf und
+ * Wiederherstellung sowie konkurrierende Kassen.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class ReservierungsbuchTest {
+
+    private final AtomicLong uhr = new AtomicLong(1_000_000);
+    private final ReservierungsSpeicher speicher = new ReservierungsSpeicher(DatabaseManager.getInstance());
+
+    private Reservierungsbuch erstelleBuch() {
+        return new Reservierungsbuch(Duration.ofMinutes(15), uhr::get);
+    }
+
+    private Reservierungsbuch erstelleBuch(ReservierungsSpeicher ablage) {
+        return new Reservierungsbuch(Duration.ofMinutes(15), uhr::get, ablage, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        speicher.leeren();
+    }
+
+    @Test
+    void testVerfuegbarIstBestandAbzueglichAndererKassen() {
+        // Happy Path: Eigene Reservierungen zählen nicht gegen die eigene Kasse
+        Reservierungsbuch buch = erstelleBuch();
+
+        assertTrue(buch.reserviere("A", 1, 3, 5));
+        assertTrue(buch.reserviere("A", 1, 5, 5));
+
+        assertEquals(5, buch.getVerfuegbar("A", 1, 5));
+        assertEquals(0, buch.getVerfuegbar("B", 1, 5));
+        assertFalse(buch.reserviere("B", 1, 1, 5));
+        assertTrue(buch.reserviere("B", 2, 1, 5));
+    }
+
+    @Test
+    void testFreigabeUndAblauf() {
+        // Edge Case: Freigabe wirkt sofort, ohne Erfassung verfällt die Reservierung nach der Haltedauer
+        Reservierungsbuch buch = erstelleBuch();
+        buch.reserviere("A", 1, 4, 4);
+        buch.reserviere("B", 2, 4, 4);
+
+        buch.gibFrei("A");
+        assertEquals(4, buch.getVerfuegbar("C", 1, 4));
+
+        uhr.addAndGet(Duration.ofMinutes(15).toMillis() + 1);
+        assertEquals(4, buch.getVerfuegbar("C", 2, 4));
+        assertTrue(buch.reserviere("C", 2, 4, 4));
+    }
+
+    @Test
+    void testKonkurrierendeKassenUeberbuchenNicht() throws InterruptedException {
+        // Edge Case: Acht Kassen erfassen gleichzeitig, bis alles reserviert ist – kein Stück doppelt
+        Reservierungsbuch buch = erstelleBuch();
+        int kassen = 8;
+        int produkte = 100;
+        int bestand = 50;
+        int[][] reserviert = new int[kassen][produkte];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int k = 0; k < kassen; k++) {
+            int kasse = k;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                boolean erfolgreich = true;
+                while (erfolgreich) {
+                    erfolgreich = false;
+                    for (int produktId = 0; produktId < produkte; produktId++) {
+                        int menge = reserviert[kasse][produktId] + 1;
+                        if (buch.reserviere("kasse-" + kasse, produktId, menge, bestand)) {
+                            reserviert[kasse][produktId] = menge;
+                            erfolgreich = true;
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int produktId = 0; produktId < produkte; produktId++) {
+            int summe = 0;
+            for (int kasse = 0; kasse < kassen; kasse++) {
+                summe += reserviert[kasse][produktId];
+            }
+            assertEquals(bestand, summe, "Produkt " + produktId);
+            assertEquals(0, buch.getVerfuegbar("andere", produktId, bestand));
+        }
+    }
+
+    @Test
+    void testWiederherstellungNachNeustart() {
+        // Happy Path: Reservierungen angemeldeter Kassen überstehen einen Neustart, freigegebene und abgelaufene nicht
+        Reservierungsbuch vorher = erstelleBuch(speicher);
+        vorher.meldeKasseAn("A");
+        vorher.meldeKasseAn("B");
+        vorher.meldeKasseAn("C");
+        vorher.reserviere("A", 1, 2, 10);
+        vorher.reserviere("B", 1, 3, 10);
+        vorher.reserviere("C", 2, 1, 10);
+        vorher.gibFrei("B");
+        uhr.addAndGet(Duration.ofMinutes(10).toMillis());
+        vorher.reserviere("C", 3, 1, 10);
+
+        uhr.addAndGet(Duration.ofMinutes(6).toMillis());
+        Reservierungsbuch nachher = erstelleBuch(speicher);
+        nachher.stelleWiederHer();
+
+        assertEquals(10, nachher.getVerfuegbar("D", 1, 10));
+        assertEquals(9, nachher.getVerfuegbar("D", 2, 10));
+        assertEquals(9, nachher.getVerfuegbar("D", 3, 10));
+        assertEquals(Map.of(2, 1, 3, 1), nachher.meldeKasseAn("C"));
+        assertEquals(Map.of(), nachher.meldeKasseAn("A"));
+    }
+
+    @Test
+    void testZufaelligeKennungenWerdenNichtGespeichert() {
+        // Edge Case: Eine Sitzung ohne feste Kennung meldet sich nach einem Neustart nie wieder an
+        Reservierungsbuch vorher = erstelleBuch(speicher);
+        vorher.reserviere("kasse-zufall", 1, 4, 10);
+
+        Reservierungsbuch nachher = erstelleBuch(speicher);
+        nachher.stelleWiederHer();
+
+        assertEquals(10, nachher.getVerfuegbar("D", 1, 10));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,9 +41,9 @@ class StatistikServiceTest {
     @Test
     void testGetTagesumsatz() throws StatistikService.StatistikServiceException {
         // Happy Path: Tagesumsatz abrufen (sollte >= 0 sein)
-        double tagesumsatz = statistikService.getTagesumsatz();
+        long tagesumsatz = statistikService.getTagesumsatzCent();
         
-        assertTrue(tagesumsatz >= 0.0, 
+        assertTrue(tagesumsatz >= 0, 
                   "Tagesumsatz sollte nicht negativ sein");
     }
 
@@ -88,7 +89,7 @@ class StatistikServiceTest {
     void testTopProduktToString() {
         // Happy Path: TopProdukt toString Methode
         StatistikService.TopProdukt topProdukt = new StatistikService.TopProdukt(
-            1, "Test Produkt", 2.50, 15
+            1, "Test Produkt", 250, 15
         );
         
         String erwartet = "Test Produkt (15 verkauft)";
@@ -100,12 +101,13 @@ class StatistikServiceTest {
     void testTopProduktGetters() {
         // Happy Path: TopProdukt Getter-Methoden
         StatistikService.TopProdukt topProdukt = new StatistikService.TopProdukt(
-            42, "Test Produkt", 1.99, 25
+            42, "Test Produkt", 199, 25
         );
         
         assertEquals(42, topProdukt.getId(), "ID sollte korrekt sein");
         assertEquals("Test Produkt", topProdukt.getName(), "Name sollte korrekt sein");
-        assertEquals(1.99, topProdukt.getPreis(), 0.001, "Preis sollte korrekt sein");
+        assertEquals(199, topProdukt.getPreisCent(), "Preis sollte korrekt sein");
+        assertEquals(1.99, topProdukt.getPreis(), 0.001, "Preis in Euro sollte korrekt sein");
         assertEquals(25, topProdukt.getVerkaufteMenge(), "Verkaufte Menge sollte korrekt sein");
     }
 
@@ -145,4 +147,48 @@ class StatistikServiceTest {
         assertNotNull(topProdukte, "Top-Produkte sollten nicht null sein");
         assertNotNull(niedrigbestand, "Niedrigbestand-Produkte sollten nicht null sein");
     }
+
+    private long[] summiereVerkaeufeHeute() throws SQLException {
+        String sql = "SELECT COALESCE(SUM(gesamtpreis_cent), 0), COUNT(*) FROM verkaeufe WHERE tag = ?";
+        try (var conn = dbManager.getConnection();
+             var stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, DatabaseManager.tagesschluessel(LocalDate.now()));
+            try (var rs = stmt.executeQuery()) {
+                rs.next();
+                return new long[] {rs.getLong(1), rs.getInt(2)};
+            }
+        }
+    }
+
+    @Test
+    void testTagesaggregateWerdenBeimKassenabschlussGefuehrt() throws Exception {
+        // Happy Path: Nach einem Abschluss stimmen die Aggregate mit den Einzelverkäufen überein
+        KassenService kassenService = new KassenService();
+        var produkt = kassenService.getAlleProdukte().stream()
+                .filter(p -> p.getBestand() >= 2)
+                .findFirst()
+                .orElseThrow();
+        kassenService.fuegeProduktZumWarenkorbHinzu(produkt.getId(), 2);
+        kassenService.schliesseKassenvorgangAb();
+
+        long[] erwartet = summiereVerkaeufeHeute();
+        assertEquals(erwartet[0], statistikService.getTagesumsatzCent());
+        assertEquals((int) erwartet[1], statistikService.getAnzahlVerkaufeHeute());
+        assertTrue(statistikService.getTop5ProdukteMenge().stream()
+                           .anyMatch(top -> top.getVerkaufteMenge() >= 2));
+    }
+
+    @Test
+    void testTagesaggregateNeuAufbauen() throws Exception {
+        // Edge Case: Der Neuaufbau stellt verfälschte Aggregate aus den Verkäufen wieder her
+        try (var conn = dbManager.getConnection(); var stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE tagesumsatz SET umsatz_cent = -1, anzahl_verkaeufe = -1");
+        }
+
+        statistikService.baueTagesaggregateNeu();
+
+        long[] erwartet = summiereVerkaeufeHeute();
+        assertEquals(erwartet[0], statistikService.getTagesumsatzCent());
+        assertEquals((int) erwartet[1], statistikService.getAnzahlVerkaufeHeute());
+    }
 }
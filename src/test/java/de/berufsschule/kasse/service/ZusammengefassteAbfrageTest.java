@@ -0,0 +1,116 @@
+package de.berufsschule.kasse.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für die ZusammengefassteAbfrage.
+ *
+ * Diese Testklasse überprüft, dass schnelle Anforderungen zusammengefasst
+ * und Ergebnisse bzw. Fehler zugestellt werden.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class ZusammengefassteAbfrageTest {
+
+    private final ExecutorService hintergrund = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hintergrund.shutdown();
+        assertTrue(hintergrund.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private void warteAufLeerlauf() throws Exception {
+        hintergrund.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testAnforderungWirdAusgefuehrt() throws Exception {
+        // Happy Path: Eine Anforderung liefert das Ergebnis an den Ergebnis-Executor
+        List<Integer> ergebnisse = new CopyOnWriteArrayList<>();
+        var abfrage = new ZusammengefassteAbfrage<>(() -> 42, hintergrund, Runnable::run,
+                                                    ergebnisse::add, e -> fail(e));
+
+        abfrage.anfordern();
+        warteAufLeerlauf();
+
+        assertEquals(List.of(42), ergebnisse);
+        assertEquals(1, abfrage.getAusfuehrungen());
+    }
+
+    @Test
+    void testAnforderungenWaehrendDerAusfuehrungWerdenZusammengefasst() throws Exception {
+        // Edge Case: Zehn Anforderungen während einer laufenden Abfrage führen zu genau einer weiteren
+        CountDownLatch gestartet = new CountDownLatch(1);
+        CountDownLatch freigabe = new CountDownLatch(1);
+        AtomicInteger zaehler = new AtomicInteger();
+        List<Integer> ergebnisse = new CopyOnWriteArrayList<>();
+        var abfrage = new ZusammengefassteAbfrage<>(() -> {
+            gestartet.countDown();
+            assertTrue(freigabe.await(5, TimeUnit.SECONDS));
+            return zaehler.incrementAndGet();
+        }, hintergrund, Runnable::run, ergebnisse::add, e -> fail(e));
+
+        abfrage.anfordern();
+        assertTrue(gestartet.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            abfrage.anfordern();
+        }
+        freigabe.countDown();
+        warteAufLeerlauf();
+        warteAufLeerlauf();
+
+        assertEquals(11, abfrage.getAnforderungen());
+        assertEquals(2, abfrage.getAusfuehrungen());
+        assertEquals(List.of(1, 2), ergebnisse);
+    }
+
+    @Test
+    void testGeplanteAnforderungWirdNichtVerdoppelt() throws Exception {
+        // Edge Case: Anforderungen vor dem Start der Abfrage werden von dieser mit erledigt
+        CountDownLatch blockade = new CountDownLatch(1);
+        hintergrund.execute(() -> {
+            try {
+                blockade.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        var abfrage = new ZusammengefassteAbfrage<>(() -> "ok", hintergrund, Runnable::run, s -> { }, e -> fail(e));
+
+        abfrage.anfordern();
+        abfrage.anfordern();
+        abfrage.anfordern();
+        blockade.countDown();
+        warteAufLeerlauf();
+
+        assertEquals(1, abfrage.getAusfuehrungen());
+    }
+
+    @Test
+    void testFehlerWirdZugestellt() throws Exception {
+        // Failure Case: Eine fehlschlagende Abfrage meldet die Exception statt eines Ergebnisses
+        List<Exception> fehler = new CopyOnWriteArrayList<>();
+        var abfrage = new ZusammengefassteAbfrage<String>(() -> {
+            throw new IllegalStateException("Datenbank nicht erreichbar");
+        }, hintergrund, Runnable::run, s -> fail("Kein Ergebnis erwartet"), fehler::add);
+
+        abfrage.anfordern();
+        warteAufLeerlauf();
+
+        assertEquals(1, fehler.size());
+        assertEquals("Datenbank nicht erreichbar", fehler.get(0).getMessage());
+    }
+}
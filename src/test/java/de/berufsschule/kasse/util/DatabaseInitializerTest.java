@@ -78,7 +78,7 @@ class DatabaseInitializerTest {    private static DatabaseInitializer initialize
         // Failure Case: Prüfe dass alle Preise positiv sind
         try (var conn = dbManager.getConnection();
              var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("SELECT COUNT(*) as anzahl FROM produkte WHERE preis <= 0")) {
+             var rs = stmt.executeQuery("SELECT COUNT(*) as anzahl FROM produkte WHERE preis_cent <= 0")) {
             
             if (rs.next()) {
                 int anzahlUngueltig = rs.getInt("anzahl");
@@ -108,7 +108,7 @@ class DatabaseInitializerTest {    private static DatabaseInitializer initialize
         // Failure Case: Prüfe dass alle Verkaufspreise positiv sind
         try (var conn = dbManager.getConnection();
              var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("SELECT COUNT(*) as anzahl FROM verkaeufe WHERE einzelpreis <= 0 OR gesamtpreis <= 0")) {
+             var rs = stmt.executeQuery("SELECT COUNT(*) as anzahl FROM verkaeufe WHERE einzelpreis_cent <= 0 OR gesamtpreis_cent <= 0")) {
             
             if (rs.next()) {
                 int anzahlUngueltig = rs.getInt("anzahl");
@@ -140,7 +140,7 @@ class DatabaseInitializerTest {    private static DatabaseInitializer initialize
              var stmt = conn.createStatement();
              var rs = stmt.executeQuery(
                  "SELECT COUNT(*) as anzahl FROM verkaeufe " +
-                 "WHERE ABS(gesamtpreis - (menge * einzelpreis)) > 0.01")) {
+                 "WHERE gesamtpreis_cent != menge * einzelpreis_cent")) {
             
             if (rs.next()) {
                 int anzahlFehlerhaft = rs.getInt("anzahl");
@@ -166,4 +166,27 @@ class DatabaseInitializerTest {    private static DatabaseInitializer initialize
             }
         }
     }
+
+    @Test
+    void testUngueltigeArgumenteWerdenAbgelehnt() {
+        // Failure Case: Unbekannte Befehle und fehlende Argumente dürfen nicht neu befüllen
+        assertNull(DatabaseInitializer.pruefeArgumente(new String[0]));
+        assertNull(DatabaseInitializer.pruefeArgumente(new String[] {"import", "katalog.csv"}));
+        assertNotNull(DatabaseInitializer.pruefeArgumente(new String[] {"import"}));
+        assertNotNull(DatabaseInitializer.pruefeArgumente(new String[] {"exprot", "katalog.csv"}));
+        assertNotNull(DatabaseInitializer.pruefeArgumente(new String[] {"journal", "2026-01-01", "2026-01-31"}));
+        assertNotNull(DatabaseInitializer.pruefeArgumente(new String[] {"aggregate", "neu"}));
+    }
+
+    @Test
+    void testJournalzeitraumWirdGeprueft() {
+        // Failure Case: Ungültige Daten und vertauschte Grenzen ergeben einen Aufruffehler
+        assertNull(DatabaseInitializer.pruefeArgumente(
+            new String[] {"journal", "2026-01-01", "2026-01-31", "januar.csv"}));
+        String fehler = DatabaseInitializer.pruefeArgumente(
+            new String[] {"journal", "2026-02-30", "2026-03-31", "maerz.csv"});
+        assertTrue(fehler.contains("2026-02-30"), fehler);
+        assertNotNull(DatabaseInitializer.pruefeArgumente(
+            new String[] {"journal", "2026-03-31", "2026-03-01", "maerz.csv"}));
+    }
 }
@@ -0,0 +1,100 @@
+package de.berufsschule.kasse.util;
+
+import de.berufsschule.kasse.database.DatabaseManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für den konfigurierbaren Datenbestand und die Lastsimulation.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class LastsimulationTest {
+    private static DatabaseManager dbManager;
+
+    @BeforeAll
+    static void setUpClass() {
+        dbManager = DatabaseManager.getInstance();
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Reason: Die Lastsimulation bucht zusätzliche Verkäufe, deshalb vor jedem Test neu erzeugen
+        new DatabaseInitializer().initialisiere(50, 1_000, 14);
+    }
+
+    @AfterAll
+    static void tearDownClass() throws SQLException {
+        // Reason: Andere Testklassen erwarten den Standard-Datenbestand
+        new DatabaseInitializer().initialisiereMitTestdaten();
+    }
+
+    private static long zaehle(String sql) throws SQLException {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
+    @Test
+    void testDatenbestandHatKonfigurierteGroesse() throws SQLException {
+        // Happy Path: Produkte und Verkäufe entsprechen genau der Konfiguration
+        assertEquals(50, zaehle("SELECT COUNT(*) FROM produkte"));
+        assertEquals(1_000, zaehle("SELECT COUNT(*) FROM verkaeufe"));
+        assertEquals(1_000, zaehle("SELECT COALESCE(SUM(anzahl_verkaeufe), 0) FROM tagesumsatz"));
+    }
+
+    @Test
+    void testVerkaeufeLiegenImZeitraumUndInDenOeffnungszeiten() throws SQLException {
+        // Edge Case: Kein Verkauf vor dem ersten Tag, heute oder außerhalb der Öffnungszeiten
+        int ersterTag = DatabaseManager.tagesschluessel(LocalDate.now().minusDays(14));
+        int heute = DatabaseManager.tagesschluessel(LocalDate.now());
+        assertEquals(0, zaehle("SELECT COUNT(*) FROM verkaeufe WHERE tag < " + ersterTag + " OR tag >= " + heute));
+        assertEquals(0, zaehle("SELECT COUNT(*) FROM verkaeufe WHERE CAST(substr(timestamp, 12, 2) AS INTEGER) < "
+                               + DatabaseInitializer.OEFFNUNG_STUNDE
+                               + " OR CAST(substr(timestamp, 12, 2) AS INTEGER) > 20"));
+    }
+
+    @Test
+    void testLastsimulationMisstJedenAbschluss() throws Exception {
+        // Happy Path: Zwei Kassen schließen Vorgänge ab, jeder Abschluss wird gemessen
+        var konfiguration = new Lastsimulation.Konfiguration(50, 0, 1, 2, Duration.ofMillis(500));
+
+        Lastsimulation.Ergebnis ergebnis = new Lastsimulation(konfiguration).ausfuehren();
+
+        assertEquals(0, ergebnis.getFehler(), () -> "Unerwarteter Fehler: " + ergebnis.getErsterFehler());
+        assertTrue(ergebnis.getAbschluesse() > 0);
+        assertEquals(ergebnis.getAbschluesse(), ergebnis.getLatenz().getAnzahl());
+        assertTrue(ergebnis.getDurchsatzProSekunde() > 0);
+    }
+
+    @Test
+    void testKonfigurationAusArgumenten() {
+        // Happy Path: Nicht angegebene Werte behalten ihren Standard
+        var konfiguration = Lastsimulation.Konfiguration.aus(new String[] {"last", "kassen=8", "dauer=5"}, 1);
+
+        assertEquals(8, konfiguration.getKassen());
+        assertEquals(Duration.ofSeconds(5), konfiguration.getDauer());
+        assertEquals(100, konfiguration.getProdukte());
+    }
+
+    @Test
+    void testUnbekannterSchluesselWirdAbgelehnt() {
+        // Failure Case: Tippfehler in den Argumenten fallen sofort auf
+        assertThrows(IllegalArgumentException.class,
+                     () -> Lastsimulation.Konfiguration.aus(new String[] {"kasen=8"}, 0));
+    }
+}
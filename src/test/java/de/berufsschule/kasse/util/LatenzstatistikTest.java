@@ -0,0 +1,60 @@
+package de.berufsschule.kasse.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für die Latenzstatistik.
+ *
+ * @author FIAE24M
+ * @version 1.0
+ */
+class LatenzstatistikTest {
+
+    @Test
+    void testPerzentileUndDurchschnitt() {
+        // Happy Path: 1..100 ms ergeben p50 ≈ 50 ms und p99 ≈ 99 ms
+        Latenzstatistik statistik = new Latenzstatistik();
+        for (int ms = 1; ms <= 100; ms++) {
+            statistik.erfasse(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(100, statistik.getAnzahl());
+        assertEquals(50.5, statistik.getDurchschnittMillis(), 0.001);
+        assertEquals(100.0, statistik.getMaximumMillis(), 0.001);
+        assertEquals(50.0, statistik.getPerzentilMillis(50), 50.0 * 0.04);
+        assertEquals(99.0, statistik.getPerzentilMillis(99), 99.0 * 0.04);
+    }
+
+    @Test
+    void testLeereStatistik() {
+        // Edge Case: Ohne Messungen sind alle Kennzahlen 0
+        Latenzstatistik statistik = new Latenzstatistik();
+
+        assertEquals(0, statistik.getAnzahl());
+        assertEquals(0.0, statistik.getDurchschnittMillis());
+        assertEquals(0.0, statistik.getPerzentilMillis(99));
+    }
+
+    @Test
+    void testZuruecksetzen() {
+        // Edge Case: Nach dem Zurücksetzen sind alle Messungen verworfen
+        Latenzstatistik statistik = new Latenzstatistik();
+        statistik.erfasse(1_000_000);
+        statistik.zuruecksetzen();
+
+        assertEquals(0, statistik.getAnzahl());
+        assertEquals(0.0, statistik.getMaximumMillis());
+    }
+
+    @Test
+    void testUngueltigesPerzentil() {
+        // Failure Case: Perzentile außerhalb von 0..100 werden abgelehnt
+        Latenzstatistik statistik = new Latenzstatistik();
+
+        assertThrows(IllegalArgumentException.class, () -> statistik.getPerzentilMillis(101));
+    }
+}